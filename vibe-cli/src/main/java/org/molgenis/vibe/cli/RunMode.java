@@ -1,21 +1,41 @@
 package org.molgenis.vibe.cli;
 
 import org.apache.jena.ext.com.google.common.base.Stopwatch;
+import org.molgenis.vibe.cli.batch.BatchRunner;
+import org.molgenis.vibe.cli.batch.Patient;
+import org.molgenis.vibe.cli.batch.PatientsFileReader;
+import org.molgenis.vibe.cli.io.output.ValuesSeparator;
+import org.molgenis.vibe.cli.io.output.format.gene_phenotypes.PhenotypesPerGeneSeparatedValuesOutputFormatWriter;
 import org.molgenis.vibe.cli.io.options_digestion.CommandLineOptionsParser;
 import org.molgenis.vibe.cli.properties.VibeProperties;
+import org.molgenis.vibe.cli.server.VibeServer;
+import org.molgenis.vibe.cli.session.VibeSession;
 import org.molgenis.vibe.core.GeneDiseaseCollectionRetrievalRunner;
+import org.molgenis.vibe.core.GenePhenotypeCollectionRetrievalRunner;
 import org.molgenis.vibe.core.PhenotypesRetrievalRunner;
+import org.molgenis.vibe.core.database_processing.GeneDiseaseCollectionContent;
+import org.molgenis.vibe.core.database_processing.PhenotypeResultCache;
+import org.molgenis.vibe.core.database_processing.QueryControl;
+import org.molgenis.vibe.core.database_processing.GenesForPhenotypeRetrieverFactory;
+import org.molgenis.vibe.core.database_processing.compiled_index.CompiledIndex;
+import org.molgenis.vibe.core.database_processing.compiled_index.CompiledIndexBuilder;
 import org.molgenis.vibe.cli.io.options_digestion.VibeOptions;
 import org.molgenis.vibe.core.formats.Gene;
 import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.GenePhenotypeCollection;
 import org.molgenis.vibe.core.formats.Phenotype;
 import org.molgenis.vibe.core.formats.PhenotypeNetworkCollection;
+import org.molgenis.vibe.core.io.input.HdtIndex;
+import org.molgenis.vibe.core.io.input.ModelReader;
 import org.molgenis.vibe.core.query_output_digestion.prioritization.gene.GenePrioritizer;
 import org.molgenis.vibe.core.query_output_digestion.prioritization.gene.HighestSingleDisgenetScoreGenePrioritizer;
+import org.rdfhdt.hdt.listener.ProgressListener;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Describes what the application should do.
@@ -35,9 +55,7 @@ public enum RunMode {
         @Override
         protected void runMode(VibeOptions vibeOptions, Stopwatch stopwatch) throws IOException {
             PhenotypeNetworkCollection phenotypeNetworkCollection = retrieveAssociatedPhenotypes(vibeOptions, stopwatch);
-            GeneDiseaseCollection geneDiseaseCollection = retrieveDatasetOutput(vibeOptions, stopwatch, phenotypeNetworkCollection.getPhenotypes());
-            List<Gene> genePriority = orderGenes(vibeOptions, stopwatch, geneDiseaseCollection);
-            writePrioritizedGenesOutput(vibeOptions, stopwatch, geneDiseaseCollection, genePriority);
+            prioritizeGenes(vibeOptions, stopwatch, phenotypeNetworkCollection.getPhenotypes());
         }
 
         private PhenotypeNetworkCollection retrieveAssociatedPhenotypes(VibeOptions vibeOptions, Stopwatch stopwatch) {
@@ -54,27 +72,275 @@ public enum RunMode {
     }, GENES_FOR_PHENOTYPES("Retrieves genes for input phenotypes.") {
         @Override
         protected void runMode(VibeOptions vibeOptions, Stopwatch stopwatch) throws Exception {
-            GeneDiseaseCollection geneDiseaseCollection = retrieveDatasetOutput(vibeOptions, stopwatch, retrieveInputPhenotypes(vibeOptions));
-            List<Gene> genePriority = orderGenes(vibeOptions, stopwatch, geneDiseaseCollection);
-            writePrioritizedGenesOutput(vibeOptions, stopwatch, geneDiseaseCollection, genePriority);
+            prioritizeGenes(vibeOptions, stopwatch, retrieveInputPhenotypes(vibeOptions));
         }
 
         private Set<Phenotype> retrieveInputPhenotypes(VibeOptions vibeOptions) {
             return vibeOptions.getPhenotypes();
         }
+    }, BATCH("Retrieves genes for the phenotypes of multiple patients.") {
+        @Override
+        protected void runMode(VibeOptions vibeOptions, Stopwatch stopwatch) throws Exception {
+            vibeOptions.printVerbose("# Reading patients from " + vibeOptions.getBatchFile());
+            List<Patient> patients = new PatientsFileReader(vibeOptions.getBatchFile()).read();
+
+            vibeOptions.printVerbose("# Loading database & ontology.");
+            resetTimer(stopwatch);
+            try (VibeSession session = openSession(vibeOptions)) {
+                printElapsedTime(vibeOptions, stopwatch);
+
+                vibeOptions.printVerbose("# Processing " + patients.size() + " patients using " +
+                        vibeOptions.getThreads() + " threads, writing output to " + vibeOptions.getOutputDirectory());
+                resetTimer(stopwatch);
+                BatchRunner batchRunner = new BatchRunner(session, vibeOptions.getPhenotypesRetrieverFactory(),
+                        vibeOptions.getOntologyMaxDistance(), vibeOptions.getGenePrioritizedOutputFormatWriterFactory(),
+                        vibeOptions.getOutputDirectory(), vibeOptions.isOverwriteOutput(), vibeOptions.getThreads(),
+                        vibeOptions.getTopGenes());
+                Map<Patient, Exception> failures = batchRunner.run(patients,
+                        patient -> vibeOptions.printVerbose("Finished patient: " + patient.getId()));
+                printElapsedTime(vibeOptions, stopwatch);
+
+                long elapsedMillis = Math.max(1, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+                vibeOptions.printVerbose(String.format("Throughput: %.1f patients per minute",
+                        (patients.size() - failures.size()) * 60000.0 / elapsedMillis));
+                PhenotypeResultCache cache = session.getPhenotypeResultCache();
+                if(cache != null) {
+                    vibeOptions.printVerbose(String.format("Phenotype cache: %d hits, %d misses, %d evictions, " +
+                            "%d phenotypes cached (~%d KiB)", cache.getHits(), cache.getMisses(),
+                            cache.getEvictions(), cache.size(), cache.getWeight() / 1024));
+                }
+
+                for(Map.Entry<Patient, Exception> failure : failures.entrySet()) {
+                    System.err.println("Failed patient " + failure.getKey().getId() + ": " +
+                            failure.getValue().getLocalizedMessage());
+                }
+            }
+        }
+    }, PHENOTYPES_FOR_GENES("Retrieves diseases & phenotypes for input genes.") {
+        @Override
+        protected void runMode(VibeOptions vibeOptions, Stopwatch stopwatch) throws IOException {
+            vibeOptions.printVerbose("# Retrieving data from main dataset.");
+
+            resetTimer(stopwatch);
+            GenePhenotypeCollectionRetrievalRunner runner = new GenePhenotypeCollectionRetrievalRunner(
+                    vibeOptions.getVibeDatabase(), vibeOptions.getGenes());
+            QueryControl queryControl = createQueryControl(vibeOptions);
+            runner.setQueryControl(queryControl);
+            GenePhenotypeCollection genePhenotypeCollection = runner.call();
+            printElapsedTime(vibeOptions, stopwatch);
+            warnIfPartial(queryControl);
+
+            // Genes are written in input order (genes not linked to any disease are not written).
+            List<Gene> genes = genePhenotypeCollection.getGenes(vibeOptions.getGenes());
+            vibeOptions.printVerbose(genes.size() + " of " + vibeOptions.getGenes().size() + " genes found.");
+
+            vibeOptions.printVerbose("# Writing genes to " + vibeOptions.getOutputWriter().target());
+            resetTimer(stopwatch);
+            new PhenotypesPerGeneSeparatedValuesOutputFormatWriter(vibeOptions.getOutputWriter(), genes,
+                    genePhenotypeCollection, ValuesSeparator.TAB, ValuesSeparator.VERTICAL_LINE,
+                    ValuesSeparator.COLON, ValuesSeparator.COMMA).run();
+            printElapsedTime(vibeOptions, stopwatch);
+        }
+    }, SERVER("Starts a local HTTP server for gene prioritization requests.") {
+        @Override
+        protected void runMode(VibeOptions vibeOptions, Stopwatch stopwatch) throws IOException {
+            vibeOptions.printVerbose("# Loading database & ontology.");
+
+            resetTimer(stopwatch);
+            VibeServer server = new VibeServer(openSession(vibeOptions), vibeOptions.getServerPort(),
+                    vibeOptions.getThreads());
+            printElapsedTime(vibeOptions, stopwatch);
+
+            // Server is stopped (and database/ontology closed) when the application is terminated.
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+            server.start();
+            System.out.println("Listening on http://" + server.getAddress().getHostString() + ":" +
+                    server.getAddress().getPort() + VibeServer.PRIORITIZE_PATH);
+        }
+    }, COMPILE_INDEX("Compiles the database into an index for faster gene retrieval.") {
+        @Override
+        protected void runMode(VibeOptions vibeOptions, Stopwatch stopwatch) throws IOException {
+            vibeOptions.printVerbose("# Loading database.");
+
+            resetTimer(stopwatch);
+            try (ModelReader modelReader = vibeOptions.getVibeDatabase().getModelReader()) {
+                printElapsedTime(vibeOptions, stopwatch);
+
+                vibeOptions.printVerbose("# Retrieving data from main dataset.");
+                resetTimer(stopwatch);
+                CompiledIndexBuilder builder = new CompiledIndexBuilder(modelReader);
+                builder.run();
+                printElapsedTime(vibeOptions, stopwatch);
+
+                vibeOptions.printVerbose("# Writing index to " + vibeOptions.getCompiledIndexOutput());
+                resetTimer(stopwatch);
+                builder.write(vibeOptions.getCompiledIndexOutput());
+                printElapsedTime(vibeOptions, stopwatch);
+            }
+        }
+    }, BUILD_HDT_INDEX("Builds (or verifies) the index of the HDT file.") {
+        @Override
+        protected void runMode(VibeOptions vibeOptions, Stopwatch stopwatch) throws IOException {
+            HdtIndex hdtIndex = vibeOptions.getHdtIndex();
+            ProgressListener listener = vibeOptions.isVerbose() ? new VerboseProgressListener() : null;
+
+            if(hdtIndex.exists() && !vibeOptions.isOverwriteOutput()) {
+                vibeOptions.printVerbose("# Verifying existing index " + hdtIndex.getIndexFile());
+                resetTimer(stopwatch);
+                try {
+                    hdtIndex.verify(listener);
+                    printElapsedTime(vibeOptions, stopwatch);
+                    System.out.println(hdtIndex.getIndexFile() + " is a valid index of " + hdtIndex.getHdtFile());
+                    return;
+                } catch (IOException e) {
+                    System.err.println("Existing index is invalid, rebuilding: " + e.getLocalizedMessage());
+                }
+            }
+
+            vibeOptions.printVerbose("# Building index " + hdtIndex.getIndexFile());
+            resetTimer(stopwatch);
+            hdtIndex.build(listener);
+            printElapsedTime(vibeOptions, stopwatch);
+
+            vibeOptions.printVerbose("# Verifying index.");
+            resetTimer(stopwatch);
+            hdtIndex.verify(listener);
+            printElapsedTime(vibeOptions, stopwatch);
+            System.out.println("Index of " + hdtIndex.getHdtFile() + " written to " + hdtIndex.getIndexFile());
+        }
     };
 
-    private static GeneDiseaseCollection retrieveDatasetOutput(VibeOptions vibeOptions, Stopwatch stopwatch, Set<Phenotype> phenotypes) throws IOException {
+    /**
+     * Prints the progress reported by the HDT library. As the HDT library reports progress very often, only a change of
+     * at least 10% is printed (the level restarts at 0 for each phase).
+     */
+    private static class VerboseProgressListener implements ProgressListener {
+        private int lastStep = -1;
+
+        @Override
+        public void notifyProgress(float level, String message) {
+            int step = (int) level / 10;
+            if(step != lastStep) {
+                System.out.println(String.format("[%3d%%] %s", step * 10, message));
+                lastStep = step;
+            }
+        }
+    }
+
+    /**
+     * Loads the database (or compiled index if given) & HPO ontology for reuse over multiple gene prioritizations. All
+     * prioritizations are restricted to the gene panel (if given) and use the query timeout (if given).
+     */
+    private static VibeSession openSession(VibeOptions vibeOptions) throws IOException {
+        VibeSession session;
+        if(vibeOptions.getCompiledIndex() != null) {
+            session = new VibeSession(new CompiledIndex(vibeOptions.getCompiledIndex()), vibeOptions.getHpoOntology());
+        } else {
+            session = new VibeSession(vibeOptions.getVibeDatabase(), vibeOptions.getHpoOntology());
+        }
+        if(vibeOptions.getGenePanel() != null) {
+            vibeOptions.printVerbose("# Restricting genes to gene panel of " + vibeOptions.getGenePanel().size() +
+                    " genes.");
+            session.setGenePanel(vibeOptions.getGenePanel());
+        }
+        if(vibeOptions.getQueryTimeout() != null) {
+            session.setQueryTimeout(vibeOptions.getQueryTimeout(), TimeUnit.SECONDS);
+        }
+        return session;
+    }
+
+    /**
+     * Retrieves, orders & writes the genes for the given phenotypes. If only the highest prioritized genes are written
+     * (and the output contains evidence), the evidence is only retrieved for these genes. The database is then kept
+     * loaded until the output is written.
+     */
+    private static void prioritizeGenes(VibeOptions vibeOptions, Stopwatch stopwatch, Set<Phenotype> phenotypes) throws IOException {
+        boolean lazyPubmedEvidence = vibeOptions.getTopGenes() != null && vibeOptions.getCompiledIndex() == null &&
+                vibeOptions.getGenePrioritizedOutputFormatWriterFactory().getRequiredContents()
+                        .contains(GeneDiseaseCollectionContent.SOURCES);
+        if(lazyPubmedEvidence) {
+            vibeOptions.getVibeDatabase().open();
+        }
+
+        try {
+            GeneDiseaseCollection geneDiseaseCollection = retrieveDatasetOutput(vibeOptions, stopwatch, phenotypes,
+                    lazyPubmedEvidence);
+            List<Gene> genePriority = orderGenes(vibeOptions, stopwatch, geneDiseaseCollection);
+            if(vibeOptions.getTopGenes() != null) {
+                genePriority = selectTopGenes(vibeOptions, stopwatch, geneDiseaseCollection, genePriority);
+            }
+            writePrioritizedGenesOutput(vibeOptions, stopwatch, geneDiseaseCollection, genePriority);
+        } finally {
+            if(lazyPubmedEvidence) {
+                vibeOptions.getVibeDatabase().close();
+            }
+        }
+    }
+
+    private static GeneDiseaseCollection retrieveDatasetOutput(VibeOptions vibeOptions, Stopwatch stopwatch,
+                                                               Set<Phenotype> phenotypes, boolean lazyPubmedEvidence)
+            throws IOException {
         vibeOptions.printVerbose("# Retrieving data from main dataset.");
 
         resetTimer(stopwatch);
-        GeneDiseaseCollection geneDiseaseCollection = new GeneDiseaseCollectionRetrievalRunner(
-                vibeOptions.getVibeDatabase(), phenotypes).call();
+        GeneDiseaseCollection geneDiseaseCollection;
+        QueryControl queryControl = createQueryControl(vibeOptions);
+        if(vibeOptions.getCompiledIndex() != null) {
+            try (CompiledIndex compiledIndex = new CompiledIndex(vibeOptions.getCompiledIndex())) {
+                GeneDiseaseCollectionRetrievalRunner runner = new GeneDiseaseCollectionRetrievalRunner(compiledIndex,
+                        phenotypes);
+                setGenePanel(vibeOptions, runner);
+                geneDiseaseCollection = runner.call();
+            }
+        } else {
+            // Only retrieves the content that is actually written.
+            GeneDiseaseCollectionRetrievalRunner runner = new GeneDiseaseCollectionRetrievalRunner(
+                    vibeOptions.getVibeDatabase(), phenotypes, lazyPubmedEvidence ?
+                    GenesForPhenotypeRetrieverFactory.SPARQL_LAZY_EVIDENCE : GenesForPhenotypeRetrieverFactory.SPARQL,
+                    vibeOptions.getGenePrioritizedOutputFormatWriterFactory().getRequiredContents());
+            runner.setQueryControl(queryControl);
+            setGenePanel(vibeOptions, runner);
+            geneDiseaseCollection = runner.call();
+        }
         printElapsedTime(vibeOptions, stopwatch);
+        warnIfPartial(queryControl);
 
         return geneDiseaseCollection;
     }
 
+    /**
+     * Restricts the retrieval to the gene panel (if given).
+     */
+    private static void setGenePanel(VibeOptions vibeOptions, GeneDiseaseCollectionRetrievalRunner runner) {
+        if(vibeOptions.getGenePanel() != null) {
+            vibeOptions.printVerbose("# Restricting genes to gene panel of " + vibeOptions.getGenePanel().size() +
+                    " genes.");
+            runner.setGenePanel(vibeOptions.getGenePanel());
+        }
+    }
+
+    /**
+     * Creates the {@link QueryControl} for the database queries, which applies the query timeout (if given) and prints
+     * the statistics of each query if verbose.
+     */
+    private static QueryControl createQueryControl(VibeOptions vibeOptions) {
+        QueryControl queryControl = vibeOptions.getQueryTimeout() == null ? new QueryControl() :
+                new QueryControl(vibeOptions.getQueryTimeout(), TimeUnit.SECONDS);
+        if(vibeOptions.isVerbose()) {
+            queryControl.addListener(statistics -> vibeOptions.printVerbose("Query " + statistics));
+        }
+        return queryControl;
+    }
+
+    /**
+     * Warns (on stderr) that the output is incomplete if a database query timed out.
+     */
+    private static void warnIfPartial(QueryControl queryControl) {
+        if(queryControl.isPartial()) {
+            System.err.println("Warning: a database query timed out, the output is based on incomplete results.");
+        }
+    }
+
     private static List<Gene> orderGenes(VibeOptions vibeOptions, Stopwatch stopwatch, GeneDiseaseCollection geneDiseaseCollection) {
         vibeOptions.printVerbose("# Ordering genes based on priority.");
 
@@ -86,6 +352,18 @@ public enum RunMode {
         return genePriority;
     }
 
+    private static List<Gene> selectTopGenes(VibeOptions vibeOptions, Stopwatch stopwatch,
+                                             GeneDiseaseCollection geneDiseaseCollection, List<Gene> genePriority) {
+        vibeOptions.printVerbose("# Selecting top " + vibeOptions.getTopGenes() + " genes.");
+
+        resetTimer(stopwatch);
+        List<Gene> topGenePriority = VibeSession.selectTopGenes(geneDiseaseCollection, genePriority,
+                vibeOptions.getTopGenes());
+        printElapsedTime(vibeOptions, stopwatch);
+
+        return topGenePriority;
+    }
+
     private static void writePrioritizedGenesOutput(VibeOptions vibeOptions, Stopwatch stopwatch,
                                                     GeneDiseaseCollection geneDiseaseCollection,
                                                     List<Gene> genePriority) throws IOException {
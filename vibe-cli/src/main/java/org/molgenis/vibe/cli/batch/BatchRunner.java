@@ -0,0 +1,168 @@
+package org.molgenis.vibe.cli.batch;
+
+import org.molgenis.vibe.cli.io.output.format.gene_prioritized.GenePrioritizedOutputFormatWriterFactory;
+import org.molgenis.vibe.cli.io.output.target.FileOutputWriter;
+import org.molgenis.vibe.cli.session.VibeSession;
+import org.molgenis.vibe.core.database_processing.GeneDiseaseCollectionContent;
+import org.molgenis.vibe.core.database_processing.QueryControl;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.ontology_processing.PhenotypesRetrieverFactory;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Prioritizes genes for multiple {@link Patient}{@code s} using a single {@link VibeSession} (so the database and
+ * ontology are only loaded once). Patients are processed in parallel and for each patient a separate output file is
+ * written to the output directory (named {@code <patient id>.<extension>}). A failure for a single patient does not
+ * stop the processing of the other patients. A patient of which a database query timed out (see
+ * {@link VibeSession#setQueryTimeout(long, java.util.concurrent.TimeUnit)}) fails with a {@link TimeoutException}
+ * instead of writing output based on incomplete results.
+ */
+public class BatchRunner {
+    private VibeSession session;
+    private PhenotypesRetrieverFactory phenotypesRetrieverFactory;
+    private Integer maxDistance;
+    private GenePrioritizedOutputFormatWriterFactory outputFormatWriterFactory;
+    private Path outputDirectory;
+    private boolean overwrite;
+    private int threads;
+
+    /**
+     * The number of highest prioritized genes to write per patient ({@code null} if all genes should be written).
+     */
+    private Integer topGenes;
+
+    /**
+     * @param session the {@link VibeSession} to use for all patients
+     * @param phenotypesRetrieverFactory the {@link PhenotypesRetrieverFactory} to use ({@code null} if no related
+     *                                   phenotypes should be retrieved)
+     * @param maxDistance the maximum distance to use (ignored if {@code phenotypesRetrieverFactory} is {@code null})
+     * @param outputFormatWriterFactory the output format to use
+     * @param outputDirectory the directory to write the output files to
+     * @param overwrite whether existing output files should be overwritten
+     * @param threads the number of patients to process in parallel
+     */
+    public BatchRunner(VibeSession session, PhenotypesRetrieverFactory phenotypesRetrieverFactory, Integer maxDistance,
+                       GenePrioritizedOutputFormatWriterFactory outputFormatWriterFactory, Path outputDirectory,
+                       boolean overwrite, int threads) {
+        this.session = requireNonNull(session);
+        this.phenotypesRetrieverFactory = phenotypesRetrieverFactory;
+        this.maxDistance = maxDistance;
+        this.outputFormatWriterFactory = requireNonNull(outputFormatWriterFactory);
+        this.outputDirectory = requireNonNull(outputDirectory);
+        this.overwrite = overwrite;
+        if(threads < 1) {
+            throw new IllegalArgumentException("threads must be >= 1: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * @param session the {@link VibeSession} to use for all patients
+     * @param phenotypesRetrieverFactory the {@link PhenotypesRetrieverFactory} to use ({@code null} if no related
+     *                                   phenotypes should be retrieved)
+     * @param maxDistance the maximum distance to use (ignored if {@code phenotypesRetrieverFactory} is {@code null})
+     * @param outputFormatWriterFactory the output format to use
+     * @param outputDirectory the directory to write the output files to
+     * @param overwrite whether existing output files should be overwritten
+     * @param threads the number of patients to process in parallel
+     * @param topGenes the number of highest prioritized genes to write per patient ({@code null} if all genes should be
+     *                 written), evidence is then only retrieved for these genes
+     */
+    public BatchRunner(VibeSession session, PhenotypesRetrieverFactory phenotypesRetrieverFactory, Integer maxDistance,
+                       GenePrioritizedOutputFormatWriterFactory outputFormatWriterFactory, Path outputDirectory,
+                       boolean overwrite, int threads, Integer topGenes) {
+        this(session, phenotypesRetrieverFactory, maxDistance, outputFormatWriterFactory, outputDirectory, overwrite,
+                threads);
+        if(topGenes != null && topGenes < 1) {
+            throw new IllegalArgumentException("topGenes must be >= 1: " + topGenes);
+        }
+        this.topGenes = topGenes;
+    }
+
+    /**
+     * @param patient the patient to generate the output file path for
+     * @return the path of the output file for the given patient
+     */
+    public Path getOutputFile(Patient patient) {
+        return outputDirectory.resolve(patient.getId() + "." + outputFormatWriterFactory.getFileExtension());
+    }
+
+    /**
+     * Processes all patients.
+     * @param patients the patients to process
+     * @param progressListener called with the patient id after each successfully processed patient (called from
+     *                         the worker threads)
+     * @return the patients that failed (in input order) with the error that occurred
+     * @throws InterruptedException if interrupted while waiting for the patients to be processed
+     */
+    public Map<Patient, Exception> run(List<Patient> patients, Consumer<Patient> progressListener) throws InterruptedException {
+        requireNonNull(progressListener);
+        Map<Patient, Exception> failures = new LinkedHashMap<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for(Patient patient : patients) {
+                futures.add(executor.submit(() -> {
+                    process(patient);
+                    progressListener.accept(patient);
+                    return null;
+                }));
+            }
+
+            for(int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    failures.put(patients.get(i), e.getCause() instanceof Exception ?
+                            (Exception) e.getCause() : e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return failures;
+    }
+
+    private void process(Patient patient) throws IOException, TimeoutException {
+        Path outputFile = getOutputFile(patient);
+        if(!overwrite && Files.exists(outputFile)) {
+            throw new FileAlreadyExistsException(outputFile.getFileName() + " already exists.");
+        }
+
+        Set<Phenotype> phenotypes = session.retrievePhenotypes(patient.getPhenotypes(), phenotypesRetrieverFactory,
+                maxDistance);
+        Set<GeneDiseaseCollectionContent> contents = outputFormatWriterFactory.getRequiredContents();
+        QueryControl queryControl = session.createQueryControl();
+        GeneDiseaseCollection geneDiseaseCollection = session.retrieveGeneDiseaseCollection(phenotypes, contents,
+                topGenes != null && contents.contains(GeneDiseaseCollectionContent.SOURCES), queryControl);
+        if(queryControl.isPartial()) {
+            throw new TimeoutException("Database query timed out before all results were retrieved.");
+        }
+        List<Gene> genePriority = session.orderGenes(geneDiseaseCollection);
+        if(topGenes != null) {
+            genePriority = VibeSession.selectTopGenes(geneDiseaseCollection, genePriority, topGenes);
+        }
+        outputFormatWriterFactory.create(new FileOutputWriter(outputFile), geneDiseaseCollection, genePriority).run();
+    }
+}
@@ -0,0 +1,68 @@
+package org.molgenis.vibe.cli.batch;
+
+import org.molgenis.vibe.core.formats.Phenotype;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A patient (as used in batch processing) described through an identifier and a set of {@link Phenotype}{@code s}. As
+ * the identifier is used for naming output files, it is restricted to letters, digits, {@code .}, {@code _} and
+ * {@code -} (and cannot start with a {@code .}).
+ */
+public class Patient {
+    private static final Pattern ID_PATTERN = Pattern.compile("^[a-zA-Z0-9_-][a-zA-Z0-9._-]*$");
+
+    private String id;
+    private Set<Phenotype> phenotypes;
+
+    public String getId() {
+        return id;
+    }
+
+    public Set<Phenotype> getPhenotypes() {
+        return Collections.unmodifiableSet(phenotypes);
+    }
+
+    /**
+     * @param id the patient identifier
+     * @param phenotypes the patient phenotypes
+     * @throws IllegalArgumentException if {@code id} contains invalid characters or {@code phenotypes} is empty
+     */
+    public Patient(String id, Set<Phenotype> phenotypes) {
+        this.id = requireNonNull(id);
+        this.phenotypes = requireNonNull(phenotypes);
+        if(!ID_PATTERN.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid patient id \"" + id + "\" (only letters, digits, '.', '_' and '-' are allowed).");
+        }
+        if(phenotypes.isEmpty()) {
+            throw new IllegalArgumentException("Patient " + id + " has no phenotypes.");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Patient patient = (Patient) o;
+        return id.equals(patient.id) &&
+                phenotypes.equals(patient.phenotypes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, phenotypes);
+    }
+
+    @Override
+    public String toString() {
+        return "Patient{" +
+                "id='" + id + '\'' +
+                ", phenotypes=" + phenotypes +
+                '}';
+    }
+}
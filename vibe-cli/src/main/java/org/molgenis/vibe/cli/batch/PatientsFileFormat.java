@@ -0,0 +1,96 @@
+package org.molgenis.vibe.cli.batch;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.molgenis.vibe.core.formats.Phenotype;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The supported file formats for describing {@link Patient}{@code s} in batch processing. Each line describes a single
+ * patient. Empty lines and lines starting with {@code #} are ignored.
+ */
+public enum PatientsFileFormat {
+    /**
+     * Tab-separated values where the first column contains the patient id and the remaining columns contain the HPO
+     * terms. A single column can also contain multiple comma-separated HPO terms. For example:
+     * <pre>
+     * patient1	HP:0002996	HP:0001377
+     * patient2	HP:0002996,HP:0001377
+     * </pre>
+     */
+    TSV {
+        @Override
+        Patient parseLine(String line) {
+            String[] columns = line.split("\t");
+            Set<Phenotype> phenotypes = new HashSet<>();
+            for(int i = 1; i < columns.length; i++) {
+                for(String phenotype : columns[i].split(",")) {
+                    if(!phenotype.trim().isEmpty()) {
+                        phenotypes.add(new Phenotype(phenotype.trim()));
+                    }
+                }
+            }
+            return new Patient(columns[0].trim(), phenotypes);
+        }
+    },
+    /**
+     * JSON lines where each line contains a JSON object with an {@code id} and a {@code phenotypes} array. For example:
+     * <pre>
+     * {"id": "patient1", "phenotypes": ["HP:0002996", "HP:0001377"]}
+     * </pre>
+     */
+    JSON_LINES {
+        @Override
+        Patient parseLine(String line) {
+            try {
+                JsonElement root = JsonParser.parseString(line);
+                if(!root.isJsonObject()) {
+                    throw new IllegalArgumentException("Line must be a JSON object.");
+                }
+                JsonObject jsonObject = root.getAsJsonObject();
+                if(!jsonObject.has(ID_KEY) || !jsonObject.has(PHENOTYPES_KEY) || !jsonObject.get(PHENOTYPES_KEY).isJsonArray()) {
+                    throw new IllegalArgumentException("Line requires an \"" + ID_KEY + "\" and a \"" + PHENOTYPES_KEY + "\" array.");
+                }
+
+                JsonArray phenotypesArray = jsonObject.getAsJsonArray(PHENOTYPES_KEY);
+                Set<Phenotype> phenotypes = new HashSet<>();
+                for(JsonElement phenotype : phenotypesArray) {
+                    phenotypes.add(new Phenotype(phenotype.getAsString()));
+                }
+                return new Patient(jsonObject.get(ID_KEY).getAsString(), phenotypes);
+            } catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+                throw new IllegalArgumentException("Invalid JSON: " + e.getMessage(), e);
+            }
+        }
+    };
+
+    private static final String ID_KEY = "id";
+    private static final String PHENOTYPES_KEY = "phenotypes";
+
+    /**
+     * @param line a single (non-empty, non-comment) line
+     * @return the {@link Patient} described by the line
+     * @throws IllegalArgumentException if the line could not be parsed (including invalid patient ids or phenotypes)
+     */
+    abstract Patient parseLine(String line);
+
+    /**
+     * Defines the format based on the file extension: {@code .jsonl}, {@code .ndjson} and {@code .json} are
+     * interpreted as {@link #JSON_LINES}, anything else as {@link #TSV}.
+     * @param file the file to define the format for
+     * @return the {@link PatientsFileFormat} belonging to the file
+     */
+    public static PatientsFileFormat retrieve(Path file) {
+        String fileName = file.getFileName().toString().toLowerCase();
+        if(fileName.endsWith(".jsonl") || fileName.endsWith(".ndjson") || fileName.endsWith(".json")) {
+            return JSON_LINES;
+        }
+        return TSV;
+    }
+}
@@ -0,0 +1,66 @@
+package org.molgenis.vibe.cli.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads {@link Patient}{@code s} from a file.
+ * @see PatientsFileFormat
+ */
+public class PatientsFileReader {
+    private Path file;
+    private PatientsFileFormat format;
+
+    public PatientsFileReader(Path file) {
+        this(file, PatientsFileFormat.retrieve(file));
+    }
+
+    public PatientsFileReader(Path file, PatientsFileFormat format) {
+        this.file = requireNonNull(file);
+        this.format = requireNonNull(format);
+    }
+
+    /**
+     * @return all {@link Patient}{@code s} in the order they are present in the file
+     * @throws IOException if the file could not be read, a line could not be parsed or a patient id is used more than
+     * once (the message includes the line number)
+     */
+    public List<Patient> read() throws IOException {
+        List<Patient> patients = new ArrayList<>();
+        Set<String> patientIds = new HashSet<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if(line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                Patient patient;
+                try {
+                    patient = format.parseLine(line);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(file.getFileName() + " line " + lineNumber + ": " + e.getMessage(), e);
+                }
+                if(!patientIds.add(patient.getId())) {
+                    throw new IOException(file.getFileName() + " line " + lineNumber + ": patient id " +
+                            patient.getId() + " is used more than once.");
+                }
+                patients.add(patient);
+            }
+        }
+
+        return patients;
+    }
+}
@@ -0,0 +1,98 @@
+package org.molgenis.vibe.cli.io.input;
+
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GenePanel;
+import org.molgenis.vibe.core.formats.GeneSymbol;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads a {@link GenePanel} from a file. Each line contains 1 or more genes (separated by tabs, commas and/or spaces),
+ * described using either an NCBI gene id or an HGNC symbol:
+ * <ul>
+ *     <li>{@code ncbigene:2} or {@code 2}: an NCBI gene id (with or without prefix)</li>
+ *     <li>{@code hgnc:A2M} or {@code A2M}: an HGNC symbol (with or without prefix)</li>
+ * </ul>
+ * Empty lines and lines starting with {@code #} are ignored.
+ */
+public class GenePanelFileReader {
+    private static final Pattern SEPARATOR = Pattern.compile("[\\t, ]+");
+
+    private static final Pattern NUMBER = Pattern.compile("^[0-9]+$");
+
+    private Path file;
+
+    public GenePanelFileReader(Path file) {
+        this.file = requireNonNull(file);
+    }
+
+    /**
+     * @return the {@link GenePanel} containing all genes in the file
+     * @throws IOException if the file could not be read, a gene could not be parsed or the file contains no genes (the
+     * message includes the line number if a gene could not be parsed)
+     */
+    public GenePanel read() throws IOException {
+        Set<Gene> genes = new LinkedHashSet<>();
+        Set<GeneSymbol> symbols = new LinkedHashSet<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if(line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                for(String item : SEPARATOR.split(line.trim())) {
+                    try {
+                        parseItem(item, genes, symbols);
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException(file.getFileName() + " line " + lineNumber + ": " + e.getMessage(), e);
+                    }
+                }
+            }
+        }
+
+        if(genes.isEmpty() && symbols.isEmpty()) {
+            throw new IOException(file.getFileName() + " does not contain any genes.");
+        }
+        return new GenePanel(genes, symbols);
+    }
+
+    /**
+     * @param item a single gene from the file
+     * @param genes the genes described using an NCBI gene id (to which {@code item} is added if it is one)
+     * @param symbols the genes described using an HGNC symbol (to which {@code item} is added if it is one)
+     * @throws IllegalArgumentException if {@code item} is not a valid NCBI gene id or HGNC symbol
+     */
+    private static void parseItem(String item, Set<Gene> genes, Set<GeneSymbol> symbols) {
+        int prefixEnd = item.indexOf(':');
+        if(prefixEnd == -1) {
+            if(NUMBER.matcher(item).matches()) {
+                genes.add(new Gene(Gene.ID_PREFIX + ":" + item));
+            } else {
+                symbols.add(new GeneSymbol(GeneSymbol.ID_PREFIX + ":" + item));
+            }
+            return;
+        }
+
+        String prefix = item.substring(0, prefixEnd);
+        if(prefix.equalsIgnoreCase(Gene.ID_PREFIX)) {
+            genes.add(new Gene(Gene.ID_PREFIX + item.substring(prefixEnd)));
+        } else if(prefix.equalsIgnoreCase(GeneSymbol.ID_PREFIX)) {
+            symbols.add(new GeneSymbol(GeneSymbol.ID_PREFIX + item.substring(prefixEnd)));
+        } else {
+            throw new IllegalArgumentException("\"" + item + "\" is not an NCBI gene id or HGNC symbol.");
+        }
+    }
+}
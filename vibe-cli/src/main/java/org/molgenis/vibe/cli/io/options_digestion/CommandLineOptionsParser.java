@@ -5,6 +5,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.molgenis.vibe.cli.RunMode;
 import org.molgenis.vibe.cli.properties.VibeProperties;
 import org.molgenis.vibe.core.exceptions.InvalidStringFormatException;
+import org.molgenis.vibe.core.io.input.ModelReaderFactory;
 import org.molgenis.vibe.cli.io.output.format.gene_prioritized.GenePrioritizedOutputFormatWriterFactory;
 
 import java.io.IOException;
@@ -92,6 +93,22 @@ public abstract class CommandLineOptionsParser {
                 .argName("HPO ID")
                 .build());
 
+        options.addOption(Option.builder("a")
+                .longOpt("gene")
+                .desc("A gene described using an NCBI gene id. Must include the 'ncbigene:' prefix." + System.lineSeparator() +
+                        "(retrieves the diseases & phenotypes for the given genes instead of the genes for phenotypes)")
+                .hasArg()
+                .argName("NCBI ID")
+                .build());
+
+        options.addOption(Option.builder("r")
+                .longOpt("gene-panel")
+                .desc("A file containing the genes to restrict the output to, described using NCBI gene ids and/or HGNC symbols (one or more per line, with or without 'ncbigene:'/'hgnc:' prefix)." + System.lineSeparator() +
+                        "(genes outside the panel are already skipped when querying the database)")
+                .hasArg()
+                .argName("FILE")
+                .build());
+
         options.addOption(Option.builder("w")
                 .longOpt("ontology")
                 .desc("The Human Phenotype Ontology file (.owl). Can be given without -n or -m, but has no use then.")
@@ -122,9 +139,43 @@ public abstract class CommandLineOptionsParser {
                 .argName("FILE")
                 .build());
 
+        options.addOption(Option.builder("k")
+                .longOpt("hdt-mapped")
+                .desc("Memory-maps the HDT file instead of loading it into memory.")
+                .build());
+
+        options.addOption(Option.builder("e")
+                .longOpt("hdt-index-dir")
+                .desc("The directory containing the index of the HDT file (instead of next to the HDT file)." + System.lineSeparator() +
+                        "(the index must already exist when using -t, see -y)")
+                .hasArg()
+                .argName("DIR")
+                .build());
+
+        options.addOption(Option.builder("y")
+                .longOpt("build-hdt-index")
+                .desc("Builds the index of the HDT file given with -t (stored in the directory given with -e if set). If the index already exists, it is verified instead (and only rebuilt if invalid or when -f is set)." + System.lineSeparator() +
+                        "(prevents the index from being built when the HDT file is used for the first time)")
+                .build());
+
+        options.addOption(Option.builder("i")
+                .longOpt("index")
+                .desc("A compiled index of the vibe database (see -x). Can be used instead of -t for faster gene retrieval.")
+                .hasArg()
+                .argName("FILE")
+                .build());
+
+        options.addOption(Option.builder("x")
+                .longOpt("compile-index")
+                .desc("Compiles the database given with -t into an index file (to be used with -i)." + System.lineSeparator() +
+                        "(only needs to be done once per database)")
+                .hasArg()
+                .argName("FILE")
+                .build());
+
         options.addOption(Option.builder("o")
                 .longOpt("output")
-                .desc("The file to write output to.")
+                .desc("The file to write output to (or the directory when using -b).")
                 .hasArg()
                 .argName("FILE")
                 .build());
@@ -134,6 +185,45 @@ public abstract class CommandLineOptionsParser {
                 .desc("Simple output format (file only contains separated gene symbols)")
                 .build());
 
+        options.addOption(Option.builder("g")
+                .longOpt("top")
+                .desc("Only writes the given number of highest prioritized genes." + System.lineSeparator() +
+                        "(evidence is then only retrieved for these genes)")
+                .hasArg()
+                .argName("NUMBER")
+                .build());
+
+        options.addOption(Option.builder("b")
+                .longOpt("batch")
+                .desc("A file containing multiple patients to be processed (instead of using -p). Each line contains a patient id followed by its HPO ids (tab-separated) or is a JSON object with an \"id\" and \"phenotypes\" array (if the file ends with .jsonl)." + System.lineSeparator() +
+                        "(requires -o to be a directory, in which a file is written per patient)")
+                .hasArg()
+                .argName("FILE")
+                .build());
+
+        options.addOption(Option.builder("s")
+                .longOpt("server")
+                .desc("Starts a local HTTP server on the given port instead of processing a single set of phenotypes." + System.lineSeparator() +
+                        "(database & ontology are only loaded once, phenotypes are supplied per request)")
+                .hasArg()
+                .argName("PORT")
+                .build());
+
+        options.addOption(Option.builder("c")
+                .longOpt("threads")
+                .desc("The number of threads to use for concurrent processing (default: number of available processors).")
+                .hasArg()
+                .argName("NUMBER")
+                .build());
+
+        options.addOption(Option.builder("q")
+                .longOpt("query-timeout")
+                .desc("The maximum number of seconds each database query may run (default: no timeout)." + System.lineSeparator() +
+                        "(a query that times out gives partial results, which are reported)")
+                .hasArg()
+                .argName("SECONDS")
+                .build());
+
         options.addOption(Option.builder("u")
                 .longOpt("uri")
                 .desc("Returns uri's instead of id's for certain output fields" + System.lineSeparator() +
@@ -145,10 +235,16 @@ public abstract class CommandLineOptionsParser {
      * Prints the help message to stdout.
      */
     public static void printHelpMessage() {
-        String cmdSyntax = "java -jar vibe-with-dependencies.jar [-h] [-v] [-d] [-f] -t <FILE> -w <FILE> [-n <NAME> -m <NUMBER>] [-o <FILE>] [-l] [-u] -p <HPO ID> [-p <HPO ID>]...";
+        String cmdSyntax = "java -jar vibe-with-dependencies.jar [-h] [-v] [-d] [-f] -t <FILE> [-k] [-e <DIR>] | -i <FILE> -w <FILE> [-n <NAME> -m <NUMBER>] [-o <FILE>] [-l] [-u] [-g <NUMBER>] [-r <FILE>] [-q <SECONDS>] -p <HPO ID> [-p <HPO ID>]...";
         String helpHeader = "";
         String helpFooter = VibeProperties.APP_NAME.getValue() + " v" + VibeProperties.APP_VERSION.getValue();
 
+        cmdSyntax += System.lineSeparator() + "java -jar vibe-with-dependencies.jar [-d] [-f] -t <FILE> [-k] [-e <DIR>] | -i <FILE> -w <FILE> [-n <NAME> -m <NUMBER>] -o <DIR> [-l] [-u] [-g <NUMBER>] [-r <FILE>] [-q <SECONDS>] [-c <NUMBER>] -b <FILE>";
+        cmdSyntax += System.lineSeparator() + "java -jar vibe-with-dependencies.jar [-d] -t <FILE> [-k] [-e <DIR>] | -i <FILE> -w <FILE> [-r <FILE>] [-q <SECONDS>] -s <PORT> [-c <NUMBER>]";
+        cmdSyntax += System.lineSeparator() + "java -jar vibe-with-dependencies.jar [-d] [-f] -t <FILE> [-k] [-e <DIR>] [-q <SECONDS>] [-o <FILE>] -a <NCBI ID> [-a <NCBI ID>]...";
+        cmdSyntax += System.lineSeparator() + "java -jar vibe-with-dependencies.jar [-d] [-f] -t <FILE> [-k] [-e <DIR>] -x <FILE>";
+        cmdSyntax += System.lineSeparator() + "java -jar vibe-with-dependencies.jar [-d] [-f] -t <FILE> [-e <DIR>] -y";
+
         HelpFormatter formatter = new HelpFormatter();
         formatter.printHelp(80, cmdSyntax, helpHeader, options, helpFooter, false);
     }
@@ -197,11 +293,81 @@ public abstract class CommandLineOptionsParser {
                 // Digests the databases needed be the application.
                 digestDatabases(commandLine, vibeOptions, errors);
 
-                // Digests the input phenotypes.
+                // Digests the input phenotypes (and optional gene panel).
                 digestInputPhenotypes(commandLine, vibeOptions, errors);
+                digestGenePanel(commandLine, vibeOptions, errors);
+                digestQueryTimeoutArgument(commandLine, vibeOptions, errors);
 
                 // Digests output arguments (including logging/verbosity).
                 digestOutputArguments(commandLine, vibeOptions, errors);
+                break;
+            case BATCH:
+                // Digests arguments related to the HPO ontology traversal (optional in batch).
+                if(commandLine.hasOption("n") || commandLine.hasOption("m")) {
+                    digestHpoOntologyArguments(commandLine, vibeOptions, errors);
+                }
+
+                // Digests the databases needed be the application.
+                digestDatabases(commandLine, vibeOptions, errors);
+
+                // Digests arguments related to batch processing (input file, output directory & threads).
+                digestBatchArguments(commandLine, vibeOptions, errors);
+                digestGenePanel(commandLine, vibeOptions, errors);
+                digestQueryTimeoutArgument(commandLine, vibeOptions, errors);
+
+                // Digests output format & verbosity.
+                digestOutputFormatArguments(commandLine, vibeOptions);
+                digestTopGenesArgument(commandLine, vibeOptions, errors);
+                vibeOptions.setVerbose(commandLine.hasOption("d"));
+                break;
+            case COMPILE_INDEX:
+                // Digests the database to compile & the output file.
+                digestVibeDatabase(commandLine, vibeOptions, errors);
+                try {
+                    vibeOptions.setCompiledIndexOutput(commandLine.getOptionValue("x"), commandLine.hasOption("f"));
+                } catch (InvalidPathException | FileAlreadyExistsException e) {
+                    errors.add(e.getMessage());
+                }
+
+                // Whether tool should be verbose.
+                vibeOptions.setVerbose(commandLine.hasOption("d"));
+                break;
+            case BUILD_HDT_INDEX:
+                // Digests the HDT file & the directory to store its index in.
+                try {
+                    vibeOptions.setHdtIndex(commandLine.getOptionValue("t"), commandLine.getOptionValue("e"));
+                } catch (InvalidPathException | IOException e) {
+                    errors.add(e.getMessage());
+                }
+                vibeOptions.setOverwriteOutput(commandLine.hasOption("f"));
+
+                // Whether tool should be verbose.
+                vibeOptions.setVerbose(commandLine.hasOption("d"));
+                break;
+            case PHENOTYPES_FOR_GENES:
+                // Digests the database (the HPO ontology is not needed).
+                digestVibeDatabase(commandLine, vibeOptions, errors);
+
+                // Digests the input genes.
+                digestInputGenes(commandLine, vibeOptions, errors);
+                digestQueryTimeoutArgument(commandLine, vibeOptions, errors);
+
+                // Digests output target & verbosity.
+                vibeOptions.setVerbose(commandLine.hasOption("d"));
+                digestOutputTargetArgument(commandLine, vibeOptions, errors);
+                break;
+            case SERVER:
+                // Digests the databases needed be the application.
+                digestDatabases(commandLine, vibeOptions, errors);
+
+                // Digests arguments related to running as server.
+                digestServerArguments(commandLine, vibeOptions, errors);
+                digestGenePanel(commandLine, vibeOptions, errors);
+                digestQueryTimeoutArgument(commandLine, vibeOptions, errors);
+
+                // Whether tool should be verbose.
+                vibeOptions.setVerbose(commandLine.hasOption("d"));
+                break;
             default:
                 // For other cases (HELP/VERSION) no other arguments need to be digested.
 
@@ -223,6 +389,16 @@ public abstract class CommandLineOptionsParser {
             vibeOptions.setRunMode(RunMode.HELP);
         } else if (commandLine.hasOption("v")) {
             vibeOptions.setRunMode(RunMode.VERSION);
+        } else if (commandLine.hasOption("x")) {
+            vibeOptions.setRunMode(RunMode.COMPILE_INDEX);
+        } else if (commandLine.hasOption("y")) {
+            vibeOptions.setRunMode(RunMode.BUILD_HDT_INDEX);
+        } else if (commandLine.hasOption("b")) {
+            vibeOptions.setRunMode(RunMode.BATCH);
+        } else if (commandLine.hasOption("s")) {
+            vibeOptions.setRunMode(RunMode.SERVER);
+        } else if (commandLine.hasOption("a")) {
+            vibeOptions.setRunMode(RunMode.PHENOTYPES_FOR_GENES);
         } else if (commandLine.hasOption("n") || commandLine.hasOption("m")) {
             vibeOptions.setRunMode(RunMode.GENES_FOR_PHENOTYPES_WITH_ASSOCIATED_PHENOTYPES);
         } else {
@@ -246,27 +422,47 @@ public abstract class CommandLineOptionsParser {
         // Stores the missing expected arguments.
         List<String> missing = new ArrayList<>();
 
-        // Arguments that are always required.
-        String[] requiredArguments = new String[] {
-                "t", // database
-                "w", // HPO owl
-                "p", // 1 or more phenotypes
-        };
-
-        // Checks which of the always required arguments are missing.
-        for(String argument : requiredArguments) {
-            if(!commandLine.hasOption(argument)) {
-                missing.add("-" + argument);
+        if(vibeOptions.getRunMode() == RunMode.COMPILE_INDEX || vibeOptions.getRunMode() == RunMode.BUILD_HDT_INDEX) {
+            // Compiling/building an index only requires the database.
+            if(!commandLine.hasOption("t")) {
+                missing.add("-t");
+            }
+        } else if(vibeOptions.getRunMode() == RunMode.PHENOTYPES_FOR_GENES) {
+            // A compiled index only contains the genes per phenotype, so the database itself is required.
+            if(!commandLine.hasOption("t")) {
+                missing.add("-t");
+            }
+        } else {
+            // A compiled index can be used instead of the database.
+            if(!commandLine.hasOption("t") && !commandLine.hasOption("i")) {
+                missing.add("-t");
+            }
+
+            // HPO owl.
+            if(!commandLine.hasOption("w")) {
+                missing.add("-w");
+            }
+
+            // Phenotypes are supplied per request when running as server or through a file when running in batch.
+            if(vibeOptions.getRunMode() != RunMode.SERVER && vibeOptions.getRunMode() != RunMode.BATCH &&
+                    !commandLine.hasOption("p")) {
+                missing.add("-p");
             }
-        }
 
-        // Checks arguments specific for RunMode.GENES_FOR_PHENOTYPES_WITH_ASSOCIATED_PHENOTYPES.
-        if(vibeOptions.getRunMode() == RunMode.GENES_FOR_PHENOTYPES_WITH_ASSOCIATED_PHENOTYPES) {
-            if (!commandLine.hasOption("n")) {
-                missing.add("-n");
+            // Batch processing requires an output directory.
+            if(vibeOptions.getRunMode() == RunMode.BATCH && !commandLine.hasOption("o")) {
+                missing.add("-o");
             }
-            if (!commandLine.hasOption("m")) {
-                missing.add("-m");
+
+            // Checks arguments specific for RunMode.GENES_FOR_PHENOTYPES_WITH_ASSOCIATED_PHENOTYPES (or batch using these).
+            if(vibeOptions.getRunMode() == RunMode.GENES_FOR_PHENOTYPES_WITH_ASSOCIATED_PHENOTYPES ||
+                    (vibeOptions.getRunMode() == RunMode.BATCH && (commandLine.hasOption("n") || commandLine.hasOption("m")))) {
+                if (!commandLine.hasOption("n")) {
+                    missing.add("-n");
+                }
+                if (!commandLine.hasOption("m")) {
+                    missing.add("-m");
+                }
             }
         }
 
@@ -283,16 +479,40 @@ public abstract class CommandLineOptionsParser {
      * @param errors a {@link List} to add error messages to if any occur
      */
     private static void digestDatabases(CommandLine commandLine, VibeOptions vibeOptions, List<String> errors) {
-        // Main database.
+        // Main database (or compiled index of it).
+        if(commandLine.hasOption("t")) {
+            digestVibeDatabase(commandLine, vibeOptions, errors);
+        }
+        if(commandLine.hasOption("i")) {
+            try {
+                vibeOptions.setCompiledIndex(commandLine.getOptionValue("i"));
+            } catch (InvalidPathException | IOException e) {
+                errors.add(e.getMessage());
+            }
+        }
+
+        // HPO ontology file.
         try {
-            vibeOptions.setVibeDatabase(commandLine.getOptionValue("t"));
+            vibeOptions.setHpoOntology(commandLine.getOptionValue("w"));
         } catch (InvalidPathException | IOException e) {
             errors.add(e.getMessage());
         }
+    }
 
-        // HPO ontology file.
+    /**
+     * Digests the main database.
+     * @param commandLine the parsed command line
+     * @param vibeOptions in which the parsed command line information should be stored
+     * @param errors a {@link List} to add error messages to if any occur
+     */
+    private static void digestVibeDatabase(CommandLine commandLine, VibeOptions vibeOptions, List<String> errors) {
+        ModelReaderFactory modelReaderFactory = commandLine.hasOption("k") ? ModelReaderFactory.HDT_MAPPED : ModelReaderFactory.HDT;
         try {
-            vibeOptions.setHpoOntology(commandLine.getOptionValue("w"));
+            if(commandLine.hasOption("e")) {
+                vibeOptions.setVibeDatabase(commandLine.getOptionValue("t"), modelReaderFactory, commandLine.getOptionValue("e"));
+            } else {
+                vibeOptions.setVibeDatabase(commandLine.getOptionValue("t"), modelReaderFactory);
+            }
         } catch (InvalidPathException | IOException e) {
             errors.add(e.getMessage());
         }
@@ -312,6 +532,36 @@ public abstract class CommandLineOptionsParser {
         }
     }
 
+    /**
+     * Digests the (optional) gene panel to restrict the output to.
+     * @param commandLine the parsed command line
+     * @param vibeOptions in which the parsed command line information should be stored
+     * @param errors a {@link List} to add error messages to if any occur
+     */
+    private static void digestGenePanel(CommandLine commandLine, VibeOptions vibeOptions, List<String> errors) {
+        if(commandLine.hasOption("r")) {
+            try {
+                vibeOptions.setGenePanel(commandLine.getOptionValue("r"));
+            } catch (InvalidPathException | IOException e) {
+                errors.add(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Digests the input genes to be processed.
+     * @param commandLine the parsed command line
+     * @param vibeOptions in which the parsed command line information should be stored
+     * @param errors a {@link List} to add error messages to if any occur
+     */
+    private static void digestInputGenes(CommandLine commandLine, VibeOptions vibeOptions, List<String> errors) {
+        try {
+            vibeOptions.setGenes(commandLine.getOptionValues("a")); // throws InvalidStringFormatException (IllegalArgumentException)
+        } catch(InvalidStringFormatException e) {
+            errors.add(e.getMessage());
+        }
+    }
+
     /**
      * Digests arguments related to the output generation (output format/target), including logging/verbosity.
      * @param commandLine the parsed command line
@@ -323,17 +573,20 @@ public abstract class CommandLineOptionsParser {
         vibeOptions.setVerbose(commandLine.hasOption("d"));
 
         // Defines output format.
-        if(commandLine.hasOption("l")) {
-            vibeOptions.setGenePrioritizedOutputFormatWriterFactory(GenePrioritizedOutputFormatWriterFactory.SIMPLE);
-        } else {
-            if(commandLine.hasOption("u")) {
-                vibeOptions.setGenePrioritizedOutputFormatWriterFactory(GenePrioritizedOutputFormatWriterFactory.REGULAR_URI);
-            } else {
-                vibeOptions.setGenePrioritizedOutputFormatWriterFactory(GenePrioritizedOutputFormatWriterFactory.REGULAR_ID);
-            }
-        }
+        digestOutputFormatArguments(commandLine, vibeOptions);
+        digestTopGenesArgument(commandLine, vibeOptions, errors);
 
         // Defines output target.
+        digestOutputTargetArgument(commandLine, vibeOptions, errors);
+    }
+
+    /**
+     * Digests the output target (a file if given, otherwise stdout).
+     * @param commandLine the parsed command line
+     * @param vibeOptions in which the parsed command line information should be stored
+     * @param errors a {@link List} to add error messages to if any occur
+     */
+    private static void digestOutputTargetArgument(CommandLine commandLine, VibeOptions vibeOptions, List<String> errors) {
         if(commandLine.hasOption("o")) {
             try {
                 if(commandLine.hasOption("f")) {
@@ -349,6 +602,108 @@ public abstract class CommandLineOptionsParser {
         }
     }
 
+    /**
+     * Digests the output format to use.
+     * @param commandLine the parsed command line
+     * @param vibeOptions in which the parsed command line information should be stored
+     */
+    private static void digestOutputFormatArguments(CommandLine commandLine, VibeOptions vibeOptions) {
+        if(commandLine.hasOption("l")) {
+            vibeOptions.setGenePrioritizedOutputFormatWriterFactory(GenePrioritizedOutputFormatWriterFactory.SIMPLE);
+        } else {
+            if(commandLine.hasOption("u")) {
+                vibeOptions.setGenePrioritizedOutputFormatWriterFactory(GenePrioritizedOutputFormatWriterFactory.REGULAR_URI);
+            } else {
+                vibeOptions.setGenePrioritizedOutputFormatWriterFactory(GenePrioritizedOutputFormatWriterFactory.REGULAR_ID);
+            }
+        }
+    }
+
+    /**
+     * Digests the (optional) number of highest prioritized genes to write.
+     * @param commandLine the parsed command line
+     * @param vibeOptions in which the parsed command line information should be stored
+     * @param errors a {@link List} to add error messages to if any occur
+     */
+    private static void digestTopGenesArgument(CommandLine commandLine, VibeOptions vibeOptions, List<String> errors) {
+        if(commandLine.hasOption("g")) {
+            try {
+                vibeOptions.setTopGenes(commandLine.getOptionValue("g"));
+            } catch (IllegalArgumentException e) {
+                errors.add(commandLine.getOptionValue("g") + " is not a valid number of genes (must be a number >= 1).");
+            }
+        }
+    }
+
+    /**
+     * Digests the (optional) timeout of the database queries.
+     * @param commandLine the parsed command line
+     * @param vibeOptions in which the parsed command line information should be stored
+     * @param errors a {@link List} to add error messages to if any occur
+     */
+    private static void digestQueryTimeoutArgument(CommandLine commandLine, VibeOptions vibeOptions,
+                                                   List<String> errors) {
+        if(commandLine.hasOption("q")) {
+            try {
+                vibeOptions.setQueryTimeout(commandLine.getOptionValue("q"));
+            } catch (IllegalArgumentException e) {
+                errors.add(commandLine.getOptionValue("q") + " is not a valid query timeout (must be a number of seconds >= 1).");
+            }
+        }
+    }
+
+    /**
+     * Digests arguments related to batch processing.
+     * @param commandLine the parsed command line
+     * @param vibeOptions in which the parsed command line information should be stored
+     * @param errors a {@link List} to add error messages to if any occur
+     */
+    private static void digestBatchArguments(CommandLine commandLine, VibeOptions vibeOptions, List<String> errors) {
+        try {
+            vibeOptions.setBatchFile(commandLine.getOptionValue("b"));
+        } catch (InvalidPathException | IOException e) {
+            errors.add(e.getMessage());
+        }
+        try {
+            vibeOptions.setOutputDirectory(commandLine.getOptionValue("o"));
+        } catch (InvalidPathException | IOException e) {
+            errors.add(e.getMessage());
+        }
+        vibeOptions.setOverwriteOutput(commandLine.hasOption("f"));
+        digestThreadsArgument(commandLine, vibeOptions, errors);
+    }
+
+    /**
+     * Digests arguments related to running as server.
+     * @param commandLine the parsed command line
+     * @param vibeOptions in which the parsed command line information should be stored
+     * @param errors a {@link List} to add error messages to if any occur
+     */
+    private static void digestServerArguments(CommandLine commandLine, VibeOptions vibeOptions, List<String> errors) {
+        try {
+            vibeOptions.setServerPort(commandLine.getOptionValue("s"));
+        } catch (IllegalArgumentException e) {
+            errors.add(commandLine.getOptionValue("s") + " is not a valid port (must be a number between 0 and 65535).");
+        }
+        digestThreadsArgument(commandLine, vibeOptions, errors);
+    }
+
+    /**
+     * Digests the (optional) number of threads to use.
+     * @param commandLine the parsed command line
+     * @param vibeOptions in which the parsed command line information should be stored
+     * @param errors a {@link List} to add error messages to if any occur
+     */
+    private static void digestThreadsArgument(CommandLine commandLine, VibeOptions vibeOptions, List<String> errors) {
+        if(commandLine.hasOption("c")) {
+            try {
+                vibeOptions.setThreads(commandLine.getOptionValue("c"));
+            } catch (IllegalArgumentException e) {
+                errors.add(commandLine.getOptionValue("c") + " is not a valid number of threads (must be a number >= 1).");
+            }
+        }
+    }
+
     /**
      * Digests arguments related to the HPO ontology traversal.
      * @param commandLine the parsed command line
@@ -4,9 +4,13 @@ import org.molgenis.vibe.cli.RunMode;
 import org.molgenis.vibe.cli.io.output.target.FileOutputWriter;
 import org.molgenis.vibe.cli.io.output.target.StdoutOutputWriter;
 import org.molgenis.vibe.core.exceptions.InvalidStringFormatException;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GenePanel;
 import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.cli.io.input.GenePanelFileReader;
 import org.molgenis.vibe.cli.io.output.format.gene_prioritized.GenePrioritizedOutputFormatWriterFactory;
 import org.molgenis.vibe.cli.io.output.target.OutputWriter;
+import org.molgenis.vibe.core.io.input.HdtIndex;
 import org.molgenis.vibe.core.io.input.ModelReaderFactory;
 import org.molgenis.vibe.core.io.input.VibeDatabase;
 import org.molgenis.vibe.core.ontology_processing.PhenotypesRetrieverFactory;
@@ -14,6 +18,7 @@ import org.molgenis.vibe.core.ontology_processing.PhenotypesRetrieverFactory;
 import java.io.IOException;
 import java.nio.file.*;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -41,11 +46,36 @@ public class VibeOptions {
      */
     private VibeDatabase vibeDatabase;
 
+    /**
+     * The index of the HDT file to be built/verified.
+     */
+    private HdtIndex hdtIndex;
+
+    /**
+     * A compiled index of the vibe database (used instead of the database if set).
+     */
+    private Path compiledIndex;
+
+    /**
+     * The file to write a compiled index of the vibe database to.
+     */
+    private Path compiledIndexOutput;
+
     /**
      * The phenotype(s) to be used within the application.
      */
     private Set<Phenotype> phenotypes = new HashSet<>();
 
+    /**
+     * The gene(s) to retrieve the diseases & phenotypes for (in input order).
+     */
+    private Set<Gene> genes = new LinkedHashSet<>();
+
+    /**
+     * The genes the retrieved genes for phenotypes are restricted to ({@code null} if they should not be restricted).
+     */
+    private GenePanel genePanel;
+
     /**
      * Defines the {@link org.molgenis.vibe.core.ontology_processing.PhenotypesRetriever} to be used.
      */
@@ -67,6 +97,41 @@ public class VibeOptions {
      */
     private OutputWriter outputWriter;
 
+    /**
+     * The file containing the patients to be processed in batch.
+     */
+    private Path batchFile;
+
+    /**
+     * The directory to write output files to (in batch).
+     */
+    private Path outputDirectory;
+
+    /**
+     * Whether existing output files may be overwritten (in batch or when building a HDT index).
+     */
+    private boolean overwriteOutput = false;
+
+    /**
+     * The port to be used when running as server.
+     */
+    private Integer serverPort;
+
+    /**
+     * The number of threads to be used for concurrent processing.
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The number of highest prioritized genes to write ({@code null} if all genes should be written).
+     */
+    private Integer topGenes;
+
+    /**
+     * The maximum number of seconds each database query may run ({@code null} if queries should not time out).
+     */
+    private Integer queryTimeout;
+
     public RunMode getRunMode() {
         return runMode;
     }
@@ -114,8 +179,94 @@ public class VibeOptions {
     }
 
     void setVibeDatabase(Path databasePath) throws IOException {
+        setVibeDatabase(databasePath, ModelReaderFactory.HDT);
+    }
+
+    void setVibeDatabase(String databasePath, ModelReaderFactory modelReaderFactory) throws IOException {
+        setVibeDatabase(Paths.get(databasePath), modelReaderFactory);
+    }
+
+    void setVibeDatabase(Path databasePath, ModelReaderFactory modelReaderFactory) throws IOException {
         // VibeDatabase uses its own internal checks for whether the data is accessible.
-        this.vibeDatabase = new VibeDatabase(databasePath, ModelReaderFactory.HDT);
+        this.vibeDatabase = new VibeDatabase(databasePath, modelReaderFactory);
+    }
+
+    void setVibeDatabase(String databasePath, ModelReaderFactory modelReaderFactory, String indexDirectory) throws InvalidPathException, IOException {
+        setVibeDatabase(Paths.get(databasePath), modelReaderFactory, Paths.get(indexDirectory));
+    }
+
+    /**
+     * @param databasePath the vibe database
+     * @param modelReaderFactory the {@link ModelReaderFactory} to use for reading the database
+     * @param indexDirectory the directory containing the (pre-made) index of the database
+     * @throws IOException if the database or its index are not accessible
+     */
+    void setVibeDatabase(Path databasePath, ModelReaderFactory modelReaderFactory, Path indexDirectory) throws IOException {
+        this.vibeDatabase = new VibeDatabase(databasePath, modelReaderFactory,
+                HdtIndex.inDirectory(databasePath, indexDirectory).getIndexFile());
+    }
+
+    public HdtIndex getHdtIndex() {
+        return hdtIndex;
+    }
+
+    void setHdtIndex(String hdtFile, String indexDirectory) throws InvalidPathException, IOException {
+        setHdtIndex(Paths.get(hdtFile), indexDirectory == null ? null : Paths.get(indexDirectory));
+    }
+
+    /**
+     * @param hdtFile the HDT file to build/verify the index for
+     * @param indexDirectory the directory to store the index in ({@code null} to store it next to {@code hdtFile})
+     * @throws IOException if {@code hdtFile} is not readable or {@code indexDirectory} is not a directory
+     */
+    void setHdtIndex(Path hdtFile, Path indexDirectory) throws IOException {
+        if(!checkIfPathIsReadableFile(hdtFile)) {
+            throw new IOException(hdtFile.getFileName() + " is not a readable file.");
+        }
+        if(indexDirectory == null) {
+            this.hdtIndex = new HdtIndex(hdtFile);
+        } else {
+            if(Files.exists(indexDirectory) && !Files.isDirectory(indexDirectory)) {
+                throw new IOException(indexDirectory.getFileName() + " is not a directory.");
+            }
+            this.hdtIndex = HdtIndex.inDirectory(hdtFile, indexDirectory);
+        }
+    }
+
+    public Path getCompiledIndex() {
+        return compiledIndex;
+    }
+
+    void setCompiledIndex(String compiledIndex) throws InvalidPathException, IOException {
+        setCompiledIndex(Paths.get(compiledIndex));
+    }
+
+    void setCompiledIndex(Path compiledIndex) throws IOException {
+        if(checkIfPathIsReadableFile(compiledIndex)) {
+            this.compiledIndex = compiledIndex;
+        } else {
+            throw new IOException(compiledIndex.getFileName() + " is not a readable file.");
+        }
+    }
+
+    public Path getCompiledIndexOutput() {
+        return compiledIndexOutput;
+    }
+
+    void setCompiledIndexOutput(String compiledIndexOutput, boolean overwrite) throws InvalidPathException, FileAlreadyExistsException {
+        setCompiledIndexOutput(Paths.get(compiledIndexOutput), overwrite);
+    }
+
+    /**
+     * @param compiledIndexOutput the file to write the compiled index to
+     * @param overwrite whether {@code compiledIndexOutput} may be overwritten if it already exists
+     * @throws FileAlreadyExistsException if file already exists and {@code overwrite} is {@code false}
+     */
+    void setCompiledIndexOutput(Path compiledIndexOutput, boolean overwrite) throws FileAlreadyExistsException {
+        if(!overwrite && Files.exists(compiledIndexOutput)) {
+            throw new FileAlreadyExistsException(compiledIndexOutput.getFileName() + " already exists.");
+        }
+        this.compiledIndexOutput = compiledIndexOutput;
     }
 
     public Set<Phenotype> getPhenotypes() {
@@ -134,6 +285,43 @@ public class VibeOptions {
         phenotypes.add(phenotype);
     }
 
+    public Set<Gene> getGenes() {
+        return genes;
+    }
+
+    /**
+     * @param genes {@link String}{@code []}
+     * @throws InvalidStringFormatException if any of the {@code genes} failed to be converted into a {@link Gene}
+     * using {@link Gene#Gene(String)}
+     */
+    void setGenes(String[] genes) throws InvalidStringFormatException {
+        this.genes = new LinkedHashSet<>();
+        for(String gene : genes) {
+            this.genes.add(new Gene(gene));
+        }
+    }
+
+    public GenePanel getGenePanel() {
+        return genePanel;
+    }
+
+    /**
+     * @param genePanelFile the file containing the gene panel (see {@link GenePanelFileReader})
+     * @throws InvalidPathException if {@code genePanelFile} could not be converted into a {@link Path}
+     * @throws IOException if {@code genePanelFile} is not a readable file or could not be parsed
+     */
+    void setGenePanel(String genePanelFile) throws InvalidPathException, IOException {
+        Path path = Paths.get(genePanelFile);
+        if(!checkIfPathIsReadableFile(path)) {
+            throw new IOException(path.getFileName() + " is not a readable file.");
+        }
+        this.genePanel = new GenePanelFileReader(path).read();
+    }
+
+    void setGenePanel(GenePanel genePanel) {
+        this.genePanel = genePanel;
+    }
+
     public PhenotypesRetrieverFactory getPhenotypesRetrieverFactory() {
         return phenotypesRetrieverFactory;
     }
@@ -265,6 +453,141 @@ public class VibeOptions {
         this.outputWriter = new StdoutOutputWriter();
     }
 
+    public Path getBatchFile() {
+        return batchFile;
+    }
+
+    void setBatchFile(String batchFile) throws InvalidPathException, IOException {
+        setBatchFile(Paths.get(batchFile));
+    }
+
+    void setBatchFile(Path batchFile) throws IOException {
+        if(checkIfPathIsReadableFile(batchFile)) {
+            this.batchFile = batchFile;
+        } else {
+            throw new IOException(batchFile.getFileName() + " is not a readable file.");
+        }
+    }
+
+    public Path getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    void setOutputDirectory(String outputDirectory) throws InvalidPathException, IOException {
+        setOutputDirectory(Paths.get(outputDirectory));
+    }
+
+    /**
+     * Sets the output directory. If it does not exist yet, it is created.
+     * @param outputDirectory the directory to write the output files to
+     * @throws IOException if {@code outputDirectory} is not a directory or could not be created
+     */
+    void setOutputDirectory(Path outputDirectory) throws IOException {
+        if(!Files.exists(outputDirectory)) {
+            Files.createDirectories(outputDirectory);
+        }
+        if(!Files.isDirectory(outputDirectory) || !Files.isWritable(outputDirectory)) {
+            throw new IOException(outputDirectory.getFileName() + " is not a writable directory.");
+        }
+        this.outputDirectory = outputDirectory;
+    }
+
+    public boolean isOverwriteOutput() {
+        return overwriteOutput;
+    }
+
+    void setOverwriteOutput(boolean overwriteOutput) {
+        this.overwriteOutput = overwriteOutput;
+    }
+
+    public Integer getServerPort() {
+        return serverPort;
+    }
+
+    /**
+     * @throws NumberFormatException if {@code serverPort} could not be parsed to an {@link Integer}
+     */
+    void setServerPort(String serverPort) throws NumberFormatException {
+        setServerPort(Integer.parseInt(serverPort));
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code serverPort} is not a valid port number ({@code 0} to {@code 65535})
+     */
+    void setServerPort(Integer serverPort) {
+        if (serverPort >= 0 && serverPort <= 65535) {
+            this.serverPort = serverPort;
+        } else {
+            throw new IllegalArgumentException("value must be between 0 and 65535.");
+        }
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @throws NumberFormatException if {@code threads} could not be parsed to an {@link Integer}
+     */
+    void setThreads(String threads) throws NumberFormatException {
+        setThreads(Integer.parseInt(threads));
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code threads < 1}
+     */
+    void setThreads(int threads) {
+        if (threads >= 1) {
+            this.threads = threads;
+        } else {
+            throw new IllegalArgumentException("value must be >= 1.");
+        }
+    }
+
+    public Integer getTopGenes() {
+        return topGenes;
+    }
+
+    /**
+     * @throws NumberFormatException if {@code topGenes} could not be parsed to an {@link Integer}
+     */
+    void setTopGenes(String topGenes) throws NumberFormatException {
+        setTopGenes(Integer.parseInt(topGenes));
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code topGenes < 1}
+     */
+    void setTopGenes(int topGenes) {
+        if (topGenes >= 1) {
+            this.topGenes = topGenes;
+        } else {
+            throw new IllegalArgumentException("value must be >= 1.");
+        }
+    }
+
+    public Integer getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    /**
+     * @throws NumberFormatException if {@code queryTimeout} could not be parsed to an {@link Integer}
+     */
+    void setQueryTimeout(String queryTimeout) throws NumberFormatException {
+        setQueryTimeout(Integer.parseInt(queryTimeout));
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code queryTimeout < 1}
+     */
+    void setQueryTimeout(int queryTimeout) {
+        if (queryTimeout >= 1) {
+            this.queryTimeout = queryTimeout;
+        } else {
+            throw new IllegalArgumentException("value must be >= 1.");
+        }
+    }
+
     /**
      * Checks if a given {@link Path} is an existing readable file.
      * @param path {@link Path}
@@ -296,6 +619,23 @@ public class VibeOptions {
                 // NO BREAK: continues!!!
             case GENES_FOR_PHENOTYPES:
                 if(!validateGenesForPhenotype()) return false;
+                break;
+            case BATCH:
+                if(!validateBatch()) return false;
+                break;
+            case SERVER:
+                if(!validateServer()) return false;
+                break;
+            case COMPILE_INDEX:
+                if(!validateCompileIndex()) return false;
+                break;
+            case BUILD_HDT_INDEX:
+                // Check if a HDT index was set.
+                if(getHdtIndex() == null) return false;
+                break;
+            case PHENOTYPES_FOR_GENES:
+                if(!validatePhenotypesForGenes()) return false;
+                break;
             default:
                 // No checks required for non-specified cases.
         }
@@ -330,8 +670,8 @@ public class VibeOptions {
      * @return {@code true} if all needed variables are set, otherwise {@code false}
      */
     private boolean validateGenesForPhenotype() {
-        // Check if vibe database is set.
-        if (getVibeDatabase() == null) {
+        // Check if vibe database (or a compiled index of it) is set.
+        if (getVibeDatabase() == null && getCompiledIndex() == null) {
             return false;
         }
         // Check if HPO ontology data is set.
@@ -353,6 +693,95 @@ public class VibeOptions {
         return true;
     }
 
+    /**
+     * Checks whether variables were set that are required for batch processing.
+     * @return {@code true} if all needed variables are set, otherwise {@code false}
+     */
+    private boolean validateBatch() {
+        // Check if vibe database (or a compiled index of it) is set.
+        if (getVibeDatabase() == null && getCompiledIndex() == null) {
+            return false;
+        }
+        // Check if HPO ontology data is set.
+        if (getHpoOntology() == null) {
+            return false;
+        }
+        // Check if a batch file was given.
+        if (getBatchFile() == null) {
+            return false;
+        }
+        // Check if an output directory was given.
+        if (getOutputDirectory() == null) {
+            return false;
+        }
+        // Checks if a gene prioritized output format factory was given.
+        if (getGenePrioritizedOutputFormatWriterFactory() == null) {
+            return false;
+        }
+        // Related HPO retrieval requires both a factory and a max distance (or neither).
+        if ((getPhenotypesRetrieverFactory() == null) != (getOntologyMaxDistance() == null)) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether variables were set that are required for running as server.
+     * @return {@code true} if all needed variables are set, otherwise {@code false}
+     */
+    private boolean validateServer() {
+        // Check if vibe database (or a compiled index of it) is set.
+        if (getVibeDatabase() == null && getCompiledIndex() == null) {
+            return false;
+        }
+        // Check if HPO ontology data is set.
+        if (getHpoOntology() == null) {
+            return false;
+        }
+        // Check if a port was given.
+        if (getServerPort() == null) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether variables were set that are required for retrieving the diseases & phenotypes of
+     * {@link Gene}{@code s}.
+     * @return {@code true} if all needed variables are set, otherwise {@code false}
+     */
+    private boolean validatePhenotypesForGenes() {
+        // Check if vibe database is set (a compiled index only contains the genes per phenotype).
+        if (getVibeDatabase() == null) {
+            return false;
+        }
+        // Check if an output writer was given.
+        if (getOutputWriter() == null) {
+            return false;
+        }
+        // Check if there are any input genes.
+        if (getGenes().isEmpty()) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether variables were set that are required for compiling an index of the vibe database.
+     * @return {@code true} if all needed variables are set, otherwise {@code false}
+     */
+    private boolean validateCompileIndex() {
+        // Check if vibe database is set.
+        if (getVibeDatabase() == null) {
+            return false;
+        }
+        // Check if an output file was given.
+        if (getCompiledIndexOutput() == null) {
+            return false;
+        }
+        return true;
+    }
+
     @Override
     public String toString() {
         return "VibeOptions{" +
@@ -360,11 +789,23 @@ public class VibeOptions {
                 ", verbose=" + verbose +
                 ", hpoOntology=" + hpoOntology +
                 ", vibeDatabase=" + vibeDatabase +
+                ", hdtIndex=" + (hdtIndex == null ? null : hdtIndex.getIndexFile()) +
+                ", compiledIndex=" + compiledIndex +
+                ", compiledIndexOutput=" + compiledIndexOutput +
                 ", phenotypes=" + phenotypes +
+                ", genes=" + genes +
+                ", genePanel=" + genePanel +
                 ", phenotypesRetrieverFactory=" + phenotypesRetrieverFactory +
                 ", ontologyMaxDistance=" + ontologyMaxDistance +
                 ", genePrioritizedOutputFormatWriterFactory=" + genePrioritizedOutputFormatWriterFactory +
                 ", outputWriter=" + outputWriter +
+                ", batchFile=" + batchFile +
+                ", outputDirectory=" + outputDirectory +
+                ", overwriteOutput=" + overwriteOutput +
+                ", serverPort=" + serverPort +
+                ", threads=" + threads +
+                ", topGenes=" + topGenes +
+                ", queryTimeout=" + queryTimeout +
                 '}';
     }
 }
@@ -0,0 +1,123 @@
+package org.molgenis.vibe.cli.io.output.format.gene_phenotypes;
+
+import org.apache.commons.lang3.StringUtils;
+import org.molgenis.vibe.cli.io.output.ValuesSeparator;
+import org.molgenis.vibe.cli.io.output.format.PrioritizedOutputFormatWriter;
+import org.molgenis.vibe.cli.io.output.target.OutputWriter;
+import org.molgenis.vibe.core.formats.*;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writer for writing a {@link GenePhenotypeCollection} to a CSV file where a single line represents a {@link Gene}:
+ * all {@link Phenotype}{@code s} linked to the gene (through any of its diseases) followed by the diseases (with their
+ * GDA score & phenotypes). A separate {@link List} defines the order of {@link Gene}{@code s} in the output file.
+ */
+public class PhenotypesPerGeneSeparatedValuesOutputFormatWriter extends PrioritizedOutputFormatWriter<Gene> {
+    /**
+     * The data to be written.
+     */
+    private GenePhenotypeCollection collection;
+
+    /**
+     * Separates the columns.
+     */
+    private ValuesSeparator primarySeparator;
+
+    /**
+     * Separates key-value pairs.
+     */
+    private ValuesSeparator keyValuePairSeparator;
+
+    /**
+     * Separates the key from the values in a key-value pair.
+     */
+    private ValuesSeparator keyValueSeparator;
+
+    /**
+     * Separates the values from a single key from a key-value pair.
+     */
+    private ValuesSeparator valuesSeparator;
+
+    /**
+     * @param writer writer object to be used to write the data
+     * @param priority defines the order in which the {@link Gene}{@code s} are written
+     * @param collection the data to be written
+     * @param primarySeparator highest level values separator
+     * @param keyValuePairSeparator separates different key-value pairs
+     * @param keyValueSeparator separates a key and value
+     * @param valuesSeparator separates the values from a key-value pair
+     * @throws IllegalArgumentException if any separator is equal to another separator
+     */
+    public PhenotypesPerGeneSeparatedValuesOutputFormatWriter(OutputWriter writer, List<Gene> priority,
+                                                              GenePhenotypeCollection collection,
+                                                              ValuesSeparator primarySeparator,
+                                                              ValuesSeparator keyValuePairSeparator,
+                                                              ValuesSeparator keyValueSeparator,
+                                                              ValuesSeparator valuesSeparator) {
+        super(writer, priority);
+        this.collection = requireNonNull(collection);
+        this.primarySeparator = requireNonNull(primarySeparator);
+        this.keyValuePairSeparator = requireNonNull(keyValuePairSeparator);
+        this.keyValueSeparator = requireNonNull(keyValueSeparator);
+        this.valuesSeparator = requireNonNull(valuesSeparator);
+
+        Set<ValuesSeparator> separators = new HashSet<>();
+        separators.add(primarySeparator);
+        separators.add(keyValuePairSeparator);
+        separators.add(keyValueSeparator);
+        separators.add(valuesSeparator);
+
+        // Checks whether all separators are unique.
+        if(separators.size() < 4) {
+            throw new IllegalArgumentException("the separators cannot be the same");
+        }
+    }
+
+    @Override
+    public void generateOutput() throws IOException {
+        // Writes header.
+        getOutputWriter().writeHeader("gene (NCBI)" + primarySeparator + "gene symbol (derived from NCBI)" +
+                primarySeparator + "phenotypes (HPO)" + primarySeparator +
+                "diseases (UMLS) with phenotypes per disease");
+        getOutputWriter().writeNewLine();
+
+        // Goes through all ordered genes.
+        for(Gene gene : getPriority()) {
+            // Writes gene id + symbol.
+            getOutputWriter().write(gene.getId() + primarySeparator + gene.getSymbol().getId() + primarySeparator);
+
+            // Writes all phenotypes of the gene.
+            getOutputWriter().write(writePhenotypes(collection.getPhenotypes(gene)) + primarySeparator);
+
+            // Goes through the diseases (highest GDA score first) and writes these with their phenotypes.
+            List<GeneDiseaseCombination> geneDiseaseCombinations =
+                    collection.getGeneDiseaseCollection().getByGeneOrderedByGdaScore(gene);
+            for(int i = 0; i < geneDiseaseCombinations.size(); i++) {
+                GeneDiseaseCombination gdc = geneDiseaseCombinations.get(i);
+                if(i > 0) {
+                    getOutputWriter().write(keyValuePairSeparator.toString());
+                }
+                getOutputWriter().write(gdc.getDisease().getId() + " (" + gdc.getDisgenetScore() + ")");
+
+                Set<Phenotype> phenotypes = collection.getPhenotypes(gdc.getDisease());
+                if(!phenotypes.isEmpty()) {
+                    getOutputWriter().write(keyValueSeparator + writePhenotypes(phenotypes));
+                }
+            }
+
+            getOutputWriter().writeNewLine();
+        }
+    }
+
+    private String writePhenotypes(Set<Phenotype> phenotypes) {
+        return StringUtils.join(phenotypes.stream().map(Phenotype::getId).collect(Collectors.toList()),
+                valuesSeparator.toString());
+    }
+}
@@ -6,33 +6,61 @@ import org.molgenis.vibe.cli.io.output.format.OutputFormatWriter;
 import org.molgenis.vibe.cli.io.output.format.PrioritizedOutputFormatWriter;
 import org.molgenis.vibe.cli.io.output.format.PrioritizedOutputFormatWriterFactory;
 import org.molgenis.vibe.cli.io.output.target.OutputWriter;
+import org.molgenis.vibe.core.database_processing.GeneDiseaseCollectionContent;
 import org.molgenis.vibe.core.formats.Gene;
 import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * A factory for {@link Gene} prioritized {@link PrioritizedOutputFormatWriter}{@code s}.
  */
 public enum GenePrioritizedOutputFormatWriterFactory implements PrioritizedOutputFormatWriterFactory<Gene> {
-    SIMPLE {
+    SIMPLE("txt", EnumSet.noneOf(GeneDiseaseCollectionContent.class)) {
         @Override
         public OutputFormatWriter create(OutputWriter outputWriter, GeneDiseaseCollection geneDiseaseCollection, List<Gene> priority) {
             return new OrderedGenesOutputFormatWriter(outputWriter, priority, ValuesSeparator.COMMA);
         }
     },
-    REGULAR_ID {
+    REGULAR_ID("tsv", EnumSet.of(GeneDiseaseCollectionContent.SOURCES)) {
         @Override
         public OutputFormatWriter create(OutputWriter outputWriter, GeneDiseaseCollection geneDiseaseCollection, List<Gene> priority) {
             return new ResultsPerGeneSeparatedValuesOutputFormatWriterUsingIds(outputWriter, priority, geneDiseaseCollection,
                     ValuesSeparator.TAB, ValuesSeparator.VERTICAL_LINE, ValuesSeparator.COLON, ValuesSeparator.COMMA);
         }
     },
-    REGULAR_URI {
+    REGULAR_URI("tsv", EnumSet.of(GeneDiseaseCollectionContent.SOURCES)) {
         @Override
         public OutputFormatWriter create(OutputWriter outputWriter, GeneDiseaseCollection geneDiseaseCollection, List<Gene> priority) {
             return new ResultsPerGeneSeparatedValuesOutputFormatWriterUsingUris(outputWriter, priority, geneDiseaseCollection,
                     ValuesSeparator.TAB, ValuesSeparator.VERTICAL_LINE, ValuesSeparator.COLON, ValuesSeparator.COMMA);
         }
+    };
+
+    /**
+     * The file extension (without leading dot) to use when writing the output to a file.
+     */
+    private String fileExtension;
+
+    /**
+     * The optional content of the {@link GeneDiseaseCollection} that is written (so that the rest does not need to be
+     * retrieved).
+     */
+    private Set<GeneDiseaseCollectionContent> requiredContents;
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public Set<GeneDiseaseCollectionContent> getRequiredContents() {
+        return requiredContents;
+    }
+
+    GenePrioritizedOutputFormatWriterFactory(String fileExtension, Set<GeneDiseaseCollectionContent> requiredContents) {
+        this.fileExtension = fileExtension;
+        this.requiredContents = Collections.unmodifiableSet(requiredContents);
     }
 }
@@ -0,0 +1,118 @@
+package org.molgenis.vibe.cli.server;
+
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.molgenis.vibe.cli.session.VibeSession;
+import org.molgenis.vibe.core.database_processing.GeneDiseaseCollectionContent;
+import org.molgenis.vibe.core.database_processing.QueryControl;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.formats.serialization.json.gene_disease_collection.GeneDiseaseCollectionJsonConverter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Handles gene prioritization requests send to a {@link VibeServer}. Expects a {@code POST} containing a JSON
+ * {@link GenePrioritizationRequest} and responds with a JSON object containing the prioritized genes (as ids) and the
+ * {@link GeneDiseaseCollection} (see {@link GeneDiseaseCollectionJsonConverter}) the prioritization was based on:
+ * <pre>
+ * {
+ *   "priority": ["1311", "4010"],
+ *   "partial": false,
+ *   "geneDiseaseCollection": {...}
+ * }
+ * </pre>
+ * {@code "partial"} is {@code true} if a database query timed out (see
+ * {@link VibeSession#setQueryTimeout(long, java.util.concurrent.TimeUnit)}), in which case the prioritization is based
+ * on incomplete results.
+ */
+class GenePrioritizationHandler implements HttpHandler {
+    static final String PRIORITY_KEY = "priority";
+    static final String PARTIAL_KEY = "partial";
+    static final String GENE_DISEASE_COLLECTION_KEY = "geneDiseaseCollection";
+
+    private static final String CONTENT_TYPE_JSON = "application/json; charset=utf-8";
+    private static final String CONTENT_TYPE_TEXT = "text/plain; charset=utf-8";
+
+    private VibeSession session;
+
+    GenePrioritizationHandler(VibeSession session) {
+        this.session = requireNonNull(session);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            if(!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().add("Allow", "POST");
+                sendText(exchange, 405, "Only POST requests are supported.");
+                return;
+            }
+
+            // Invalid requests (including phenotypes not present within the HPO ontology) are client errors.
+            Set<Phenotype> phenotypes;
+            try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+                GenePrioritizationRequest request = GenePrioritizationRequest.fromJson(reader);
+                phenotypes = session.retrievePhenotypes(request.getPhenotypes(),
+                        request.getPhenotypesRetrieverFactory(), request.getOntologyMaxDistance());
+            } catch (IllegalArgumentException e) {
+                sendText(exchange, 400, e.getMessage());
+                return;
+            }
+
+            QueryControl queryControl = session.createQueryControl();
+            GeneDiseaseCollection geneDiseaseCollection = session.retrieveGeneDiseaseCollection(phenotypes,
+                    GeneDiseaseCollectionContent.ALL, false, queryControl);
+            List<Gene> genePriority = session.orderGenes(geneDiseaseCollection);
+            sendJson(exchange, geneDiseaseCollection, genePriority, queryControl.isPartial());
+        } catch (Exception e) {
+            System.err.println("An error occurred while processing a request: " + e.getMessage());
+            // Only possible to send an error if no response was send yet.
+            if(exchange.getResponseCode() == -1) {
+                sendText(exchange, 500, "An error occurred while processing the request.");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void sendJson(HttpExchange exchange, GeneDiseaseCollection geneDiseaseCollection,
+                          List<Gene> genePriority, boolean partial) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", CONTENT_TYPE_JSON);
+        exchange.sendResponseHeaders(200, 0); // Length 0 results in chunked transfer encoding.
+
+        try (JsonWriter writer = new JsonWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            writer.beginObject();
+            writer.name(PRIORITY_KEY);
+            writer.beginArray();
+            for(Gene gene : genePriority) {
+                writer.value(gene.getId());
+            }
+            writer.endArray();
+            writer.name(PARTIAL_KEY).value(partial);
+            writer.name(GENE_DISEASE_COLLECTION_KEY);
+            GeneDiseaseCollectionJsonConverter.serialize(geneDiseaseCollection, writer);
+            writer.endObject();
+        }
+    }
+
+    private void sendText(HttpExchange exchange, int statusCode, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", CONTENT_TYPE_TEXT);
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+}
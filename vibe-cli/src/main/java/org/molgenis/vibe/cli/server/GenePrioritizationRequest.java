@@ -0,0 +1,145 @@
+package org.molgenis.vibe.cli.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.ontology_processing.PhenotypesRetrieverFactory;
+
+import java.io.Reader;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A gene prioritization request as received by the {@link VibeServer}. The expected JSON format is:
+ * <pre>
+ * {
+ *   "phenotypes": ["HP:0002996", "HP:0001377"],
+ *   "ontology-algorithm": "distance",
+ *   "ontology-max": 1
+ * }
+ * </pre>
+ * Where {@code ontology-algorithm} and {@code ontology-max} are optional (but if one is given, the other is required as
+ * well).
+ */
+public class GenePrioritizationRequest {
+    static final String PHENOTYPES_KEY = "phenotypes";
+    static final String ONTOLOGY_ALGORITHM_KEY = "ontology-algorithm";
+    static final String ONTOLOGY_MAX_KEY = "ontology-max";
+
+    /**
+     * The input phenotypes.
+     */
+    private Set<Phenotype> phenotypes;
+
+    /**
+     * The {@link PhenotypesRetrieverFactory} to use for related phenotype retrieval ({@code null} if none).
+     */
+    private PhenotypesRetrieverFactory phenotypesRetrieverFactory;
+
+    /**
+     * The maximum distance for related phenotype retrieval ({@code null} if none).
+     */
+    private Integer ontologyMaxDistance;
+
+    public Set<Phenotype> getPhenotypes() {
+        return Collections.unmodifiableSet(phenotypes);
+    }
+
+    public PhenotypesRetrieverFactory getPhenotypesRetrieverFactory() {
+        return phenotypesRetrieverFactory;
+    }
+
+    public Integer getOntologyMaxDistance() {
+        return ontologyMaxDistance;
+    }
+
+    /**
+     * @return {@code true} if related phenotypes should be retrieved for the input phenotypes, otherwise {@code false}
+     */
+    public boolean retrieveAssociatedPhenotypes() {
+        return phenotypesRetrieverFactory != null;
+    }
+
+    public GenePrioritizationRequest(Set<Phenotype> phenotypes) {
+        this(phenotypes, null, null);
+    }
+
+    /**
+     * @param phenotypes the input phenotypes
+     * @param phenotypesRetrieverFactory the {@link PhenotypesRetrieverFactory} to use ({@code null} if none)
+     * @param ontologyMaxDistance the maximum distance to use ({@code null} if none)
+     * @throws IllegalArgumentException if {@code phenotypes} is empty, only one of {@code phenotypesRetrieverFactory}
+     * and {@code ontologyMaxDistance} was given or {@code ontologyMaxDistance < 0}
+     */
+    public GenePrioritizationRequest(Set<Phenotype> phenotypes, PhenotypesRetrieverFactory phenotypesRetrieverFactory,
+                                     Integer ontologyMaxDistance) {
+        this.phenotypes = requireNonNull(phenotypes);
+        if(phenotypes.isEmpty()) {
+            throw new IllegalArgumentException("At least 1 phenotype is required.");
+        }
+        if((phenotypesRetrieverFactory == null) != (ontologyMaxDistance == null)) {
+            throw new IllegalArgumentException(ONTOLOGY_ALGORITHM_KEY + " and " + ONTOLOGY_MAX_KEY +
+                    " must be used together.");
+        }
+        if(ontologyMaxDistance != null && ontologyMaxDistance < 0) {
+            throw new IllegalArgumentException(ONTOLOGY_MAX_KEY + " must be >= 0.");
+        }
+        this.phenotypesRetrieverFactory = phenotypesRetrieverFactory;
+        this.ontologyMaxDistance = ontologyMaxDistance;
+    }
+
+    /**
+     * Parses a JSON request.
+     * @param reader the {@link Reader} containing the JSON request
+     * @return the parsed {@link GenePrioritizationRequest}
+     * @throws IllegalArgumentException if the JSON is invalid or does not adhere to the expected format (including
+     * invalid phenotypes, see {@link Phenotype#Phenotype(String)})
+     */
+    public static GenePrioritizationRequest fromJson(Reader reader) {
+        try {
+            JsonElement root = JsonParser.parseReader(reader);
+            if (!root.isJsonObject()) {
+                throw new IllegalArgumentException("Request must be a JSON object.");
+            }
+            return fromJson(root.getAsJsonObject());
+        } catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+            throw new IllegalArgumentException("Invalid JSON request: " + e.getMessage(), e);
+        }
+    }
+
+    private static GenePrioritizationRequest fromJson(JsonObject jsonObject) {
+        // Phenotypes.
+        JsonElement phenotypesElement = jsonObject.get(PHENOTYPES_KEY);
+        if(phenotypesElement == null || !phenotypesElement.isJsonArray()) {
+            throw new IllegalArgumentException("Request requires a \"" + PHENOTYPES_KEY + "\" array.");
+        }
+        JsonArray phenotypesArray = phenotypesElement.getAsJsonArray();
+        Set<Phenotype> phenotypes = new HashSet<>();
+        for(JsonElement phenotype : phenotypesArray) {
+            phenotypes.add(new Phenotype(phenotype.getAsString()));
+        }
+
+        // Ontology traversal.
+        PhenotypesRetrieverFactory phenotypesRetrieverFactory = null;
+        Integer ontologyMaxDistance = null;
+        if(jsonObject.has(ONTOLOGY_ALGORITHM_KEY)) {
+            String algorithm = jsonObject.get(ONTOLOGY_ALGORITHM_KEY).getAsString();
+            try {
+                phenotypesRetrieverFactory = PhenotypesRetrieverFactory.retrieve(algorithm);
+            } catch (EnumConstantNotPresentException e) {
+                throw new IllegalArgumentException(algorithm + " is not a valid HPO retrieval algorithm.");
+            }
+        }
+        if(jsonObject.has(ONTOLOGY_MAX_KEY)) {
+            ontologyMaxDistance = jsonObject.get(ONTOLOGY_MAX_KEY).getAsInt();
+        }
+
+        return new GenePrioritizationRequest(phenotypes, phenotypesRetrieverFactory, ontologyMaxDistance);
+    }
+}
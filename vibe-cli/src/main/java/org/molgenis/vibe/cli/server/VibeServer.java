@@ -0,0 +1,113 @@
+package org.molgenis.vibe.cli.server;
+
+import com.sun.net.httpserver.HttpServer;
+import org.molgenis.vibe.cli.session.VibeSession;
+import org.molgenis.vibe.core.io.input.VibeDatabase;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A local HTTP server that keeps the vibe database and HPO ontology loaded, so that these do not need to be loaded
+ * again for each gene prioritization. Only binds to the loopback address. Requests are processed concurrently on a
+ * bounded executor (when all threads are busy and the queue is full, new requests are processed by the thread
+ * accepting the connections, effectively stalling new connections until there is capacity again).
+ *
+ * @see GenePrioritizationHandler
+ */
+public class VibeServer implements Closeable {
+    public static final String PRIORITIZE_PATH = "/prioritize";
+
+    /**
+     * Number of requests that can be queued per executor thread.
+     */
+    private static final int QUEUE_SIZE_PER_THREAD = 4;
+
+    /**
+     * Maximum time to wait for running requests to finish when closing the server.
+     */
+    private static final int SHUTDOWN_DELAY_SECONDS = 5;
+
+    private VibeSession session;
+    private HttpServer httpServer;
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Loads the database & HPO ontology and binds the server to the given port (but does not start it yet).
+     * @param vibeDatabase the database to use
+     * @param hpoOntology the HPO ontology file to use
+     * @param port the port to listen on ({@code 0} for a random available port)
+     * @param threads the number of requests that can be processed concurrently
+     * @throws IOException if the database could not be loaded or the server could not be bound to the port
+     */
+    public VibeServer(VibeDatabase vibeDatabase, Path hpoOntology, int port, int threads) throws IOException {
+        this(new VibeSession(requireNonNull(vibeDatabase), requireNonNull(hpoOntology)), port, threads);
+    }
+
+    /**
+     * Binds the server to the given port (but does not start it yet) using an already loaded {@link VibeSession}. The
+     * session is closed when the server is closed.
+     * @param session the session to use for processing requests
+     * @param port the port to listen on ({@code 0} for a random available port)
+     * @param threads the number of requests that can be processed concurrently
+     * @throws IOException if the server could not be bound to the port
+     */
+    public VibeServer(VibeSession session, int port, int threads) throws IOException {
+        this.session = requireNonNull(session);
+
+        try {
+            if(threads < 1) {
+                throw new IllegalArgumentException("threads must be >= 1: " + threads);
+            }
+            executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(threads * QUEUE_SIZE_PER_THREAD), new ThreadPoolExecutor.CallerRunsPolicy());
+            httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+
+        httpServer.createContext(PRIORITIZE_PATH, new GenePrioritizationHandler(session));
+        httpServer.setExecutor(executor);
+    }
+
+    /**
+     * @return the address the server is bound to
+     */
+    public InetSocketAddress getAddress() {
+        return httpServer.getAddress();
+    }
+
+    public void start() {
+        httpServer.start();
+    }
+
+    /**
+     * Stops the server (waiting shortly for running requests to finish) and closes the database & ontology.
+     */
+    @Override
+    public void close() {
+        if(httpServer != null) {
+            httpServer.stop(SHUTDOWN_DELAY_SECONDS);
+        }
+        if(executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(SHUTDOWN_DELAY_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if(session != null) {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package org.molgenis.vibe.cli.session;
+
+import org.molgenis.vibe.core.GeneDiseaseCollectionRetrievalRunner;
+import org.molgenis.vibe.core.PhenotypesRetrievalRunner;
+import org.molgenis.vibe.core.database_processing.GeneDiseaseCollectionContent;
+import org.molgenis.vibe.core.database_processing.GenesForPhenotypeRetrieverFactory;
+import org.molgenis.vibe.core.database_processing.PhenotypeResultCache;
+import org.molgenis.vibe.core.database_processing.QueryControl;
+import org.molgenis.vibe.core.database_processing.compiled_index.CompiledIndex;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.GenePanel;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.VibeDatabase;
+import org.molgenis.vibe.core.ontology_processing.CompiledHpoGraph;
+import org.molgenis.vibe.core.ontology_processing.HpoGraph;
+import org.molgenis.vibe.core.ontology_processing.PhenotypesRetrieverFactory;
+import org.molgenis.vibe.core.query_output_digestion.prioritization.gene.GenePrioritizer;
+import org.molgenis.vibe.core.query_output_digestion.prioritization.gene.HighestSingleDisgenetScoreGenePrioritizer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keeps the vibe database (or a {@link CompiledIndex} of it) and HPO ontology (as {@link HpoGraph}) loaded so that they can be reused for
+ * multiple gene prioritizations (instead of loading them again for each prioritization). Can be used from multiple
+ * threads. When using the database, the gene-disease associations per phenotype are cached so that phenotypes shared
+ * between prioritizations are only queried once (see {@link PhenotypeResultCache}). All retrievals can be restricted to
+ * the same {@link GenePanel} (see {@link #setGenePanel(GenePanel)}) and their database queries can be given a timeout
+ * (see {@link #setQueryTimeout(long, TimeUnit)}).
+ */
+public class VibeSession implements Closeable {
+    private VibeDatabase vibeDatabase;
+    private CompiledIndex compiledIndex;
+    private HpoGraph hpoGraph;
+
+    /**
+     * The genes all retrievals are restricted to ({@code null} if the retrievals should not be restricted).
+     */
+    private GenePanel genePanel;
+
+    /**
+     * The timeout per database query in milliseconds ({@code 0} if queries should not time out).
+     */
+    private long queryTimeoutMillis;
+
+    /**
+     * Loads the database & HPO ontology. The database is opened (see {@link VibeDatabase#open()}) so that it can be
+     * queried concurrently, and closed again when this session is closed.
+     * @param vibeDatabase the database to use
+     * @param hpoOntology the HPO ontology file to use
+     * @throws IOException if the database could not be loaded
+     */
+    public VibeSession(VibeDatabase vibeDatabase, Path hpoOntology) throws IOException {
+        this.vibeDatabase = requireNonNull(vibeDatabase);
+        requireNonNull(hpoOntology);
+
+        vibeDatabase.open();
+        try {
+            hpoGraph = CompiledHpoGraph.load(hpoOntology);
+        } catch (RuntimeException e) {
+            vibeDatabase.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Loads the HPO ontology and uses a {@link CompiledIndex} instead of the database. The index is closed when this
+     * session is closed.
+     * @param compiledIndex the compiled index to use
+     * @param hpoOntology the HPO ontology file to use
+     */
+    public VibeSession(CompiledIndex compiledIndex, Path hpoOntology) {
+        this.compiledIndex = requireNonNull(compiledIndex);
+        requireNonNull(hpoOntology);
+
+        try {
+            hpoGraph = CompiledHpoGraph.load(hpoOntology);
+        } catch (RuntimeException e) {
+            compiledIndex.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Restricts all gene-disease collections retrieved through this session to the genes within {@code genePanel} (see
+     * {@link GeneDiseaseCollectionRetrievalRunner#setGenePanel(GenePanel)}). Should be set before the session is used
+     * by multiple threads.
+     * @param genePanel the genes to restrict the retrievals to
+     */
+    public void setGenePanel(GenePanel genePanel) {
+        this.genePanel = requireNonNull(genePanel);
+    }
+
+    /**
+     * Sets the maximum time each database query of a retrieval may run. A retrieval of which a query timed out returns
+     * partial results (see {@link #retrieveGeneDiseaseCollection(Set, Set, boolean, QueryControl)}). Should be set
+     * before the session is used by multiple threads.
+     * @param timeout the maximum time each query is allowed to run
+     * @param unit the unit of {@code timeout}
+     * @throws IllegalArgumentException if {@code timeout} is not positive
+     */
+    public void setQueryTimeout(long timeout, TimeUnit unit) {
+        if(timeout <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive.");
+        }
+        this.queryTimeoutMillis = Math.max(1, unit.toMillis(timeout));
+    }
+
+    /**
+     * @return a new {@link QueryControl} for a single retrieval, using the query timeout of this session (if set)
+     */
+    public QueryControl createQueryControl() {
+        if(queryTimeoutMillis == 0) {
+            return new QueryControl();
+        }
+        return new QueryControl(queryTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param phenotypes the input phenotypes
+     * @param phenotypesRetrieverFactory the {@link PhenotypesRetrieverFactory} to use ({@code null} if no related
+     *                                   phenotypes should be retrieved)
+     * @param maxDistance the maximum distance to use (ignored if {@code phenotypesRetrieverFactory} is {@code null})
+     * @return the input phenotypes combined with (if requested) phenotypes associated to them
+     */
+    public Set<Phenotype> retrievePhenotypes(Set<Phenotype> phenotypes,
+                                             PhenotypesRetrieverFactory phenotypesRetrieverFactory,
+                                             Integer maxDistance) {
+        if(phenotypesRetrieverFactory == null) {
+            return phenotypes;
+        }
+        return new PhenotypesRetrievalRunner(hpoGraph, phenotypesRetrieverFactory, phenotypes,
+                maxDistance).call().getPhenotypes();
+    }
+
+    public GeneDiseaseCollection retrieveGeneDiseaseCollection(Set<Phenotype> phenotypes) throws IOException {
+        return retrieveGeneDiseaseCollection(phenotypes, GeneDiseaseCollectionContent.ALL);
+    }
+
+    /**
+     * @param phenotypes the phenotypes to retrieve the gene-disease associations for
+     * @param contents the optional content that is required (other optional content might not be retrieved)
+     * @return the gene-disease associations for {@code phenotypes}
+     * @throws IOException if the database could not be read
+     */
+    public GeneDiseaseCollection retrieveGeneDiseaseCollection(Set<Phenotype> phenotypes,
+                                                               Set<GeneDiseaseCollectionContent> contents)
+            throws IOException {
+        return retrieveGeneDiseaseCollection(phenotypes, contents, false);
+    }
+
+    /**
+     * @param phenotypes the phenotypes to retrieve the gene-disease associations for
+     * @param contents the optional content that is required (other optional content might not be retrieved)
+     * @param lazyPubmedEvidence whether the evidence should only be retrieved when needed (see
+     *                           {@link GenesForPhenotypeRetrieverFactory#SPARQL_LAZY_EVIDENCE}, ignored when using a
+     *                           compiled index)
+     * @return the gene-disease associations for {@code phenotypes}
+     * @throws IOException if the database could not be read
+     */
+    public GeneDiseaseCollection retrieveGeneDiseaseCollection(Set<Phenotype> phenotypes,
+                                                               Set<GeneDiseaseCollectionContent> contents,
+                                                               boolean lazyPubmedEvidence) throws IOException {
+        return retrieveGeneDiseaseCollection(phenotypes, contents, lazyPubmedEvidence, createQueryControl());
+    }
+
+    /**
+     * @param phenotypes the phenotypes to retrieve the gene-disease associations for
+     * @param contents the optional content that is required (other optional content might not be retrieved)
+     * @param lazyPubmedEvidence whether the evidence should only be retrieved when needed (see
+     *                           {@link GenesForPhenotypeRetrieverFactory#SPARQL_LAZY_EVIDENCE}, ignored when using a
+     *                           compiled index)
+     * @param queryControl the {@link QueryControl} to use for the database queries (see {@link #createQueryControl()}),
+     *                     through which can be checked afterwards whether the results are partial (see
+     *                     {@link QueryControl#isPartial()})
+     * @return the gene-disease associations for {@code phenotypes}
+     * @throws IOException if the database could not be read
+     */
+    public GeneDiseaseCollection retrieveGeneDiseaseCollection(Set<Phenotype> phenotypes,
+                                                               Set<GeneDiseaseCollectionContent> contents,
+                                                               boolean lazyPubmedEvidence, QueryControl queryControl)
+            throws IOException {
+        GeneDiseaseCollectionRetrievalRunner runner;
+        if(compiledIndex != null) {
+            runner = new GeneDiseaseCollectionRetrievalRunner(compiledIndex, phenotypes);
+        } else {
+            // Uses a ModelReader of the opened database (which can be used concurrently with those of other threads).
+            GenesForPhenotypeRetrieverFactory retrieverFactory = lazyPubmedEvidence ?
+                    GenesForPhenotypeRetrieverFactory.SPARQL_LAZY_EVIDENCE :
+                    GenesForPhenotypeRetrieverFactory.SPARQL_CACHED;
+            runner = new GeneDiseaseCollectionRetrievalRunner(vibeDatabase, phenotypes, retrieverFactory, contents);
+        }
+        runner.setQueryControl(queryControl);
+        if(genePanel != null) {
+            runner.setGenePanel(genePanel);
+        }
+        return runner.call();
+    }
+
+    /**
+     * @return the cache of the gene-disease associations per phenotype, or {@code null} if a {@link CompiledIndex} is
+     * used
+     */
+    public PhenotypeResultCache getPhenotypeResultCache() {
+        return vibeDatabase == null ? null : vibeDatabase.getPhenotypeResultCache();
+    }
+
+    public List<Gene> orderGenes(GeneDiseaseCollection geneDiseaseCollection) {
+        GenePrioritizer prioritizer = new HighestSingleDisgenetScoreGenePrioritizer();
+        return prioritizer.sort(geneDiseaseCollection);
+    }
+
+    /**
+     * Limits the gene priority to the highest prioritized genes and loads the evidence of these genes at once (if it
+     * was not retrieved yet, see {@link #retrieveGeneDiseaseCollection(Set, Set, boolean)}).
+     * @param geneDiseaseCollection the collection the genes belong to
+     * @param genePriority all genes ordered on priority
+     * @param topGenes the number of genes to keep
+     * @return the {@code topGenes} highest prioritized genes
+     */
+    public static List<Gene> selectTopGenes(GeneDiseaseCollection geneDiseaseCollection, List<Gene> genePriority,
+                                            int topGenes) {
+        List<Gene> topGenePriority = genePriority.subList(0, Math.min(topGenes, genePriority.size()));
+        geneDiseaseCollection.loadPubmedEvidence(topGenePriority);
+        return topGenePriority;
+    }
+
+    @Override
+    public void close() {
+        if(vibeDatabase != null) {
+            vibeDatabase.close();
+        }
+        if(compiledIndex != null) {
+            compiledIndex.close();
+        }
+    }
+}
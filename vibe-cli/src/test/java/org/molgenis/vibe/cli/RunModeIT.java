@@ -5,20 +5,29 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.molgenis.vibe.cli.io.options_digestion.VibeOptions;
 import org.molgenis.vibe.cli.io.output.format.gene_prioritized.GenePrioritizedOutputFormatWriterFactory;
 import org.molgenis.vibe.cli.io.output.target.StdoutOutputWriter;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GenePanel;
+import org.molgenis.vibe.core.formats.GeneSymbol;
 import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.HdtIndex;
 import org.molgenis.vibe.core.io.input.ModelReaderFactory;
 import org.molgenis.vibe.core.io.input.VibeDatabase;
 import org.molgenis.vibe.core.ontology_processing.PhenotypesRetrieverFactory;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import static org.mockito.Mockito.when;
 
@@ -74,6 +83,9 @@ class RunModeIT {
         when(mockedVibeOptions.getGenePrioritizedOutputFormatWriterFactory())
                 .thenReturn(GenePrioritizedOutputFormatWriterFactory.SIMPLE);
         when(mockedVibeOptions.getOutputWriter()).thenReturn(new StdoutOutputWriter());
+        // A mocked Integer getter returns 0 instead of null (which would only keep the top 0 genes).
+        when(mockedVibeOptions.getTopGenes()).thenReturn(null);
+        when(mockedVibeOptions.getQueryTimeout()).thenReturn(null);
 
         // Main goal is to ensure no errors are thrown, but output validation purely for gene order is present as well.
         // Based on: GeneDiseaseCollectionRetrievalRunnerIT if sorted by GenePrioritizedOutputFormatWriterFactory.SIMPLE
@@ -95,6 +107,9 @@ class RunModeIT {
         when(mockedVibeOptions.getGenePrioritizedOutputFormatWriterFactory())
                 .thenReturn(GenePrioritizedOutputFormatWriterFactory.SIMPLE);
         when(mockedVibeOptions.getOutputWriter()).thenReturn(new StdoutOutputWriter());
+        // A mocked Integer getter returns 0 instead of null (which would only keep the top 0 genes).
+        when(mockedVibeOptions.getTopGenes()).thenReturn(null);
+        when(mockedVibeOptions.getQueryTimeout()).thenReturn(null);
 
         // Main goal is to ensure no errors are thrown, but output validation purely for gene order is present as well.
         // Note that while ontology retrieval is done, due to distance 0 the output is the same. This might change when
@@ -103,4 +118,72 @@ class RunModeIT {
         RunMode.GENES_FOR_PHENOTYPES_WITH_ASSOCIATED_PHENOTYPES.run(mockedVibeOptions);
         Assertions.assertEquals("29123,56172,2697,2475,23522,286,23028", outContent.toString());
     }
+
+    @Test
+    void testIfGenesForPhenotypesWithGenePanelWorks() throws Exception {
+        when(mockedVibeOptions.getPhenotypes())
+                .thenReturn(new HashSet<>(Arrays.asList(new Phenotype("hp:0008438"))));
+        when(mockedVibeOptions.getVibeDatabase())
+                .thenReturn(new VibeDatabase(TestData.HDT.getFullPath(), ModelReaderFactory.HDT));
+        when(mockedVibeOptions.getGenePrioritizedOutputFormatWriterFactory())
+                .thenReturn(GenePrioritizedOutputFormatWriterFactory.SIMPLE);
+        when(mockedVibeOptions.getOutputWriter()).thenReturn(new StdoutOutputWriter());
+        // A mocked Integer getter returns 0 instead of null (which would only keep the top 0 genes).
+        when(mockedVibeOptions.getTopGenes()).thenReturn(null);
+        when(mockedVibeOptions.getQueryTimeout()).thenReturn(null);
+
+        // Retrieves all genes first, so that the gene panel can be based on genes present within the database.
+        RunMode.GENES_FOR_PHENOTYPES.run(mockedVibeOptions);
+        String[] allGenes = outContent.toString().split(",");
+        Assertions.assertTrue(allGenes.length >= 3, "too few genes to create a gene panel from");
+        outContent.reset();
+
+        // Besides 2 genes within the output, the panel contains a gene & gene symbol absent from the database.
+        Set<Gene> panelGenes = new HashSet<>(Arrays.asList(new Gene("ncbigene:" + allGenes[2]),
+                new Gene("ncbigene:" + allGenes[0]), new Gene("ncbigene:999999999")));
+        when(mockedVibeOptions.getGenePanel()).thenReturn(
+                new GenePanel(panelGenes, Collections.singleton(new GeneSymbol("hgnc:NOTAGENE"))));
+        when(mockedVibeOptions.getVibeDatabase())
+                .thenReturn(new VibeDatabase(TestData.HDT.getFullPath(), ModelReaderFactory.HDT));
+
+        // Same order as without gene panel, but only the genes within the gene panel.
+        RunMode.GENES_FOR_PHENOTYPES.run(mockedVibeOptions);
+        Assertions.assertEquals(allGenes[0] + "," + allGenes[2], outContent.toString());
+    }
+
+    @Test
+    void testIfPhenotypesForGenesWorks() throws Exception {
+        when(mockedVibeOptions.getGenes()).thenReturn(new LinkedHashSet<>(Arrays.asList(new Gene("ncbigene:107"),
+                new Gene("ncbigene:999999"), new Gene("ncbigene:785"))));
+
+        when(mockedVibeOptions.getVibeDatabase())
+                .thenReturn(new VibeDatabase(TestData.HDT.getFullPath(), ModelReaderFactory.HDT));
+        when(mockedVibeOptions.getOutputWriter()).thenReturn(new StdoutOutputWriter());
+        // A mocked Integer getter returns 0 instead of null (which is not a valid timeout).
+        when(mockedVibeOptions.getQueryTimeout()).thenReturn(null);
+
+        // Genes are written in input order, a gene not present in the database is skipped.
+        RunMode.PHENOTYPES_FOR_GENES.run(mockedVibeOptions);
+        String[] lines = outContent.toString().split(System.lineSeparator());
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(3, lines.length),
+                () -> Assertions.assertEquals("107\tG107\t0008141,0008170,0008242,0008260,0008358,0008363\t" +
+                        "C0001307 (1.0):0008141,0008170,0008260,0008358,0008363|C0001581 (0.1):0008242", lines[1]),
+                () -> Assertions.assertEquals("785\tG785\t0008170,0008178,0008236,0008237,0008304,0008329\t" +
+                        "C0001112 (1.0):0008170,0008178,0008236,0008237,0008304,0008329", lines[2])
+        );
+    }
+
+    @Test
+    void testIfBuildHdtIndexWorks(@TempDir Path indexDir) throws Exception {
+        HdtIndex hdtIndex = HdtIndex.inDirectory(TestData.HDT.getFullPath(), indexDir);
+        when(mockedVibeOptions.getHdtIndex()).thenReturn(hdtIndex);
+
+        // First run builds the index, second run only verifies it.
+        RunMode.BUILD_HDT_INDEX.run(mockedVibeOptions);
+        Assertions.assertTrue(hdtIndex.exists());
+        RunMode.BUILD_HDT_INDEX.run(mockedVibeOptions);
+        Assertions.assertTrue(outContent.toString().endsWith(hdtIndex.getIndexFile() + " is a valid index of " +
+                TestData.HDT.getFullPath() + System.lineSeparator()));
+    }
 }
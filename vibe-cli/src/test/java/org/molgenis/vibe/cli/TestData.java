@@ -33,6 +33,24 @@ public enum TestData {
         public String getName() {
             return "shared/output.tsv";
         }
+    },
+    PATIENTS_TSV {
+        @Override
+        public String getName() {
+            return "batch/patients.tsv";
+        }
+    },
+    PATIENTS_JSONL {
+        @Override
+        public String getName() {
+            return "batch/patients.jsonl";
+        }
+    },
+    GENE_PANEL {
+        @Override
+        public String getName() {
+            return "gene_panel/panel.txt";
+        }
     };
 
     /**
@@ -0,0 +1,135 @@
+package org.molgenis.vibe.cli.batch;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.molgenis.vibe.cli.TestData;
+import org.molgenis.vibe.cli.io.output.format.gene_prioritized.GenePrioritizedOutputFormatWriterFactory;
+import org.molgenis.vibe.cli.session.VibeSession;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GenePanel;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.ModelReaderFactory;
+import org.molgenis.vibe.core.io.input.VibeDatabase;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+class BatchRunnerIT {
+    private static VibeSession session;
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        session = new VibeSession(new VibeDatabase(TestData.HDT.getFullPath(), ModelReaderFactory.HDT),
+                TestData.HPO_OWL.getFullPath());
+    }
+
+    @AfterAll
+    static void afterAll() {
+        session.close();
+    }
+
+    @Test
+    void testBatchEqualsSinglePatientRetrieval(@TempDir Path outputDir) throws Exception {
+        // Multiple identical patients processed in parallel should give identical output.
+        List<Patient> patients = new ArrayList<>();
+        for(int i = 0; i < 6; i++) {
+            patients.add(new Patient("patient" + i, new HashSet<>(Arrays.asList(new Phenotype("hp:0008438")))));
+        }
+
+        BatchRunner batchRunner = new BatchRunner(session, null, null,
+                GenePrioritizedOutputFormatWriterFactory.SIMPLE, outputDir, false, 3);
+        Map<Patient, Exception> failures = batchRunner.run(patients, patient -> {});
+
+        // Based on: RunModeIT
+        Assertions.assertTrue(failures.isEmpty());
+        for(Patient patient : patients) {
+            Path outputFile = batchRunner.getOutputFile(patient);
+            Assertions.assertEquals(outputDir.resolve(patient.getId() + ".txt"), outputFile);
+            Assertions.assertEquals("29123,56172,2697,2475,23522,286,23028",
+                    new String(Files.readAllBytes(outputFile), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testGenePanel(@TempDir Path outputDir) throws Exception {
+        Patient patient = new Patient("patient1", new HashSet<>(Arrays.asList(new Phenotype("hp:0008438"))));
+        List<String> allGenes = Arrays.asList(runSimple(session, patient, outputDir.resolve("all")).split(","));
+
+        // Restricts to every other gene of the unrestricted output.
+        Set<Gene> panelGenes = new HashSet<>();
+        List<String> expectedGenes = new ArrayList<>();
+        for(int i = 0; i < allGenes.size(); i += 2) {
+            panelGenes.add(new Gene("ncbigene:" + allGenes.get(i)));
+            expectedGenes.add(allGenes.get(i));
+        }
+
+        try (VibeSession panelSession = new VibeSession(new VibeDatabase(TestData.HDT.getFullPath(),
+                ModelReaderFactory.HDT), TestData.HPO_OWL.getFullPath())) {
+            panelSession.setGenePanel(new GenePanel(panelGenes, Collections.emptySet()));
+            Assertions.assertEquals(String.join(",", expectedGenes),
+                    runSimple(panelSession, patient, outputDir.resolve("panel")));
+        }
+    }
+
+    @Test
+    void testQueryTimeout(@TempDir Path outputDir) throws Exception {
+        Set<Phenotype> phenotypes = new HashSet<>();
+        for(int i = 8000; i < 8440; i++) {
+            phenotypes.add(new Phenotype("hp:000" + i));
+        }
+        Patient patient = new Patient("patient1", phenotypes);
+
+        try (VibeSession timeoutSession = new VibeSession(new VibeDatabase(TestData.HDT.getFullPath(),
+                ModelReaderFactory.HDT), TestData.HPO_OWL.getFullPath())) {
+            timeoutSession.setQueryTimeout(1, TimeUnit.NANOSECONDS);
+            BatchRunner batchRunner = new BatchRunner(timeoutSession, null, null,
+                    GenePrioritizedOutputFormatWriterFactory.SIMPLE, outputDir, false, 1);
+            Map<Patient, Exception> failures = batchRunner.run(Arrays.asList(patient), p -> {});
+
+            // No output should be written based on incomplete results.
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(TimeoutException.class, failures.get(patient).getClass()),
+                    () -> Assertions.assertFalse(Files.exists(batchRunner.getOutputFile(patient)))
+            );
+        }
+    }
+
+    @Test
+    void testExistingOutputIsNotOverwritten(@TempDir Path outputDir) throws Exception {
+        Patient patient = new Patient("patient1", new HashSet<>(Arrays.asList(new Phenotype("hp:0008438"))));
+        Files.createFile(outputDir.resolve("patient1.tsv"));
+
+        BatchRunner batchRunner = new BatchRunner(session, null, null,
+                GenePrioritizedOutputFormatWriterFactory.REGULAR_ID, outputDir, false, 1);
+        Map<Patient, Exception> failures = batchRunner.run(Arrays.asList(patient), p -> {});
+
+        Assertions.assertEquals(FileAlreadyExistsException.class, failures.get(patient).getClass());
+    }
+
+    /**
+     * @return the simple output (comma-separated gene ids) of {@code patient}
+     */
+    private static String runSimple(VibeSession session, Patient patient, Path outputDir) throws Exception {
+        Files.createDirectory(outputDir);
+        BatchRunner batchRunner = new BatchRunner(session, null, null,
+                GenePrioritizedOutputFormatWriterFactory.SIMPLE, outputDir, false, 1);
+        Map<Patient, Exception> failures = batchRunner.run(Arrays.asList(patient), p -> {});
+        Assertions.assertTrue(failures.isEmpty());
+        return new String(Files.readAllBytes(batchRunner.getOutputFile(patient)), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,64 @@
+package org.molgenis.vibe.cli.batch;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.formats.Phenotype;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+class PatientsFileFormatTest {
+    private final Patient EXPECTED_PATIENT = new Patient("patient-1.a_b", new HashSet<>(Arrays.asList(
+            new Phenotype("hp:0123456"),
+            new Phenotype("hp:6543210")
+    )));
+
+    @Test
+    void parseTsvSeparateColumns() {
+        Assertions.assertEquals(EXPECTED_PATIENT, PatientsFileFormat.TSV.parseLine("patient-1.a_b\tHP:0123456\tHP:6543210"));
+    }
+
+    @Test
+    void parseTsvCommaSeparated() {
+        Assertions.assertEquals(EXPECTED_PATIENT, PatientsFileFormat.TSV.parseLine("patient-1.a_b\tHP:0123456, HP:6543210"));
+    }
+
+    @Test
+    void parseTsvWithoutPhenotypes() {
+        Exception exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> PatientsFileFormat.TSV.parseLine("patient1"));
+        Assertions.assertEquals("Patient patient1 has no phenotypes.", exception.getMessage());
+    }
+
+    @Test
+    void parseTsvInvalidPhenotype() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> PatientsFileFormat.TSV.parseLine("patient1\tHP:0123"));
+    }
+
+    @Test
+    void parseTsvInvalidPatientId() {
+        Exception exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> PatientsFileFormat.TSV.parseLine("../patient1\tHP:0123456"));
+        Assertions.assertEquals("Invalid patient id \"../patient1\" (only letters, digits, '.', '_' and '-' are allowed).", exception.getMessage());
+    }
+
+    @Test
+    void parseJsonLine() {
+        Assertions.assertEquals(EXPECTED_PATIENT, PatientsFileFormat.JSON_LINES.parseLine(
+                "{\"id\": \"patient-1.a_b\", \"phenotypes\": [\"HP:0123456\", \"hp:6543210\"]}"));
+    }
+
+    @Test
+    void parseJsonLineMissingPhenotypes() {
+        Exception exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> PatientsFileFormat.JSON_LINES.parseLine("{\"id\": \"patient1\"}"));
+        Assertions.assertEquals("Line requires an \"id\" and a \"phenotypes\" array.", exception.getMessage());
+    }
+
+    @Test
+    void parseJsonLineInvalidJson() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> PatientsFileFormat.JSON_LINES.parseLine("{\"id\": \"patient1\", "));
+    }
+}
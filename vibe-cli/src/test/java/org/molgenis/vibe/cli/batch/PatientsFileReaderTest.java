@@ -0,0 +1,49 @@
+package org.molgenis.vibe.cli.batch;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.cli.TestData;
+import org.molgenis.vibe.core.formats.Phenotype;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+class PatientsFileReaderTest {
+    private final List<Patient> EXPECTED_PATIENTS = Arrays.asList(
+            new Patient("patient1", new HashSet<>(Arrays.asList(
+                    new Phenotype("hp:0008438")
+            ))),
+            new Patient("patient2", new HashSet<>(Arrays.asList(
+                    new Phenotype("hp:0008438"),
+                    new Phenotype("hp:0000118"),
+                    new Phenotype("hp:0001377")
+            )))
+    );
+
+    @Test
+    void readTsv() throws IOException {
+        Assertions.assertEquals(EXPECTED_PATIENTS, new PatientsFileReader(TestData.PATIENTS_TSV.getFullPath()).read());
+    }
+
+    @Test
+    void readJsonLines() throws IOException {
+        Assertions.assertEquals(EXPECTED_PATIENTS, new PatientsFileReader(TestData.PATIENTS_JSONL.getFullPath()).read());
+    }
+
+    @Test
+    void formatBasedOnExtension() {
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(PatientsFileFormat.TSV, PatientsFileFormat.retrieve(TestData.PATIENTS_TSV.getFullPath())),
+                () -> Assertions.assertEquals(PatientsFileFormat.JSON_LINES, PatientsFileFormat.retrieve(TestData.PATIENTS_JSONL.getFullPath()))
+        );
+    }
+
+    @Test
+    void readUsingWrongFormat() {
+        Exception exception = Assertions.assertThrows(IOException.class,
+                () -> new PatientsFileReader(TestData.PATIENTS_TSV.getFullPath(), PatientsFileFormat.JSON_LINES).read());
+        Assertions.assertTrue(exception.getMessage().startsWith("patients.tsv line 2: "));
+    }
+}
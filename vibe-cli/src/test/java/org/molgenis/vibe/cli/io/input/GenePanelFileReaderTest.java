@@ -0,0 +1,54 @@
+package org.molgenis.vibe.cli.io.input;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.molgenis.vibe.cli.TestData;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GenePanel;
+import org.molgenis.vibe.core.formats.GeneSymbol;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+
+class GenePanelFileReaderTest {
+    @Test
+    void read() throws IOException {
+        GenePanel expected = new GenePanel(
+                new HashSet<>(Arrays.asList(new Gene("ncbigene:2697"), new Gene("ncbigene:286"),
+                        new Gene("ncbigene:23028"))),
+                new HashSet<>(Arrays.asList(new GeneSymbol("hgnc:G29123"), new GeneSymbol("hgnc:G56172"))));
+
+        Assertions.assertEquals(expected, new GenePanelFileReader(TestData.GENE_PANEL.getFullPath()).read());
+    }
+
+    @Test
+    void readInvalidPrefix(@TempDir Path dir) throws IOException {
+        Path file = Files.write(dir.resolve("panel.txt"), Arrays.asList("ncbigene:2697", "omim:100100"),
+                StandardCharsets.UTF_8);
+
+        Exception exception = Assertions.assertThrows(IOException.class, () -> new GenePanelFileReader(file).read());
+        Assertions.assertEquals("panel.txt line 2: \"omim:100100\" is not an NCBI gene id or HGNC symbol.",
+                exception.getMessage());
+    }
+
+    @Test
+    void readInvalidGeneId(@TempDir Path dir) throws IOException {
+        Path file = Files.write(dir.resolve("panel.txt"), Arrays.asList("ncbigene:A2M"), StandardCharsets.UTF_8);
+
+        Exception exception = Assertions.assertThrows(IOException.class, () -> new GenePanelFileReader(file).read());
+        Assertions.assertTrue(exception.getMessage().startsWith("panel.txt line 1: "));
+    }
+
+    @Test
+    void readWithoutGenes(@TempDir Path dir) throws IOException {
+        Path file = Files.write(dir.resolve("panel.txt"), Arrays.asList("# empty panel", ""), StandardCharsets.UTF_8);
+
+        Exception exception = Assertions.assertThrows(IOException.class, () -> new GenePanelFileReader(file).read());
+        Assertions.assertEquals("panel.txt does not contain any genes.", exception.getMessage());
+    }
+}
@@ -5,15 +5,21 @@ import org.apache.commons.cli.UnrecognizedOptionException;
 import org.apache.commons.lang3.ArrayUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.molgenis.vibe.cli.RunMode;
 import org.molgenis.vibe.cli.TestData;
+import org.molgenis.vibe.core.formats.Gene;
 import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.ModelReaderFactory;
 import org.molgenis.vibe.cli.io.output.format.gene_prioritized.GenePrioritizedOutputFormatWriterFactory;
 import org.molgenis.vibe.cli.io.output.target.FileOutputWriter;
 import org.molgenis.vibe.cli.io.output.target.StdoutOutputWriter;
 import org.molgenis.vibe.core.ontology_processing.PhenotypesRetrieverFactory;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -27,6 +33,7 @@ class CommandLineOptionsParserTest {
     private final String[] URIS_OUT = new String[]{"-u"};
 
     private final String[] VALID_DATABASE = new String[]{"-t", TestData.HDT.getFullPathString()};
+    private final String[] MAPPED_DATABASE = new String[]{"-k"};
     private final String[] INVALID_DATABASE_DIR = new String[]{"-t", TestData.NON_EXISTING_DIR.getFullPathString()};
     private final String[] INVALID_DATABASE_FILE = new String[]{"-t", TestData.NON_EXISTING_FILE.getFullPathString()};
 
@@ -54,6 +61,24 @@ class CommandLineOptionsParserTest {
             new Phenotype("hp:6543210")
     }));
 
+    private final String[] VALID_GENES = new String[]{"-a", "ncbigene:785", "-a", "ncbigene:107"};
+    private final String[] INVALID_GENE = new String[]{"-a", "785"};
+
+    private final String[] VALID_GENE_PANEL = new String[]{"-r", TestData.GENE_PANEL.getFullPathString()};
+    private final String[] GENE_PANEL_NON_EXISTING = new String[]{"-r", TestData.NON_EXISTING_FILE.getFullPathString()};
+
+    private final String[] BATCH_TSV = new String[]{"-b", TestData.PATIENTS_TSV.getFullPathString()};
+    private final String[] BATCH_NON_EXISTING = new String[]{"-b", TestData.NON_EXISTING_FILE.getFullPathString()};
+
+    private final String[] SERVER_VALID_PORT = new String[]{"-s", "8080"};
+    private final String[] SERVER_INVALID_PORT = new String[]{"-s", "port"};
+    private final String[] VALID_THREADS = new String[]{"-c", "4"};
+    private final String[] INVALID_THREADS = new String[]{"-c", "0"};
+    private final String[] VALID_TOP_GENES = new String[]{"-g", "20"};
+    private final String[] INVALID_TOP_GENES = new String[]{"-g", "0"};
+    private final String[] VALID_QUERY_TIMEOUT = new String[]{"-q", "30"};
+    private final String[] INVALID_QUERY_TIMEOUT = new String[]{"-q", "0"};
+
     private final String[] OUTPUT_FILE_NEW = new String[]{"-o", TestData.NON_EXISTING_FILE.getFullPathString()};
     private final String[] OUTPUT_FILE_EXISTING = new String[]{"-o", TestData.EXISTING_TSV.getFullPathString()};
 
@@ -110,6 +135,17 @@ class CommandLineOptionsParserTest {
         );
     }
 
+    @Test
+    void validSingleHpoWithoutOntologyTraversalUsingMappedDatabase() throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, MAPPED_DATABASE, VALID_ONTOLOGY, VALID_HPO_SINGLE, OUTPUT_FILE_NEW);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.GENES_FOR_PHENOTYPES, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(ModelReaderFactory.HDT_MAPPED, vibeOptions.getVibeDatabase().getModelReaderFactory())
+        );
+    }
+
     @Test
     void validSingleHpoWithoutOntologyTraversalUsingUriOutputFile() throws ParseException {
         String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, VALID_HPO_SINGLE, OUTPUT_FILE_NEW, URIS_OUT);
@@ -136,6 +172,46 @@ class CommandLineOptionsParserTest {
         );
     }
 
+    @Test
+    void validSingleHpoWithTopGenes() throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, VALID_HPO_SINGLE, OUTPUT_FILE_NEW, VALID_TOP_GENES);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.GENES_FOR_PHENOTYPES, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(Integer.valueOf(20), vibeOptions.getTopGenes()),
+                () -> Assertions.assertTrue(vibeOptions.validate())
+        );
+    }
+
+    @Test
+    void validSingleHpoWithInvalidTopGenes() {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, VALID_HPO_SINGLE, OUTPUT_FILE_NEW, INVALID_TOP_GENES);
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals(INVALID_TOP_GENES[1] + " is not a valid number of genes (must be a number >= 1).", exception.getMessage());
+    }
+
+    @Test
+    void validSingleHpoWithQueryTimeout() throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, VALID_HPO_SINGLE, OUTPUT_FILE_NEW, VALID_QUERY_TIMEOUT);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.GENES_FOR_PHENOTYPES, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(Integer.valueOf(30), vibeOptions.getQueryTimeout()),
+                () -> Assertions.assertTrue(vibeOptions.validate())
+        );
+    }
+
+    @Test
+    void validSingleHpoWithInvalidQueryTimeout() {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, VALID_HPO_SINGLE, OUTPUT_FILE_NEW, INVALID_QUERY_TIMEOUT);
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals(INVALID_QUERY_TIMEOUT[1] + " is not a valid query timeout (must be a number of seconds >= 1).", exception.getMessage());
+    }
+
     @Test
     void validSingleHpoWithoutOntologyTraversalUsingStdoutOutput() throws ParseException {
         String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, VALID_HPO_SINGLE);
@@ -344,6 +420,350 @@ class CommandLineOptionsParserTest {
         Assertions.assertEquals(TestData.NON_EXISTING_DIR.getName() + " is not a readable file.", exception.getMessage());
     }
 
+    @Test
+    void validBatch(@TempDir Path outputDir) throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, BATCH_TSV, new String[]{"-o", outputDir.toString()}, SIMPLIFIED_OUT, VALID_THREADS);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.BATCH, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(TestData.PATIENTS_TSV.getFullPath(), vibeOptions.getBatchFile()),
+                () -> Assertions.assertEquals(outputDir, vibeOptions.getOutputDirectory()),
+                () -> Assertions.assertEquals(GenePrioritizedOutputFormatWriterFactory.SIMPLE, vibeOptions.getGenePrioritizedOutputFormatWriterFactory()),
+                () -> Assertions.assertEquals(4, vibeOptions.getThreads()),
+                () -> Assertions.assertNull(vibeOptions.getPhenotypesRetrieverFactory()),
+                () -> Assertions.assertTrue(vibeOptions.validate())
+        );
+    }
+
+    @Test
+    void validBatchWithHpoAlgorithm(@TempDir Path outputDir) throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, BATCH_TSV, new String[]{"-o", outputDir.toString()}, HPO_ALGORITHM_DISTANCE, VALID_DISTANCE);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.BATCH, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(PhenotypesRetrieverFactory.DISTANCE, vibeOptions.getPhenotypesRetrieverFactory()),
+                () -> Assertions.assertEquals(3, vibeOptions.getOntologyMaxDistance()),
+                () -> Assertions.assertTrue(vibeOptions.validate())
+        );
+    }
+
+    @Test
+    void validBatchWithTopGenes(@TempDir Path outputDir) throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, BATCH_TSV, new String[]{"-o", outputDir.toString()}, VALID_TOP_GENES);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.BATCH, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(Integer.valueOf(20), vibeOptions.getTopGenes()),
+                () -> Assertions.assertTrue(vibeOptions.validate())
+        );
+    }
+
+    @Test
+    void validBatchWithGenePanel(@TempDir Path outputDir) throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, BATCH_TSV, new String[]{"-o", outputDir.toString()}, VALID_GENE_PANEL);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.BATCH, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(5, vibeOptions.getGenePanel().size()),
+                () -> Assertions.assertTrue(vibeOptions.validate())
+        );
+    }
+
+    @Test
+    void batchMissingOutputAndDistance() {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, BATCH_TSV, HPO_ALGORITHM_DISTANCE);
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals("Missing arguments: -o, -m", exception.getMessage());
+    }
+
+    @Test
+    void batchNonExistingFile(@TempDir Path outputDir) {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, BATCH_NON_EXISTING, new String[]{"-o", outputDir.toString()});
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals(TestData.NON_EXISTING_FILE.getName() + " is not a readable file.", exception.getMessage());
+    }
+
+    @Test
+    void validServer() throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, SERVER_VALID_PORT, VALID_THREADS);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.SERVER, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(8080, vibeOptions.getServerPort()),
+                () -> Assertions.assertEquals(4, vibeOptions.getThreads()),
+                () -> Assertions.assertTrue(vibeOptions.getPhenotypes().isEmpty())
+        );
+    }
+
+    @Test
+    void validServerWithGenePanel() throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, SERVER_VALID_PORT, VALID_GENE_PANEL);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.SERVER, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(5, vibeOptions.getGenePanel().size())
+        );
+    }
+
+    @Test
+    void validServerWithQueryTimeout() throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, SERVER_VALID_PORT, VALID_QUERY_TIMEOUT);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.SERVER, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(Integer.valueOf(30), vibeOptions.getQueryTimeout())
+        );
+    }
+
+    @Test
+    void validBatchWithQueryTimeout(@TempDir Path outputDir) throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, BATCH_TSV, new String[]{"-o", outputDir.toString()}, VALID_QUERY_TIMEOUT);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.BATCH, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(Integer.valueOf(30), vibeOptions.getQueryTimeout()),
+                () -> Assertions.assertTrue(vibeOptions.validate())
+        );
+    }
+
+    @Test
+    void serverNonExistingGenePanel() {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, SERVER_VALID_PORT, GENE_PANEL_NON_EXISTING);
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals(TestData.NON_EXISTING_FILE.getName() + " is not a readable file.", exception.getMessage());
+    }
+
+    @Test
+    void serverMissingDatabase() {
+        String[] args = stringArraysMerger(VALID_ONTOLOGY, SERVER_VALID_PORT);
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals("Missing arguments: -t", exception.getMessage());
+    }
+
+    @Test
+    void serverInvalidPort() {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, SERVER_INVALID_PORT);
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals(SERVER_INVALID_PORT[1] + " is not a valid port (must be a number between 0 and 65535).", exception.getMessage());
+    }
+
+    @Test
+    void serverInvalidThreads() {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, SERVER_VALID_PORT, INVALID_THREADS);
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals(INVALID_THREADS[1] + " is not a valid number of threads (must be a number >= 1).", exception.getMessage());
+    }
+
+    @Test
+    void validCompileIndex(@TempDir Path outputDir) throws ParseException {
+        Path indexFile = outputDir.resolve("vibe.idx");
+        String[] args = stringArraysMerger(VALID_DATABASE, new String[]{"-x", indexFile.toString()});
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.COMPILE_INDEX, vibeOptions.getRunMode()),
+                () -> Assertions.assertNotNull(vibeOptions.getVibeDatabase()),
+                () -> Assertions.assertEquals(indexFile, vibeOptions.getCompiledIndexOutput()),
+                () -> Assertions.assertTrue(vibeOptions.validate())
+        );
+    }
+
+    @Test
+    void compileIndexMissingDatabase(@TempDir Path outputDir) {
+        String[] args = new String[]{"-x", outputDir.resolve("vibe.idx").toString()};
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals("Missing arguments: -t", exception.getMessage());
+    }
+
+    @Test
+    void compileIndexExistingOutputWithoutOverwrite() {
+        String[] args = stringArraysMerger(VALID_DATABASE, new String[]{"-x", TestData.EXISTING_TSV.getFullPathString()});
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals(TestData.EXISTING_TSV.getName().split("/")[1] + " already exists.", exception.getMessage());
+    }
+
+    @Test
+    void compileIndexExistingOutputWithOverwrite() throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, FORCE_OVERWRITE, new String[]{"-x", TestData.EXISTING_TSV.getFullPathString()});
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertEquals(TestData.EXISTING_TSV.getFullPath(), vibeOptions.getCompiledIndexOutput());
+    }
+
+    @Test
+    void validSingleHpoUsingCompiledIndex(@TempDir Path indexDir) throws Exception {
+        Path indexFile = Files.createFile(indexDir.resolve("vibe.idx"));
+        String[] args = stringArraysMerger(new String[]{"-i", indexFile.toString()}, VALID_ONTOLOGY, VALID_HPO_SINGLE);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.GENES_FOR_PHENOTYPES, vibeOptions.getRunMode()),
+                () -> Assertions.assertNull(vibeOptions.getVibeDatabase()),
+                () -> Assertions.assertEquals(indexFile, vibeOptions.getCompiledIndex()),
+                () -> Assertions.assertTrue(vibeOptions.validate())
+        );
+    }
+
+    @Test
+    void nonExistingCompiledIndex() {
+        String[] args = stringArraysMerger(new String[]{"-i", TestData.NON_EXISTING_FILE.getFullPathString()}, VALID_ONTOLOGY, VALID_HPO_SINGLE);
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals(TestData.NON_EXISTING_FILE.getName() + " is not a readable file.", exception.getMessage());
+    }
+
+    @Test
+    void validBuildHdtIndex() throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, new String[]{"-y"});
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.BUILD_HDT_INDEX, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(TestData.HDT.getFullPath(), vibeOptions.getHdtIndex().getHdtFile()),
+                () -> Assertions.assertEquals(Paths.get(TestData.HDT.getFullPathString() + ".index.v1-1"), vibeOptions.getHdtIndex().getIndexFile()),
+                () -> Assertions.assertFalse(vibeOptions.isOverwriteOutput()),
+                () -> Assertions.assertTrue(vibeOptions.validate())
+        );
+    }
+
+    @Test
+    void validBuildHdtIndexInDirectory(@TempDir Path indexDir) throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, FORCE_OVERWRITE, new String[]{"-y", "-e", indexDir.toString()});
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.BUILD_HDT_INDEX, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(indexDir.resolve("vibe.hdt.index.v1-1"), vibeOptions.getHdtIndex().getIndexFile()),
+                () -> Assertions.assertTrue(vibeOptions.isOverwriteOutput()),
+                () -> Assertions.assertTrue(vibeOptions.validate())
+        );
+    }
+
+    @Test
+    void buildHdtIndexMissingDatabase() {
+        String[] args = new String[]{"-y"};
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals("Missing arguments: -t", exception.getMessage());
+    }
+
+    @Test
+    void buildHdtIndexNonExistingDatabase() {
+        String[] args = new String[]{"-t", TestData.NON_EXISTING_FILE.getFullPathString(), "-y"};
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals(TestData.NON_EXISTING_FILE.getName() + " is not a readable file.", exception.getMessage());
+    }
+
+    @Test
+    void validPhenotypesForGenes() throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_GENES);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.PHENOTYPES_FOR_GENES, vibeOptions.getRunMode()),
+                () -> Assertions.assertNotNull(vibeOptions.getVibeDatabase()),
+                // Genes are kept in input order.
+                () -> Assertions.assertEquals(Arrays.asList(new Gene("ncbigene:785"), new Gene("ncbigene:107")),
+                        new ArrayList<>(vibeOptions.getGenes())),
+                () -> Assertions.assertEquals(StdoutOutputWriter.class, vibeOptions.getOutputWriter().getClass()),
+                () -> Assertions.assertTrue(vibeOptions.validate())
+        );
+    }
+
+    @Test
+    void validPhenotypesForGenesUsingOutputFile() throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, DEBUG, VALID_GENES, OUTPUT_FILE_NEW);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.PHENOTYPES_FOR_GENES, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(FileOutputWriter.class, vibeOptions.getOutputWriter().getClass()),
+                () -> Assertions.assertTrue(vibeOptions.isVerbose()),
+                () -> Assertions.assertTrue(vibeOptions.validate())
+        );
+    }
+
+    @Test
+    void phenotypesForGenesMissingDatabase() {
+        String[] args = stringArraysMerger(VALID_ONTOLOGY, VALID_GENES);
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals("Missing arguments: -t", exception.getMessage());
+    }
+
+    @Test
+    void invalidGene() {
+        String[] args = stringArraysMerger(VALID_DATABASE, INVALID_GENE);
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals(INVALID_GENE[1] + " does not adhere the required format: ^(ncbigene|NCBIGENE):([0-9]+)$", exception.getMessage());
+    }
+
+    @Test
+    void validSingleHpoWithGenePanel() throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, VALID_HPO_SINGLE, VALID_GENE_PANEL);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.GENES_FOR_PHENOTYPES, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(5, vibeOptions.getGenePanel().size()),
+                () -> Assertions.assertTrue(vibeOptions.validate())
+        );
+    }
+
+    @Test
+    void validSingleHpoWithoutGenePanel() throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, VALID_HPO_SINGLE);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertNull(vibeOptions.getGenePanel());
+    }
+
+    @Test
+    void validSingleHpoWithNonExistingGenePanel() {
+        String[] args = stringArraysMerger(VALID_DATABASE, VALID_ONTOLOGY, VALID_HPO_SINGLE, GENE_PANEL_NON_EXISTING);
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals(TestData.NON_EXISTING_FILE.getName() + " is not a readable file.", exception.getMessage());
+    }
+
+    @Test
+    void validSingleHpoUsingHdtIndexDirectory() throws ParseException {
+        String[] args = stringArraysMerger(VALID_DATABASE, new String[]{"-e", TestData.HDT.getFullPath().getParent().toString()}, VALID_ONTOLOGY, VALID_HPO_SINGLE);
+        VibeOptions vibeOptions = CommandLineOptionsParser.parse(args);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(RunMode.GENES_FOR_PHENOTYPES, vibeOptions.getRunMode()),
+                () -> Assertions.assertEquals(Paths.get(TestData.HDT.getFullPathString() + ".index.v1-1"), vibeOptions.getVibeDatabase().getIndexPath()),
+                () -> Assertions.assertTrue(vibeOptions.validate())
+        );
+    }
+
+    @Test
+    void singleHpoUsingHdtIndexDirectoryWithoutIndex(@TempDir Path indexDir) {
+        String[] args = stringArraysMerger(VALID_DATABASE, new String[]{"-e", indexDir.toString()}, VALID_ONTOLOGY, VALID_HPO_SINGLE);
+
+        Exception exception = Assertions.assertThrows(ParseException.class, () -> CommandLineOptionsParser.parse(args) );
+        Assertions.assertEquals("Invalid index. Please check if vibe.hdt.index.v1-1 is a readable index file.", exception.getMessage());
+    }
+
     private String[] stringArraysMerger(String[]... arrays) {
         String[] fullArray = arrays[0];
         for(int i = 1; i < arrays.length; i++) {
@@ -172,6 +172,59 @@ class VibeOptionsTest {
         Assertions.assertFalse(vibeOptions.validate());
     }
 
+    @Test
+    void validPhenotypesForGenes() throws IOException {
+        vibeOptions.setRunMode(RunMode.PHENOTYPES_FOR_GENES);
+        vibeOptions.setVibeDatabase(VALID_DATABASE);
+        vibeOptions.setGenes(new String[]{"ncbigene:785"});
+        vibeOptions.setStdoutOutputWriter();
+
+        Assertions.assertTrue(vibeOptions.validate());
+    }
+
+    @Test
+    void phenotypesForGenesMissingGenes() throws IOException {
+        vibeOptions.setRunMode(RunMode.PHENOTYPES_FOR_GENES);
+        vibeOptions.setVibeDatabase(VALID_DATABASE);
+        vibeOptions.setStdoutOutputWriter();
+
+        Assertions.assertFalse(vibeOptions.validate());
+    }
+
+    @Test
+    void validServer() throws IOException {
+        vibeOptions.setRunMode(RunMode.SERVER);
+        vibeOptions.setVibeDatabase(VALID_DATABASE);
+        vibeOptions.setHpoOntology(VALID_ONTOLOGY);
+        vibeOptions.setServerPort(8080);
+
+        Assertions.assertTrue(vibeOptions.validate());
+    }
+
+    @Test
+    void serverMissingPort() throws IOException {
+        vibeOptions.setRunMode(RunMode.SERVER);
+        vibeOptions.setVibeDatabase(VALID_DATABASE);
+        vibeOptions.setHpoOntology(VALID_ONTOLOGY);
+
+        Assertions.assertFalse(vibeOptions.validate());
+    }
+
+    @Test
+    void invalidServerPort() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> vibeOptions.setServerPort(65536) );
+    }
+
+    @Test
+    void invalidThreads() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> vibeOptions.setThreads(0) );
+    }
+
+    @Test
+    void invalidTopGenes() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> vibeOptions.setTopGenes(0) );
+    }
+
     @Test
     void invalidMaxDistance() {
         Assertions.assertThrows(IllegalArgumentException.class, () -> vibeOptions.setOntologyMaxDistance(INVALID_DISTANCE_NUMBER) );
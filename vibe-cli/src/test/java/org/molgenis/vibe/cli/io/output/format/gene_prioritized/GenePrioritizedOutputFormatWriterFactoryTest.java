@@ -1,6 +1,7 @@
 package org.molgenis.vibe.cli.io.output.format.gene_prioritized;
 
 import org.junit.jupiter.api.*;
+import org.molgenis.vibe.core.database_processing.GeneDiseaseCollectionContent;
 import org.molgenis.vibe.core.formats.*;
 import org.molgenis.vibe.cli.io.output.format.OutputFormatWriter;
 import org.molgenis.vibe.cli.io.output.target.StdoutOutputWriter;
@@ -11,6 +12,7 @@ import java.io.PrintStream;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 
@@ -164,4 +166,16 @@ class GenePrioritizedOutputFormatWriterFactoryTest {
                 "http://identifiers.org/ncbigene/29123\thttp://identifiers.org/hgnc.symbol/ANKRD11\t0.8\thttp://linkedlifedata.com/resource/umls/id/C0220687 (0.8):http://identifiers.org/pubmed/26633545,http://identifiers.org/pubmed/23494856|http://linkedlifedata.com/resource/umls/id/C1835764 (0.1)" + System.lineSeparator();
         Assertions.assertEquals(expectedOutput, outContent.toString());
     }
+
+    @Test
+    void testRequiredContents() {
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(Collections.emptySet(),
+                        GenePrioritizedOutputFormatWriterFactory.SIMPLE.getRequiredContents()),
+                () -> Assertions.assertEquals(EnumSet.of(GeneDiseaseCollectionContent.SOURCES),
+                        GenePrioritizedOutputFormatWriterFactory.REGULAR_ID.getRequiredContents()),
+                () -> Assertions.assertEquals(EnumSet.of(GeneDiseaseCollectionContent.SOURCES),
+                        GenePrioritizedOutputFormatWriterFactory.REGULAR_URI.getRequiredContents())
+        );
+    }
 }
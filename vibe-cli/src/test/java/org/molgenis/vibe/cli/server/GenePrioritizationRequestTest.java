@@ -0,0 +1,98 @@
+package org.molgenis.vibe.cli.server;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.ontology_processing.PhenotypesRetrieverFactory;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+class GenePrioritizationRequestTest {
+    private final Set<Phenotype> PHENOTYPES = new HashSet<>(Arrays.asList(new Phenotype[]{
+            new Phenotype("hp:0123456"),
+            new Phenotype("hp:6543210")
+    }));
+
+    @Test
+    void parsePhenotypesOnly() {
+        GenePrioritizationRequest request = GenePrioritizationRequest.fromJson(
+                new StringReader("{\"phenotypes\": [\"HP:0123456\", \"hp:6543210\"]}"));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(PHENOTYPES, request.getPhenotypes()),
+                () -> Assertions.assertFalse(request.retrieveAssociatedPhenotypes()),
+                () -> Assertions.assertNull(request.getPhenotypesRetrieverFactory()),
+                () -> Assertions.assertNull(request.getOntologyMaxDistance())
+        );
+    }
+
+    @Test
+    void parseWithOntologyTraversal() {
+        GenePrioritizationRequest request = GenePrioritizationRequest.fromJson(
+                new StringReader("{\"phenotypes\": [\"HP:0123456\", \"hp:6543210\"], \"ontology-algorithm\": \"distance\", \"ontology-max\": 2}"));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(PHENOTYPES, request.getPhenotypes()),
+                () -> Assertions.assertTrue(request.retrieveAssociatedPhenotypes()),
+                () -> Assertions.assertEquals(PhenotypesRetrieverFactory.DISTANCE, request.getPhenotypesRetrieverFactory()),
+                () -> Assertions.assertEquals(2, request.getOntologyMaxDistance())
+        );
+    }
+
+    @Test
+    void parseMissingPhenotypes() {
+        Exception exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GenePrioritizationRequest.fromJson(new StringReader("{\"ontology-max\": 2}")));
+        Assertions.assertEquals("Request requires a \"phenotypes\" array.", exception.getMessage());
+    }
+
+    @Test
+    void parseEmptyPhenotypes() {
+        Exception exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GenePrioritizationRequest.fromJson(new StringReader("{\"phenotypes\": []}")));
+        Assertions.assertEquals("At least 1 phenotype is required.", exception.getMessage());
+    }
+
+    @Test
+    void parseInvalidPhenotype() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GenePrioritizationRequest.fromJson(new StringReader("{\"phenotypes\": [\"hp:0123\"]}")));
+    }
+
+    @Test
+    void parseAlgorithmWithoutDistance() {
+        Exception exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GenePrioritizationRequest.fromJson(new StringReader("{\"phenotypes\": [\"hp:0123456\"], \"ontology-algorithm\": \"children\"}")));
+        Assertions.assertEquals("ontology-algorithm and ontology-max must be used together.", exception.getMessage());
+    }
+
+    @Test
+    void parseInvalidAlgorithm() {
+        Exception exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GenePrioritizationRequest.fromJson(new StringReader("{\"phenotypes\": [\"hp:0123456\"], \"ontology-algorithm\": \"myCustomName\", \"ontology-max\": 1}")));
+        Assertions.assertEquals("myCustomName is not a valid HPO retrieval algorithm.", exception.getMessage());
+    }
+
+    @Test
+    void parseNegativeDistance() {
+        Exception exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GenePrioritizationRequest.fromJson(new StringReader("{\"phenotypes\": [\"hp:0123456\"], \"ontology-algorithm\": \"children\", \"ontology-max\": -1}")));
+        Assertions.assertEquals("ontology-max must be >= 0.", exception.getMessage());
+    }
+
+    @Test
+    void parseInvalidJson() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GenePrioritizationRequest.fromJson(new StringReader("{\"phenotypes\": [")));
+    }
+
+    @Test
+    void parseNonObjectJson() {
+        Exception exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GenePrioritizationRequest.fromJson(new StringReader("[\"hp:0123456\"]")));
+        Assertions.assertEquals("Request must be a JSON object.", exception.getMessage());
+    }
+}
@@ -0,0 +1,130 @@
+package org.molgenis.vibe.cli.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.cli.TestData;
+import org.molgenis.vibe.core.io.input.ModelReaderFactory;
+import org.molgenis.vibe.core.io.input.VibeDatabase;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class VibeServerIT {
+    private static final String EXPECTED_PRIORITY = "29123,56172,2697,2475,23522,286,23028";
+
+    private static VibeServer server;
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        server = new VibeServer(new VibeDatabase(TestData.HDT.getFullPath(), ModelReaderFactory.HDT),
+                TestData.HPO_OWL.getFullPath(), 0, 2);
+        server.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        server.close();
+    }
+
+    @Test
+    void testPrioritization() throws IOException {
+        HttpURLConnection connection = post("{\"phenotypes\": [\"hp:0008438\"]}");
+
+        Assertions.assertEquals(200, connection.getResponseCode());
+        Assertions.assertEquals(EXPECTED_PRIORITY, readPriority(connection));
+    }
+
+    @Test
+    void testPrioritizationWithAssociatedPhenotypes() throws IOException {
+        // Based on RunModeIT: distance 0 should give the same results.
+        HttpURLConnection connection = post("{\"phenotypes\": [\"hp:0008438\"], \"ontology-algorithm\": \"children\", \"ontology-max\": 0}");
+
+        Assertions.assertEquals(200, connection.getResponseCode());
+        Assertions.assertEquals(EXPECTED_PRIORITY, readPriority(connection));
+    }
+
+    @Test
+    void testConcurrentPrioritization() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit((Callable<String>) () ->
+                        readPriority(post("{\"phenotypes\": [\"hp:0008438\"]}"))));
+            }
+            for (Future<String> future : futures) {
+                Assertions.assertEquals(EXPECTED_PRIORITY, future.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void testInvalidRequest() throws IOException {
+        HttpURLConnection connection = post("{\"phenotypes\": [\"hp:0123\"]}");
+
+        Assertions.assertEquals(400, connection.getResponseCode());
+    }
+
+    @Test
+    void testPhenotypeNotInOntology() throws IOException {
+        HttpURLConnection connection = post("{\"phenotypes\": [\"hp:9999999\"], \"ontology-algorithm\": \"children\", \"ontology-max\": 1}");
+
+        Assertions.assertEquals(400, connection.getResponseCode());
+    }
+
+    @Test
+    void testInvalidMethod() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) prioritizeUrl().openConnection();
+
+        Assertions.assertEquals(405, connection.getResponseCode());
+    }
+
+    private URL prioritizeUrl() throws IOException {
+        return new URL("http", server.getAddress().getHostString(), server.getAddress().getPort(),
+                VibeServer.PRIORITIZE_PATH);
+    }
+
+    private HttpURLConnection post(String json) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) prioritizeUrl().openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream outputStream = connection.getOutputStream()) {
+            outputStream.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+
+    private String readPriority(HttpURLConnection connection) throws IOException {
+        try (Reader reader = new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)) {
+            JsonObject response = JsonParser.parseReader(reader).getAsJsonObject();
+            Assertions.assertTrue(response.has(GenePrioritizationHandler.GENE_DISEASE_COLLECTION_KEY));
+            Assertions.assertFalse(response.get(GenePrioritizationHandler.PARTIAL_KEY).getAsBoolean());
+
+            JsonArray priority = response.getAsJsonArray(GenePrioritizationHandler.PRIORITY_KEY);
+            List<String> genes = new ArrayList<>();
+            for (JsonElement gene : priority) {
+                genes.add(gene.getAsString());
+            }
+            return String.join(",", genes);
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package org.molgenis.vibe.core;
 
 import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.GenePanel;
 import org.molgenis.vibe.core.formats.Phenotype;
 import org.molgenis.vibe.core.io.input.ModelReader;
-import org.molgenis.vibe.core.database_processing.GenesForPhenotypeRetriever;
+import org.molgenis.vibe.core.database_processing.GeneDiseaseCollectionContent;
+import org.molgenis.vibe.core.database_processing.GeneDiseaseCollectionRetriever;
+import org.molgenis.vibe.core.database_processing.GenesForPhenotypeRetrieverFactory;
+import org.molgenis.vibe.core.database_processing.QueryControl;
+import org.molgenis.vibe.core.database_processing.QueryListener;
+import org.molgenis.vibe.core.database_processing.SourcesCache;
+import org.molgenis.vibe.core.database_processing.compiled_index.CompiledIndex;
+import org.molgenis.vibe.core.database_processing.compiled_index.CompiledIndexGenesForPhenotypeRetriever;
 import org.molgenis.vibe.core.io.input.VibeDatabase;
 
 import java.io.IOException;
@@ -12,26 +20,143 @@ import java.util.concurrent.Callable;
 
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Class containing all required logic for retrieving a {@link GeneDiseaseCollection} for the input
+ * {@link Phenotype}{@code s}. If created using a {@link VibeDatabase}, a new {@link ModelReader} is opened (and closed)
+ * for each {@link #call()}. If created using a {@link ModelReader}, this reader is used as-is and is NOT closed
+ * afterwards, allowing the same (already loaded) database to be reused for multiple retrievals. If created using a
+ * {@link CompiledIndex}, the data is retrieved from the index instead of from the database (the index is not closed
+ * afterwards either).
+ * <br /><br />
+ * When retrieving from the database, the {@link GenesForPhenotypeRetrieverFactory} defines how the data is retrieved
+ * (defaults to {@link GenesForPhenotypeRetrieverFactory#SPARQL}). If only part of the
+ * {@link GeneDiseaseCollectionContent} is required, the retrieval can skip the rest (defaults to all content). A
+ * {@link QueryControl} can be set to time out or cancel the database queries (see
+ * {@link #setQueryControl(QueryControl)}). The results can be restricted to a {@link GenePanel} (see
+ * {@link #setGenePanel(GenePanel)}).
+ */
 public class GeneDiseaseCollectionRetrievalRunner implements Callable<GeneDiseaseCollection> {
     private VibeDatabase vibeDatabase;
+    private ModelReader modelReader;
+    private CompiledIndex compiledIndex;
     private Set<Phenotype> phenotypes;
+    private GenesForPhenotypeRetrieverFactory retrieverFactory = GenesForPhenotypeRetrieverFactory.SPARQL;
+    private Set<GeneDiseaseCollectionContent> contents = GeneDiseaseCollectionContent.ALL;
+
+    /**
+     * Controls the database queries ({@code null} if the queries should not be controlled).
+     */
+    private QueryControl queryControl;
+
+    /**
+     * The genes the results are restricted to ({@code null} if the results should not be restricted).
+     */
+    private GenePanel genePanel;
 
     public GeneDiseaseCollectionRetrievalRunner(VibeDatabase vibeDatabase, Set<Phenotype> phenotypes) {
         this.vibeDatabase = requireNonNull(vibeDatabase);
         this.phenotypes = phenotypes;
     }
 
+    public GeneDiseaseCollectionRetrievalRunner(VibeDatabase vibeDatabase, Set<Phenotype> phenotypes,
+                                                GenesForPhenotypeRetrieverFactory retrieverFactory) {
+        this(vibeDatabase, phenotypes);
+        this.retrieverFactory = requireNonNull(retrieverFactory);
+    }
+
+    public GeneDiseaseCollectionRetrievalRunner(VibeDatabase vibeDatabase, Set<Phenotype> phenotypes,
+                                                GenesForPhenotypeRetrieverFactory retrieverFactory,
+                                                Set<GeneDiseaseCollectionContent> contents) {
+        this(vibeDatabase, phenotypes, retrieverFactory);
+        this.contents = requireNonNull(contents);
+    }
+
+    public GeneDiseaseCollectionRetrievalRunner(ModelReader modelReader, Set<Phenotype> phenotypes) {
+        this.modelReader = requireNonNull(modelReader);
+        this.phenotypes = phenotypes;
+    }
+
+    public GeneDiseaseCollectionRetrievalRunner(ModelReader modelReader, Set<Phenotype> phenotypes,
+                                                GenesForPhenotypeRetrieverFactory retrieverFactory) {
+        this(modelReader, phenotypes);
+        this.retrieverFactory = requireNonNull(retrieverFactory);
+    }
+
+    public GeneDiseaseCollectionRetrievalRunner(ModelReader modelReader, Set<Phenotype> phenotypes,
+                                                GenesForPhenotypeRetrieverFactory retrieverFactory,
+                                                Set<GeneDiseaseCollectionContent> contents) {
+        this(modelReader, phenotypes, retrieverFactory);
+        this.contents = requireNonNull(contents);
+    }
+
+    public GeneDiseaseCollectionRetrievalRunner(CompiledIndex compiledIndex, Set<Phenotype> phenotypes) {
+        this.compiledIndex = requireNonNull(compiledIndex);
+        this.phenotypes = phenotypes;
+    }
+
+    /**
+     * Sets the {@link QueryControl} used for the database queries, which can be used to cancel the retrieval from
+     * another thread, to check afterwards whether the results are partial (see {@link QueryControl#isPartial()}) or to
+     * measure the queries (see {@link QueryControl#addListener(QueryListener)}).
+     * Ignored when retrieving from a {@link CompiledIndex} or using a {@link GenesForPhenotypeRetrieverFactory} that
+     * does not use SPARQL queries.
+     * @param queryControl the {@link QueryControl} to use
+     */
+    public void setQueryControl(QueryControl queryControl) {
+        this.queryControl = requireNonNull(queryControl);
+    }
+
+    /**
+     * Restricts the results to the genes within {@code genePanel}. The restriction is applied within the retrieval
+     * itself (see {@link GeneDiseaseCollectionRetriever#setGenePanel(GenePanel)}), so that no data is retrieved for
+     * genes outside the panel. Only for retrievers that do not support this, the results are filtered afterwards.
+     * @param genePanel the genes to restrict the results to
+     */
+    public void setGenePanel(GenePanel genePanel) {
+        this.genePanel = requireNonNull(genePanel);
+    }
+
     @Override
     public GeneDiseaseCollection call() throws IOException {
-        try ( ModelReader modelReader = vibeDatabase.getModelReader() ) {
-            // Retrieve from database.
-            GenesForPhenotypeRetriever genesForPhenotypeRetriever = new GenesForPhenotypeRetriever(
-                    modelReader, phenotypes
+        if(compiledIndex != null) {
+            CompiledIndexGenesForPhenotypeRetriever retriever = new CompiledIndexGenesForPhenotypeRetriever(
+                    compiledIndex, phenotypes
             );
-            genesForPhenotypeRetriever.run();
+            return retrieve(retriever);
+        }
+        if(modelReader != null) {
+            return retrieve(retrieverFactory.create(modelReader, phenotypes, new SourcesCache(), contents));
+        }
+
+        try ( ModelReader modelReader = vibeDatabase.getModelReader() ) {
+            // Sources are the same for each retrieval from the same database.
+            return retrieve(retrieverFactory.create(vibeDatabase, modelReader, phenotypes, contents));
+        }
+    }
+
+    private GeneDiseaseCollection retrieve(GeneDiseaseCollectionRetriever retriever) throws IOException {
+        if(queryControl != null) {
+            retriever.setQueryControl(queryControl);
+        }
+        if(genePanel != null) {
+            retriever.setGenePanel(genePanel);
+        }
+
+        // Retrieve from database.
+        retriever.run();
+
+        // Return results (filtered in case the retriever could not apply the gene panel itself).
+        return retainGenePanel(retriever.getGeneDiseaseCollection());
+    }
 
-            // Return results.
-            return genesForPhenotypeRetriever.getGeneDiseaseCollection();
+    /**
+     * @param geneDiseaseCollection the retrieved results
+     * @return {@code geneDiseaseCollection} without the genes outside {@link #genePanel} (if set)
+     */
+    private GeneDiseaseCollection retainGenePanel(GeneDiseaseCollection geneDiseaseCollection) {
+        if(genePanel != null) {
+            geneDiseaseCollection.retainGenes(genePanel);
         }
+        return geneDiseaseCollection;
     }
 }
@@ -0,0 +1,74 @@
+package org.molgenis.vibe.core;
+
+import org.molgenis.vibe.core.database_processing.PhenotypesForGenesRetriever;
+import org.molgenis.vibe.core.database_processing.QueryControl;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GenePhenotypeCollection;
+import org.molgenis.vibe.core.io.input.ModelReader;
+import org.molgenis.vibe.core.io.input.VibeDatabase;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Class containing all required logic for retrieving a {@link GenePhenotypeCollection} (the linked diseases &
+ * phenotypes) for the input {@link Gene}{@code s}. If created using a {@link VibeDatabase}, a new {@link ModelReader}
+ * is opened (and closed) for each {@link #call()}. If created using an already opened {@link ModelReader}, it is
+ * not closed afterwards.
+ */
+public class GenePhenotypeCollectionRetrievalRunner implements Callable<GenePhenotypeCollection> {
+    private VibeDatabase vibeDatabase;
+    private ModelReader modelReader;
+    private Set<Gene> genes;
+
+    /**
+     * Controls the database queries ({@code null} if the queries should not be controlled).
+     */
+    private QueryControl queryControl;
+
+    public GenePhenotypeCollectionRetrievalRunner(VibeDatabase vibeDatabase, Set<Gene> genes) {
+        this.vibeDatabase = requireNonNull(vibeDatabase);
+        this.genes = requireNonNull(genes);
+    }
+
+    public GenePhenotypeCollectionRetrievalRunner(ModelReader modelReader, Set<Gene> genes) {
+        this.modelReader = requireNonNull(modelReader);
+        this.genes = requireNonNull(genes);
+    }
+
+    /**
+     * Sets the {@link QueryControl} used for the database queries (see
+     * {@link GeneDiseaseCollectionRetrievalRunner#setQueryControl(QueryControl)}).
+     * @param queryControl the {@link QueryControl} to use
+     */
+    public void setQueryControl(QueryControl queryControl) {
+        this.queryControl = requireNonNull(queryControl);
+    }
+
+    @Override
+    public GenePhenotypeCollection call() throws IOException {
+        if(modelReader != null) {
+            return retrieve(modelReader);
+        }
+
+        try ( ModelReader modelReader = vibeDatabase.getModelReader() ) {
+            return retrieve(modelReader);
+        }
+    }
+
+    private GenePhenotypeCollection retrieve(ModelReader modelReader) {
+        PhenotypesForGenesRetriever retriever = new PhenotypesForGenesRetriever(modelReader, genes);
+        if(queryControl != null) {
+            retriever.setQueryControl(queryControl);
+        }
+
+        // Retrieve from database.
+        retriever.run();
+
+        // Return results.
+        return retriever.getGenePhenotypeCollection();
+    }
+}
@@ -1,8 +1,10 @@
 package org.molgenis.vibe.core;
 
+import org.apache.jena.ontology.OntModel;
 import org.molgenis.vibe.core.formats.Phenotype;
 import org.molgenis.vibe.core.formats.PhenotypeNetworkCollection;
-import org.molgenis.vibe.core.io.input.OntologyModelFilesReader;
+import org.molgenis.vibe.core.ontology_processing.CompiledHpoGraph;
+import org.molgenis.vibe.core.ontology_processing.HpoGraph;
 import org.molgenis.vibe.core.ontology_processing.PhenotypesRetriever;
 import org.molgenis.vibe.core.ontology_processing.PhenotypesRetrieverFactory;
 
@@ -15,10 +17,15 @@ import static java.util.Objects.requireNonNull;
 
 /**
  * Class containing all required logic for retrieving related {@link Phenotype}{@code s} for the input
- * {@link Phenotype}{@code s}.
+ * {@link Phenotype}{@code s}. If created using an HPO ontology file, the {@link HpoGraph} of the file is loaded for each
+ * {@link #call()} (using the compiled file next to it, see {@link CompiledHpoGraph}). If created using an already
+ * loaded {@link HpoGraph} or {@link OntModel}, this is used as-is (and can therefore be reused for multiple
+ * retrievals).
  */
 public class PhenotypesRetrievalRunner implements Callable<PhenotypeNetworkCollection> {
     private Path hpoOntologyFile;
+    private OntModel hpoOntologyModel;
+    private HpoGraph hpoGraph;
     private PhenotypesRetrieverFactory phenotypesRetrieverFactory;
     private Collection<Phenotype> phenotypes;
     private Integer maxDistance;
@@ -38,16 +45,37 @@ public class PhenotypesRetrievalRunner implements Callable<PhenotypeNetworkColle
         setMaxDistance(maxDistance);
     }
 
+    public PhenotypesRetrievalRunner(OntModel hpoOntologyModel, PhenotypesRetrieverFactory phenotypesRetrieverFactory, Collection<Phenotype> phenotypes, Integer maxDistance) {
+        this.hpoOntologyModel = requireNonNull(hpoOntologyModel);
+        this.phenotypesRetrieverFactory = requireNonNull(phenotypesRetrieverFactory);
+        this.phenotypes = requireNonNull(phenotypes);
+        setMaxDistance(maxDistance);
+    }
+
+    public PhenotypesRetrievalRunner(HpoGraph hpoGraph, PhenotypesRetrieverFactory phenotypesRetrieverFactory, Collection<Phenotype> phenotypes, Integer maxDistance) {
+        this.hpoGraph = requireNonNull(hpoGraph);
+        this.phenotypesRetrieverFactory = requireNonNull(phenotypesRetrieverFactory);
+        this.phenotypes = requireNonNull(phenotypes);
+        setMaxDistance(maxDistance);
+    }
+
     public PhenotypeNetworkCollection call() {
-        try ( OntologyModelFilesReader ontologyReader = new OntologyModelFilesReader(hpoOntologyFile.toString()) ) {
-            // Retrieve from model.
-            PhenotypesRetriever hpoRetriever = phenotypesRetrieverFactory.create(
-                    ontologyReader.getModel(), phenotypes, maxDistance
-            );
-            hpoRetriever.run();
-
-            // Returns results.
-            return hpoRetriever.getPhenotypeNetworkCollection();
+        if(hpoGraph != null) {
+            return retrieve(phenotypesRetrieverFactory.create(hpoGraph, phenotypes, maxDistance));
         }
+        if(hpoOntologyModel != null) {
+            return retrieve(phenotypesRetrieverFactory.create(hpoOntologyModel, phenotypes, maxDistance));
+        }
+
+        return retrieve(phenotypesRetrieverFactory.create(CompiledHpoGraph.load(hpoOntologyFile), phenotypes,
+                maxDistance));
+    }
+
+    private PhenotypeNetworkCollection retrieve(PhenotypesRetriever hpoRetriever) {
+        // Retrieve from ontology.
+        hpoRetriever.run();
+
+        // Returns results.
+        return hpoRetriever.getPhenotypeNetworkCollection();
     }
 }
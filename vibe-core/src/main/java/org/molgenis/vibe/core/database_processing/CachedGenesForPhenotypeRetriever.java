@@ -0,0 +1,162 @@
+package org.molgenis.vibe.core.database_processing;
+
+import static java.util.Objects.requireNonNull;
+
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.GeneDiseaseCombination;
+import org.molgenis.vibe.core.formats.GenePanel;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Retrieves the same information as {@link GenesForPhenotypeRetriever}, but uses a {@link PhenotypeResultCache} for the
+ * results per {@link Phenotype}. Only the {@link Phenotype}{@code s} that are not cached yet are queried (within a
+ * single query), after which the results of all {@link Phenotype}{@code s} are combined. As each result of the
+ * genes-for-phenotypes query belongs to a single {@link Phenotype}, this gives the same source counts as querying all
+ * {@link Phenotype}{@code s} at once. If a {@link GenePanel} is set, the cached results are still complete (so that
+ * they can be reused for any gene panel), but genes outside the panel are skipped when combining them.
+ */
+public class CachedGenesForPhenotypeRetriever implements GeneDiseaseCollectionRetriever {
+    private ModelReader modelReader;
+
+    /**
+     * The {@link Phenotype}{@code s} to be processed.
+     */
+    private Set<Phenotype> phenotypes;
+
+    private SourcesCache sourcesCache;
+
+    /**
+     * The optional content to be retrieved (see {@link GeneDiseaseCollectionContent}).
+     */
+    private Set<GeneDiseaseCollectionContent> contents;
+
+    private PhenotypeResultCache cache;
+
+    /**
+     * Identifies the database within {@link #cache}.
+     */
+    private String database;
+
+    /**
+     * The genes the results are restricted to ({@code null} if the results should not be restricted).
+     */
+    private GenePanel genePanel;
+
+    /**
+     * Controls the queries run by this retriever.
+     */
+    private QueryControl queryControl = new QueryControl();
+
+    /**
+     * The final output to be retrieved for further usage after querying.
+     */
+    private GeneDiseaseCollection geneDiseaseCollection;
+
+    @Override
+    public GeneDiseaseCollection getGeneDiseaseCollection() {
+        return geneDiseaseCollection;
+    }
+
+    @Override
+    public void setQueryControl(QueryControl queryControl) {
+        this.queryControl = requireNonNull(queryControl);
+    }
+
+    /**
+     * Skips the genes outside {@code genePanel} when combining the results per {@link Phenotype}. The results of the
+     * {@link Phenotype}{@code s} that are not cached yet are still queried (and cached) for all genes.
+     * @param genePanel the genes to restrict the retrieval to
+     */
+    @Override
+    public void setGenePanel(GenePanel genePanel) {
+        this.genePanel = requireNonNull(genePanel);
+    }
+
+    /**
+     * @param modelReader the database to retrieve data from
+     * @param phenotypes the {@link Phenotype}{@code s} to retrieve the gene-disease associations for
+     * @param sourcesCache the cache to retrieve the {@link org.molgenis.vibe.core.formats.Source}{@code s} of the
+     *                     database from
+     * @param contents the optional content to retrieve (see
+     *                 {@link GenesForPhenotypeRetriever#GenesForPhenotypeRetriever(ModelReader, Set, SourcesCache, Set)})
+     * @param cache the cache to store the results per {@link Phenotype} in
+     * @param database identifies the database of {@code modelReader} within {@code cache} (see
+     *                 {@link org.molgenis.vibe.core.io.input.VibeDatabase#getIdentifier()})
+     */
+    public CachedGenesForPhenotypeRetriever(ModelReader modelReader, Set<Phenotype> phenotypes,
+                                            SourcesCache sourcesCache, Set<GeneDiseaseCollectionContent> contents,
+                                            PhenotypeResultCache cache, String database) {
+        this.modelReader = requireNonNull(modelReader);
+        this.phenotypes = requireNonNull(phenotypes);
+        this.sourcesCache = requireNonNull(sourcesCache);
+        this.contents = requireNonNull(contents);
+        this.cache = requireNonNull(cache);
+        this.database = requireNonNull(database);
+    }
+
+    @Override
+    public void run() {
+        List<GeneDiseaseCollection> phenotypeCollections = new ArrayList<>();
+        Set<Phenotype> missingPhenotypes = new HashSet<>();
+        for(Phenotype phenotype : phenotypes) {
+            GeneDiseaseCollection cached = cache.get(database, contents, phenotype);
+            if(cached == null) {
+                missingPhenotypes.add(phenotype);
+            } else {
+                phenotypeCollections.add(cached);
+            }
+        }
+
+        if(!missingPhenotypes.isEmpty()) {
+            GenesForPhenotypeRetriever retriever = new GenesForPhenotypeRetriever(modelReader, missingPhenotypes,
+                    sourcesCache, contents);
+            retriever.setQueryControl(queryControl);
+            retriever.splitPerPhenotype();
+            retriever.run();
+            // Partial results (of a cancelled query) are not cached.
+            boolean partial = queryControl.isPartial();
+            for(Map.Entry<Phenotype, GeneDiseaseCollection> entry :
+                    retriever.getGeneDiseaseCollectionPerPhenotype().entrySet()) {
+                if(!partial) {
+                    cache.put(database, contents, entry.getKey(), entry.getValue());
+                }
+                phenotypeCollections.add(entry.getValue());
+            }
+        }
+
+        geneDiseaseCollection = combine(phenotypeCollections, genePanel);
+    }
+
+    /**
+     * Combines the results of multiple {@link Phenotype}{@code s} into a new {@link GeneDiseaseCollection}. New
+     * {@link GeneDiseaseCombination}{@code s} are created so that the (cached) input collections are not modified.
+     * @param phenotypeCollections the results per {@link Phenotype}
+     * @param genePanel the genes to combine the results for ({@code null} to combine the results of all genes)
+     * @return a new {@link GeneDiseaseCollection} containing the combined results
+     */
+    static GeneDiseaseCollection combine(List<GeneDiseaseCollection> phenotypeCollections, GenePanel genePanel) {
+        GeneDiseaseCollection combined = new GeneDiseaseCollection();
+        for(GeneDiseaseCollection phenotypeCollection : phenotypeCollections) {
+            for(GeneDiseaseCombination phenotypeGdc : phenotypeCollection) {
+                if(genePanel != null && !genePanel.contains(phenotypeGdc.getGene())) {
+                    continue;
+                }
+                GeneDiseaseCombination gdc = combined.get(phenotypeGdc);
+                if(gdc == null) {
+                    gdc = new GeneDiseaseCombination(phenotypeGdc.getGene(), phenotypeGdc.getDisease(),
+                            phenotypeGdc.getDisgenetScore());
+                    combined.add(gdc);
+                }
+                gdc.addAll(phenotypeGdc);
+            }
+        }
+        return combined;
+    }
+}
@@ -0,0 +1,457 @@
+package org.molgenis.vibe.core.database_processing;
+
+import static java.util.Objects.requireNonNull;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.OpVisitorBase;
+import org.apache.jena.sparql.algebra.OpWalker;
+import org.apache.jena.sparql.algebra.Table;
+import org.apache.jena.sparql.algebra.TableFactory;
+import org.apache.jena.sparql.algebra.TransformCopy;
+import org.apache.jena.sparql.algebra.Transformer;
+import org.apache.jena.sparql.algebra.op.OpFilter;
+import org.apache.jena.sparql.algebra.op.OpTable;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.ExprList;
+import org.apache.jena.sparql.expr.ExprVar;
+import org.molgenis.vibe.core.database_processing.query_string_creation.QueryString;
+import org.molgenis.vibe.core.database_processing.query_string_creation.QueryStringGenerator;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.formats.ResourceUri;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A SPARQL query that is parsed & optimized into algebra only once, after which it can be executed repeatedly (see
+ * {@link QueryRunner#QueryRunner(org.apache.jena.rdf.model.Model, CompiledQuery, Collection)}). If the query contains
+ * {@code VALUES} (such as the phenotypes for {@link #getGenesForPhenotypes()}), these are replaced in the compiled
+ * algebra for each execution instead of generating & parsing a new query. The same goes for the genes of a
+ * {@code FILTER} restricting the results to a gene panel (see {@link #getGenesForPhenotypes(Set, boolean)}).
+ * <br /><br />
+ * The queries from {@link QueryStringGenerator} that are executed for each gene prioritization are compiled once per
+ * JVM and can be used by multiple threads at the same time.
+ */
+public final class CompiledQuery {
+    /**
+     * Placeholder used for the {@code VALUES} when compiling the query. As the algebra does not depend on the actual
+     * values, the (optimized) algebra can be reused for any values.
+     */
+    private static final Phenotype VALUES_PLACEHOLDER = new Phenotype("hp:0000000");
+
+    /**
+     * Placeholder used for the {@code VALUES} of queries that require genes.
+     */
+    private static final Gene GENE_VALUES_PLACEHOLDER = new Gene("ncbigene:0");
+
+    /**
+     * Placeholders used for the {@code FILTER} on genes when compiling the query. At least 2 are needed, as otherwise
+     * the optimizer replaces the variable by the single allowed value (so that there is no filter left to replace).
+     */
+    private static final Set<Gene> GENE_FILTER_PLACEHOLDERS = Collections.unmodifiableSet(new LinkedHashSet<>(
+            Arrays.asList(GENE_VALUES_PLACEHOLDER, new Gene("ncbigene:1"))));
+
+    private static final CompiledQuery SOURCES = new CompiledQuery("sources", QueryStringGenerator.getSources());
+
+    private static final CompiledQuery GENES_FOR_PHENOTYPES = new CompiledQuery("genes for phenotypes",
+            QueryStringGenerator.getGenesForPhenotypes(Collections.singleton(VALUES_PLACEHOLDER)), "hpo");
+
+    private static final CompiledQuery GENE_DISEASE_ASSOCIATIONS_FOR_PHENOTYPES = new CompiledQuery(
+            "gene-disease associations for phenotypes",
+            QueryStringGenerator.getGeneDiseaseAssociationsForPhenotypes(Collections.singleton(VALUES_PLACEHOLDER)),
+            "hpo");
+
+    private static final CompiledQuery GENE_DISEASE_ASSOCIATIONS_FOR_PHENOTYPES_IN_PANEL = new CompiledQuery(
+            "gene-disease associations for phenotypes in gene panel",
+            QueryStringGenerator.getGeneDiseaseAssociationsForPhenotypes(Collections.singleton(VALUES_PLACEHOLDER),
+                    GENE_FILTER_PLACEHOLDERS), "hpo", "gene");
+
+    private static final CompiledQuery EVIDENCE_FOR_GENE_DISEASE_ASSOCIATIONS = new CompiledQuery(
+            "evidence for gene-disease associations",
+            QueryStringGenerator.getEvidenceForGeneDiseaseAssociations(
+                    Collections.singleton(VALUES_PLACEHOLDER.getUri())), "gda");
+
+    private static final CompiledQuery EVIDENCE_COUNTS_FOR_GENE_DISEASE_ASSOCIATIONS = new CompiledQuery(
+            "evidence counts for gene-disease associations",
+            QueryStringGenerator.getEvidenceCountsForGeneDiseaseAssociations(
+                    Collections.singleton(VALUES_PLACEHOLDER.getUri())), "gda");
+
+    private static final CompiledQuery PHENOTYPES_FOR_GENES = new CompiledQuery("phenotypes for genes",
+            QueryStringGenerator.getPhenotypesForGenes(Collections.singleton(GENE_VALUES_PLACEHOLDER)), "gene");
+
+    /**
+     * The {@link #getGenesForPhenotypes()} variants that only retrieve part of the content (compiled on first use).
+     */
+    private static final Map<Set<GeneDiseaseCollectionContent>, CompiledQuery> GENES_FOR_PHENOTYPES_PER_CONTENT =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The {@link #getGenesForPhenotypes(Set, boolean)} variants restricted to a gene panel (compiled on first use).
+     */
+    private static final Map<Set<GeneDiseaseCollectionContent>, CompiledQuery> GENES_FOR_PHENOTYPES_IN_PANEL_PER_CONTENT =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Describes the query (used for reporting, see {@link QueryStatistics#getName()}).
+     */
+    private final String name;
+
+    /**
+     * The parsed query. Only used for its metadata (such as the result variables & prefixes) during execution.
+     */
+    private final Query query;
+
+    /**
+     * The optimized algebra of {@link #query}.
+     */
+    private final Op op;
+
+    /**
+     * The variable of which the {@code VALUES} are replaced per execution ({@code null} if the query has none).
+     */
+    private final Var valuesVar;
+
+    /**
+     * The variable of which the allowed values of the {@code FILTER} are replaced per execution ({@code null} if the
+     * query has none).
+     */
+    private final Var filterVar;
+
+    /**
+     * The (optimized) placeholder expressions of the {@code FILTER} on {@link #filterVar} (empty if the query has none).
+     */
+    private final Set<Expr> filterPlaceholders;
+
+    /**
+     * @see QueryStringGenerator#getSources()
+     */
+    public static CompiledQuery getSources() {
+        return SOURCES;
+    }
+
+    /**
+     * Requires the phenotypes as values on execution.
+     * @see QueryStringGenerator#getGenesForPhenotypes(java.util.Set)
+     */
+    public static CompiledQuery getGenesForPhenotypes() {
+        return GENES_FOR_PHENOTYPES;
+    }
+
+    /**
+     * Requires the phenotypes as values on execution.
+     * @param contents the content to retrieve (besides the genes, diseases & their score)
+     * @see QueryStringGenerator#getGenesForPhenotypes(java.util.Set, boolean, boolean)
+     */
+    public static CompiledQuery getGenesForPhenotypes(Set<GeneDiseaseCollectionContent> contents) {
+        if(contents.containsAll(GeneDiseaseCollectionContent.ALL)) {
+            return GENES_FOR_PHENOTYPES;
+        }
+        Set<GeneDiseaseCollectionContent> key = contents.isEmpty() ?
+                EnumSet.noneOf(GeneDiseaseCollectionContent.class) : EnumSet.copyOf(contents);
+        return GENES_FOR_PHENOTYPES_PER_CONTENT.computeIfAbsent(key, k -> new CompiledQuery("genes for phenotypes " + k,
+                QueryStringGenerator.getGenesForPhenotypes(Collections.singleton(VALUES_PLACEHOLDER),
+                        k.contains(GeneDiseaseCollectionContent.DISEASE_NAMES),
+                        k.contains(GeneDiseaseCollectionContent.SOURCES)), "hpo"));
+    }
+
+    /**
+     * Requires the phenotypes as values on execution, and the genes as filter values if {@code genePanel} is
+     * {@code true}.
+     * @param contents the content to retrieve (besides the genes, diseases & their score)
+     * @param genePanel whether the results should be restricted to a gene panel
+     * @see QueryStringGenerator#getGenesForPhenotypes(java.util.Set, boolean, boolean, java.util.Set)
+     */
+    public static CompiledQuery getGenesForPhenotypes(Set<GeneDiseaseCollectionContent> contents, boolean genePanel) {
+        if(!genePanel) {
+            return getGenesForPhenotypes(contents);
+        }
+        Set<GeneDiseaseCollectionContent> key = contents.isEmpty() ?
+                EnumSet.noneOf(GeneDiseaseCollectionContent.class) : EnumSet.copyOf(contents);
+        return GENES_FOR_PHENOTYPES_IN_PANEL_PER_CONTENT.computeIfAbsent(key, k -> new CompiledQuery(
+                "genes for phenotypes in gene panel " + k,
+                QueryStringGenerator.getGenesForPhenotypes(Collections.singleton(VALUES_PLACEHOLDER),
+                        k.contains(GeneDiseaseCollectionContent.DISEASE_NAMES),
+                        k.contains(GeneDiseaseCollectionContent.SOURCES), GENE_FILTER_PLACEHOLDERS), "hpo", "gene"));
+    }
+
+    /**
+     * Requires the phenotypes as values on execution.
+     * @see QueryStringGenerator#getGeneDiseaseAssociationsForPhenotypes(java.util.Set)
+     */
+    public static CompiledQuery getGeneDiseaseAssociationsForPhenotypes() {
+        return GENE_DISEASE_ASSOCIATIONS_FOR_PHENOTYPES;
+    }
+
+    /**
+     * Requires the phenotypes as values on execution, and the genes as filter values if {@code genePanel} is
+     * {@code true}.
+     * @param genePanel whether the results should be restricted to a gene panel
+     * @see QueryStringGenerator#getGeneDiseaseAssociationsForPhenotypes(java.util.Set, java.util.Set)
+     */
+    public static CompiledQuery getGeneDiseaseAssociationsForPhenotypes(boolean genePanel) {
+        return genePanel ? GENE_DISEASE_ASSOCIATIONS_FOR_PHENOTYPES_IN_PANEL : GENE_DISEASE_ASSOCIATIONS_FOR_PHENOTYPES;
+    }
+
+    /**
+     * Requires the gene-disease associations as values on execution.
+     * @see QueryStringGenerator#getEvidenceForGeneDiseaseAssociations(Collection)
+     */
+    public static CompiledQuery getEvidenceForGeneDiseaseAssociations() {
+        return EVIDENCE_FOR_GENE_DISEASE_ASSOCIATIONS;
+    }
+
+    /**
+     * Requires the gene-disease associations as values on execution.
+     * @see QueryStringGenerator#getEvidenceCountsForGeneDiseaseAssociations(Collection)
+     */
+    public static CompiledQuery getEvidenceCountsForGeneDiseaseAssociations() {
+        return EVIDENCE_COUNTS_FOR_GENE_DISEASE_ASSOCIATIONS;
+    }
+
+    /**
+     * Requires the genes as values on execution.
+     * @see QueryStringGenerator#getPhenotypesForGenes(java.util.Set)
+     */
+    public static CompiledQuery getPhenotypesForGenes() {
+        return PHENOTYPES_FOR_GENES;
+    }
+
+    /**
+     * @param name describes the query
+     * @param queryString the query to compile (without {@code VALUES} that need to be replaced on execution)
+     */
+    CompiledQuery(String name, QueryString queryString) {
+        this.name = requireNonNull(name);
+        this.query = QueryFactory.create(queryString.getQuery(), queryString.getSyntax());
+        this.op = Algebra.optimize(Algebra.compile(query));
+        this.valuesVar = null;
+        this.filterVar = null;
+        this.filterPlaceholders = Collections.emptySet();
+    }
+
+    /**
+     * @param name describes the query
+     * @param queryString the query to compile
+     * @param valuesVarName the name of the variable of which the {@code VALUES} are replaced on execution
+     * @throws IllegalArgumentException if the optimized query does not contain exactly one {@code VALUES} on
+     * {@code valuesVarName}
+     */
+    CompiledQuery(String name, QueryString queryString, String valuesVarName) {
+        this.name = requireNonNull(name);
+        this.query = QueryFactory.create(queryString.getQuery(), queryString.getSyntax());
+        this.op = Algebra.optimize(Algebra.compile(query));
+        this.valuesVar = Var.alloc(requireNonNull(valuesVarName));
+        requireSingleValuesTable(op, valuesVar);
+        this.filterVar = null;
+        this.filterPlaceholders = Collections.emptySet();
+    }
+
+    /**
+     * @param name describes the query
+     * @param queryString the query to compile
+     * @param valuesVarName the name of the variable of which the {@code VALUES} are replaced on execution
+     * @param filterVarName the name of the variable of which the allowed values of the {@code FILTER} are replaced on
+     *                      execution
+     * @throws IllegalArgumentException if the optimized query does not contain exactly one {@code VALUES} on
+     * {@code valuesVarName} or no {@code FILTER} on {@code filterVarName}
+     */
+    CompiledQuery(String name, QueryString queryString, String valuesVarName, String filterVarName) {
+        this.name = requireNonNull(name);
+        this.query = QueryFactory.create(queryString.getQuery(), queryString.getSyntax());
+        this.op = Algebra.optimize(Algebra.compile(query));
+        this.valuesVar = Var.alloc(requireNonNull(valuesVarName));
+        requireSingleValuesTable(op, valuesVar);
+        this.filterVar = Var.alloc(requireNonNull(filterVarName));
+        this.filterPlaceholders = findFilterExprs(op, filterVar);
+        if(filterPlaceholders.isEmpty()) {
+            throw new IllegalArgumentException("Query does not contain a FILTER on ?" + filterVarName + ".");
+        }
+    }
+
+    /**
+     * Ensures the {@code VALUES} on {@code var} survived optimization, so that it can be replaced on execution (instead
+     * of the query silently being executed with the placeholder).
+     * @param op the algebra to search through
+     * @param var the (only) variable of the {@code VALUES}
+     * @throws IllegalArgumentException if {@code op} does not contain exactly one {@code VALUES} on {@code var}
+     */
+    private static void requireSingleValuesTable(Op op, Var var) {
+        List<Var> vars = Collections.singletonList(var);
+        int[] tables = new int[1];
+        OpWalker.walk(op, new OpVisitorBase() {
+            @Override
+            public void visit(OpTable opTable) {
+                if(opTable.getTable().getVars().equals(vars)) {
+                    tables[0]++;
+                }
+            }
+        });
+        if(tables[0] != 1) {
+            throw new IllegalArgumentException("Query should contain exactly 1 VALUES on " + var + " (found " +
+                    tables[0] + ").");
+        }
+    }
+
+    /**
+     * @param op the algebra to search through
+     * @param var the variable the expressions should (only) mention
+     * @return the {@code FILTER} expressions within {@code op} that only mention {@code var}
+     */
+    private static Set<Expr> findFilterExprs(Op op, Var var) {
+        Set<Expr> exprs = new HashSet<>();
+        OpWalker.walk(op, new OpVisitorBase() {
+            @Override
+            public void visit(OpFilter opFilter) {
+                for(Expr expr : opFilter.getExprs()) {
+                    if(expr.getVarsMentioned().equals(Collections.singleton(var))) {
+                        exprs.add(expr);
+                    }
+                }
+            }
+        });
+        return exprs;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Query getQuery() {
+        return query;
+    }
+
+    boolean hasValues() {
+        return valuesVar != null;
+    }
+
+    boolean hasFilterValues() {
+        return filterVar != null;
+    }
+
+    /**
+     * @param values the values to be used for the {@code VALUES} of the query
+     * @return the algebra of this query using {@code values}
+     * @throws IllegalArgumentException if {@code values} is empty or contains an item without an {@link URI}, or if
+     * this query requires filter values
+     */
+    Op bind(Collection<? extends ResourceUri> values) {
+        return bind(values, null);
+    }
+
+    /**
+     * @param values the values to be used for the {@code VALUES} of the query
+     * @param filterValues the values allowed by the {@code FILTER} of the query ({@code null} if it has none)
+     * @return the algebra of this query using {@code values} & {@code filterValues}
+     * @throws IllegalArgumentException if {@code values} is empty or contains an item without an {@link URI}, or if
+     * {@code filterValues} is (not) given while this query does (not) require them
+     */
+    Op bind(Collection<? extends ResourceUri> values, Set<Node> filterValues) {
+        List<Node> nodes = new ArrayList<>(values.size());
+        for(ResourceUri value : values) {
+            URI uri = value.getUri();
+            if(uri == null) {
+                throw new IllegalArgumentException("Not all Objects have a valid URI (an uri was null).");
+            }
+            nodes.add(NodeFactory.createURI(uri.toString()));
+        }
+        return bindNodes(nodes, filterValues);
+    }
+
+    /**
+     * @param values the values to be used for the {@code VALUES} of the query
+     * @return the algebra of this query using {@code values}
+     * @throws IllegalArgumentException if {@code values} is empty or if this query requires filter values
+     */
+    Op bindNodes(Collection<Node> values) {
+        return bindNodes(values, null);
+    }
+
+    /**
+     * @param values the values to be used for the {@code VALUES} of the query
+     * @param filterValues the values allowed by the {@code FILTER} of the query ({@code null} if it has none). As
+     *                     these are checked through a hash lookup (see {@link NodeSetMembership}), the {@link Set}
+     *                     should not be modified afterwards.
+     * @return the algebra of this query using {@code values} & {@code filterValues}
+     * @throws IllegalArgumentException if {@code values} is empty, or if {@code filterValues} is (not) given while this
+     * query does (not) require them
+     * @throws IllegalStateException if this query does not contain {@code VALUES} that can be replaced
+     */
+    Op bindNodes(Collection<Node> values, Set<Node> filterValues) {
+        if(!hasValues()) {
+            throw new IllegalStateException("Query does not contain VALUES to replace.");
+        }
+        if(values.isEmpty()) {
+            throw new IllegalArgumentException("Set should at least contain 1 item.");
+        }
+        if(hasFilterValues() != (filterValues != null)) {
+            throw new IllegalArgumentException(hasFilterValues() ? "Query requires filter values to be bound." :
+                    "Query does not contain a FILTER for the filter values.");
+        }
+
+        List<Var> vars = Collections.singletonList(valuesVar);
+        Table table = TableFactory.create(vars);
+        for(Node value : values) {
+            table.addBinding(BindingFactory.binding(valuesVar, value));
+        }
+
+        int[] replacedTables = new int[1];
+        Op boundOp = Transformer.transform(new TransformCopy() {
+            @Override
+            public Op transform(OpTable opTable) {
+                if(opTable.getTable().getVars().equals(vars)) {
+                    replacedTables[0]++;
+                    return OpTable.create(table);
+                }
+                return opTable;
+            }
+
+            @Override
+            public Op transform(OpFilter opFilter, Op subOp) {
+                if(filterValues == null) {
+                    return super.transform(opFilter, subOp);
+                }
+                ExprList exprs = new ExprList();
+                for(Expr expr : opFilter.getExprs()) {
+                    exprs.add(filterPlaceholders.contains(expr) ?
+                            new NodeSetMembership(new ExprVar(filterVar), filterValues) : expr);
+                }
+                return OpFilter.filterDirect(exprs, subOp);
+            }
+        }, op);
+
+        // Otherwise the query would silently be executed using the placeholder.
+        if(replacedTables[0] == 0) {
+            throw new IllegalStateException("Query does not contain VALUES to replace.");
+        }
+        return boundOp;
+    }
+
+    /**
+     * @return the algebra of this query (if it does not contain {@code VALUES} that need to be replaced)
+     * @throws IllegalStateException if this query requires values
+     */
+    Op getOp() {
+        if(hasValues()) {
+            throw new IllegalStateException("Query requires values to be bound.");
+        }
+        return op;
+    }
+}
@@ -2,27 +2,66 @@ package org.molgenis.vibe.core.database_processing;
 
 import static java.util.Objects.requireNonNull;
 
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.query.QuerySolution;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GenePanel;
+import org.molgenis.vibe.core.formats.GeneSymbol;
 import org.molgenis.vibe.core.formats.Source;
 import org.molgenis.vibe.core.io.input.ModelReader;
-import org.molgenis.vibe.core.database_processing.query_string_creation.QueryStringGenerator;
 
 import java.io.IOException;
 import java.net.URI;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Retrieves data for further usage from the DisGeNET database.
  */
 public abstract class DisgenetRdfDataRetriever {
+    /**
+     * The predicate linking a gene to its symbol ({@code sio:SIO_000205}).
+     */
+    private static final Node IS_REPRESENTED_BY = NodeFactory.createURI("http://semanticscience.org/resource/SIO_000205");
+
     private ModelReader modelReader;
     private Map<URI,Source> sources = new HashMap<>();
 
+    /**
+     * If set, the {@link Source}{@code s} are retrieved through this cache instead of querying the database.
+     */
+    private SourcesCache sourcesCache;
+
+    /**
+     * Controls the queries run by this retriever.
+     */
+    private QueryControl queryControl = new QueryControl();
+
     protected ModelReader getModelReader() {
         return modelReader;
     }
 
+    /**
+     * @return the {@link QueryControl} of the queries run by this retriever
+     */
+    public QueryControl getQueryControl() {
+        return queryControl;
+    }
+
+    /**
+     * @param queryControl the {@link QueryControl} to use for the queries run by this retriever (should be set before
+     *                     running)
+     */
+    public void setQueryControl(QueryControl queryControl) {
+        this.queryControl = requireNonNull(queryControl);
+    }
+
     /**
      * Requires {@link #retrieveSources()} to be run first!
      * @return all available {@link Source}{@code s}
@@ -35,25 +74,95 @@ public abstract class DisgenetRdfDataRetriever {
         this.modelReader = requireNonNull(modelReader);
     }
 
+    /**
+     * @param modelReader the database to retrieve data from
+     * @param sourcesCache the cache to retrieve the {@link Source}{@code s} of the database from
+     */
+    protected DisgenetRdfDataRetriever(ModelReader modelReader, SourcesCache sourcesCache) {
+        this.modelReader = requireNonNull(modelReader);
+        this.sourcesCache = requireNonNull(sourcesCache);
+    }
+
     public abstract void run() throws IOException;
 
     /**
-     * Retrieves sources from the database.
+     * Retrieves sources from the database (or from the {@link SourcesCache} if set). If the sources query is stopped
+     * (see {@link QueryControl}), the sources are incomplete and the retrieval should be aborted. The
+     * {@link QueryControl} then reports the results as partial (see {@link QueryControl#isPartial()}).
+     * @return {@code true} if all sources were retrieved, {@code false} if the sources query was stopped
+     */
+    protected boolean retrieveSources() {
+        if(sourcesCache != null) {
+            sources = sourcesCache.getSources(modelReader, queryControl);
+        } else {
+            sources = querySources(modelReader, queryControl);
+        }
+        return sources != null;
+    }
+
+    /**
+     * Resolves a {@link GenePanel} to the database nodes of its genes, so that a retrieval can be restricted to these
+     * nodes. Genes defined through their symbol are looked up in the database (symbols that are not present are
+     * ignored).
+     * @param modelReader the database to search through
+     * @param genePanel the gene panel to resolve
+     * @return the gene nodes of {@code genePanel} (empty if none of its symbols are present and it contains no gene ids)
+     */
+    static Set<Node> findGenePanelNodes(ModelReader modelReader, GenePanel genePanel) {
+        Set<Node> nodes = new HashSet<>();
+        for(Gene gene : genePanel.getGenes()) {
+            nodes.add(NodeFactory.createURI(gene.getUri().toString()));
+        }
+
+        Graph graph = modelReader.getModel().getGraph();
+        for(GeneSymbol symbol : genePanel.getSymbols()) {
+            ExtendedIterator<Triple> triples = graph.find(Node.ANY, IS_REPRESENTED_BY,
+                    NodeFactory.createURI(symbol.getUri().toString()));
+            try {
+                while(triples.hasNext()) {
+                    nodes.add(triples.next().getSubject());
+                }
+            } finally {
+                triples.close();
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * @param modelReader the database to query
+     * @return all {@link Source}{@code s} available in the database
+     */
+    static Map<URI, Source> querySources(ModelReader modelReader) {
+        return querySources(modelReader, new QueryControl());
+    }
+
+    /**
+     * @param modelReader the database to query
+     * @param queryControl the {@link QueryControl} to use for the query
+     * @return all {@link Source}{@code s} available in the database, or {@code null} if the query was stopped before
+     * all of them were retrieved
      */
-    protected void retrieveSources() {
-        QueryRunner query = new QueryRunner(getModelReader().getModel(),
-                QueryStringGenerator.getSources());
+    static Map<URI, Source> querySources(ModelReader modelReader, QueryControl queryControl) {
+        Map<URI, Source> sources = new HashMap<>();
+        QueryRunner query = queryControl.start(new QueryRunner(modelReader.getModel(), CompiledQuery.getSources()));
 
-        while(query.hasNext()) {
-            QuerySolution result = query.next();
+        try {
+            while(query.hasNext()) {
+                QuerySolution result = query.next();
 
-            URI sourceUri = URI.create(result.get("source").asResource().getURI());
-            sources.put(sourceUri,
-                    new Source(sourceUri,
-                            result.get("sourceTitle").asLiteral().getString(),
-                            result.get("sourceLevel").asResource().getURI())
-            );
+                URI sourceUri = URI.create(result.get("source").asResource().getURI());
+                sources.put(sourceUri,
+                        new Source(sourceUri,
+                                result.get("sourceTitle").asLiteral().getString(),
+                                result.get("sourceLevel").asResource().getURI())
+                );
+                query.getStatistics().entityCreated();
+            }
+        } finally {
+            queryControl.finish(query);
         }
-        query.close();
+        // A partial sources map would give null sources for the gene-disease associations.
+        return query.isPartial() ? null : sources;
     }
 }
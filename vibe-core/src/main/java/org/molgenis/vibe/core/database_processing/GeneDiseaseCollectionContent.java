@@ -0,0 +1,29 @@
+package org.molgenis.vibe.core.database_processing;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The optional content of a {@link org.molgenis.vibe.core.formats.GeneDiseaseCollection}. The genes, diseases and
+ * their DisGeNET score are always retrieved, the items defined here only when required (as retrieving them can be
+ * expensive: each evidence item causes an additional query result for a gene-disease association).
+ */
+public enum GeneDiseaseCollectionContent {
+    /**
+     * The names of the {@link org.molgenis.vibe.core.formats.Disease}{@code s}.
+     */
+    DISEASE_NAMES,
+    /**
+     * The {@link org.molgenis.vibe.core.formats.Source}{@code s} per gene-disease combination together with their
+     * {@link org.molgenis.vibe.core.formats.PubmedEvidence}. These are combined as the number of times a source is
+     * counted depends on the evidence.
+     */
+    SOURCES;
+
+    /**
+     * All content (as retrieved if no specific content is requested).
+     */
+    public static final Set<GeneDiseaseCollectionContent> ALL =
+            Collections.unmodifiableSet(EnumSet.allOf(GeneDiseaseCollectionContent.class));
+}
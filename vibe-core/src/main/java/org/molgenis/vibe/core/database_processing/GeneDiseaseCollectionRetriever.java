@@ -0,0 +1,43 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.GenePanel;
+
+import java.io.IOException;
+
+/**
+ * Retrieves a {@link GeneDiseaseCollection} from the database. Implementations should yield identical results, so that
+ * they can be swapped (see {@link GenesForPhenotypeRetrieverFactory}).
+ */
+public interface GeneDiseaseCollectionRetriever {
+    /**
+     * Retrieves the data. Should be called before {@link #getGeneDiseaseCollection()}.
+     * @throws IOException if the data could not be retrieved
+     */
+    void run() throws IOException;
+
+    /**
+     * @return the retrieved data
+     */
+    GeneDiseaseCollection getGeneDiseaseCollection();
+
+    /**
+     * Sets the {@link QueryControl} used for all queries run by this retriever, through which the retrieval can be
+     * cancelled or timed out (after which {@link #getGeneDiseaseCollection()} contains partial results, see
+     * {@link QueryControl#isPartial()}). Should be set before running. Implementations that do not use SPARQL queries
+     * ignore it (by default).
+     * @param queryControl the {@link QueryControl} to use
+     */
+    default void setQueryControl(QueryControl queryControl) {
+    }
+
+    /**
+     * Restricts the retrieval to the genes within {@code genePanel}, so that data of genes outside the panel is not
+     * retrieved at all. Should be set before running. Implementations that can not restrict the retrieval itself ignore
+     * it (by default), in which case the results should be filtered afterwards (see
+     * {@link GeneDiseaseCollection#retainGenes(GenePanel)}).
+     * @param genePanel the genes to restrict the retrieval to
+     */
+    default void setGenePanel(GenePanel genePanel) {
+    }
+}
@@ -2,10 +2,11 @@ package org.molgenis.vibe.core.database_processing;
 
 import static java.util.Objects.requireNonNull;
 
+import org.apache.jena.graph.Node;
 import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.RDFNode;
 import org.molgenis.vibe.core.formats.*;
 import org.molgenis.vibe.core.io.input.ModelReader;
-import org.molgenis.vibe.core.database_processing.query_string_creation.QueryStringGenerator;
 
 import java.net.URI;
 import java.util.*;
@@ -13,96 +14,227 @@ import java.util.*;
 /**
  * Retrieves all required information for further processing regarding the genes belonging to a given phenotype.
  */
-public class GenesForPhenotypeRetriever extends DisgenetRdfDataRetriever {
+public class GenesForPhenotypeRetriever extends DisgenetRdfDataRetriever implements GeneDiseaseCollectionRetriever {
     /**
      * The {@link Phenotype}{@code s} to be processed.
      */
     private Set<Phenotype> phenotypes;
 
+    /**
+     * The optional content to be retrieved (see {@link GeneDiseaseCollectionContent}).
+     */
+    private Set<GeneDiseaseCollectionContent> contents = GeneDiseaseCollectionContent.ALL;
+
+    /**
+     * The genes the results are restricted to ({@code null} if the results should not be restricted).
+     */
+    private GenePanel genePanel;
+
     /**
      * The final output to be retrieved for further usage after querying.
      */
     private GeneDiseaseCollection geneDiseaseCollection = new GeneDiseaseCollection();
 
+    /**
+     * The output per {@link Phenotype} ({@code null} if the results should not be split per {@link Phenotype}).
+     */
+    private Map<Phenotype, GeneDiseaseCollection> geneDiseaseCollectionPerPhenotype;
+
+    @Override
     public GeneDiseaseCollection getGeneDiseaseCollection() {
         return geneDiseaseCollection;
     }
 
+    /**
+     * Requires {@link #splitPerPhenotype()} to be called before running.
+     * @return per {@link Phenotype} the gene-disease associations found through it (phenotypes without any results have
+     * an empty {@link GeneDiseaseCollection}), or {@code null} if the results were not split per phenotype
+     */
+    Map<Phenotype, GeneDiseaseCollection> getGeneDiseaseCollectionPerPhenotype() {
+        return geneDiseaseCollectionPerPhenotype;
+    }
+
     public GenesForPhenotypeRetriever(ModelReader modelReader, Set<Phenotype> phenotypes) {
         super(modelReader);
         this.phenotypes = requireNonNull(phenotypes);
     }
 
+    /**
+     * @param modelReader the database to retrieve data from
+     * @param phenotypes the {@link Phenotype}{@code s} to retrieve the gene-disease associations for
+     * @param sourcesCache the cache to retrieve the {@link Source}{@code s} of the database from
+     */
+    public GenesForPhenotypeRetriever(ModelReader modelReader, Set<Phenotype> phenotypes, SourcesCache sourcesCache) {
+        super(modelReader, sourcesCache);
+        this.phenotypes = requireNonNull(phenotypes);
+    }
+
+    /**
+     * @param modelReader the database to retrieve data from
+     * @param phenotypes the {@link Phenotype}{@code s} to retrieve the gene-disease associations for
+     * @param sourcesCache the cache to retrieve the {@link Source}{@code s} of the database from
+     * @param contents the optional content to retrieve (content that is not requested is not queried, resulting in
+     *                 {@link Disease}{@code s} without name and/or {@link GeneDiseaseCombination}{@code s} without
+     *                 {@link Source}{@code s} & {@link PubmedEvidence})
+     */
+    public GenesForPhenotypeRetriever(ModelReader modelReader, Set<Phenotype> phenotypes, SourcesCache sourcesCache,
+                                      Set<GeneDiseaseCollectionContent> contents) {
+        this(modelReader, phenotypes, sourcesCache);
+        this.contents = requireNonNull(contents);
+    }
+
+    /**
+     * Adds a {@code FILTER} on the genes to the query, so that results for genes outside {@code genePanel} are not
+     * produced (the filter is evaluated before the remaining patterns are joined).
+     */
+    @Override
+    public void setGenePanel(GenePanel genePanel) {
+        this.genePanel = requireNonNull(genePanel);
+    }
+
+    /**
+     * Stores the results per {@link Phenotype} (see {@link #getGeneDiseaseCollectionPerPhenotype()}) instead of in a
+     * single {@link GeneDiseaseCollection} (which then stays empty). As every query result belongs to a single
+     * phenotype, merging the collections of all phenotypes gives the same result as a combined retrieval. Should be
+     * called before running.
+     */
+    void splitPerPhenotype() {
+        geneDiseaseCollectionPerPhenotype = new HashMap<>();
+        for(Phenotype phenotype : phenotypes) {
+            geneDiseaseCollectionPerPhenotype.put(phenotype, new GeneDiseaseCollection());
+        }
+    }
+
     @Override
     public void run() {
-        retrieveSources();
+        if(contents.contains(GeneDiseaseCollectionContent.SOURCES) && !retrieveSources()) {
+            return;
+        }
         retrieveData();
     }
 
     private void retrieveData() {
-        // Variables for storage of already found data (reduces creating identical objects).
-        Map<Gene, Gene> genes = new HashMap<>();
-        Map<Disease, Disease> diseases = new HashMap<>();
-        Map<PubmedEvidence,PubmedEvidence> foundPubmedEvidence = new HashMap<>();
-
-        // Prepares query.
-        QueryRunner query = new QueryRunner(getModelReader().getModel(),
-                QueryStringGenerator.getGenesForPhenotypes(phenotypes));
-
-        // Processes query.
-        while(query.hasNext()) {
-            QuerySolution result = query.next();
-
-            // Store new disease, or retrieves existing disease instance if already exists.
-            Disease disease = processEntityQueryOutput(
-                new Disease(URI.create(result.get("disease").asResource().getURI()),
-                        result.get("diseaseName").asLiteral().getString()),
-                diseases
-            );
-
-            // Store new gene, or retrieves existing disease instance if already exists.
-            Gene gene = processEntityQueryOutput(
-                new Gene(URI.create(result.get("gene").asResource().getURI()),
-                        new GeneSymbol(URI.create(result.get("geneSymbol").asResource().getURI()))),
-                genes
-            );
-
-            // Retrieves score belonging to the gene-disease combination.
-            double score = result.get("gdaScoreNumber").asLiteral().getDouble();
-
-            // The gene-disease combination belonging to the single query result.
-            GeneDiseaseCombination comparisonGdc = new GeneDiseaseCombination(gene, disease, score);
-
-            // Retrieves it from the collection (if it already exists).
-            GeneDiseaseCombination gdc = geneDiseaseCollection.get(comparisonGdc);
-
-            // If the gene-disease combination is not present yet, uses the comparison gdc and also adds it to the collection.
-            if(gdc == null) {
-                gdc = comparisonGdc;
-                geneDiseaseCollection.add(gdc);
+        // Variables for storage of already found data per RDF node. As most query results are duplicates (1 per
+        // evidence item), each distinct node is only converted into an entity once.
+        Map<Node, Gene> genes = new HashMap<>();
+        Map<Node, Disease> diseases = new HashMap<>();
+        Map<Node, PubmedEvidence> foundPubmedEvidence = new HashMap<>();
+        Map<Node, Source> sources = new HashMap<>();
+        Map<Disease, Map<Gene, GeneDiseaseCombination>> geneDiseaseCombinations = new HashMap<>();
+        Map<Node, Phenotype> phenotypeNodes = new HashMap<>();
+        Map<Phenotype, Map<Disease, Map<Gene, GeneDiseaseCombination>>> geneDiseaseCombinationsPerPhenotype =
+                new HashMap<>();
+        boolean retrieveDiseaseNames = contents.contains(GeneDiseaseCollectionContent.DISEASE_NAMES);
+        boolean retrieveSources = contents.contains(GeneDiseaseCollectionContent.SOURCES);
+
+        // Genes outside the gene panel (if set) can not be part of the results.
+        Set<Node> genePanelNodes = null;
+        if(genePanel != null) {
+            genePanelNodes = findGenePanelNodes(getModelReader(), genePanel);
+            if(genePanelNodes.isEmpty()) {
+                return;
             }
+        }
 
-            // Retrieves source belonging to match. If this causes an error, this might indicate a corrupt database (as
-            // retrieveSources() should retrieve all possible sources available).
-            Source source = getSources().get(URI.create(result.get("gdaSource").asResource().getURI()));
-
-            // Adds source to gene-disease combination (with evidence if available).
-            if(result.get("evidence") != null) {
-                PubmedEvidence pubmedEvidence = processEntityQueryOutput(
-                    new PubmedEvidence(URI.create(result.get("evidence").asResource().getURI()),
-                        Integer.parseInt(result.get("evidenceYear").asLiteral().getString())),
-                    foundPubmedEvidence
-                );
-                gdc.add(source, pubmedEvidence);
-            } else {
-                gdc.add(source);
+        // Prepares query.
+        QueryRunner query = getQueryControl().start(genePanelNodes == null ?
+                new QueryRunner(getModelReader().getModel(), CompiledQuery.getGenesForPhenotypes(contents),
+                        phenotypes) :
+                new QueryRunner(getModelReader().getModel(), CompiledQuery.getGenesForPhenotypes(contents, true),
+                        phenotypes, genePanelNodes));
+
+        // Processes query (stops early if the query is cancelled, leaving partial results).
+        QueryStatistics statistics = query.getStatistics();
+        try {
+            while(query.hasNext()) {
+                QuerySolution result = query.next();
+
+                // Retrieves existing disease instance, or creates it if not yet present.
+                Node diseaseNode = result.get("disease").asNode();
+                Disease disease = diseases.get(diseaseNode);
+                if(disease == null) {
+                    if(retrieveDiseaseNames) {
+                        disease = new Disease(URI.create(diseaseNode.getURI()),
+                                result.get("diseaseName").asLiteral().getString());
+                    } else {
+                        disease = new Disease(URI.create(diseaseNode.getURI()));
+                    }
+                    diseases.put(diseaseNode, disease);
+                    statistics.entityCreated();
+                } else {
+                    statistics.entityReused();
+                }
+
+                // Retrieves existing gene instance, or creates it if not yet present.
+                Node geneNode = result.get("gene").asNode();
+                Gene gene = genes.get(geneNode);
+                if(gene == null) {
+                    gene = new Gene(URI.create(geneNode.getURI()),
+                            new GeneSymbol(URI.create(result.get("geneSymbol").asResource().getURI())));
+                    genes.put(geneNode, gene);
+                    statistics.entityCreated();
+                } else {
+                    statistics.entityReused();
+                }
+
+                // Selects the collection the result belongs to (the one of its phenotype if split per phenotype).
+                GeneDiseaseCollection collection = geneDiseaseCollection;
+                Map<Disease, Map<Gene, GeneDiseaseCombination>> collectionGdcs = geneDiseaseCombinations;
+                if(geneDiseaseCollectionPerPhenotype != null) {
+                    Phenotype phenotype = phenotypeNodes.computeIfAbsent(result.get("hpo").asNode(),
+                            k -> new Phenotype(URI.create(k.getURI())));
+                    collection = geneDiseaseCollectionPerPhenotype.get(phenotype);
+                    collectionGdcs = geneDiseaseCombinationsPerPhenotype.computeIfAbsent(phenotype,
+                            k -> new HashMap<>());
+                }
+
+                // Retrieves the gene-disease combination, or creates it (using the score of the current result) if not
+                // yet present.
+                Map<Gene, GeneDiseaseCombination> diseaseGdcs =
+                        collectionGdcs.computeIfAbsent(disease, k -> new HashMap<>());
+                GeneDiseaseCombination gdc = diseaseGdcs.get(gene);
+                if(gdc == null) {
+                    gdc = new GeneDiseaseCombination(gene, disease,
+                            result.get("gdaScoreNumber").asLiteral().getDouble());
+                    diseaseGdcs.put(gene, gdc);
+                    collection.add(gdc);
+                }
+
+                if(!retrieveSources) {
+                    continue;
+                }
+
+                // Retrieves source belonging to match. If this causes an error, this might indicate a corrupt database
+                // (as retrieveSources() should retrieve all possible sources available).
+                Node sourceNode = result.get("gdaSource").asNode();
+                Source source = sources.get(sourceNode);
+                if(source == null) {
+                    source = getSources().get(URI.create(sourceNode.getURI()));
+                    sources.put(sourceNode, source);
+                    statistics.entityCreated();
+                } else {
+                    statistics.entityReused();
+                }
+
+                // Adds source to gene-disease combination (with evidence if available).
+                RDFNode evidenceNode = result.get("evidence");
+                if(evidenceNode != null) {
+                    PubmedEvidence pubmedEvidence = foundPubmedEvidence.get(evidenceNode.asNode());
+                    if(pubmedEvidence == null) {
+                        pubmedEvidence = new PubmedEvidence(URI.create(evidenceNode.asResource().getURI()),
+                                Integer.parseInt(result.get("evidenceYear").asLiteral().getString()));
+                        foundPubmedEvidence.put(evidenceNode.asNode(), pubmedEvidence);
+                        statistics.entityCreated();
+                    } else {
+                        statistics.entityReused();
+                    }
+                    gdc.add(source, pubmedEvidence);
+                } else {
+                    gdc.add(source);
+                }
             }
+        } finally {
+            getQueryControl().finish(query);
         }
-
-        query.close();
-    }
-
-    private <T extends Entity> T processEntityQueryOutput(T entity, Map<T, T> foundEntities) {
-        return foundEntities.computeIfAbsent(entity, k -> k);
     }
 }
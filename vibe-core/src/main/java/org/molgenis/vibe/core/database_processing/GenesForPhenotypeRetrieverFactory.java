@@ -0,0 +1,135 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.ModelReader;
+import org.molgenis.vibe.core.io.input.VibeDatabase;
+
+import java.util.Set;
+
+/**
+ * The available implementations for retrieving the genes belonging to phenotypes from the database.
+ */
+public enum GenesForPhenotypeRetrieverFactory {
+    /**
+     * Retrieves the data through a SPARQL query (see {@link GenesForPhenotypeRetriever}).
+     */
+    SPARQL {
+        @Override
+        public GeneDiseaseCollectionRetriever create(ModelReader modelReader, Set<Phenotype> phenotypes,
+                                                     SourcesCache sourcesCache) {
+            return new GenesForPhenotypeRetriever(modelReader, phenotypes, sourcesCache);
+        }
+
+        @Override
+        public GeneDiseaseCollectionRetriever create(ModelReader modelReader, Set<Phenotype> phenotypes,
+                                                     SourcesCache sourcesCache,
+                                                     Set<GeneDiseaseCollectionContent> contents) {
+            return new GenesForPhenotypeRetriever(modelReader, phenotypes, sourcesCache, contents);
+        }
+    },
+    /**
+     * Retrieves the data through a SPARQL query, but uses the {@link PhenotypeResultCache} of the {@link VibeDatabase} so
+     * that only phenotypes without cached results are queried (see {@link CachedGenesForPhenotypeRetriever}). Without a
+     * {@link VibeDatabase} no cache is available, so the data is retrieved like {@link #SPARQL} instead.
+     */
+    SPARQL_CACHED {
+        @Override
+        public GeneDiseaseCollectionRetriever create(ModelReader modelReader, Set<Phenotype> phenotypes,
+                                                     SourcesCache sourcesCache) {
+            return SPARQL.create(modelReader, phenotypes, sourcesCache);
+        }
+
+        @Override
+        public GeneDiseaseCollectionRetriever create(ModelReader modelReader, Set<Phenotype> phenotypes,
+                                                     SourcesCache sourcesCache,
+                                                     Set<GeneDiseaseCollectionContent> contents) {
+            return SPARQL.create(modelReader, phenotypes, sourcesCache, contents);
+        }
+
+        @Override
+        public GeneDiseaseCollectionRetriever create(VibeDatabase vibeDatabase, ModelReader modelReader,
+                                                     Set<Phenotype> phenotypes,
+                                                     Set<GeneDiseaseCollectionContent> contents) {
+            return new CachedGenesForPhenotypeRetriever(modelReader, phenotypes, vibeDatabase.getSourcesCache(),
+                    contents, vibeDatabase.getPhenotypeResultCache(), vibeDatabase.getIdentifier());
+        }
+    },
+    /**
+     * Retrieves the gene-disease associations and their evidence through separate SPARQL queries (see
+     * {@link TwoPhaseGenesForPhenotypeRetriever}).
+     */
+    SPARQL_TWO_PHASE {
+        @Override
+        public GeneDiseaseCollectionRetriever create(ModelReader modelReader, Set<Phenotype> phenotypes,
+                                                     SourcesCache sourcesCache) {
+            return new TwoPhaseGenesForPhenotypeRetriever(modelReader, phenotypes, sourcesCache);
+        }
+    },
+    /**
+     * Retrieves the gene-disease associations through a SPARQL query, but only retrieves their evidence when needed
+     * (see {@link LazyEvidenceGenesForPhenotypeRetriever}). If created using a {@link ModelReader} only, it should not
+     * be closed while evidence can still be loaded.
+     */
+    SPARQL_LAZY_EVIDENCE {
+        @Override
+        public GeneDiseaseCollectionRetriever create(ModelReader modelReader, Set<Phenotype> phenotypes,
+                                                     SourcesCache sourcesCache) {
+            return new LazyEvidenceGenesForPhenotypeRetriever(modelReader, phenotypes, sourcesCache);
+        }
+
+        @Override
+        public GeneDiseaseCollectionRetriever create(VibeDatabase vibeDatabase, ModelReader modelReader,
+                                                     Set<Phenotype> phenotypes,
+                                                     Set<GeneDiseaseCollectionContent> contents) {
+            return new LazyEvidenceGenesForPhenotypeRetriever(modelReader, phenotypes, vibeDatabase);
+        }
+    },
+    /**
+     * Retrieves the data by directly searching the HDT triples (see {@link HdtGenesForPhenotypeRetriever}). Only
+     * works for HDT databases.
+     */
+    HDT {
+        @Override
+        public GeneDiseaseCollectionRetriever create(ModelReader modelReader, Set<Phenotype> phenotypes,
+                                                     SourcesCache sourcesCache) {
+            return new HdtGenesForPhenotypeRetriever(modelReader, phenotypes, sourcesCache);
+        }
+    };
+
+    /**
+     * @param modelReader the database to retrieve data from
+     * @param phenotypes the {@link Phenotype}{@code s} to retrieve the gene-disease associations for
+     * @param sourcesCache the cache to retrieve the {@link org.molgenis.vibe.core.formats.Source}{@code s} of the
+     *                     database from
+     * @return a {@link GeneDiseaseCollectionRetriever} that still needs to be run
+     */
+    public abstract GeneDiseaseCollectionRetriever create(ModelReader modelReader, Set<Phenotype> phenotypes,
+                                                          SourcesCache sourcesCache);
+
+    /**
+     * Only {@link #SPARQL} & {@link #SPARQL_CACHED} skip the content that is not requested, the other implementations
+     * always retrieve all content.
+     * @param modelReader the database to retrieve data from
+     * @param phenotypes the {@link Phenotype}{@code s} to retrieve the gene-disease associations for
+     * @param sourcesCache the cache to retrieve the {@link org.molgenis.vibe.core.formats.Source}{@code s} of the
+     *                     database from
+     * @param contents the optional content that is required (other optional content might not be retrieved)
+     * @return a {@link GeneDiseaseCollectionRetriever} that still needs to be run
+     */
+    public GeneDiseaseCollectionRetriever create(ModelReader modelReader, Set<Phenotype> phenotypes,
+                                                 SourcesCache sourcesCache, Set<GeneDiseaseCollectionContent> contents) {
+        return create(modelReader, phenotypes, sourcesCache);
+    }
+
+    /**
+     * @param vibeDatabase the database {@code modelReader} belongs to
+     * @param modelReader the database to retrieve data from (closed after the returned retriever is run)
+     * @param phenotypes the {@link Phenotype}{@code s} to retrieve the gene-disease associations for
+     * @param contents the optional content that is required (other optional content might not be retrieved)
+     * @return a {@link GeneDiseaseCollectionRetriever} that still needs to be run
+     */
+    public GeneDiseaseCollectionRetriever create(VibeDatabase vibeDatabase, ModelReader modelReader,
+                                                 Set<Phenotype> phenotypes, Set<GeneDiseaseCollectionContent> contents) {
+        return create(modelReader, phenotypes, vibeDatabase.getSourcesCache(), contents);
+    }
+}
@@ -0,0 +1,405 @@
+package org.molgenis.vibe.core.database_processing;
+
+import static java.util.Objects.requireNonNull;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.rdf.model.Literal;
+import org.molgenis.vibe.core.formats.*;
+import org.molgenis.vibe.core.io.input.ModelReader;
+import org.rdfhdt.hdt.dictionary.Dictionary;
+import org.rdfhdt.hdt.enums.TripleComponentRole;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.rdf.parsers.JenaNodeCreator;
+import org.rdfhdt.hdt.triples.IteratorTripleID;
+import org.rdfhdt.hdt.triples.TripleID;
+import org.rdfhdt.hdt.triples.Triples;
+import org.rdfhdt.hdtjena.HDTGraph;
+
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Retrieves the same information as {@link GenesForPhenotypeRetriever}, but instead of running a SPARQL query it
+ * directly searches the triples of the HDT using their dictionary IDs (in a fixed order: phenotype &rarr; disease
+ * &rarr; gene-disease association &rarr; gene). IDs are only decoded when creating the actual {@link Entity}
+ * instances, which is done once per distinct ID. Only works for a {@link ModelReader} backed by a HDT.
+ * <br /><br />
+ * Each combination of triples that would match the SPARQL query is counted, so that the
+ * {@link GeneDiseaseCombination} source counts are identical to those of {@link GenesForPhenotypeRetriever}.
+ */
+public class HdtGenesForPhenotypeRetriever extends DisgenetRdfDataRetriever implements GeneDiseaseCollectionRetriever {
+    private static final String RDF_TYPE = "http://www.w3.org/1999/02/22-rdf-syntax-ns#type";
+    private static final String RDFS_SUB_CLASS_OF = "http://www.w3.org/2000/01/rdf-schema#subClassOf";
+    private static final String SKOS_EXACT_MATCH = "http://www.w3.org/2004/02/skos/core#exactMatch";
+    private static final String DCTERMS_TITLE = "http://purl.org/dc/terms/title";
+    private static final String DCTERMS_ISSUED = "http://purl.org/dc/terms/issued";
+    private static final String SIO = "http://semanticscience.org/resource/";
+
+    private static final long[] NONE = new long[0];
+
+    /**
+     * The {@link Phenotype}{@code s} to be processed.
+     */
+    private Set<Phenotype> phenotypes;
+
+    /**
+     * The final output to be retrieved for further usage after retrieval.
+     */
+    private GeneDiseaseCollection geneDiseaseCollection = new GeneDiseaseCollection();
+
+    /**
+     * The genes the results are restricted to ({@code null} if the results should not be restricted).
+     */
+    private GenePanel genePanel;
+
+    /**
+     * The object IDs of the genes within {@link #genePanel} ({@code null} if the results should not be restricted).
+     */
+    private Set<Long> genePanelIds;
+
+    private Dictionary dictionary;
+    private Triples triples;
+
+    /**
+     * The predicate IDs used for searching the triples (0 if not present in the HDT).
+     */
+    private long rdfType;
+    private long exactMatch;
+    private long title;
+    private long issued;
+    private long isReferredToBy;
+    private long refersTo;
+    private long isRelatedTo;
+    private long hasMeasurementValue;
+    private long hasSource;
+    private long hasEvidence;
+    private long isRepresentedBy;
+
+    @Override
+    public GeneDiseaseCollection getGeneDiseaseCollection() {
+        return geneDiseaseCollection;
+    }
+
+    /**
+     * @param modelReader the database to retrieve data from (must be backed by a HDT)
+     * @param phenotypes the {@link Phenotype}{@code s} to retrieve the gene-disease associations for
+     * @param sourcesCache the cache to retrieve the {@link Source}{@code s} of the database from
+     */
+    public HdtGenesForPhenotypeRetriever(ModelReader modelReader, Set<Phenotype> phenotypes, SourcesCache sourcesCache) {
+        super(modelReader, sourcesCache);
+        this.phenotypes = requireNonNull(phenotypes);
+    }
+
+    /**
+     * Gene-disease associations are only processed further (such as decoding their evidence) if they refer to a gene
+     * within {@code genePanel}.
+     */
+    @Override
+    public void setGenePanel(GenePanel genePanel) {
+        this.genePanel = requireNonNull(genePanel);
+    }
+
+    @Override
+    public void run() {
+        HDT hdt = getHdt(getModelReader());
+        dictionary = hdt.getDictionary();
+        triples = hdt.getTriples();
+
+        if(!retrieveSources()) {
+            return;
+        }
+        retrievePredicates();
+        if(genePanel != null) {
+            retrieveGenePanelIds();
+            if(genePanelIds.isEmpty()) {
+                return;
+            }
+        }
+        retrieveData();
+    }
+
+    /**
+     * Converts the gene nodes of {@link #genePanel} into object IDs (genes not present in the HDT are ignored).
+     */
+    private void retrieveGenePanelIds() {
+        genePanelIds = new HashSet<>();
+        for(Node node : findGenePanelNodes(getModelReader(), genePanel)) {
+            long id = dictionary.stringToId(node.getURI(), TripleComponentRole.OBJECT);
+            if(id > 0) {
+                genePanelIds.add(id);
+            }
+        }
+    }
+
+    /**
+     * @param geneIds the object IDs of genes
+     * @return {@code geneIds} without the genes outside {@link #genePanel} (as-is if there is no gene panel)
+     */
+    private long[] retainGenePanelIds(long[] geneIds) {
+        if(genePanelIds == null) {
+            return geneIds;
+        }
+        return Arrays.stream(geneIds).filter(genePanelIds::contains).toArray();
+    }
+
+    /**
+     * @param modelReader a {@link ModelReader} backed by a HDT
+     * @return the HDT backing {@code modelReader}
+     * @throws IllegalArgumentException if {@code modelReader} is not backed by a HDT
+     */
+    static HDT getHdt(ModelReader modelReader) {
+        Graph graph = modelReader.getModel().getGraph();
+        if(!(graph instanceof HDTGraph)) {
+            throw new IllegalArgumentException("Database is not a HDT.");
+        }
+        return ((HDTGraph) graph).getHDT();
+    }
+
+    private void retrievePredicates() {
+        rdfType = predicate(RDF_TYPE);
+        exactMatch = predicate(SKOS_EXACT_MATCH);
+        title = predicate(DCTERMS_TITLE);
+        issued = predicate(DCTERMS_ISSUED);
+        isReferredToBy = predicate(SIO + "SIO_000212");
+        refersTo = predicate(SIO + "SIO_000628");
+        isRelatedTo = predicate(SIO + "SIO_000001");
+        hasMeasurementValue = predicate(SIO + "SIO_000216");
+        hasSource = predicate(SIO + "SIO_000253");
+        hasEvidence = predicate(SIO + "SIO_000772");
+        isRepresentedBy = predicate(SIO + "SIO_000205");
+    }
+
+    private void retrieveData() {
+        // Variables for storage of already decoded data per dictionary ID, so that each distinct ID is only decoded
+        // (and converted into an entity) once.
+        Map<Long, Gene> genes = new HashMap<>();
+        Map<Long, PubmedEvidence> foundPubmedEvidence = new HashMap<>();
+        Map<Long, Source> sources = new HashMap<>();
+
+        // The gene-disease association types that match the query (rdf:type/rdfs:subClassOf*).
+        Set<Long> gdaTypes = retrieveSubClasses(SIO + GeneDiseaseCombinationType.GENE_DISEASE.getId());
+
+        // Per disease, the number of paths from the phenotypes to it (each path yields a separate query result).
+        Map<Long, Integer> diseasePaths = retrieveDiseasePaths();
+
+        for(Map.Entry<Long, Integer> diseasePath : diseasePaths.entrySet()) {
+            long diseaseId = toSubject(diseasePath.getKey());
+            long[] gdaIds = objects(diseaseId, isReferredToBy);
+            long[] diseaseNameIds = objects(diseaseId, title);
+            if(gdaIds.length == 0 || diseaseNameIds.length == 0) {
+                continue;
+            }
+
+            // Diseases are only visited once (as the paths are grouped per disease). If multiple names are present,
+            // the first one is used (as equality is only based on the URI).
+            Disease disease = new Disease(decodeUri(diseaseId, TripleComponentRole.SUBJECT),
+                    decodeLiteral(diseaseNameIds[0]).getString());
+            Map<Long, GeneDiseaseCombination> geneDiseaseCombinations = new HashMap<>();
+
+            for(long gdaObjectId : gdaIds) {
+                long gdaId = toSubject(gdaObjectId);
+                int typeMatches = 0;
+                for(long typeId : objects(gdaId, rdfType)) {
+                    if(gdaTypes.contains(typeId)) {
+                        typeMatches++;
+                    }
+                }
+                long[] geneIds = retainGenePanelIds(objects(gdaId, refersTo));
+                long[] scoreIds = objects(gdaId, hasMeasurementValue);
+                long[] sourceIds = objects(gdaId, hasSource);
+                if(typeMatches == 0 || geneIds.length == 0 || scoreIds.length == 0 || sourceIds.length == 0) {
+                    continue;
+                }
+
+                // OPTIONAL evidence: null if no evidence with a year is present. Contains an evidence once per year.
+                List<PubmedEvidence> evidence = new ArrayList<>();
+                for(long evidenceId : objects(gdaId, hasEvidence)) {
+                    long[] yearIds = objects(toSubject(evidenceId), issued);
+                    if(yearIds.length > 0) {
+                        PubmedEvidence pubmedEvidence = foundPubmedEvidence.get(evidenceId);
+                        if(pubmedEvidence == null) {
+                            pubmedEvidence = new PubmedEvidence(decodeUri(evidenceId, TripleComponentRole.OBJECT),
+                                    Integer.parseInt(decodeLiteral(yearIds[0]).getString()));
+                            foundPubmedEvidence.put(evidenceId, pubmedEvidence);
+                        }
+                        for(int i = 0; i < yearIds.length; i++) {
+                            evidence.add(pubmedEvidence);
+                        }
+                    }
+                }
+                if(evidence.isEmpty()) {
+                    evidence.add(null);
+                }
+
+                // Number of identical query results for each gene/symbol/source/evidence combination. As with the
+                // disease names, only the first score is used (when the gene-disease combination is created).
+                int multiplicity = diseasePath.getValue() * typeMatches * diseaseNameIds.length * scoreIds.length;
+
+                for(long geneId : geneIds) {
+                    long[] geneSymbolIds = objects(toSubject(geneId), isRepresentedBy);
+                    if(geneSymbolIds.length == 0) {
+                        continue;
+                    }
+                    Gene gene = genes.get(geneId);
+                    if(gene == null) {
+                        gene = new Gene(decodeUri(geneId, TripleComponentRole.OBJECT),
+                                new GeneSymbol(decodeUri(geneSymbolIds[0], TripleComponentRole.OBJECT)));
+                        genes.put(geneId, gene);
+                    }
+
+                    // Retrieves the gene-disease combination, or creates it if not yet present.
+                    GeneDiseaseCombination gdc = geneDiseaseCombinations.get(geneId);
+                    if(gdc == null) {
+                        gdc = new GeneDiseaseCombination(gene, disease, decodeLiteral(scoreIds[0]).getDouble());
+                        geneDiseaseCombinations.put(geneId, gdc);
+                        geneDiseaseCollection.add(gdc);
+                    }
+
+                    int geneMultiplicity = multiplicity * geneSymbolIds.length;
+                    for(long sourceId : sourceIds) {
+                        // Retrieves source belonging to match. If this causes an error, this might indicate a corrupt
+                        // database (as retrieveSources() should retrieve all possible sources available).
+                        Source source = sources.get(sourceId);
+                        if(source == null) {
+                            source = getSources().get(decodeUri(sourceId, TripleComponentRole.OBJECT));
+                            sources.put(sourceId, source);
+                        }
+                        for(PubmedEvidence pubmedEvidence : evidence) {
+                            for(int i = 0; i < geneMultiplicity; i++) {
+                                if(pubmedEvidence != null) {
+                                    gdc.add(source, pubmedEvidence);
+                                } else {
+                                    gdc.add(source);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves the diseases (as object IDs) linked to the {@link #phenotypes} through any of the paths used by the
+     * SPARQL query (skos:exactMatch, sio:SIO_000212/sio:SIO_000628 or sio:SIO_000001/skos:exactMatch).
+     * @return per disease the number of paths found
+     */
+    private Map<Long, Integer> retrieveDiseasePaths() {
+        Map<Long, Integer> diseasePaths = new LinkedHashMap<>();
+        for(Phenotype phenotype : phenotypes) {
+            long hpoId = dictionary.stringToId(phenotype.getUri().toString(), TripleComponentRole.SUBJECT);
+            if(hpoId <= 0) {
+                continue;
+            }
+
+            for(long diseaseId : objects(hpoId, exactMatch)) {
+                diseasePaths.merge(diseaseId, 1, Integer::sum);
+            }
+            for(long pdaId : objects(hpoId, isReferredToBy)) {
+                for(long diseaseId : objects(toSubject(pdaId), refersTo)) {
+                    diseasePaths.merge(diseaseId, 1, Integer::sum);
+                }
+            }
+            for(long ordoId : objects(hpoId, isRelatedTo)) {
+                for(long diseaseId : objects(toSubject(ordoId), exactMatch)) {
+                    diseasePaths.merge(diseaseId, 1, Integer::sum);
+                }
+            }
+        }
+        return diseasePaths;
+    }
+
+    /**
+     * @param rootClass the class to retrieve all (indirect) subclasses for
+     * @return object IDs of {@code rootClass} and all its (indirect) subclasses
+     */
+    private Set<Long> retrieveSubClasses(String rootClass) {
+        Set<Long> subClasses = new HashSet<>();
+        long rootId = dictionary.stringToId(rootClass, TripleComponentRole.OBJECT);
+        long subClassOf = predicate(RDFS_SUB_CLASS_OF);
+        if(rootId <= 0) {
+            return subClasses;
+        }
+
+        Deque<Long> queue = new ArrayDeque<>();
+        subClasses.add(rootId);
+        queue.add(rootId);
+        while(!queue.isEmpty()) {
+            long classId = queue.poll();
+            if(subClassOf <= 0) {
+                continue;
+            }
+            IteratorTripleID iterator = triples.search(new TripleID(0, subClassOf, classId));
+            while(iterator.hasNext()) {
+                // A subclass can only have subclasses (or be used as type) if it is also present as object.
+                long subClassId = toObject(iterator.next().getSubject());
+                if(subClassId > 0 && subClasses.add(subClassId)) {
+                    queue.add(subClassId);
+                }
+            }
+        }
+        return subClasses;
+    }
+
+    /**
+     * @param subject a subject ID (0 for none)
+     * @param predicate a predicate ID (0 if not present in the HDT)
+     * @return the object IDs of all triples with the given {@code subject} & {@code predicate}
+     */
+    private long[] objects(long subject, long predicate) {
+        // 0 would be used as wildcard when searching.
+        if(subject <= 0 || predicate <= 0) {
+            return NONE;
+        }
+
+        IteratorTripleID iterator = triples.search(new TripleID(subject, predicate, 0));
+        long[] objects = new long[4];
+        int size = 0;
+        while(iterator.hasNext()) {
+            if(size == objects.length) {
+                objects = Arrays.copyOf(objects, size * 2);
+            }
+            objects[size++] = iterator.next().getObject();
+        }
+        return Arrays.copyOf(objects, size);
+    }
+
+    /**
+     * Only terms that are used as subject and object share the same ID for both roles (the shared section of the
+     * dictionary, which starts at ID 1). Any other object is never used as subject.
+     * @param objectId an object ID
+     * @return the subject ID of the same term, or 0 if it is never used as subject
+     */
+    private long toSubject(long objectId) {
+        return objectId <= dictionary.getNshared() ? objectId : 0;
+    }
+
+    /**
+     * @param subjectId a subject ID
+     * @return the object ID of the same term, or 0 if it is never used as object
+     * @see #toSubject(long)
+     */
+    private long toObject(long subjectId) {
+        return subjectId <= dictionary.getNshared() ? subjectId : 0;
+    }
+
+    private long predicate(String uri) {
+        return dictionary.stringToId(uri, TripleComponentRole.PREDICATE);
+    }
+
+    private URI decodeUri(long id, TripleComponentRole role) {
+        return URI.create(dictionary.idToString(id, role).toString());
+    }
+
+    /**
+     * Decodes a literal in the same way as the SPARQL query results are created (so that values are converted
+     * identically).
+     * @param objectId the object ID of the literal
+     * @return the literal
+     */
+    private Literal decodeLiteral(long objectId) {
+        return getModelReader().getModel().asRDFNode(
+                JenaNodeCreator.create(dictionary.idToString(objectId, TripleComponentRole.OBJECT))).asLiteral();
+    }
+}
@@ -0,0 +1,69 @@
+package org.molgenis.vibe.core.database_processing;
+
+import static java.util.Objects.requireNonNull;
+
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.GeneDiseaseCombination;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.formats.PubmedEvidenceLoader;
+import org.molgenis.vibe.core.io.input.ModelReader;
+import org.molgenis.vibe.core.io.input.VibeDatabase;
+
+import java.util.Set;
+
+/**
+ * Retrieves the same information as {@link TwoPhaseGenesForPhenotypeRetriever}, but only retrieves the evidence of a
+ * {@link GeneDiseaseCombination} when it is first needed (or for multiple gene-disease combinations at once through
+ * {@link GeneDiseaseCollection#loadPubmedEvidence(java.util.Collection)}). The sources are retrieved directly: their
+ * counts only require the number of evidence items per gene-disease association, which is retrieved without the
+ * evidence itself. As the genes are prioritized based on the DisGeNET score only, this allows retrieving the evidence
+ * for the highest prioritized genes only.
+ */
+public class LazyEvidenceGenesForPhenotypeRetriever extends TwoPhaseGenesForPhenotypeRetriever {
+    /**
+     * The database to load the evidence from ({@code null} if the {@link ModelReader} should be used).
+     */
+    private VibeDatabase vibeDatabase;
+
+    /**
+     * @param modelReader the database to retrieve data from (should not be closed while evidence can still be loaded)
+     * @param phenotypes the {@link Phenotype}{@code s} to retrieve the gene-disease associations for
+     * @param sourcesCache the cache to retrieve the {@link org.molgenis.vibe.core.formats.Source}{@code s} of the
+     *                     database from
+     */
+    public LazyEvidenceGenesForPhenotypeRetriever(ModelReader modelReader, Set<Phenotype> phenotypes,
+                                                  SourcesCache sourcesCache) {
+        super(modelReader, phenotypes, sourcesCache);
+    }
+
+    /**
+     * @param modelReader the database to retrieve the gene-disease associations from (can be closed after {@link #run()})
+     * @param phenotypes the {@link Phenotype}{@code s} to retrieve the gene-disease associations for
+     * @param vibeDatabase the database {@code modelReader} belongs to, through which the evidence is loaded later on
+     */
+    public LazyEvidenceGenesForPhenotypeRetriever(ModelReader modelReader, Set<Phenotype> phenotypes,
+                                                  VibeDatabase vibeDatabase) {
+        super(modelReader, phenotypes, vibeDatabase.getSourcesCache());
+        this.vibeDatabase = requireNonNull(vibeDatabase);
+    }
+
+    @Override
+    public void run() {
+        if(!retrieveSources()) {
+            return;
+        }
+        retrieveGeneDiseaseAssociations();
+        addSources(getGdaOccurrences(), retrieveEvidenceCounts(getModelReader(), getGdaOccurrences().keySet(),
+                getQueryControl()));
+
+        PubmedEvidenceLoader loader;
+        if(vibeDatabase == null) {
+            loader = new LazyPubmedEvidenceLoader(getModelReader(), getGdaOccurrences());
+        } else {
+            loader = new LazyPubmedEvidenceLoader(vibeDatabase, getGdaOccurrences());
+        }
+        for(GeneDiseaseCombination gdc : getGeneDiseaseCollection()) {
+            gdc.setPubmedEvidenceLoader(loader);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.molgenis.vibe.core.database_processing;
+
+import static java.util.Objects.requireNonNull;
+
+import org.apache.jena.graph.Node;
+import org.molgenis.vibe.core.database_processing.TwoPhaseGenesForPhenotypeRetriever.GdaOccurrence;
+import org.molgenis.vibe.core.formats.GeneDiseaseCombination;
+import org.molgenis.vibe.core.formats.PubmedEvidence;
+import org.molgenis.vibe.core.formats.PubmedEvidenceLoader;
+import org.molgenis.vibe.core.io.input.ModelReader;
+import org.molgenis.vibe.core.io.input.VibeDatabase;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the evidence for the gene-disease combinations found by {@link LazyEvidenceGenesForPhenotypeRetriever} through
+ * the second phase of {@link TwoPhaseGenesForPhenotypeRetriever}, but only for the gene-disease combinations that are
+ * requested. The sources were already added by the retriever.
+ */
+class LazyPubmedEvidenceLoader implements PubmedEvidenceLoader {
+    /**
+     * The database to retrieve the evidence from ({@code null} if {@link #vibeDatabase} should be used).
+     */
+    private final ModelReader modelReader;
+
+    /**
+     * The database to retrieve a new {@link ModelReader} from for each load ({@code null} if {@link #modelReader}
+     * should be used).
+     */
+    private final VibeDatabase vibeDatabase;
+
+    /**
+     * Per gene-disease combination that is not loaded yet, how often each of its gene-disease associations (database
+     * node) was found. As a gene-disease association belongs to a single gene & disease, these do not overlap.
+     */
+    private final Map<GeneDiseaseCombination, Map<Node, List<GdaOccurrence>>> occurrencesPerGdc = new HashMap<>();
+
+    /**
+     * @param modelReader the database to retrieve the evidence from (should not be closed while evidence can still be
+     *                    loaded)
+     * @param gdaOccurrences per gene-disease association (database node) how often it was found
+     */
+    LazyPubmedEvidenceLoader(ModelReader modelReader, Map<Node, List<GdaOccurrence>> gdaOccurrences) {
+        this.modelReader = requireNonNull(modelReader);
+        this.vibeDatabase = null;
+        groupPerGdc(gdaOccurrences);
+    }
+
+    /**
+     * @param vibeDatabase the database to retrieve the evidence from (a {@link ModelReader} is retrieved for each load,
+     *                     so preferably the database is opened, see {@link VibeDatabase#open()})
+     * @param gdaOccurrences per gene-disease association (database node) how often it was found
+     */
+    LazyPubmedEvidenceLoader(VibeDatabase vibeDatabase, Map<Node, List<GdaOccurrence>> gdaOccurrences) {
+        this.modelReader = null;
+        this.vibeDatabase = requireNonNull(vibeDatabase);
+        groupPerGdc(gdaOccurrences);
+    }
+
+    private void groupPerGdc(Map<Node, List<GdaOccurrence>> gdaOccurrences) {
+        for(Map.Entry<Node, List<GdaOccurrence>> entry : gdaOccurrences.entrySet()) {
+            for(GdaOccurrence occurrence : entry.getValue()) {
+                occurrencesPerGdc.computeIfAbsent(occurrence.gdc, k -> new LinkedHashMap<>())
+                        .computeIfAbsent(entry.getKey(), k -> new ArrayList<>(1)).add(occurrence);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void load(Collection<GeneDiseaseCombination> geneDiseaseCombinations) {
+        Map<Node, List<GdaOccurrence>> gdaOccurrences = new LinkedHashMap<>();
+        for(GeneDiseaseCombination gdc : geneDiseaseCombinations) {
+            Map<Node, List<GdaOccurrence>> gdcOccurrences = occurrencesPerGdc.get(gdc);
+            if(gdcOccurrences != null) {
+                gdaOccurrences.putAll(gdcOccurrences);
+            }
+        }
+        if(gdaOccurrences.isEmpty()) {
+            return;
+        }
+
+        // Only adds the evidence once all evidence is retrieved.
+        TwoPhaseGenesForPhenotypeRetriever.addEvidence(gdaOccurrences, retrieveEvidence(gdaOccurrences.keySet()));
+        for(GeneDiseaseCombination gdc : geneDiseaseCombinations) {
+            occurrencesPerGdc.remove(gdc);
+        }
+    }
+
+    private Map<Node, List<PubmedEvidence>> retrieveEvidence(Collection<Node> gdas) {
+        if(modelReader != null) {
+            return TwoPhaseGenesForPhenotypeRetriever.retrieveEvidence(modelReader, gdas, new QueryControl());
+        }
+        try (ModelReader databaseReader = vibeDatabase.getModelReader()) {
+            return TwoPhaseGenesForPhenotypeRetriever.retrieveEvidence(databaseReader, gdas, new QueryControl());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.molgenis.vibe.core.database_processing;
+
+import static java.util.Objects.requireNonNull;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.ExprFunction1;
+import org.apache.jena.sparql.expr.NodeValue;
+
+import java.util.Set;
+
+/**
+ * A filter expression that is {@code true} if the value of its argument is part of a {@link Set} of {@link Node}s.
+ * Equal to {@code ?x IN (...)}, except that each check is a hash lookup instead of a comparison with each listed value
+ * (so that large gene panels do not slow down each result). Only created when binding a {@link CompiledQuery}, so it
+ * does not need to be parsable.
+ */
+final class NodeSetMembership extends ExprFunction1 {
+    private static final String FUNCTION_NAME = "vibe:in";
+
+    private final Set<Node> nodes;
+
+    /**
+     * @param expr the expression of which the value is checked (usually a variable)
+     * @param nodes the allowed values (not copied, so should not be modified afterwards)
+     */
+    NodeSetMembership(Expr expr, Set<Node> nodes) {
+        super(expr, FUNCTION_NAME);
+        this.nodes = requireNonNull(nodes);
+    }
+
+    @Override
+    public NodeValue eval(NodeValue v) {
+        return NodeValue.booleanReturn(nodes.contains(v.asNode()));
+    }
+
+    @Override
+    public Expr copy(Expr expr) {
+        return new NodeSetMembership(expr, nodes);
+    }
+
+    @Override
+    public boolean equals(Expr other, boolean bySyntax) {
+        return other instanceof NodeSetMembership && nodes.equals(((NodeSetMembership) other).nodes) &&
+                super.equals(other, bySyntax);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + nodes.hashCode();
+    }
+}
@@ -0,0 +1,231 @@
+package org.molgenis.vibe.core.database_processing;
+
+import static java.util.Objects.requireNonNull;
+
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.GeneDiseaseCombination;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.formats.PubmedEvidence;
+
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Caches the gene-disease associations found through a single {@link Phenotype}, so that phenotypes shared by multiple
+ * retrievals (such as different patients within a batch, or related phenotypes found through the HPO ontology) only
+ * need to be queried once (see {@link CachedGenesForPhenotypeRetriever}). Results are stored per database, phenotype &
+ * requested {@link GeneDiseaseCollectionContent}.
+ * <br /><br />
+ * The size of the cache is bounded by the estimated heap size of the stored results (see
+ * {@link #estimateWeight(GeneDiseaseCollection)}). If adding a result exceeds this bound, the least recently used
+ * results are evicted. Instances can safely be shared between threads. Stored {@link GeneDiseaseCollection}{@code s}
+ * should not be modified, as they are shared by all retrievals using them.
+ */
+public class PhenotypeResultCache {
+    /**
+     * The default maximum weight: 1/8th of the maximum heap size.
+     */
+    public static final long DEFAULT_MAX_WEIGHT = Runtime.getRuntime().maxMemory() / 8;
+
+    /**
+     * Estimated bytes per cached phenotype (key, map entry & {@link GeneDiseaseCollection} with its maps).
+     */
+    static final long ENTRY_WEIGHT = 512;
+
+    /**
+     * Estimated bytes per {@link GeneDiseaseCombination} (including its gene, disease & the maps storing it).
+     */
+    static final long GENE_DISEASE_COMBINATION_WEIGHT = 640;
+
+    /**
+     * Estimated bytes per {@link org.molgenis.vibe.core.formats.Source} of a {@link GeneDiseaseCombination}.
+     */
+    static final long SOURCE_WEIGHT = 128;
+
+    /**
+     * Estimated bytes per {@link PubmedEvidence} of a {@link GeneDiseaseCombination}.
+     */
+    static final long PUBMED_EVIDENCE_WEIGHT = 160;
+
+    private final long maxWeight;
+
+    /**
+     * The cached results, ordered from least to most recently used.
+     */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Uses {@link #DEFAULT_MAX_WEIGHT} as maximum weight.
+     */
+    public PhenotypeResultCache() {
+        this(DEFAULT_MAX_WEIGHT);
+    }
+
+    /**
+     * @param maxWeight the maximum estimated heap size (in bytes) of all cached results combined
+     * @throws IllegalArgumentException if {@code maxWeight} is negative
+     */
+    public PhenotypeResultCache(long maxWeight) {
+        if(maxWeight < 0) {
+            throw new IllegalArgumentException("Maximum weight can not be negative.");
+        }
+        this.maxWeight = maxWeight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return the estimated heap size (in bytes) of all cached results combined
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return the number of cached results
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of times a result was retrieved from the cache
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of times a result was requested that was not cached
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of results removed from the cache to stay within {@link #getMaxWeight()}
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @param database identifies the database the result belongs to
+     * @param contents the optional content the result was retrieved with
+     * @param phenotype the phenotype the result belongs to
+     * @return the cached gene-disease associations (should not be modified), or {@code null} if not cached
+     */
+    synchronized GeneDiseaseCollection get(String database, Set<GeneDiseaseCollectionContent> contents,
+                                           Phenotype phenotype) {
+        Entry entry = entries.get(new Key(database, contents, phenotype));
+        if(entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.collection;
+    }
+
+    /**
+     * Stores the gene-disease associations found through a single phenotype. If this causes the cache to exceed
+     * {@link #getMaxWeight()}, the least recently used results are evicted. A result that is heavier than
+     * {@link #getMaxWeight()} by itself is not stored.
+     * @param database identifies the database the result belongs to
+     * @param contents the optional content the result was retrieved with
+     * @param phenotype the phenotype the result belongs to
+     * @param collection the gene-disease associations found through {@code phenotype} (should not be modified afterwards)
+     */
+    synchronized void put(String database, Set<GeneDiseaseCollectionContent> contents, Phenotype phenotype,
+                          GeneDiseaseCollection collection) {
+        Entry entry = new Entry(requireNonNull(collection), estimateWeight(collection));
+        if(entry.weight > maxWeight) {
+            return;
+        }
+
+        Entry previous = entries.put(new Key(database, contents, phenotype), entry);
+        if(previous != null) {
+            weight -= previous.weight;
+        }
+        weight += entry.weight;
+
+        Iterator<Entry> iterator = entries.values().iterator();
+        while(weight > maxWeight) {
+            weight -= iterator.next().weight;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes all cached results (the hit/miss/eviction counters are not reset).
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Estimates the heap size of a {@link GeneDiseaseCollection} based on the number of gene-disease combinations,
+     * sources & evidence items within it. The estimate is on the high side, as entities shared with other cached results
+     * are counted for each of them.
+     * @param collection the collection to estimate the size of
+     * @return the estimated size in bytes
+     */
+    static long estimateWeight(GeneDiseaseCollection collection) {
+        long estimate = ENTRY_WEIGHT;
+        for(GeneDiseaseCombination gdc : collection) {
+            estimate += GENE_DISEASE_COMBINATION_WEIGHT + gdc.getSourcesCount().size() * SOURCE_WEIGHT;
+            estimate += gdc.getAllPubmedEvidence().size() * PUBMED_EVIDENCE_WEIGHT;
+        }
+        return estimate;
+    }
+
+    private static class Entry {
+        private final GeneDiseaseCollection collection;
+        private final long weight;
+
+        Entry(GeneDiseaseCollection collection, long weight) {
+            this.collection = collection;
+            this.weight = weight;
+        }
+    }
+
+    private static class Key {
+        private final String database;
+        private final Set<GeneDiseaseCollectionContent> contents;
+        private final Phenotype phenotype;
+
+        Key(String database, Set<GeneDiseaseCollectionContent> contents, Phenotype phenotype) {
+            this.database = requireNonNull(database);
+            this.contents = contents.isEmpty() ? EnumSet.noneOf(GeneDiseaseCollectionContent.class) :
+                    EnumSet.copyOf(contents);
+            this.phenotype = requireNonNull(phenotype);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return database.equals(key.database) &&
+                    contents.equals(key.contents) &&
+                    phenotype.equals(key.phenotype);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(database, contents, phenotype);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.molgenis.vibe.core.database_processing;
+
+import static java.util.Objects.requireNonNull;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.RDFNode;
+import org.molgenis.vibe.core.formats.*;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Retrieves the diseases linked to a set of {@link Gene}{@code s} and the HPO {@link Phenotype}{@code s} linked to
+ * these diseases (the reverse of {@link GenesForPhenotypeRetriever}). Only the triples reachable from the given
+ * {@link Gene}{@code s} are searched, so the time needed scales with the number of genes instead of with the size of
+ * the database.
+ */
+public class PhenotypesForGenesRetriever extends DisgenetRdfDataRetriever {
+    /**
+     * The {@link Gene}{@code s} to be processed.
+     */
+    private Set<Gene> genes;
+
+    /**
+     * The final output to be retrieved for further usage after querying.
+     */
+    private GenePhenotypeCollection genePhenotypeCollection = new GenePhenotypeCollection();
+
+    public GenePhenotypeCollection getGenePhenotypeCollection() {
+        return genePhenotypeCollection;
+    }
+
+    /**
+     * @param modelReader the database to retrieve data from
+     * @param genes the {@link Gene}{@code s} to retrieve the diseases & phenotypes for
+     */
+    public PhenotypesForGenesRetriever(ModelReader modelReader, Set<Gene> genes) {
+        super(modelReader);
+        this.genes = requireNonNull(genes);
+    }
+
+    @Override
+    public void run() {
+        // Genes not present in the database cannot be linked to any disease.
+        Set<Gene> presentGenes = retainPresentGenes();
+        if(presentGenes.isEmpty()) {
+            return;
+        }
+
+        // Variables for storage of already found data per RDF node.
+        Map<Node, Gene> foundGenes = new HashMap<>();
+        Map<Node, Disease> diseases = new HashMap<>();
+        Map<Node, Phenotype> phenotypes = new HashMap<>();
+        Map<Disease, Map<Gene, GeneDiseaseCombination>> geneDiseaseCombinations = new HashMap<>();
+
+        QueryRunner query = getQueryControl().start(new QueryRunner(getModelReader().getModel(),
+                CompiledQuery.getPhenotypesForGenes(), presentGenes));
+
+        QueryStatistics statistics = query.getStatistics();
+        try {
+            while(query.hasNext()) {
+                QuerySolution result = query.next();
+
+                // Retrieves existing gene instance, or creates it if not yet present.
+                Node geneNode = result.get("gene").asNode();
+                Gene gene = foundGenes.get(geneNode);
+                if(gene == null) {
+                    gene = new Gene(URI.create(geneNode.getURI()),
+                            new GeneSymbol(URI.create(result.get("geneSymbol").asResource().getURI())));
+                    foundGenes.put(geneNode, gene);
+                    statistics.entityCreated();
+                } else {
+                    statistics.entityReused();
+                }
+
+                // Retrieves existing disease instance, or creates it if not yet present.
+                Node diseaseNode = result.get("disease").asNode();
+                Disease disease = diseases.get(diseaseNode);
+                if(disease == null) {
+                    disease = new Disease(URI.create(diseaseNode.getURI()),
+                            result.get("diseaseName").asLiteral().getString());
+                    diseases.put(diseaseNode, disease);
+                    statistics.entityCreated();
+                } else {
+                    statistics.entityReused();
+                }
+
+                // Retrieves the gene-disease combination, or creates it (using the score of the current result) if not
+                // yet present.
+                Map<Gene, GeneDiseaseCombination> diseaseGdcs =
+                        geneDiseaseCombinations.computeIfAbsent(disease, k -> new HashMap<>());
+                if(!diseaseGdcs.containsKey(gene)) {
+                    GeneDiseaseCombination gdc = new GeneDiseaseCombination(gene, disease,
+                            result.get("gdaScoreNumber").asLiteral().getDouble());
+                    diseaseGdcs.put(gene, gdc);
+                    genePhenotypeCollection.add(gdc);
+                }
+
+                // Adds the phenotype (if the disease is linked to any).
+                RDFNode phenotypeNode = result.get("hpo");
+                if(phenotypeNode != null) {
+                    Phenotype phenotype = phenotypes.get(phenotypeNode.asNode());
+                    if(phenotype == null) {
+                        phenotype = new Phenotype(URI.create(phenotypeNode.asResource().getURI()));
+                        phenotypes.put(phenotypeNode.asNode(), phenotype);
+                        statistics.entityCreated();
+                    } else {
+                        statistics.entityReused();
+                    }
+                    genePhenotypeCollection.addPhenotype(disease, phenotype);
+                }
+            }
+        } finally {
+            getQueryControl().finish(query);
+        }
+    }
+
+    /**
+     * Retains the {@link Gene}{@code s} that are present in the database. Values that are not present in the
+     * dictionary of a HDT file cannot be bound within a query (the query fails instead of returning no results), so
+     * these are removed beforehand.
+     * @return the {@link Gene}{@code s} present in the database (in the order of {@link #genes})
+     */
+    private Set<Gene> retainPresentGenes() {
+        Graph graph = getModelReader().getModel().getGraph();
+        Set<Gene> presentGenes = new LinkedHashSet<>();
+        for(Gene gene : genes) {
+            if(graph.contains(NodeFactory.createURI(gene.getUri().toString()), Node.ANY, Node.ANY)) {
+                presentGenes.add(gene);
+            }
+        }
+        return presentGenes;
+    }
+}
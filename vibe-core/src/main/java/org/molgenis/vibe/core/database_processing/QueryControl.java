@@ -0,0 +1,138 @@
+package org.molgenis.vibe.core.database_processing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controls the {@link QueryRunner}{@code s} of a retrieval: applies a timeout to each query and allows all running
+ * (and future) queries to be cancelled from another thread. Afterwards, it can be checked whether the results of the
+ * retrieval are partial (because a query was stopped before all of its results were retrieved). The
+ * {@link QueryStatistics} of each finished query are reported to the registered {@link QueryListener}{@code s}.
+ * <br /><br />
+ * A single instance can be shared by multiple retrievers (such as those used for the separate parts of a single
+ * retrieval) and can safely be used from multiple threads.
+ */
+public class QueryControl {
+    /**
+     * The timeout per query in milliseconds ({@code 0} if queries should not time out).
+     */
+    private final long timeoutMillis;
+
+    private final Set<QueryRunner> runningQueries = ConcurrentHashMap.newKeySet();
+
+    private final List<QueryListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean cancelled;
+
+    private volatile boolean partial;
+
+    private volatile boolean timedOut;
+
+    /**
+     * Queries do not time out, but can be cancelled through {@link #cancel()}.
+     */
+    public QueryControl() {
+        this.timeoutMillis = 0;
+    }
+
+    /**
+     * @param timeout the maximum time each query is allowed to run
+     * @param unit the unit of {@code timeout}
+     * @throws IllegalArgumentException if {@code timeout} is not positive
+     */
+    public QueryControl(long timeout, TimeUnit unit) {
+        if(timeout <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive.");
+        }
+        // Timeouts below a millisecond are rounded up (as 0 means no timeout).
+        this.timeoutMillis = Math.max(1, unit.toMillis(timeout));
+    }
+
+    /**
+     * @return the timeout per query in milliseconds ({@code 0} if queries do not time out)
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * @param listener is notified of each query finished afterwards (on the thread that ran the query)
+     */
+    public void addListener(QueryListener listener) {
+        listeners.add(requireNonNull(listener));
+    }
+
+    public void removeListener(QueryListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Stops all running queries, and ensures queries started afterwards stop immediately.
+     */
+    public void cancel() {
+        cancelled = true;
+        for(QueryRunner query : runningQueries) {
+            query.cancel();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return {@code true} if any query was stopped (through {@link #cancel()}, a timeout or an interrupt) before all
+     * of its results were retrieved
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    /**
+     * @return {@code true} if any query was stopped because of the timeout
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Starts controlling a query. Should be followed by {@link #finish(QueryRunner)} once the query is no longer used.
+     * @param query the query to control
+     * @return {@code query}
+     */
+    QueryRunner start(QueryRunner query) {
+        runningQueries.add(query);
+        if(timeoutMillis > 0) {
+            query.setTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        // Checked after adding, so that a concurrent cancel() either sees the query or is seen here.
+        if(cancelled) {
+            query.cancel();
+        }
+        return query;
+    }
+
+    /**
+     * Stops controlling a query, closes it, registers whether its results were partial and reports its
+     * {@link QueryStatistics} to the listeners.
+     * @param query the query that is no longer used
+     */
+    void finish(QueryRunner query) {
+        query.close();
+        runningQueries.remove(query);
+        if(query.isPartial()) {
+            partial = true;
+            if(query.isTimedOut()) {
+                timedOut = true;
+            }
+        }
+        for(QueryListener listener : listeners) {
+            listener.queryFinished(query.getStatistics());
+        }
+    }
+}
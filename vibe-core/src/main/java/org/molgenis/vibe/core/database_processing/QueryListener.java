@@ -0,0 +1,14 @@
+package org.molgenis.vibe.core.database_processing;
+
+/**
+ * Is notified of each query that finished within a {@link QueryControl} (see
+ * {@link QueryControl#addListener(QueryListener)}). As queries can run on multiple threads at the same time,
+ * implementations should be thread-safe.
+ */
+@FunctionalInterface
+public interface QueryListener {
+    /**
+     * @param statistics the measurements of the finished (or stopped) query
+     */
+    void queryFinished(QueryStatistics statistics);
+}
@@ -1,35 +1,205 @@
 package org.molgenis.vibe.core.database_processing;
 
+import static java.util.Objects.requireNonNull;
+
 import org.apache.jena.atlas.lib.Closeable;
+import org.apache.jena.graph.Node;
 import org.apache.jena.query.*;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.ARQConstants;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.engine.QueryEngineRegistry;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.ResultSetStream;
+import org.apache.jena.sparql.engine.binding.BindingRoot;
+import org.apache.jena.sparql.util.Context;
 import org.molgenis.vibe.core.database_processing.query_string_creation.QueryString;
+import org.molgenis.vibe.core.formats.ResourceUri;
 
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Is able to run a SPARQL query on a {@link Model}.
+ * <br /><br />
+ * A running query can be stopped through {@link #cancel()} (from any thread), a timeout (see
+ * {@link #setTimeout(long, TimeUnit)}) or by interrupting the thread iterating over the results. The query itself is
+ * stopped as well (also while it is still searching for the next result), after which {@link #hasNext()} returns
+ * {@code false}. {@link #isPartial()} can be used to check whether the results were complete.
+ * <br /><br />
+ * The preparation & execution of the query are measured in its {@link QueryStatistics} (see {@link #getStatistics()}),
+ * which are completed once all results are retrieved or the query is stopped or closed.
  */
 public class QueryRunner implements Closeable, Iterator<QuerySolution> {
     /**
-     * Object storing the query and model for query execution.
+     * Cancels queries of which the timeout passed. A daemon thread is used so that it does not prevent the JVM from
+     * exiting.
+     */
+    private static final ScheduledThreadPoolExecutor TIMEOUT_EXECUTOR = createTimeoutExecutor();
+
+    /**
+     * Object storing the query and model for query execution ({@code null} if a {@link CompiledQuery} is used).
      */
     private QueryExecution qexec;
 
+    /**
+     * Object executing the algebra of a {@link CompiledQuery} ({@code null} if a {@link QueryString} is used).
+     */
+    private QueryIterator queryIterator;
+
     /**
      * Object for iterating over the query output (usually querying is done during the actual iteration over the results).
      */
     private ResultSet results;
 
+    /**
+     * The result retrieved by {@link #hasNext()} that is not yet returned by {@link #next()} ({@code null} if none).
+     * Retrieving it in advance ensures that {@link #next()} does not fail if the query is stopped in between.
+     */
+    private QuerySolution nextResult;
+
+    private volatile boolean cancelled;
+
+    private volatile boolean timedOut;
+
+    /**
+     * Whether all results were iterated over.
+     */
+    private volatile boolean finished;
+
+    /**
+     * Cancels the query once the timeout passed ({@code null} if no timeout is set).
+     */
+    private ScheduledFuture<?> timeoutTask;
+
+    private final QueryStatistics statistics;
+
+    /**
+     * The moment the execution started (after preparing the query).
+     */
+    private long executionStartNanos;
+
+    /**
+     * Whether the iteration time is recorded in {@link #statistics} already.
+     */
+    private boolean iterationMeasured;
+
+    private static ScheduledThreadPoolExecutor createTimeoutExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "vibe-query-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Queries finishing before their timeout should not leave their task behind.
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
     public QueryRunner(Model model, QueryString queryString) {
+        long startNanos = System.nanoTime();
+        statistics = new QueryStatistics("query");
         Query query = QueryFactory.create(queryString.getQuery(), queryString.getSyntax());
         qexec = QueryExecutionFactory.create(query, model);
         results = qexec.execSelect();
+        startExecution(startNanos);
+    }
+
+    /**
+     * @param model the {@link Model} to query
+     * @param compiledQuery a query without {@code VALUES} that need to be replaced
+     */
+    public QueryRunner(Model model, CompiledQuery compiledQuery) {
+        this(System.nanoTime(), model, compiledQuery, compiledQuery.getOp());
+    }
+
+    /**
+     * @param model the {@link Model} to query
+     * @param compiledQuery a query of which the {@code VALUES} need to be replaced
+     * @param values the values to use for the {@code VALUES} of the query
+     */
+    public QueryRunner(Model model, CompiledQuery compiledQuery, Collection<? extends ResourceUri> values) {
+        // The start time is determined before binding the values, so that the binding is measured as well.
+        this(System.nanoTime(), model, compiledQuery, compiledQuery.bind(values));
+    }
+
+    /**
+     * @param model the {@link Model} to query
+     * @param compiledQuery a query of which the {@code VALUES} and the allowed values of the {@code FILTER} need to be
+     *                      replaced
+     * @param values the values to use for the {@code VALUES} of the query
+     * @param filterValues the values to be allowed by the {@code FILTER} of the query (should not be modified afterwards)
+     * @see CompiledQuery#getGenesForPhenotypes(java.util.Set, boolean)
+     */
+    public QueryRunner(Model model, CompiledQuery compiledQuery, Collection<? extends ResourceUri> values,
+                       Set<Node> filterValues) {
+        this(System.nanoTime(), model, compiledQuery, compiledQuery.bind(values, requireNonNull(filterValues)));
+    }
+
+    /**
+     * Executes the algebra of a {@link CompiledQuery} similar to how {@link QueryExecution} would execute the query
+     * (but without parsing & optimizing it first).
+     * @param model the {@link Model} to query
+     * @param compiledQuery the query to which {@code op} belongs
+     * @param op the (bound) algebra of {@code compiledQuery}
+     */
+    QueryRunner(Model model, CompiledQuery compiledQuery, Op op) {
+        this(System.nanoTime(), model, compiledQuery, op);
+    }
+
+    /**
+     * @param startNanos the moment (see {@link System#nanoTime()}) the preparation of the query started
+     * @param model the {@link Model} to query
+     * @param compiledQuery the query to which {@code op} belongs
+     * @param op the (bound) algebra of {@code compiledQuery}
+     */
+    private QueryRunner(long startNanos, Model model, CompiledQuery compiledQuery, Op op) {
+        statistics = new QueryStatistics(compiledQuery.getName());
+        DatasetGraph dataset = DatasetGraphFactory.wrap(model.getGraph());
+        Context context = Context.setupContextForDataset(ARQ.getContext(), dataset);
+        // Some query engines (such as the one for HDT) require the query itself to be available as well.
+        context.set(ARQConstants.sysCurrentQuery, compiledQuery.getQuery());
+
+        queryIterator = QueryEngineRegistry.findFactory(op, dataset, context)
+                .create(op, dataset, BindingRoot.create(), context).iterator();
+        results = new ResultSetStream(compiledQuery.getQuery().getResultVars(), model, queryIterator);
+        startExecution(startNanos);
+    }
+
+    private void startExecution(long startNanos) {
+        executionStartNanos = System.nanoTime();
+        statistics.setPrepareNanos(executionStartNanos - startNanos);
+    }
+
+    /**
+     * Records the iteration time (only the first time this is called).
+     */
+    private void stopExecution() {
+        if(!iterationMeasured) {
+            statistics.setIterationNanos(System.nanoTime() - executionStartNanos);
+            iterationMeasured = true;
+        }
+    }
+
+    /**
+     * @return the measurements of this query (complete after all results are retrieved, or the query was stopped or
+     * closed)
+     */
+    public QueryStatistics getStatistics() {
+        return statistics;
     }
 
     /**
      * Retrieve the output from the {@link Model} based on the given {@code queryString}. Note that depending on the
-     * underlying implementation, the actual running of the query is done while retrieving the actual results.
+     * underlying implementation, the actual running of the query is done while retrieving the actual results. Results
+     * retrieved directly from the {@link ResultSet} are not reported as partial when the query is stopped (see
+     * {@link #isPartial()}).
      * @return
      * @see QueryExecution#execSelect()
      */
@@ -37,18 +207,115 @@ public class QueryRunner implements Closeable, Iterator<QuerySolution> {
         return results;
     }
 
+    /**
+     * Cancels the query if it is still running after {@code timeout} (counting from when this method is called). Any
+     * previously set timeout is replaced.
+     * @param timeout the maximum time the query is allowed to run
+     * @param unit the unit of {@code timeout}
+     * @throws IllegalArgumentException if {@code timeout} is not positive
+     */
+    public synchronized void setTimeout(long timeout, TimeUnit unit) {
+        if(timeout <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive.");
+        }
+        if(timeoutTask != null) {
+            timeoutTask.cancel(false);
+        }
+        timeoutTask = TIMEOUT_EXECUTOR.schedule(() -> {
+            timedOut = true;
+            cancel();
+        }, timeout, unit);
+    }
+
+    /**
+     * Stops the query. Can be called from any thread. After this, {@link #hasNext()} returns {@code false} and any
+     * results that were not iterated over yet are not retrieved. Has no effect if all results were already retrieved.
+     */
+    public void cancel() {
+        cancelled = true;
+        if(qexec != null) {
+            qexec.abort();
+        }
+        if(queryIterator != null) {
+            queryIterator.cancel();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return whether the query was cancelled because of the timeout (see {@link #setTimeout(long, TimeUnit)})
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * @return {@code true} if the query was stopped before all results were retrieved
+     */
+    public boolean isPartial() {
+        return cancelled && !finished;
+    }
+
+    /**
+     * @return whether there are more results (always {@code false} after the query was stopped)
+     */
     @Override
     public boolean hasNext() {
-        return results.hasNext();
+        if(nextResult != null) {
+            return true;
+        }
+        // Cooperative cancellation: a worker that is interrupted stops querying.
+        if(!cancelled && Thread.currentThread().isInterrupted()) {
+            cancel();
+        }
+        if(cancelled) {
+            stopExecution();
+            return false;
+        }
+        try {
+            if(results.hasNext()) {
+                nextResult = results.next();
+                if(statistics.getRows() == 0) {
+                    statistics.setFirstRowNanos(System.nanoTime() - executionStartNanos);
+                }
+                statistics.incrementRows();
+                return true;
+            }
+            finished = true;
+        } catch (QueryCancelledException e) {
+            // Stopped while searching for the next result.
+        }
+        stopExecution();
+        return false;
     }
 
     @Override
     public QuerySolution next() {
-        return results.next();
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        QuerySolution result = nextResult;
+        nextResult = null;
+        return result;
     }
 
     @Override
     public void close() {
-        qexec.close();
+        synchronized (this) {
+            if(timeoutTask != null) {
+                timeoutTask.cancel(false);
+            }
+        }
+        stopExecution();
+        statistics.setPartial(isPartial());
+        if(qexec != null) {
+            qexec.close();
+        }
+        if(queryIterator != null) {
+            queryIterator.close();
+        }
     }
 }
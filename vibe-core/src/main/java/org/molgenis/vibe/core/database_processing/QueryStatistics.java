@@ -0,0 +1,147 @@
+package org.molgenis.vibe.core.database_processing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measurements of a single query run through a {@link QueryRunner}. The timings are recorded by the
+ * {@link QueryRunner} itself, while the number of entities is reported by the retriever processing the results (as
+ * only it knows whether a result contained a database node it already converted into an entity before).
+ * <br /><br />
+ * Should only be modified by the thread iterating over the results. Once the query is finished (see
+ * {@link QueryListener}), it can be read from any thread.
+ */
+public class QueryStatistics {
+    private final String name;
+
+    private long prepareNanos;
+
+    /**
+     * Time from the start of the execution until the first result ({@code -1} if there were no results).
+     */
+    private long firstRowNanos = -1;
+
+    private long iterationNanos;
+
+    private long rows;
+
+    private long entitiesCreated;
+
+    private long entitiesReused;
+
+    private boolean partial;
+
+    /**
+     * @param name describes the query
+     */
+    QueryStatistics(String name) {
+        this.name = requireNonNull(name);
+    }
+
+    /**
+     * @return describes the query
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the time (in nanoseconds) spent on preparing the query before executing it: parsing & optimizing it,
+     * or for a {@link CompiledQuery} creating the execution plan of its (bound) algebra
+     */
+    public long getPrepareNanos() {
+        return prepareNanos;
+    }
+
+    void setPrepareNanos(long prepareNanos) {
+        this.prepareNanos = prepareNanos;
+    }
+
+    /**
+     * @return the time (in nanoseconds) from the start of the execution until the first result was retrieved
+     * ({@code -1} if the query had no results)
+     */
+    public long getFirstRowNanos() {
+        return firstRowNanos;
+    }
+
+    void setFirstRowNanos(long firstRowNanos) {
+        this.firstRowNanos = firstRowNanos;
+    }
+
+    /**
+     * @return the time (in nanoseconds) from the start of the execution until the last result was retrieved (or the
+     * query was stopped), including the processing of the results by the retriever
+     */
+    public long getIterationNanos() {
+        return iterationNanos;
+    }
+
+    void setIterationNanos(long iterationNanos) {
+        this.iterationNanos = iterationNanos;
+    }
+
+    /**
+     * @return the number of results retrieved
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    void incrementRows() {
+        rows++;
+    }
+
+    /**
+     * @return the number of distinct database nodes converted into an entity (such as a gene or disease)
+     */
+    public long getEntitiesCreated() {
+        return entitiesCreated;
+    }
+
+    /**
+     * Registers that a database node was converted into a new entity.
+     */
+    void entityCreated() {
+        entitiesCreated++;
+    }
+
+    /**
+     * @return the number of times a database node within a result belonged to an already created entity
+     */
+    public long getEntitiesReused() {
+        return entitiesReused;
+    }
+
+    /**
+     * Registers that a database node belonged to an already created entity.
+     */
+    void entityReused() {
+        entitiesReused++;
+    }
+
+    /**
+     * @return {@code true} if the query was stopped before all results were retrieved (see
+     * {@link QueryRunner#isPartial()})
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+
+    @Override
+    public String toString() {
+        String firstRow = firstRowNanos < 0 ? "-" : String.format("%.3f ms", toMillis(firstRowNanos));
+        return String.format("%s: prepare %.3f ms, first row %s, %d rows in %.3f ms, entities created/reused %d/%d%s",
+                name, toMillis(prepareNanos), firstRow, rows, toMillis(iterationNanos), entitiesCreated, entitiesReused,
+                partial ? " (partial)" : "");
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,200 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.molgenis.vibe.core.formats.Source;
+import org.molgenis.vibe.core.io.input.FileChecksum;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Caches the {@link Source}{@code s} of a database, as these are the same for every retrieval from it. The
+ * {@link Source}{@code s} are only queried once and (if a cache file is given) stored in a small cache file, so that
+ * later runs using the same database do not need to query them either.
+ * <br /><br />
+ * The cache file is only used if it was created for the same database. For this a checksum of the database file is
+ * stored in the cache file. As database files can be several gigabytes, the checksum is calculated over the file size
+ * and the first & last {@link #CHECKSUM_SAMPLE_SIZE} bytes (containing the HDT header and the end of the triples)
+ * instead of the full file. Instances can safely be shared between threads.
+ */
+public class SourcesCache {
+    /**
+     * The suffix used for a cache file belonging to a database file.
+     */
+    public static final String FILE_SUFFIX = ".sources.tsv";
+
+    /**
+     * Number of bytes at the start & end of the database file used for the checksum.
+     */
+    static final int CHECKSUM_SAMPLE_SIZE = 1024 * 1024;
+
+    private static final String HEADER = "# vibe sources cache";
+    private static final String CHECKSUM_PREFIX = "checksum\t";
+    private static final String SEPARATOR = "\t";
+
+    /**
+     * The database file the {@link Source}{@code s} belong to ({@code null} if only cached in memory).
+     */
+    private Path databaseFile;
+
+    /**
+     * The file to store the {@link Source}{@code s} in ({@code null} if only cached in memory).
+     */
+    private Path cacheFile;
+
+    /**
+     * The cached {@link Source}{@code s} ({@code null} if not yet retrieved).
+     */
+    private Map<URI, Source> sources;
+
+    /**
+     * Only caches the {@link Source}{@code s} in memory.
+     */
+    public SourcesCache() {
+    }
+
+    /**
+     * @param databaseFile the database file the {@link Source}{@code s} belong to
+     * @param cacheFile the file to store the {@link Source}{@code s} in
+     */
+    public SourcesCache(Path databaseFile, Path cacheFile) {
+        this.databaseFile = requireNonNull(databaseFile);
+        this.cacheFile = requireNonNull(cacheFile);
+    }
+
+    public Path getCacheFile() {
+        return cacheFile;
+    }
+
+    /**
+     * Retrieves the {@link Source}{@code s}. The first call reads them from the cache file (if valid) or otherwise
+     * queries them from the database (and stores them in the cache file if possible).
+     * @param modelReader the database belonging to this cache
+     * @return all {@link Source}{@code s} available in the database (unmodifiable), or {@code null} if the query was
+     * stopped (by interrupting the calling thread) before all of them were retrieved
+     */
+    public Map<URI, Source> getSources(ModelReader modelReader) {
+        return getSources(modelReader, new QueryControl());
+    }
+
+    /**
+     * Same as {@link #getSources(ModelReader)}, but uses {@code queryControl} if the {@link Source}{@code s} need to be
+     * queried. If this query is stopped, nothing is cached so that a later call queries them again.
+     * @param modelReader the database belonging to this cache
+     * @param queryControl the {@link QueryControl} to use if the {@link Source}{@code s} need to be queried
+     * @return all {@link Source}{@code s} available in the database (unmodifiable), or {@code null} if the query was
+     * stopped before all of them were retrieved
+     */
+    public synchronized Map<URI, Source> getSources(ModelReader modelReader, QueryControl queryControl) {
+        if(sources == null) {
+            String checksum = null;
+            if(cacheFile != null) {
+                checksum = calculateChecksum();
+                sources = read(checksum);
+            }
+            if(sources == null) {
+                Map<URI, Source> queriedSources = DisgenetRdfDataRetriever.querySources(modelReader, queryControl);
+                if(queriedSources == null) {
+                    return null;
+                }
+                sources = Collections.unmodifiableMap(queriedSources);
+                if(checksum != null) {
+                    write(checksum);
+                }
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * @return the checksum of {@link #databaseFile}, or {@code null} if it could not be read
+     */
+    private String calculateChecksum() {
+        try {
+            return FileChecksum.calculate(databaseFile, CHECKSUM_SAMPLE_SIZE);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param checksum the checksum of the current database file
+     * @return the {@link Source}{@code s} from the cache file, or {@code null} if the cache file does not exist, belongs
+     * to a different database or is invalid
+     */
+    private Map<URI, Source> read(String checksum) {
+        if(checksum == null || !Files.isReadable(cacheFile)) {
+            return null;
+        }
+
+        Map<URI, Source> cachedSources = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+            if(!HEADER.equals(reader.readLine()) || !(CHECKSUM_PREFIX + checksum).equals(reader.readLine())) {
+                return null;
+            }
+            String line;
+            while((line = reader.readLine()) != null) {
+                // uri, level, name (name last as it can contain any character except for a line break)
+                String[] fields = line.split(SEPARATOR, 3);
+                if(fields.length != 3) {
+                    return null;
+                }
+                URI uri = URI.create(fields[0]);
+                cachedSources.put(uri, new Source(uri, fields[2], Source.Level.valueOf(fields[1])));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+        return Collections.unmodifiableMap(cachedSources);
+    }
+
+    /**
+     * Writes {@link #sources} to the cache file. Failing to write it (for example when stored in a read-only directory)
+     * is not an error, as the cache file is only an optimization.
+     * @param checksum the checksum of the current database file
+     */
+    private void write(String checksum) {
+        for(Source source : sources.values()) {
+            if(source.getFullName().contains("\n") || source.getFullName().contains("\r")) {
+                return;
+            }
+        }
+
+        Path tmpFile = null;
+        try {
+            tmpFile = Files.createTempFile(cacheFile.toAbsolutePath().getParent(), cacheFile.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                writer.write(CHECKSUM_PREFIX + checksum);
+                writer.newLine();
+                List<Source> sortedSources = new ArrayList<>(sources.values());
+                sortedSources.sort(Comparator.comparing(Source::getUri));
+                for(Source source : sortedSources) {
+                    writer.write(source.getUri() + SEPARATOR + source.getLevel().name() + SEPARATOR + source.getFullName());
+                    writer.newLine();
+                }
+            }
+            Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Cache file is optional.
+        } finally {
+            if(tmpFile != null) {
+                try {
+                    Files.deleteIfExists(tmpFile);
+                } catch (IOException e) {
+                    // Temporary file is only left behind.
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package org.molgenis.vibe.core.database_processing;
+
+import static java.util.Objects.requireNonNull;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.QuerySolution;
+import org.molgenis.vibe.core.formats.*;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.net.URI;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Retrieves the same information as {@link GenesForPhenotypeRetriever}, but in 2 phases. First the gene-disease
+ * associations are retrieved without their evidence, after which the evidence is retrieved for all found gene-disease
+ * associations in batches. This prevents each gene-disease association from being repeated for every evidence item
+ * belonging to it (which happens in the single query due to the {@code OPTIONAL} for the evidence).
+ */
+public class TwoPhaseGenesForPhenotypeRetriever extends DisgenetRdfDataRetriever implements GeneDiseaseCollectionRetriever {
+    /**
+     * The maximum number of gene-disease associations to retrieve the evidence for within a single query.
+     */
+    static final int EVIDENCE_BATCH_SIZE = 1000;
+
+    /**
+     * The {@link Phenotype}{@code s} to be processed.
+     */
+    private Set<Phenotype> phenotypes;
+
+    /**
+     * The final output to be retrieved for further usage after querying.
+     */
+    private GeneDiseaseCollection geneDiseaseCollection = new GeneDiseaseCollection();
+
+    /**
+     * The genes the results are restricted to ({@code null} if the results should not be restricted).
+     */
+    private GenePanel genePanel;
+
+    /**
+     * Per gene-disease association (database node) how often it was found for a {@link GeneDiseaseCombination} &
+     * {@link Source}.
+     */
+    private Map<Node, List<GdaOccurrence>> gdaOccurrences = new LinkedHashMap<>();
+
+    @Override
+    public GeneDiseaseCollection getGeneDiseaseCollection() {
+        return geneDiseaseCollection;
+    }
+
+    /**
+     * Adds a {@code FILTER} on the genes to the first phase, so that no gene-disease associations (and therefore no
+     * evidence) are retrieved for genes outside {@code genePanel}.
+     */
+    @Override
+    public void setGenePanel(GenePanel genePanel) {
+        this.genePanel = requireNonNull(genePanel);
+    }
+
+    /**
+     * Requires {@link #retrieveGeneDiseaseAssociations()} to be run first!
+     * @return per gene-disease association (database node) how often it was found
+     */
+    Map<Node, List<GdaOccurrence>> getGdaOccurrences() {
+        return gdaOccurrences;
+    }
+
+    /**
+     * @param modelReader the database to retrieve data from
+     * @param phenotypes the {@link Phenotype}{@code s} to retrieve the gene-disease associations for
+     * @param sourcesCache the cache to retrieve the {@link Source}{@code s} of the database from
+     */
+    public TwoPhaseGenesForPhenotypeRetriever(ModelReader modelReader, Set<Phenotype> phenotypes,
+                                              SourcesCache sourcesCache) {
+        super(modelReader, sourcesCache);
+        this.phenotypes = requireNonNull(phenotypes);
+    }
+
+    @Override
+    public void run() {
+        if(!retrieveSources()) {
+            return;
+        }
+        retrieveGeneDiseaseAssociations();
+        addSourcesAndEvidence(gdaOccurrences, retrieveEvidence(getModelReader(), gdaOccurrences.keySet(),
+                getQueryControl()));
+    }
+
+    /**
+     * First phase: retrieves the gene-disease associations (without evidence).
+     */
+    void retrieveGeneDiseaseAssociations() {
+        // Variables for storage of already found data per RDF node.
+        Map<Node, Gene> genes = new HashMap<>();
+        Map<Node, Disease> diseases = new HashMap<>();
+        Map<Node, Source> sources = new HashMap<>();
+        Map<Disease, Map<Gene, GeneDiseaseCombination>> geneDiseaseCombinations = new HashMap<>();
+
+        QueryRunner query;
+        if(genePanel == null) {
+            query = getQueryControl().start(new QueryRunner(getModelReader().getModel(),
+                    CompiledQuery.getGeneDiseaseAssociationsForPhenotypes(), phenotypes));
+        } else {
+            Set<Node> genePanelNodes = findGenePanelNodes(getModelReader(), genePanel);
+            if(genePanelNodes.isEmpty()) {
+                return;
+            }
+            query = getQueryControl().start(new QueryRunner(getModelReader().getModel(),
+                    CompiledQuery.getGeneDiseaseAssociationsForPhenotypes(true), phenotypes, genePanelNodes));
+        }
+
+        QueryStatistics statistics = query.getStatistics();
+        try {
+            while(query.hasNext()) {
+                QuerySolution result = query.next();
+
+                // Retrieves existing disease instance, or creates it if not yet present.
+                Node diseaseNode = result.get("disease").asNode();
+                Disease disease = diseases.get(diseaseNode);
+                if(disease == null) {
+                    disease = new Disease(URI.create(diseaseNode.getURI()),
+                            result.get("diseaseName").asLiteral().getString());
+                    diseases.put(diseaseNode, disease);
+                    statistics.entityCreated();
+                } else {
+                    statistics.entityReused();
+                }
+
+                // Retrieves existing gene instance, or creates it if not yet present.
+                Node geneNode = result.get("gene").asNode();
+                Gene gene = genes.get(geneNode);
+                if(gene == null) {
+                    gene = new Gene(URI.create(geneNode.getURI()),
+                            new GeneSymbol(URI.create(result.get("geneSymbol").asResource().getURI())));
+                    genes.put(geneNode, gene);
+                    statistics.entityCreated();
+                } else {
+                    statistics.entityReused();
+                }
+
+                // Retrieves the gene-disease combination, or creates it (using the score of the current result) if not
+                // yet present.
+                Map<Gene, GeneDiseaseCombination> diseaseGdcs =
+                        geneDiseaseCombinations.computeIfAbsent(disease, k -> new HashMap<>());
+                GeneDiseaseCombination gdc = diseaseGdcs.get(gene);
+                if(gdc == null) {
+                    gdc = new GeneDiseaseCombination(gene, disease,
+                            result.get("gdaScoreNumber").asLiteral().getDouble());
+                    diseaseGdcs.put(gene, gdc);
+                    geneDiseaseCollection.add(gdc);
+                }
+
+                // Retrieves source belonging to match.
+                Node sourceNode = result.get("gdaSource").asNode();
+                Source source = sources.get(sourceNode);
+                if(source == null) {
+                    source = getSources().get(URI.create(sourceNode.getURI()));
+                    sources.put(sourceNode, source);
+                    statistics.entityCreated();
+                } else {
+                    statistics.entityReused();
+                }
+
+                // Stores the occurrence of the gene-disease association (sources & evidence are added once the evidence
+                // is known).
+                List<GdaOccurrence> occurrences =
+                        gdaOccurrences.computeIfAbsent(result.get("gda").asNode(), k -> new ArrayList<>(1));
+                increment(occurrences, gdc, source);
+            }
+        } finally {
+            getQueryControl().finish(query);
+        }
+    }
+
+    private static void increment(List<GdaOccurrence> occurrences, GeneDiseaseCombination gdc, Source source) {
+        for(GdaOccurrence occurrence : occurrences) {
+            if(occurrence.gdc == gdc && occurrence.source == source) {
+                occurrence.count++;
+                return;
+            }
+        }
+        occurrences.add(new GdaOccurrence(gdc, source));
+    }
+
+    /**
+     * Second phase: retrieves the evidence for the gene-disease associations from the first phase.
+     * @param modelReader the database to retrieve the evidence from
+     * @param gdas the gene-disease associations (database nodes) to retrieve the evidence for
+     * @param queryControl the {@link QueryControl} to use for the evidence queries
+     * @return per gene-disease association the evidence belonging to it (only if it has any evidence)
+     */
+    static Map<Node, List<PubmedEvidence>> retrieveEvidence(ModelReader modelReader, Collection<Node> gdas,
+                                                            QueryControl queryControl) {
+        Map<Node, List<PubmedEvidence>> gdaEvidence = new HashMap<>();
+        Map<Node, PubmedEvidence> foundPubmedEvidence = new HashMap<>();
+        forEachBatch(gdas, batch -> retrieveEvidence(modelReader, batch, gdaEvidence, foundPubmedEvidence,
+                queryControl));
+        return gdaEvidence;
+    }
+
+    /**
+     * Retrieves the number of evidence items per gene-disease association (without the evidence itself), which is
+     * needed for the {@link Source} counts (see {@link #addSources(Map, Map)}).
+     * @param modelReader the database to retrieve the evidence counts from
+     * @param gdas the gene-disease associations (database nodes) to retrieve the evidence counts for
+     * @param queryControl the {@link QueryControl} to use for the evidence count queries
+     * @return per gene-disease association the number of evidence items belonging to it (only if it has any evidence)
+     */
+    static Map<Node, Integer> retrieveEvidenceCounts(ModelReader modelReader, Collection<Node> gdas,
+                                                     QueryControl queryControl) {
+        Map<Node, Integer> evidenceCounts = new HashMap<>();
+        forEachBatch(gdas, batch -> retrieveEvidenceCounts(modelReader, batch, evidenceCounts, queryControl));
+        return evidenceCounts;
+    }
+
+    private static void retrieveEvidenceCounts(ModelReader modelReader, List<Node> gdas,
+                                               Map<Node, Integer> evidenceCounts, QueryControl queryControl) {
+        CompiledQuery compiledQuery = CompiledQuery.getEvidenceCountsForGeneDiseaseAssociations();
+        QueryRunner query = queryControl.start(new QueryRunner(modelReader.getModel(), compiledQuery,
+                compiledQuery.bindNodes(gdas)));
+
+        try {
+            while(query.hasNext()) {
+                QuerySolution result = query.next();
+                evidenceCounts.put(result.get("gda").asNode(), result.get("evidenceCount").asLiteral().getInt());
+            }
+        } finally {
+            queryControl.finish(query);
+        }
+    }
+
+    /**
+     * Splits {@code gdas} into batches of at most {@link #EVIDENCE_BATCH_SIZE} gene-disease associations.
+     * @param gdas the gene-disease associations (database nodes) to split
+     * @param action is called for each batch
+     */
+    private static void forEachBatch(Collection<Node> gdas, Consumer<List<Node>> action) {
+        List<Node> batch = new ArrayList<>(EVIDENCE_BATCH_SIZE);
+        Iterator<Node> gdaIterator = gdas.iterator();
+        while(gdaIterator.hasNext()) {
+            batch.add(gdaIterator.next());
+            if(batch.size() == EVIDENCE_BATCH_SIZE || !gdaIterator.hasNext()) {
+                action.accept(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static void retrieveEvidence(ModelReader modelReader, List<Node> gdas,
+                                         Map<Node, List<PubmedEvidence>> gdaEvidence,
+                                         Map<Node, PubmedEvidence> foundPubmedEvidence,
+                                         QueryControl queryControl) {
+        CompiledQuery compiledQuery = CompiledQuery.getEvidenceForGeneDiseaseAssociations();
+        QueryRunner query = queryControl.start(new QueryRunner(modelReader.getModel(), compiledQuery,
+                compiledQuery.bindNodes(gdas)));
+
+        QueryStatistics statistics = query.getStatistics();
+        try {
+            while(query.hasNext()) {
+                QuerySolution result = query.next();
+
+                Node evidenceNode = result.get("evidence").asNode();
+                PubmedEvidence pubmedEvidence = foundPubmedEvidence.get(evidenceNode);
+                if(pubmedEvidence == null) {
+                    pubmedEvidence = new PubmedEvidence(URI.create(evidenceNode.getURI()),
+                            Integer.parseInt(result.get("evidenceYear").asLiteral().getString()));
+                    foundPubmedEvidence.put(evidenceNode, pubmedEvidence);
+                    statistics.entityCreated();
+                } else {
+                    statistics.entityReused();
+                }
+                gdaEvidence.computeIfAbsent(result.get("gda").asNode(), k -> new ArrayList<>()).add(pubmedEvidence);
+            }
+        } finally {
+            queryControl.finish(query);
+        }
+    }
+
+    /**
+     * Adds the sources & evidence to the gene-disease combinations. Each occurrence of a gene-disease association is
+     * counted once per evidence item (or once if it has no evidence), equal to the number of results it would have in
+     * the single query from {@link GenesForPhenotypeRetriever}.
+     * @param gdaOccurrences per gene-disease association (database node) how often it was found
+     * @param gdaEvidence per gene-disease association (database node) the evidence belonging to it
+     */
+    static void addSourcesAndEvidence(Map<Node, List<GdaOccurrence>> gdaOccurrences,
+                                      Map<Node, List<PubmedEvidence>> gdaEvidence) {
+        for(Map.Entry<Node, List<GdaOccurrence>> entry : gdaOccurrences.entrySet()) {
+            List<PubmedEvidence> evidence = gdaEvidence.get(entry.getKey());
+            for(GdaOccurrence occurrence : entry.getValue()) {
+                for(int i = 0; i < occurrence.count; i++) {
+                    if(evidence == null) {
+                        occurrence.gdc.add(occurrence.source);
+                    } else {
+                        for(PubmedEvidence pubmedEvidence : evidence) {
+                            occurrence.gdc.add(occurrence.source, pubmedEvidence);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the sources to the gene-disease combinations without their evidence. The counts are equal to those of
+     * {@link #addSourcesAndEvidence(Map, Map)}, so that the evidence can be added later on without changing them (see
+     * {@link #addEvidence(Map, Map)}).
+     * @param gdaOccurrences per gene-disease association (database node) how often it was found
+     * @param evidenceCounts per gene-disease association (database node) the number of evidence items belonging to it
+     */
+    static void addSources(Map<Node, List<GdaOccurrence>> gdaOccurrences, Map<Node, Integer> evidenceCounts) {
+        Map<GeneDiseaseCombination, Map<Source, Integer>> sourcesCounts = new LinkedHashMap<>();
+        for(Map.Entry<Node, List<GdaOccurrence>> entry : gdaOccurrences.entrySet()) {
+            int evidenceCount = evidenceCounts.getOrDefault(entry.getKey(), 1);
+            for(GdaOccurrence occurrence : entry.getValue()) {
+                sourcesCounts.computeIfAbsent(occurrence.gdc, k -> new HashMap<>())
+                        .merge(occurrence.source, occurrence.count * evidenceCount, Integer::sum);
+            }
+        }
+        for(Map.Entry<GeneDiseaseCombination, Map<Source, Integer>> entry : sourcesCounts.entrySet()) {
+            for(Map.Entry<Source, Integer> sourceCount : entry.getValue().entrySet()) {
+                entry.getKey().set(sourceCount.getKey(), sourceCount.getValue());
+            }
+        }
+    }
+
+    /**
+     * Adds the evidence to gene-disease combinations of which the sources were already added through
+     * {@link #addSources(Map, Map)}.
+     * @param gdaOccurrences per gene-disease association (database node) how often it was found
+     * @param gdaEvidence per gene-disease association (database node) the evidence belonging to it
+     */
+    static void addEvidence(Map<Node, List<GdaOccurrence>> gdaOccurrences,
+                            Map<Node, List<PubmedEvidence>> gdaEvidence) {
+        for(Map.Entry<Node, List<GdaOccurrence>> entry : gdaOccurrences.entrySet()) {
+            List<PubmedEvidence> evidence = gdaEvidence.get(entry.getKey());
+            if(evidence != null) {
+                for(GdaOccurrence occurrence : entry.getValue()) {
+                    occurrence.gdc.addPubmedEvidence(occurrence.source, evidence);
+                }
+            }
+        }
+    }
+
+    /**
+     * The number of times a gene-disease association was found for a {@link GeneDiseaseCombination} & {@link Source}.
+     */
+    static class GdaOccurrence {
+        final GeneDiseaseCombination gdc;
+        final Source source;
+        int count = 1;
+
+        GdaOccurrence(GeneDiseaseCombination gdc, Source source) {
+            this.gdc = gdc;
+            this.source = source;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package org.molgenis.vibe.core.database_processing.compiled_index;
+
+import org.molgenis.vibe.core.database_processing.GenesForPhenotypeRetriever;
+import org.molgenis.vibe.core.formats.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A compiled index of a vibe database. For each HPO phenotype it contains the gene-disease associations (with their
+ * score, source and PubMed evidence) that would be found by {@link GenesForPhenotypeRetriever}. The index is
+ * memory-mapped and all data is stored as {@code int}/{@code float} columns, so retrieving a
+ * {@link GeneDiseaseCollection} from it (see {@link CompiledIndexGenesForPhenotypeRetriever}) requires neither loading
+ * the database nor executing any SPARQL query.
+ * <br /><br />
+ * An index can be created from a vibe database using {@link CompiledIndexBuilder}. Note that an index only reflects the
+ * database it was created from. Instances can safely be shared between threads.
+ * <br /><br />
+ * File layout (all numbers are big-endian {@code int}s unless stated otherwise, {@code []} denotes a column):
+ * <ol>
+ *     <li>header: {@link #MAGIC}, {@link #VERSION}</li>
+ *     <li>strings: count, byte length, offsets[count + 1], UTF-8 bytes (padded to a multiple of 4)</li>
+ *     <li>sources: count, uri[], title[], level[] (strings/{@link Source.Level} ordinals)</li>
+ *     <li>genes: count, uri[], symbol uri[] (strings)</li>
+ *     <li>diseases: count, uri[], name[] (strings), first row[count + 1]</li>
+ *     <li>evidence: count, pubmed id[], year[]</li>
+ *     <li>rows: count, gene[], score[] ({@code float}), source[], evidence[] ({@link #NO_EVIDENCE} if none)</li>
+ *     <li>phenotypes: count, HPO id[] (sorted), first disease[count + 1], disease count, disease[]</li>
+ * </ol>
+ * A phenotype refers to a disease once for each time it is linked to it in the database, and a disease contains a row
+ * for each time the gene-disease association query matches. This way the same counts are generated as when querying
+ * the database directly.
+ */
+public class CompiledIndex implements Closeable {
+    static final int MAGIC = 0x56494245; // "VIBE"
+    static final int VERSION = 1;
+    static final int NO_EVIDENCE = -1;
+
+    private ByteBuffer stringBytes;
+    private IntBuffer stringOffsets;
+
+    private Source[] sources;
+
+    private IntBuffer geneUris;
+    private IntBuffer geneSymbols;
+
+    private IntBuffer diseaseUris;
+    private IntBuffer diseaseNames;
+    private IntBuffer diseaseRowStarts;
+
+    private IntBuffer evidenceIds;
+    private IntBuffer evidenceYears;
+
+    private int rowCount;
+    private IntBuffer rowGenes;
+    private FloatBuffer rowScores;
+    private IntBuffer rowSources;
+    private IntBuffer rowEvidence;
+
+    private int phenotypeCount;
+    private IntBuffer phenotypeIds;
+    private IntBuffer phenotypeDiseaseStarts;
+    private IntBuffer phenotypeDiseases;
+
+    /**
+     * Memory-maps an index file.
+     * @param file the index file (as created by {@link CompiledIndexBuilder#write(Path)})
+     * @throws IOException if the file could not be read or is not a (supported) compiled index
+     */
+    public CompiledIndex(Path file) throws IOException {
+        requireNonNull(file);
+
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if(channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file.getFileName() + " is too large to be a compiled index.");
+            }
+            // Mapping stays valid after the channel is closed.
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            read(buffer);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException(file.getFileName() + " is not a valid compiled index.", e);
+        }
+    }
+
+    private void read(ByteBuffer buffer) throws IOException {
+        if(buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new IOException("File is not a compiled vibe index.");
+        }
+        int version = buffer.getInt();
+        if(version != VERSION) {
+            throw new IOException("Unsupported compiled index version: " + version + " (expected " + VERSION + ").");
+        }
+
+        int stringCount = buffer.getInt();
+        int stringByteLength = buffer.getInt();
+        stringOffsets = readInts(buffer, stringCount + 1);
+        stringBytes = readBytes(buffer, stringByteLength);
+
+        int sourceCount = buffer.getInt();
+        IntBuffer sourceUris = readInts(buffer, sourceCount);
+        IntBuffer sourceTitles = readInts(buffer, sourceCount);
+        IntBuffer sourceLevels = readInts(buffer, sourceCount);
+        sources = new Source[sourceCount];
+        for(int i = 0; i < sourceCount; i++) {
+            sources[i] = new Source(URI.create(getString(sourceUris.get(i))), getString(sourceTitles.get(i)),
+                    Source.Level.values()[sourceLevels.get(i)]);
+        }
+
+        int geneCount = buffer.getInt();
+        geneUris = readInts(buffer, geneCount);
+        geneSymbols = readInts(buffer, geneCount);
+
+        int diseaseCount = buffer.getInt();
+        diseaseUris = readInts(buffer, diseaseCount);
+        diseaseNames = readInts(buffer, diseaseCount);
+        diseaseRowStarts = readInts(buffer, diseaseCount + 1);
+
+        int evidenceCount = buffer.getInt();
+        evidenceIds = readInts(buffer, evidenceCount);
+        evidenceYears = readInts(buffer, evidenceCount);
+
+        rowCount = buffer.getInt();
+        rowGenes = readInts(buffer, rowCount);
+        rowScores = readFloats(buffer, rowCount);
+        rowSources = readInts(buffer, rowCount);
+        rowEvidence = readInts(buffer, rowCount);
+
+        phenotypeCount = buffer.getInt();
+        phenotypeIds = readInts(buffer, phenotypeCount);
+        phenotypeDiseaseStarts = readInts(buffer, phenotypeCount + 1);
+        phenotypeDiseases = readInts(buffer, buffer.getInt());
+    }
+
+    private static IntBuffer readInts(ByteBuffer buffer, int length) {
+        IntBuffer ints = slice(buffer, length * Integer.BYTES).asIntBuffer();
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return ints;
+    }
+
+    private static FloatBuffer readFloats(ByteBuffer buffer, int length) {
+        FloatBuffer floats = slice(buffer, length * Float.BYTES).asFloatBuffer();
+        buffer.position(buffer.position() + length * Float.BYTES);
+        return floats;
+    }
+
+    private static ByteBuffer readBytes(ByteBuffer buffer, int length) {
+        ByteBuffer bytes = slice(buffer, length);
+        // Strings are padded so that the following columns are aligned.
+        buffer.position(buffer.position() + CompiledIndexBuilder.padding(length) + length);
+        return bytes;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int length) {
+        if(length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Column exceeds file size.");
+        }
+        ByteBuffer slice = buffer.slice();
+        slice.limit(length);
+        return slice;
+    }
+
+    private String getString(int index) {
+        int start = stringOffsets.get(index);
+        byte[] bytes = new byte[stringOffsets.get(index + 1) - start];
+        // Duplicate so that concurrent reads do not influence each other's position.
+        ByteBuffer duplicate = stringBytes.duplicate();
+        duplicate.position(start);
+        duplicate.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the number of phenotypes that are linked to at least 1 gene-disease association
+     */
+    public int getPhenotypeCount() {
+        return phenotypeCount;
+    }
+
+    /**
+     * @return the number of gene-disease association rows (over all diseases)
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @param phenotype the {@link Phenotype} to look for
+     * @return the index of the {@code phenotype}, or a negative number if it is not present
+     */
+    int findPhenotype(Phenotype phenotype) {
+        int id = Integer.parseInt(phenotype.getId());
+        int low = 0;
+        int high = phenotypeCount - 1;
+        while(low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = phenotypeIds.get(mid);
+            if(midId < id) {
+                low = mid + 1;
+            } else if(midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    int getPhenotypeDiseaseStart(int phenotype) {
+        return phenotypeDiseaseStarts.get(phenotype);
+    }
+
+    int getPhenotypeDiseaseEnd(int phenotype) {
+        return phenotypeDiseaseStarts.get(phenotype + 1);
+    }
+
+    int getPhenotypeDisease(int position) {
+        return phenotypeDiseases.get(position);
+    }
+
+    int getDiseaseRowStart(int disease) {
+        return diseaseRowStarts.get(disease);
+    }
+
+    int getDiseaseRowEnd(int disease) {
+        return diseaseRowStarts.get(disease + 1);
+    }
+
+    int getRowGene(int row) {
+        return rowGenes.get(row);
+    }
+
+    float getRowScore(int row) {
+        return rowScores.get(row);
+    }
+
+    Source getRowSource(int row) {
+        return sources[rowSources.get(row)];
+    }
+
+    int getRowEvidence(int row) {
+        return rowEvidence.get(row);
+    }
+
+    int getEvidenceId(int evidence) {
+        return evidenceIds.get(evidence);
+    }
+
+    Disease createDisease(int disease) {
+        return new Disease(URI.create(getString(diseaseUris.get(disease))), getString(diseaseNames.get(disease)));
+    }
+
+    Gene createGene(int gene) {
+        return new Gene(URI.create(getString(geneUris.get(gene))),
+                new GeneSymbol(URI.create(getString(geneSymbols.get(gene)))));
+    }
+
+    PubmedEvidence createPubmedEvidence(int evidence) {
+        return new PubmedEvidence(PubmedEvidence.ID_PREFIX + ":" + evidenceIds.get(evidence),
+                evidenceYears.get(evidence));
+    }
+
+    /**
+     * Releases the mapped data. The actual unmapping is done by the garbage collector.
+     */
+    @Override
+    public void close() {
+        stringBytes = null;
+        stringOffsets = null;
+        geneUris = null;
+        geneSymbols = null;
+        diseaseUris = null;
+        diseaseNames = null;
+        diseaseRowStarts = null;
+        evidenceIds = null;
+        evidenceYears = null;
+        rowGenes = null;
+        rowScores = null;
+        rowSources = null;
+        rowEvidence = null;
+        phenotypeIds = null;
+        phenotypeDiseaseStarts = null;
+        phenotypeDiseases = null;
+    }
+}
@@ -0,0 +1,413 @@
+package org.molgenis.vibe.core.database_processing.compiled_index;
+
+import org.apache.jena.query.QuerySolution;
+import org.molgenis.vibe.core.database_processing.DisgenetRdfDataRetriever;
+import org.molgenis.vibe.core.database_processing.QueryRunner;
+import org.molgenis.vibe.core.database_processing.query_string_creation.QueryStringGenerator;
+import org.molgenis.vibe.core.exceptions.InvalidStringFormatException;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.formats.PubmedEvidence;
+import org.molgenis.vibe.core.formats.Source;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Retrieves all data needed for a {@link CompiledIndex} from the database and writes it to a file. This is done once
+ * per database (and can take a while), after which gene-disease associations can be retrieved from the
+ * {@link CompiledIndex} without requiring the database itself.
+ * <br /><br />
+ * Instead of querying the genes for specific phenotypes, the database is queried for all phenotype-disease links and
+ * for the gene-disease associations of those diseases. Joining these yields the same results as querying the
+ * phenotypes directly, while each disease only needs to be stored once.
+ */
+public class CompiledIndexBuilder extends DisgenetRdfDataRetriever {
+    /**
+     * Number of diseases to retrieve the gene-disease associations for per query.
+     */
+    private static final int DISEASES_PER_QUERY = 500;
+
+    private StringColumn strings = new StringColumn();
+
+    private List<Source> sourceList = new ArrayList<>();
+    private Map<URI, Integer> sourceIndices = new HashMap<>();
+
+    private Map<String, Integer> geneIndices = new HashMap<>();
+    private IntColumn geneUris = new IntColumn();
+    private IntColumn geneSymbols = new IntColumn();
+
+    private Map<String, Integer> diseaseIndices = new HashMap<>();
+    private List<URI> diseaseUris = new ArrayList<>();
+    private IntColumn diseaseNames = new IntColumn();
+
+    private Map<Long, Integer> evidenceIndices = new HashMap<>();
+    private IntColumn evidenceIds = new IntColumn();
+    private IntColumn evidenceYears = new IntColumn();
+
+    private IntColumn rowDiseases = new IntColumn();
+    private IntColumn rowGenes = new IntColumn();
+    private FloatColumn rowScores = new FloatColumn();
+    private IntColumn rowSources = new IntColumn();
+    private IntColumn rowEvidence = new IntColumn();
+
+    /**
+     * Per HPO id (sorted) the diseases (once for each link found in the database).
+     */
+    private SortedMap<Integer, IntColumn> phenotypeDiseases = new TreeMap<>();
+
+    public CompiledIndexBuilder(ModelReader modelReader) {
+        super(modelReader);
+    }
+
+    @Override
+    public void run() {
+        if(!retrieveSources()) {
+            throw new IllegalStateException("Sources query was stopped before all sources were retrieved.");
+        }
+        storeSources();
+        retrievePhenotypeDiseases();
+        retrieveGeneDiseaseAssociations();
+    }
+
+    private void storeSources() {
+        // Sorted for a reproducible index.
+        List<URI> uris = new ArrayList<>(getSources().keySet());
+        Collections.sort(uris);
+        for(URI uri : uris) {
+            sourceIndices.put(uri, sourceList.size());
+            sourceList.add(getSources().get(uri));
+        }
+    }
+
+    private void retrievePhenotypeDiseases() {
+        QueryRunner query = new QueryRunner(getModelReader().getModel(), QueryStringGenerator.getPhenotypeDiseases());
+
+        while(query.hasNext()) {
+            QuerySolution result = query.next();
+
+            // Skips URIs that can never be given as input phenotype.
+            int phenotypeId;
+            try {
+                phenotypeId = Integer.parseInt(new Phenotype(URI.create(result.get("hpo").asResource().getURI())).getId());
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+
+            String diseaseUri = result.get("disease").asResource().getURI();
+            Integer disease = diseaseIndices.get(diseaseUri);
+            if(disease == null) {
+                disease = diseaseUris.size();
+                diseaseIndices.put(diseaseUri, disease);
+                diseaseUris.add(URI.create(diseaseUri));
+                diseaseNames.add(-1);
+            }
+
+            phenotypeDiseases.computeIfAbsent(phenotypeId, k -> new IntColumn()).add(disease);
+        }
+
+        query.close();
+    }
+
+    private void retrieveGeneDiseaseAssociations() {
+        for(int i = 0; i < diseaseUris.size(); i += DISEASES_PER_QUERY) {
+            QueryRunner query = new QueryRunner(getModelReader().getModel(),
+                    QueryStringGenerator.getGeneDiseaseAssociationsForDiseases(
+                            diseaseUris.subList(i, Math.min(i + DISEASES_PER_QUERY, diseaseUris.size()))));
+
+            while(query.hasNext()) {
+                storeRow(query.next());
+            }
+
+            query.close();
+        }
+    }
+
+    private void storeRow(QuerySolution result) {
+        int disease = diseaseIndices.get(result.get("disease").asResource().getURI());
+        // Similar to GenesForPhenotypeRetriever, the first found name is used.
+        if(diseaseNames.get(disease) == -1) {
+            diseaseNames.set(disease, strings.add(result.get("diseaseName").asLiteral().getString()));
+        }
+
+        String geneUri = result.get("gene").asResource().getURI();
+        Integer gene = geneIndices.get(geneUri);
+        if(gene == null) {
+            gene = geneUris.size();
+            geneIndices.put(geneUri, gene);
+            geneUris.add(strings.add(geneUri));
+            geneSymbols.add(strings.add(result.get("geneSymbol").asResource().getURI()));
+        }
+
+        double score = result.get("gdaScoreNumber").asLiteral().getDouble();
+        if(CompiledIndexGenesForPhenotypeRetriever.toDouble((float) score) != score) {
+            throw new IllegalStateException("Score " + score + " can not be stored as float without losing precision.");
+        }
+
+        URI sourceUri = URI.create(result.get("gdaSource").asResource().getURI());
+        Integer source = sourceIndices.get(sourceUri);
+        if(source == null) {
+            // Might indicate a corrupt database (as retrieveSources() should retrieve all possible sources available).
+            throw new IllegalStateException("Gene-disease association refers to an unknown source: " + sourceUri);
+        }
+
+        int evidence = CompiledIndex.NO_EVIDENCE;
+        if(result.get("evidence") != null) {
+            PubmedEvidence pubmedEvidence = new PubmedEvidence(URI.create(result.get("evidence").asResource().getURI()),
+                    Integer.parseInt(result.get("evidenceYear").asLiteral().getString()));
+            if(!pubmedEvidence.getId().equals(Integer.toString(pubmedEvidence.getIdInt()))) {
+                throw new InvalidStringFormatException("PubMed id can not be stored as int: " + pubmedEvidence.getId());
+            }
+            evidence = evidenceIndices.computeIfAbsent(
+                    ((long) pubmedEvidence.getIdInt() << 32) | pubmedEvidence.getReleaseYear(), k -> {
+                        evidenceIds.add(pubmedEvidence.getIdInt());
+                        evidenceYears.add(pubmedEvidence.getReleaseYear());
+                        return evidenceIds.size() - 1;
+                    });
+        }
+
+        rowDiseases.add(disease);
+        rowGenes.add(gene);
+        rowScores.add((float) score);
+        rowSources.add(source);
+        rowEvidence.add(evidence);
+    }
+
+    /**
+     * Writes the retrieved data as {@link CompiledIndex} (see there for the file layout). Requires {@link #run()} to be
+     * run first! The data is first written to a temporary file, so that an existing index is only replaced once
+     * writing was successful.
+     * @param file the file to write the index to
+     * @throws IOException if the index could not be written
+     */
+    public void write(Path file) throws IOException {
+        // Only diseases with gene-disease associations are stored (re-indexed in original order).
+        int[] diseaseRowCounts = new int[diseaseUris.size()];
+        for(int i = 0; i < rowDiseases.size(); i++) {
+            diseaseRowCounts[rowDiseases.get(i)]++;
+        }
+        int[] newDiseaseIndices = new int[diseaseUris.size()];
+        IntColumn storedDiseases = new IntColumn();
+        for(int i = 0; i < diseaseUris.size(); i++) {
+            if(diseaseRowCounts[i] > 0) {
+                newDiseaseIndices[i] = storedDiseases.size();
+                storedDiseases.add(i);
+            } else {
+                newDiseaseIndices[i] = -1;
+            }
+        }
+
+        // Rows are ordered by disease (retaining the retrieval order within a disease).
+        int[] diseaseRowStarts = new int[storedDiseases.size() + 1];
+        for(int i = 0; i < storedDiseases.size(); i++) {
+            diseaseRowStarts[i + 1] = diseaseRowStarts[i] + diseaseRowCounts[storedDiseases.get(i)];
+        }
+        int[] rowOrder = new int[rowDiseases.size()];
+        int[] nextRowPositions = Arrays.copyOf(diseaseRowStarts, storedDiseases.size());
+        for(int i = 0; i < rowDiseases.size(); i++) {
+            rowOrder[nextRowPositions[newDiseaseIndices[rowDiseases.get(i)]]++] = i;
+        }
+
+        // Only phenotypes that refer to at least 1 stored disease are stored.
+        IntColumn phenotypeIds = new IntColumn();
+        IntColumn phenotypeDiseaseStarts = new IntColumn();
+        IntColumn storedPhenotypeDiseases = new IntColumn();
+        phenotypeDiseaseStarts.add(0);
+        for(Map.Entry<Integer, IntColumn> entry : phenotypeDiseases.entrySet()) {
+            for(int i = 0; i < entry.getValue().size(); i++) {
+                int disease = newDiseaseIndices[entry.getValue().get(i)];
+                if(disease != -1) {
+                    storedPhenotypeDiseases.add(disease);
+                }
+            }
+            if(storedPhenotypeDiseases.size() > phenotypeDiseaseStarts.get(phenotypeDiseaseStarts.size() - 1)) {
+                phenotypeIds.add(entry.getKey());
+                phenotypeDiseaseStarts.add(storedPhenotypeDiseases.size());
+            }
+        }
+
+        // Strings needed for sources/diseases are added before writing the string column.
+        int[] sourceUris = new int[sourceList.size()];
+        int[] sourceTitles = new int[sourceList.size()];
+        int[] sourceLevels = new int[sourceList.size()];
+        for(int i = 0; i < sourceList.size(); i++) {
+            sourceUris[i] = strings.add(sourceList.get(i).getUri().toString());
+            sourceTitles[i] = strings.add(sourceList.get(i).getFullName());
+            sourceLevels[i] = sourceList.get(i).getLevel().ordinal();
+        }
+        int[] storedDiseaseUris = new int[storedDiseases.size()];
+        int[] storedDiseaseNames = new int[storedDiseases.size()];
+        for(int i = 0; i < storedDiseases.size(); i++) {
+            storedDiseaseUris[i] = strings.add(diseaseUris.get(storedDiseases.get(i)).toString());
+            storedDiseaseNames[i] = diseaseNames.get(storedDiseases.get(i));
+        }
+
+        Path tmpFile = Paths.get(file.toString() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+            out.writeInt(CompiledIndex.MAGIC);
+            out.writeInt(CompiledIndex.VERSION);
+
+            strings.write(out);
+
+            out.writeInt(sourceList.size());
+            writeInts(out, sourceUris);
+            writeInts(out, sourceTitles);
+            writeInts(out, sourceLevels);
+
+            out.writeInt(geneUris.size());
+            geneUris.write(out);
+            geneSymbols.write(out);
+
+            out.writeInt(storedDiseases.size());
+            writeInts(out, storedDiseaseUris);
+            writeInts(out, storedDiseaseNames);
+            writeInts(out, diseaseRowStarts);
+
+            out.writeInt(evidenceIds.size());
+            evidenceIds.write(out);
+            evidenceYears.write(out);
+
+            out.writeInt(rowOrder.length);
+            for(int row : rowOrder) {
+                out.writeInt(rowGenes.get(row));
+            }
+            for(int row : rowOrder) {
+                out.writeFloat(rowScores.get(row));
+            }
+            for(int row : rowOrder) {
+                out.writeInt(rowSources.get(row));
+            }
+            for(int row : rowOrder) {
+                out.writeInt(rowEvidence.get(row));
+            }
+
+            out.writeInt(phenotypeIds.size());
+            phenotypeIds.write(out);
+            phenotypeDiseaseStarts.write(out);
+            out.writeInt(storedPhenotypeDiseases.size());
+            storedPhenotypeDiseases.write(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmpFile);
+            throw e;
+        }
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for(int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * @param length a number of bytes
+     * @return the number of bytes needed to pad {@code length} to a multiple of 4
+     */
+    static int padding(int length) {
+        return (Integer.BYTES - length % Integer.BYTES) % Integer.BYTES;
+    }
+
+    /**
+     * A growable {@code int} column.
+     */
+    private static class IntColumn {
+        private int[] values = new int[16];
+        private int size = 0;
+
+        void add(int value) {
+            if(size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        void set(int index, int value) {
+            values[index] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            for(int i = 0; i < size; i++) {
+                out.writeInt(values[i]);
+            }
+        }
+    }
+
+    /**
+     * A growable {@code float} column.
+     */
+    private static class FloatColumn {
+        private float[] values = new float[16];
+        private int size = 0;
+
+        void add(float value) {
+            if(size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        float get(int index) {
+            return values[index];
+        }
+    }
+
+    /**
+     * Stores each unique {@link String} once.
+     */
+    private static class StringColumn {
+        private Map<String, Integer> indices = new HashMap<>();
+        private List<String> values = new ArrayList<>();
+
+        /**
+         * @param value the {@link String} to store
+         * @return the index of {@code value}
+         */
+        int add(String value) {
+            return indices.computeIfAbsent(value, k -> {
+                values.add(k);
+                return values.size() - 1;
+            });
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            List<byte[]> bytes = new ArrayList<>(values.size());
+            int length = 0;
+            for(String value : values) {
+                byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+                bytes.add(valueBytes);
+                length += valueBytes.length;
+            }
+
+            out.writeInt(values.size());
+            out.writeInt(length);
+            int offset = 0;
+            out.writeInt(offset);
+            for(byte[] valueBytes : bytes) {
+                offset += valueBytes.length;
+                out.writeInt(offset);
+            }
+            for(byte[] valueBytes : bytes) {
+                out.write(valueBytes);
+            }
+            for(int i = 0; i < padding(length); i++) {
+                out.writeByte(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.molgenis.vibe.core.database_processing.compiled_index;
+
+import org.molgenis.vibe.core.database_processing.GeneDiseaseCollectionRetriever;
+import org.molgenis.vibe.core.database_processing.GenesForPhenotypeRetriever;
+import org.molgenis.vibe.core.formats.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Retrieves the same information as {@link GenesForPhenotypeRetriever}, but from a {@link CompiledIndex} instead of
+ * from the database itself.
+ */
+public class CompiledIndexGenesForPhenotypeRetriever implements GeneDiseaseCollectionRetriever {
+    /**
+     * The index to retrieve the data from.
+     */
+    private CompiledIndex compiledIndex;
+
+    /**
+     * The {@link Phenotype}{@code s} to be processed.
+     */
+    private Set<Phenotype> phenotypes;
+
+    /**
+     * The genes the results are restricted to ({@code null} if the results should not be restricted).
+     */
+    private GenePanel genePanel;
+
+    /**
+     * The final output to be retrieved for further usage after retrieval.
+     */
+    private GeneDiseaseCollection geneDiseaseCollection = new GeneDiseaseCollection();
+
+    @Override
+    public GeneDiseaseCollection getGeneDiseaseCollection() {
+        return geneDiseaseCollection;
+    }
+
+    public CompiledIndexGenesForPhenotypeRetriever(CompiledIndex compiledIndex, Set<Phenotype> phenotypes) {
+        this.compiledIndex = requireNonNull(compiledIndex);
+        this.phenotypes = requireNonNull(phenotypes);
+    }
+
+    /**
+     * Skips the rows of genes outside {@code genePanel}, so that no data is created for them.
+     * @param genePanel the genes to restrict the retrieval to
+     */
+    @Override
+    public void setGenePanel(GenePanel genePanel) {
+        this.genePanel = requireNonNull(genePanel);
+    }
+
+    @Override
+    public void run() {
+        // Variables for storage of already created data (based on their index position).
+        Map<Integer, Gene> genes = new HashMap<>();
+        Map<Integer, Disease> diseases = new HashMap<>();
+        Map<Long, GeneDiseaseCombination> geneDiseaseCombinations = new HashMap<>();
+        // Stored by PubMed id instead, as the same PubMed id could be present with different years.
+        Map<Integer, PubmedEvidence> pubmedEvidence = new HashMap<>();
+        // Whether a gene (based on its index position) is part of the gene panel.
+        Map<Integer, Boolean> inGenePanel = new HashMap<>();
+
+        for(Phenotype phenotype : phenotypes) {
+            int phenotypeIndex = compiledIndex.findPhenotype(phenotype);
+            if(phenotypeIndex < 0) {
+                continue;
+            }
+
+            int diseasesEnd = compiledIndex.getPhenotypeDiseaseEnd(phenotypeIndex);
+            for(int i = compiledIndex.getPhenotypeDiseaseStart(phenotypeIndex); i < diseasesEnd; i++) {
+                int diseaseIndex = compiledIndex.getPhenotypeDisease(i);
+                Disease disease = diseases.computeIfAbsent(diseaseIndex, compiledIndex::createDisease);
+
+                int rowsEnd = compiledIndex.getDiseaseRowEnd(diseaseIndex);
+                for(int row = compiledIndex.getDiseaseRowStart(diseaseIndex); row < rowsEnd; row++) {
+                    int geneIndex = compiledIndex.getRowGene(row);
+                    if(genePanel != null && !inGenePanel.computeIfAbsent(geneIndex,
+                            k -> genePanel.contains(genes.computeIfAbsent(k, compiledIndex::createGene)))) {
+                        continue;
+                    }
+
+                    // Retrieves the gene-disease combination, or creates it if not yet present.
+                    long key = ((long) geneIndex << 32) | diseaseIndex;
+                    GeneDiseaseCombination gdc = geneDiseaseCombinations.get(key);
+                    if(gdc == null) {
+                        gdc = new GeneDiseaseCombination(genes.computeIfAbsent(geneIndex, compiledIndex::createGene),
+                                disease, toDouble(compiledIndex.getRowScore(row)));
+                        geneDiseaseCombinations.put(key, gdc);
+                        geneDiseaseCollection.add(gdc);
+                    }
+
+                    // Adds source to gene-disease combination (with evidence if available).
+                    Source source = compiledIndex.getRowSource(row);
+                    int evidenceIndex = compiledIndex.getRowEvidence(row);
+                    if(evidenceIndex != CompiledIndex.NO_EVIDENCE) {
+                        gdc.add(source, pubmedEvidence.computeIfAbsent(compiledIndex.getEvidenceId(evidenceIndex),
+                                k -> compiledIndex.createPubmedEvidence(evidenceIndex)));
+                    } else {
+                        gdc.add(source);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts a stored score back to the {@code double} it was created from. {@link CompiledIndexBuilder} only
+     * accepts scores for which this conversion is lossless.
+     * @param score the stored score
+     * @return the original score
+     */
+    static double toDouble(float score) {
+        return Double.parseDouble(Float.toString(score));
+    }
+}
@@ -0,0 +1,60 @@
+package org.molgenis.vibe.core.database_processing.query_string_creation;
+
+/**
+ * The different paths through which a HPO phenotype ({@code ?hpo}) is linked to a disease ({@code ?disease}) within
+ * the database. Queries combine these through a {@code UNION}.
+ */
+public enum PhenotypeDiseasePath {
+    UMLS_PHENOTYPE("Diseases that are UMLS phenotypes.",
+            "?hpo skos:exactMatch ?disease .",
+            "?disease ^skos:exactMatch ?hpo ."),
+    PHENOTYPE_DISEASE_ASSOCIATION("Diseases found through phenotype-disease associations.",
+            "?hpo sio:SIO_000212/sio:SIO_000628 ?disease .",
+            "?disease ^sio:SIO_000628/^sio:SIO_000212 ?hpo ."),
+    ORPHANET("Diseases found through Orphanet (HPO - ORDO Ontological Module).",
+            "?hpo sio:SIO_000001/skos:exactMatch ?disease .",
+            "?disease ^skos:exactMatch/^sio:SIO_000001 ?hpo .");
+
+    /**
+     * Description of the path (added as comment to the query).
+     */
+    private String description;
+
+    /**
+     * The triple pattern describing the path.
+     */
+    private String triplePattern;
+
+    /**
+     * The triple pattern describing the same path, but written from disease to phenotype. Used when the disease is
+     * known, so that each step of the path starts from an already bound node.
+     */
+    private String reverseTriplePattern;
+
+    PhenotypeDiseasePath(String description, String triplePattern, String reverseTriplePattern) {
+        this.description = description;
+        this.triplePattern = triplePattern;
+        this.reverseTriplePattern = reverseTriplePattern;
+    }
+
+    /**
+     * @return a SPARQL group graph pattern for this path
+     */
+    String getGroupGraphPattern() {
+        return createGroupGraphPattern(triplePattern);
+    }
+
+    /**
+     * @return a SPARQL group graph pattern for this path, written from disease to phenotype
+     */
+    String getReverseGroupGraphPattern() {
+        return createGroupGraphPattern(reverseTriplePattern);
+    }
+
+    private String createGroupGraphPattern(String pattern) {
+        return "{\n" +
+                "\t\t# " + description + "\n" +
+                "\t\t" + pattern + "\n" +
+                "\t}";
+    }
+}
@@ -1,11 +1,15 @@
 package org.molgenis.vibe.core.database_processing.query_string_creation;
 
+import org.molgenis.vibe.core.formats.Gene;
 import org.molgenis.vibe.core.formats.GeneDiseaseCombinationType;
 import org.molgenis.vibe.core.formats.Phenotype;
 import org.molgenis.vibe.core.formats.ResourceUri;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -72,26 +76,156 @@ public final class QueryStringGenerator {
      * <p>Retrieves the genes belonging to certain HPO phenotypes.</p>
      *
      * <br />between [0] and [1]: the HPO terms (URIs) to filter on (see {@link #createValuesStringForUris(Set)}
-     * <br />between [1] and [2]: the gene-disease association type (see {@link GeneDiseaseCombinationType})
+     * <br />between [1] and [2]: the paths from HPO to disease (see {@link #createPhenotypeDiseasePaths()})
+     * <br />between [2] and [3]: the gene-disease association type (see {@link GeneDiseaseCombinationType})
      */
     private static final String[] GENES_FOR_PHENOTYPES = {"SELECT ?hpo ?disease ?diseaseName ?gene ?geneSymbol ?gdaScoreNumber ?gdaSource ?evidenceYear ?evidence\n" +
             "WHERE {\n" +
             "\tVALUES ?hpo ", "\n" + // [0] -> [1]
-            "\t{\n" +
-            "\t\t# Diseases that are UMLS phenotypes.\n" +
-            "\t\t?hpo skos:exactMatch ?disease .\n" +
-            "\t}\n" +
-            "\tUNION\n" +
-            "\t{\n" +
-            "\t\t# Diseases found through phenotype-disease associations.\n" +
-            "\t\t?hpo sio:SIO_000212/sio:SIO_000628 ?disease .\n" +
-            "\t}\n" +
-            "\tUNION\n" +
-            "\t{\n" +
-            "\t\t# Diseases found through Orphanet (HPO - ORDO Ontological Module).\n" +
-            "\t\t?hpo sio:SIO_000001/skos:exactMatch ?disease .\n" +
+            "\t", "\n" + // [1] -> [2]
+            "\n" +
+            "\t?disease sio:SIO_000212 ?gda ;\n" +
+            "\tdcterms:title ?diseaseName ." +
+            "\t\n" +
+            "\t?gda rdf:type/rdfs:subClassOf* ", " ;\n" + // [2] -> [3]
+            "\tsio:SIO_000628 ?gene ;\n" +
+            "\tsio:SIO_000216 ?gdaScoreNumber ;\n" +
+            "\tsio:SIO_000253 ?gdaSource .\n" +
+            "\tOPTIONAL {\n" +
+            "\t\t?gda sio:SIO_000772 ?evidence .\n" +
+            "\t\t?evidence dcterms:issued ?evidenceYear .\n" +
             "\t}\n" +
             "\n" +
+            "\t?gene sio:SIO_000205 ?geneSymbol .\n" +
+            "}"
+    };
+
+    /**
+     * <p>Retrieves the genes belonging to certain HPO phenotypes, but only the parts that are requested. Equal to
+     * {@link #GENES_FOR_PHENOTYPES} if all parts are requested. Otherwise, the disease names and/or sources (including
+     * the {@code OPTIONAL} for the evidence) are left out.</p>
+     *
+     * <p>As the sources are counted per result, the disease name pattern is still used when the sources are requested
+     * (a disease with multiple titles results in multiple results per evidence item). It is only left out if neither
+     * is requested, in which case the diseases are not required to have a title anymore (which all diseases in
+     * DisGeNET have).</p>
+     *
+     * <br />between [0] and [1]: the optional variables to select
+     * <br />between [1] and [2]: the HPO terms (URIs) to filter on (see {@link #createValuesStringForUris(Set)}
+     * <br />between [2] and [3]: the paths from HPO to disease (see {@link #createPhenotypeDiseasePaths()})
+     * <br />between [3] and [4]: the disease name pattern (see {@link #GENES_FOR_PHENOTYPES_DISEASE_NAME})
+     * <br />between [4] and [5]: the gene-disease association type (see {@link GeneDiseaseCombinationType})
+     * <br />between [5] and [6]: the sources & evidence pattern (see {@link #GENES_FOR_PHENOTYPES_SOURCES})
+     */
+    private static final String[] GENES_FOR_PHENOTYPES_PROJECTED = {"SELECT ?hpo ?disease ?gene ?geneSymbol ?gdaScoreNumber", "\n" + // [0] -> [1]
+            "WHERE {\n" +
+            "\tVALUES ?hpo ", "\n" + // [1] -> [2]
+            "\t", "\n" + // [2] -> [3]
+            "\n" +
+            "\t?disease sio:SIO_000212 ?gda .\n", // [3] -> [4]
+            "\t?gda rdf:type/rdfs:subClassOf* ", " ;\n" + // [4] -> [5]
+            "\tsio:SIO_000628 ?gene ;\n" +
+            "\tsio:SIO_000216 ?gdaScoreNumber .\n", // [5] -> [6]
+            "\n" +
+            "\t?gene sio:SIO_000205 ?geneSymbol .\n" +
+            "}"
+    };
+
+    /**
+     * The disease name part of {@link #GENES_FOR_PHENOTYPES_PROJECTED}.
+     */
+    private static final String GENES_FOR_PHENOTYPES_DISEASE_NAME = "\t?disease dcterms:title ?diseaseName .\n";
+
+    /**
+     * The sources & evidence part of {@link #GENES_FOR_PHENOTYPES_PROJECTED}.
+     */
+    private static final String GENES_FOR_PHENOTYPES_SOURCES = "\t?gda sio:SIO_000253 ?gdaSource .\n" +
+            "\tOPTIONAL {\n" +
+            "\t\t?gda sio:SIO_000772 ?evidence .\n" +
+            "\t\t?evidence dcterms:issued ?evidenceYear .\n" +
+            "\t}\n";
+
+    /**
+     * <p>Retrieves the gene-disease associations belonging to certain HPO phenotypes. Equal to
+     * {@link #GENES_FOR_PHENOTYPES} except that the evidence is not retrieved (so that a gene-disease association is not
+     * repeated for each evidence item) and the gene-disease association itself is added.</p>
+     *
+     * <p>Combined with {@link #EVIDENCE_FOR_GENE_DISEASE_ASSOCIATIONS} this yields the same results as
+     * {@link #GENES_FOR_PHENOTYPES}.</p>
+     *
+     * <br />between [0] and [1]: the HPO terms (URIs) to filter on (see {@link #createValuesStringForUris(Set)}
+     * <br />between [1] and [2]: the paths from HPO to disease (see {@link #createPhenotypeDiseasePaths()})
+     * <br />between [2] and [3]: the gene-disease association type (see {@link GeneDiseaseCombinationType})
+     */
+    private static final String[] GENE_DISEASE_ASSOCIATIONS_FOR_PHENOTYPES = {"SELECT ?hpo ?disease ?diseaseName ?gene ?geneSymbol ?gda ?gdaScoreNumber ?gdaSource\n" +
+            "WHERE {\n" +
+            "\tVALUES ?hpo ", "\n" + // [0] -> [1]
+            "\t", "\n" + // [1] -> [2]
+            "\n" +
+            "\t?disease sio:SIO_000212 ?gda ;\n" +
+            "\tdcterms:title ?diseaseName ." +
+            "\t\n" +
+            "\t?gda rdf:type/rdfs:subClassOf* ", " ;\n" + // [2] -> [3]
+            "\tsio:SIO_000628 ?gene ;\n" +
+            "\tsio:SIO_000216 ?gdaScoreNumber ;\n" +
+            "\tsio:SIO_000253 ?gdaSource .\n" +
+            "\n" +
+            "\t?gene sio:SIO_000205 ?geneSymbol .\n" +
+            "}"
+    };
+
+    /**
+     * <p>Retrieves the evidence belonging to certain gene-disease associations (as done through an {@code OPTIONAL} in
+     * {@link #GENES_FOR_PHENOTYPES}).</p>
+     *
+     * <br />between [0] and [1]: the gene-disease associations (URIs) to filter on (see {@link #createValuesStringForUris(Collection)}
+     */
+    private static final String[] EVIDENCE_FOR_GENE_DISEASE_ASSOCIATIONS = {"SELECT ?gda ?evidence ?evidenceYear\n" +
+            "WHERE {\n" +
+            "\tVALUES ?gda ", "\n" + // [0] -> [1]
+            "\t?gda sio:SIO_000772 ?evidence .\n" +
+            "\t?evidence dcterms:issued ?evidenceYear .\n" +
+            "}"
+    };
+
+    /**
+     * <p>Retrieves the number of evidence items belonging to certain gene-disease associations (counted equal to the
+     * number of results of {@link #EVIDENCE_FOR_GENE_DISEASE_ASSOCIATIONS}). Gene-disease associations without evidence
+     * are not part of the results.</p>
+     *
+     * <br />between [0] and [1]: the gene-disease associations (URIs) to filter on (see {@link #createValuesStringForUris(Collection)}
+     */
+    private static final String[] EVIDENCE_COUNTS_FOR_GENE_DISEASE_ASSOCIATIONS = {"SELECT ?gda (COUNT(?evidence) AS ?evidenceCount)\n" +
+            "WHERE {\n" +
+            "\tVALUES ?gda ", "\n" + // [0] -> [1]
+            "\t?gda sio:SIO_000772 ?evidence .\n" +
+            "\t?evidence dcterms:issued ?evidenceYear .\n" +
+            "}\n" +
+            "GROUP BY ?gda"
+    };
+
+    /**
+     * <p>Retrieves all HPO phenotypes together with the diseases they are linked to (through the same paths as used in
+     * {@link #GENES_FOR_PHENOTYPES}).</p>
+     *
+     * <p>Combined with {@link #GENE_DISEASE_ASSOCIATIONS_FOR_DISEASES} this yields the same results as
+     * {@link #GENES_FOR_PHENOTYPES}, but allows the results to be stored per phenotype & disease.</p>
+     */
+    private static final String PHENOTYPE_DISEASES = "SELECT ?hpo ?disease\n" +
+            "WHERE {\n" +
+            "\t" + createPhenotypeDiseasePaths() + "\n" +
+            "\tFILTER(STRSTARTS(STR(?hpo), \"http://purl.obolibrary.org/obo/HP_\"))\n" +
+            "}";
+
+    /**
+     * <p>Retrieves the gene-disease associations belonging to certain diseases.</p>
+     *
+     * <br />between [0] and [1]: the diseases (URIs) to filter on (see {@link #createValuesStringForUris(Collection)}
+     * <br />between [1] and [2]: the gene-disease association type (see {@link GeneDiseaseCombinationType})
+     */
+    private static final String[] GENE_DISEASE_ASSOCIATIONS_FOR_DISEASES = {"SELECT ?disease ?diseaseName ?gene ?geneSymbol ?gdaScoreNumber ?gdaSource ?evidenceYear ?evidence\n" +
+            "WHERE {\n" +
+            "\tVALUES ?disease ", "\n" + // [0] -> [1]
             "\t?disease sio:SIO_000212 ?gda ;\n" +
             "\tdcterms:title ?diseaseName ." +
             "\t\n" +
@@ -108,34 +242,236 @@ public final class QueryStringGenerator {
             "}"
     };
 
+    /**
+     * <p>Retrieves the diseases & HPO phenotypes belonging to certain genes: the reverse of
+     * {@link #GENES_FOR_PHENOTYPES}. Starting from the genes, the gene-disease associations are found through
+     * {@code sio:SIO_000628} and their diseases through {@code sio:SIO_000212}, after which the same paths from disease
+     * to phenotype are used as in {@link #GENES_FOR_PHENOTYPES} (but written from disease to phenotype). The patterns
+     * are ordered so that each one has a bound node when evaluated, so that only the triples reachable from the given
+     * genes are searched.</p>
+     *
+     * <p>As not all diseases are linked to an HPO phenotype, the phenotypes are {@code OPTIONAL}. Only HPO phenotypes
+     * are used (the paths to disease might also be found for other resources).</p>
+     *
+     * <br />between [0] and [1]: the genes (URIs) to filter on (see {@link #createValuesStringForUris(Set)}
+     * <br />between [1] and [2]: the gene-disease association type (see {@link GeneDiseaseCombinationType})
+     * <br />between [2] and [3]: the paths from disease to HPO (see {@link #createReversePhenotypeDiseasePaths()})
+     */
+    private static final String[] PHENOTYPES_FOR_GENES = {"SELECT ?gene ?geneSymbol ?disease ?diseaseName ?gdaScoreNumber ?hpo\n" +
+            "WHERE {\n" +
+            "\tVALUES ?gene ", "\n" + // [0] -> [1]
+            "\t?gda sio:SIO_000628 ?gene ;\n" +
+            "\tsio:SIO_000216 ?gdaScoreNumber ;\n" +
+            "\trdf:type/rdfs:subClassOf* ", " .\n" + // [1] -> [2]
+            "\n" +
+            "\t?gene sio:SIO_000205 ?geneSymbol .\n" +
+            "\n" +
+            "\t?disease sio:SIO_000212 ?gda ;\n" +
+            "\tdcterms:title ?diseaseName .\n" +
+            "\tOPTIONAL {\n" +
+            "\t", "\n" + // [2] -> [3]
+            "\t\tFILTER(STRSTARTS(STR(?hpo), \"http://purl.obolibrary.org/obo/HP_\"))\n" +
+            "\t}\n" +
+            "}"
+    };
+
     public static QueryString getSources() {
         return new QueryString(PREFIXES + SOURCES);
     }
 
     public static QueryString getGenesForPhenotypes(Set<Phenotype> phenotypes) {
         return new QueryString(PREFIXES + GENES_FOR_PHENOTYPES[0] + createValuesStringForUris(phenotypes) + GENES_FOR_PHENOTYPES[1] +
-        GeneDiseaseCombinationType.GENE_DISEASE.getFormattedId() + GENES_FOR_PHENOTYPES[2]);
+        createPhenotypeDiseasePaths() + GENES_FOR_PHENOTYPES[2] +
+        GeneDiseaseCombinationType.GENE_DISEASE.getFormattedId() + GENES_FOR_PHENOTYPES[3]);
+    }
+
+    /**
+     * @param phenotypes the phenotypes to retrieve the genes for
+     * @param diseaseNames whether the disease names ({@code ?diseaseName}) should be retrieved
+     * @param sources whether the sources ({@code ?gdaSource}) and their evidence ({@code ?evidence} &
+     *                {@code ?evidenceYear}) should be retrieved
+     * @return {@link #getGenesForPhenotypes(Set)} if everything is requested, otherwise a similar query only retrieving
+     * the requested parts
+     */
+    public static QueryString getGenesForPhenotypes(Set<Phenotype> phenotypes, boolean diseaseNames, boolean sources) {
+        if(diseaseNames && sources) {
+            return getGenesForPhenotypes(phenotypes);
+        }
+        return new QueryString(PREFIXES + GENES_FOR_PHENOTYPES_PROJECTED[0] +
+                (diseaseNames ? " ?diseaseName" : "") + (sources ? " ?gdaSource ?evidenceYear ?evidence" : "") +
+                GENES_FOR_PHENOTYPES_PROJECTED[1] + createValuesStringForUris(phenotypes) +
+                GENES_FOR_PHENOTYPES_PROJECTED[2] + createPhenotypeDiseasePaths() +
+                GENES_FOR_PHENOTYPES_PROJECTED[3] + (diseaseNames || sources ? GENES_FOR_PHENOTYPES_DISEASE_NAME : "") +
+                GENES_FOR_PHENOTYPES_PROJECTED[4] + GeneDiseaseCombinationType.GENE_DISEASE.getFormattedId() +
+                GENES_FOR_PHENOTYPES_PROJECTED[5] + (sources ? GENES_FOR_PHENOTYPES_SOURCES : "") +
+                GENES_FOR_PHENOTYPES_PROJECTED[6]);
+    }
+
+    /**
+     * @param phenotypes the phenotypes to retrieve the genes for
+     * @param diseaseNames whether the disease names should be retrieved (see
+     *                     {@link #getGenesForPhenotypes(Set, boolean, boolean)})
+     * @param sources whether the sources and their evidence should be retrieved (see
+     *                {@link #getGenesForPhenotypes(Set, boolean, boolean)})
+     * @param genes the genes to restrict the results to
+     * @return {@link #getGenesForPhenotypes(Set, boolean, boolean)} with a {@code FILTER} on {@code ?gene} (see
+     * {@link #addGeneFilter(QueryString, Set)})
+     */
+    public static QueryString getGenesForPhenotypes(Set<Phenotype> phenotypes, boolean diseaseNames, boolean sources,
+                                                    Set<Gene> genes) {
+        return addGeneFilter(getGenesForPhenotypes(phenotypes, diseaseNames, sources), genes);
+    }
+
+    /**
+     * @param phenotypes the phenotypes to retrieve the gene-disease associations for
+     * @return a query similar to {@link #getGenesForPhenotypes(Set)}, but without evidence (see
+     * {@link #getEvidenceForGeneDiseaseAssociations(Collection)})
+     */
+    public static QueryString getGeneDiseaseAssociationsForPhenotypes(Set<Phenotype> phenotypes) {
+        return new QueryString(PREFIXES + GENE_DISEASE_ASSOCIATIONS_FOR_PHENOTYPES[0] + createValuesStringForUris(phenotypes) +
+                GENE_DISEASE_ASSOCIATIONS_FOR_PHENOTYPES[1] + createPhenotypeDiseasePaths() +
+                GENE_DISEASE_ASSOCIATIONS_FOR_PHENOTYPES[2] + GeneDiseaseCombinationType.GENE_DISEASE.getFormattedId() +
+                GENE_DISEASE_ASSOCIATIONS_FOR_PHENOTYPES[3]);
+    }
+
+    /**
+     * @param phenotypes the phenotypes to retrieve the gene-disease associations for
+     * @param genes the genes to restrict the results to
+     * @return {@link #getGeneDiseaseAssociationsForPhenotypes(Set)} with a {@code FILTER} on {@code ?gene} (see
+     * {@link #addGeneFilter(QueryString, Set)})
+     */
+    public static QueryString getGeneDiseaseAssociationsForPhenotypes(Set<Phenotype> phenotypes, Set<Gene> genes) {
+        return addGeneFilter(getGeneDiseaseAssociationsForPhenotypes(phenotypes), genes);
+    }
+
+    /**
+     * @param geneDiseaseAssociations the gene-disease associations to retrieve the evidence for
+     * @return a query retrieving the evidence (and the year of this evidence) per gene-disease association
+     */
+    public static QueryString getEvidenceForGeneDiseaseAssociations(Collection<URI> geneDiseaseAssociations) {
+        return new QueryString(PREFIXES + EVIDENCE_FOR_GENE_DISEASE_ASSOCIATIONS[0] +
+                createValuesStringForUris(geneDiseaseAssociations) + EVIDENCE_FOR_GENE_DISEASE_ASSOCIATIONS[1]);
+    }
+
+    /**
+     * @param geneDiseaseAssociations the gene-disease associations to retrieve the number of evidence items for
+     * @return a query retrieving the number of evidence items per gene-disease association (only those having evidence)
+     */
+    public static QueryString getEvidenceCountsForGeneDiseaseAssociations(Collection<URI> geneDiseaseAssociations) {
+        return new QueryString(PREFIXES + EVIDENCE_COUNTS_FOR_GENE_DISEASE_ASSOCIATIONS[0] +
+                createValuesStringForUris(geneDiseaseAssociations) + EVIDENCE_COUNTS_FOR_GENE_DISEASE_ASSOCIATIONS[1]);
+    }
+
+    /**
+     * @param genes the genes to retrieve the diseases & phenotypes for
+     * @return a query retrieving the diseases (with the score of the gene-disease association) per gene and the HPO
+     * phenotypes per disease
+     */
+    public static QueryString getPhenotypesForGenes(Set<Gene> genes) {
+        return new QueryString(PREFIXES + PHENOTYPES_FOR_GENES[0] + createValuesStringForUris(genes) +
+                PHENOTYPES_FOR_GENES[1] + GeneDiseaseCombinationType.GENE_DISEASE.getFormattedId() +
+                PHENOTYPES_FOR_GENES[2] + createReversePhenotypeDiseasePaths() +
+                PHENOTYPES_FOR_GENES[3]);
+    }
+
+    public static QueryString getPhenotypeDiseases() {
+        return new QueryString(PREFIXES + PHENOTYPE_DISEASES);
+    }
+
+    public static QueryString getGeneDiseaseAssociationsForDiseases(Collection<URI> diseases) {
+        return new QueryString(PREFIXES + GENE_DISEASE_ASSOCIATIONS_FOR_DISEASES[0] + createValuesStringForUris(diseases) +
+                GENE_DISEASE_ASSOCIATIONS_FOR_DISEASES[1] + GeneDiseaseCombinationType.GENE_DISEASE.getFormattedId() +
+                GENE_DISEASE_ASSOCIATIONS_FOR_DISEASES[2]);
     }
 
     private QueryStringGenerator() {
     }
 
+    /**
+     * Adds a {@code FILTER} to the (outer) group graph pattern of {@code queryString} so that only results for the given
+     * genes ({@code ?gene}) are produced. Within the algebra, the filter is placed directly after the triple pattern
+     * binding {@code ?gene}, so that the remaining patterns are not evaluated for other genes.
+     * @param queryString a query ending with the group graph pattern containing {@code ?gene}
+     * @param genes the genes to filter on
+     * @return {@code queryString} including the {@code FILTER}
+     */
+    private static QueryString addGeneFilter(QueryString queryString, Set<Gene> genes) {
+        if(genes.isEmpty()) {
+            throw new IllegalArgumentException("Set should at least contain 1 item.");
+        }
+        StringBuilder strBuilder = new StringBuilder();
+        for(Gene gene : genes) {
+            if(gene.getUri() == null) {
+                throw new IllegalArgumentException("Not all Objects have a valid URI (an uri was null).");
+            }
+            strBuilder.append(strBuilder.length() == 0 ? "" : ", ").append("<").append(gene.getUri()).append(">");
+        }
+
+        String query = queryString.getQuery();
+        int end = query.lastIndexOf('}');
+        return new QueryString(query.substring(0, end) + "\tFILTER(?gene IN (" + strBuilder + "))\n" +
+                query.substring(end), queryString.getSyntax());
+    }
+
+    /**
+     * Generates query-compatible {@link String} combining all paths through a UNION.
+     * @return a UNION of SPARQL group graph patterns
+     */
+    private static String createPhenotypeDiseasePaths() {
+        StringBuilder strBuilder = new StringBuilder();
+        for(PhenotypeDiseasePath phenotypeDiseasePath : PhenotypeDiseasePath.values()) {
+            if(strBuilder.length() > 0) {
+                strBuilder.append("\n\tUNION\n\t");
+            }
+            strBuilder.append(phenotypeDiseasePath.getGroupGraphPattern());
+        }
+        return strBuilder.toString();
+    }
+
+    /**
+     * Generates query-compatible {@link String} combining all paths (written from disease to phenotype) through a UNION.
+     * @return a UNION of SPARQL group graph patterns
+     */
+    private static String createReversePhenotypeDiseasePaths() {
+        StringBuilder strBuilder = new StringBuilder();
+        for(PhenotypeDiseasePath phenotypeDiseasePath : PhenotypeDiseasePath.values()) {
+            if(strBuilder.length() > 0) {
+                strBuilder.append("\n\tUNION\n\t");
+            }
+            strBuilder.append(phenotypeDiseasePath.getReverseGroupGraphPattern());
+        }
+        return strBuilder.toString();
+    }
+
     /**
      * Generates query-compatible {@link String} to be used as VALUES containing 1 or more {@link URI}{@code s}.
      * @param resourceUris the {@link URI}{@code s} to be used
      * @return a SPARQL VALUES usable {@link String}
      */
     private static String createValuesStringForUris(Set<? extends ResourceUri> resourceUris) {
-        if(resourceUris.isEmpty()) {
+        List<URI> uris = new ArrayList<>();
+        for(ResourceUri resourceUri : resourceUris) {
+            uris.add(resourceUri.getUri());
+        }
+        return createValuesStringForUris(uris);
+    }
+
+    /**
+     * Generates query-compatible {@link String} to be used as VALUES containing 1 or more {@link URI}{@code s}.
+     * @param uris the {@link URI}{@code s} to be used
+     * @return a SPARQL VALUES usable {@link String}
+     */
+    private static String createValuesStringForUris(Collection<URI> uris) {
+        if(uris.isEmpty()) {
             throw new IllegalArgumentException("Set should at least contain 1 item.");
         }
-        Iterator<? extends ResourceUri> resourceUriIterator = resourceUris.iterator();
+        Iterator<URI> uriIterator = uris.iterator();
 
         StringBuilder strBuilder = new StringBuilder();
-        strBuilder.append("{ <").append(resourceUriIterator.next().getUri());
+        strBuilder.append("{ <").append(uriIterator.next());
 
-        while (resourceUriIterator.hasNext()) {
-            URI uri = resourceUriIterator.next().getUri();
+        while (uriIterator.hasNext()) {
+            URI uri = uriIterator.next();
             if(uri == null) {
                 throw new IllegalArgumentException("Not all Objects have a valid URI (an uri was null).");
             }
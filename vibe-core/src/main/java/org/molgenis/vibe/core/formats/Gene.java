@@ -17,7 +17,7 @@ public class Gene extends BiologicalEntity implements EntityWithIntId {
     private static final String URI_PREFIX = "http://identifiers.org/ncbigene/";
 
     /**
-     * The HGNC (HUGO Gene Nomenclature Committee) name.
+     * The HGNC (HUGO Gene Nomenclature Committee) name ({@code null} if unknown, see {@link #Gene(String)}).
      */
     private GeneSymbol symbol;
 
@@ -55,6 +55,15 @@ public class Gene extends BiologicalEntity implements EntityWithIntId {
         return URI_PREFIX;
     }
 
+    /**
+     * A gene of which the symbol is not known, such as a gene used as input for querying the database.
+     * @param id the NCBI Entrez gene identifier (including the {@code ncbigene:} prefix)
+     */
+    public Gene(String id) {
+        super(id);
+        this.idInt = Integer.parseInt(getId());
+    }
+
     public Gene(String id, GeneSymbol symbol) {
         super(id);
         this.idInt = Integer.parseInt(getId());
@@ -96,6 +105,6 @@ public class Gene extends BiologicalEntity implements EntityWithIntId {
         Gene gene = (Gene) o;
         return super.allFieldsEquals(gene) &&
                 idInt == gene.idInt &&
-                symbol.allFieldsEquals(gene.symbol);
+                (symbol == null ? gene.symbol == null : symbol.allFieldsEquals(gene.symbol));
     }
 }
@@ -1,7 +1,9 @@
 package org.molgenis.vibe.core.formats;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -63,6 +65,39 @@ public class GeneDiseaseCollection extends BiologicalEntityCollection<Gene, Dise
         return getByT2(disease);
     }
 
+    /**
+     * Loads the {@link PubmedEvidence} of all {@link GeneDiseaseCombination}{@code s} of the given {@link Gene}{@code s}
+     * that still need to be loaded at once, instead of separately when first needed (see
+     * {@link GeneDiseaseCombination#setPubmedEvidenceLoader(PubmedEvidenceLoader)}).
+     * @param genes the {@link Gene}{@code s} to load the evidence for
+     */
+    public void loadPubmedEvidence(Collection<Gene> genes) {
+        List<GeneDiseaseCombination> gdcs = new ArrayList<>();
+        for(Gene gene : genes) {
+            Set<GeneDiseaseCombination> geneGdcs = getByGene(gene);
+            if(geneGdcs != null) {
+                gdcs.addAll(geneGdcs);
+            }
+        }
+        GeneDiseaseCombination.loadPubmedEvidence(gdcs);
+    }
+
+    /**
+     * Removes all {@link GeneDiseaseCombination}{@code s} of which the {@link Gene} is not part of {@code genePanel}.
+     * @param genePanel the genes to retain
+     * @return {@code true} if this collection changed
+     * @see GenePanel#contains(Gene)
+     */
+    public boolean retainGenes(GenePanel genePanel) {
+        Set<GeneDiseaseCombination> outsidePanel = new HashSet<>();
+        for(Gene gene : getGenes()) {
+            if(!genePanel.contains(gene)) {
+                outsidePanel.addAll(getByGene(gene));
+            }
+        }
+        return !outsidePanel.isEmpty() && removeAll(outsidePanel);
+    }
+
     public GeneDiseaseCollection() {
     }
 
@@ -24,6 +24,12 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
      */
     private Map<Source, Set<PubmedEvidence>> pubmedEvidence = new HashMap<>();
 
+    /**
+     * Loads the {@link #pubmedEvidence} when first needed ({@code null} if already loaded). The {@link #sourcesCount} is
+     * always present.
+     */
+    private PubmedEvidenceLoader pubmedEvidenceLoader;
+
     /**
      * @return the {@link Gene}
      * @see #getT1()
@@ -70,6 +76,7 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
      * @return an unmodifiable {@link Set} containing {@link Source}{@code s}
      */
     public Set<Source> getSourcesWithPubmedEvidence() {
+        loadPubmedEvidence();
         return Collections.unmodifiableSet(pubmedEvidence.keySet());
     }
 
@@ -80,6 +87,7 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
      * or {@code null} if {@link Source} does not have any evidence
      */
     public Set<PubmedEvidence> getPubmedEvidenceForSource(Source source) {
+        loadPubmedEvidence();
         Set<PubmedEvidence> evidence = pubmedEvidence.get(source);
         if(evidence != null) {
             evidence = Collections.unmodifiableSet(evidence);
@@ -95,6 +103,7 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
      * {@link PubmedEvidence}, or {@code null} if {@link Source} does not have any evidence
      */
     public List<PubmedEvidence> getPubmedEvidenceForSourceSortedByReleaseDate(Source source) {
+        loadPubmedEvidence();
         List<PubmedEvidence> evidenceList = null;
         Set<PubmedEvidence> evidence = pubmedEvidence.get(source);
 
@@ -111,6 +120,7 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
      * @return a {@link Set} containing all the {@link PubmedEvidence}
      */
     public Set<PubmedEvidence> getAllPubmedEvidence() {
+        loadPubmedEvidence();
         Set<PubmedEvidence> evidence = new HashSet<>();
         pubmedEvidence.values().forEach(evidence::addAll);
         return evidence;
@@ -122,6 +132,7 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
      * {@link PubmedEvidence#RELEASE_YEAR_COMPARATOR}
      */
     public List<PubmedEvidence> getAllPubMedEvidenceSortedByYear() {
+        loadPubmedEvidence();
         List<PubmedEvidence> evidence = new ArrayList<>();
         pubmedEvidence.values().forEach(evidence::addAll);
         Collections.sort(evidence, PubmedEvidence.RELEASE_YEAR_COMPARATOR);
@@ -164,6 +175,29 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
         }
     }
 
+    /**
+     * Adds the {@link Source} counts & {@link PubmedEvidence} of another instance describing the same gene-disease
+     * combination (for example retrieved through a different query) to this one. The score of this instance is kept.
+     * @param other the gene-disease combination to add to this one
+     * @throws IllegalArgumentException if {@code other} is a different gene-disease combination
+     * @throws IllegalStateException if the {@link PubmedEvidence} of {@code other} is not loaded yet (see
+     * {@link #isPubmedEvidenceLoaded()})
+     */
+    public void addAll(GeneDiseaseCombination other) {
+        if(!equals(other)) {
+            throw new IllegalArgumentException("Only data from the same gene-disease combination can be added.");
+        }
+        if(!other.isPubmedEvidenceLoaded()) {
+            throw new IllegalStateException("PubMed evidence of the gene-disease combination to add is not loaded.");
+        }
+        for(Map.Entry<Source, Integer> entry : other.sourcesCount.entrySet()) {
+            sourcesCount.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
+        for(Map.Entry<Source, Set<PubmedEvidence>> entry : other.pubmedEvidence.entrySet()) {
+            pubmedEvidence.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).addAll(entry.getValue());
+        }
+    }
+
     /**
      * Sets all values for a single {@link Source} that does have pubmed evidence.
      * @param source
@@ -192,6 +226,23 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
         sourcesCount.put(source, count);
     }
 
+    /**
+     * Adds {@link PubmedEvidence} for a {@link Source} without incrementing its count, for evidence that is loaded after
+     * the count was set (see {@link PubmedEvidenceLoader}).
+     * @param source the {@link Source} the evidence belongs to
+     * @param evidence the {@link PubmedEvidence} to add
+     * @throws IllegalArgumentException if the count of {@code source} would be lower than the number of
+     * {@link PubmedEvidence} for it
+     */
+    public void addPubmedEvidence(Source source, Collection<PubmedEvidence> evidence) {
+        Set<PubmedEvidence> sourceEvidence = new HashSet<>(pubmedEvidence.getOrDefault(source, Collections.emptySet()));
+        sourceEvidence.addAll(evidence);
+        if(getCountForSource(source) < sourceEvidence.size()) {
+            throw new IllegalArgumentException("count can not be lower than pubmedEvidence size");
+        }
+        pubmedEvidence.put(source, sourceEvidence);
+    }
+
     /**
      * Set {@code count} for a {@link Source}. To prevent wrongly setting information,
      * incrementing through {@link #add(Source)} is suggested instead.
@@ -217,6 +268,56 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
         pubmedEvidence.put(source, evidence);
     }
 
+    /**
+     * Defers the retrieval of the {@link PubmedEvidence} until it is first needed (by any method returning it), or until
+     * it is loaded for multiple gene-disease combinations at once through {@link #loadPubmedEvidence(Collection)}. The
+     * {@link Source} counts should already be present, so that these (and modifying this instance) do not trigger
+     * loading. {@link #toString()} does not trigger loading either.
+     * @param pubmedEvidenceLoader the loader to use
+     */
+    public void setPubmedEvidenceLoader(PubmedEvidenceLoader pubmedEvidenceLoader) {
+        this.pubmedEvidenceLoader = requireNonNull(pubmedEvidenceLoader);
+    }
+
+    /**
+     * @return {@code true} if the {@link PubmedEvidence} is present, {@code false} if it still needs to be loaded (see
+     * {@link #setPubmedEvidenceLoader(PubmedEvidenceLoader)})
+     */
+    public boolean isPubmedEvidenceLoaded() {
+        return pubmedEvidenceLoader == null;
+    }
+
+    private void loadPubmedEvidence() {
+        if(pubmedEvidenceLoader != null) {
+            loadPubmedEvidence(Collections.singleton(this));
+        }
+    }
+
+    /**
+     * Loads the {@link PubmedEvidence} of all given gene-disease combinations that still need to be loaded, using a
+     * single {@link PubmedEvidenceLoader#load(Collection)} call per loader.
+     * @param geneDiseaseCombinations the gene-disease combinations to load the evidence for
+     */
+    public static void loadPubmedEvidence(Collection<GeneDiseaseCombination> geneDiseaseCombinations) {
+        Map<PubmedEvidenceLoader, List<GeneDiseaseCombination>> perLoader = new IdentityHashMap<>();
+        for(GeneDiseaseCombination gdc : geneDiseaseCombinations) {
+            if(gdc.pubmedEvidenceLoader != null) {
+                perLoader.computeIfAbsent(gdc.pubmedEvidenceLoader, k -> new ArrayList<>()).add(gdc);
+            }
+        }
+
+        for(Map.Entry<PubmedEvidenceLoader, List<GeneDiseaseCombination>> entry : perLoader.entrySet()) {
+            // Marked as loaded beforehand so that the loader can add the evidence.
+            entry.getValue().forEach(gdc -> gdc.pubmedEvidenceLoader = null);
+            try {
+                entry.getKey().load(entry.getValue());
+            } catch (RuntimeException e) {
+                entry.getValue().forEach(gdc -> gdc.pubmedEvidenceLoader = entry.getKey());
+                throw e;
+            }
+        }
+    }
+
     @Override
     public String toString() {
         return "GeneDiseaseCombination{" +
@@ -233,6 +334,8 @@ public class GeneDiseaseCombination extends BiologicalEntityCombination<Gene, Di
         if (o == null || getClass() != o.getClass()) return false;
         if (!super.equals(o)) return false;
         GeneDiseaseCombination that = (GeneDiseaseCombination) o;
+        loadPubmedEvidence();
+        that.loadPubmedEvidence();
 
         if (!(
                 super.allFieldsEquals(that) &&
@@ -0,0 +1,76 @@
+package org.molgenis.vibe.core.formats;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A set of genes to which a retrieval should be restricted. The genes can be defined through their NCBI gene id and/or
+ * through their HGNC symbol (which then still needs to be resolved to the genes within the database).
+ */
+public class GenePanel {
+    private final Set<Gene> genes;
+
+    private final Set<GeneSymbol> symbols;
+
+    /**
+     * @param genes the genes defined through their NCBI gene id
+     * @param symbols the genes defined through their HGNC symbol
+     */
+    public GenePanel(Set<Gene> genes, Set<GeneSymbol> symbols) {
+        this.genes = Collections.unmodifiableSet(new LinkedHashSet<>(requireNonNull(genes)));
+        this.symbols = Collections.unmodifiableSet(new LinkedHashSet<>(requireNonNull(symbols)));
+    }
+
+    public Set<Gene> getGenes() {
+        return genes;
+    }
+
+    public Set<GeneSymbol> getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * @return the number of genes & symbols defining this panel
+     */
+    public int size() {
+        return genes.size() + symbols.size();
+    }
+
+    public boolean isEmpty() {
+        return genes.isEmpty() && symbols.isEmpty();
+    }
+
+    /**
+     * @param gene the gene to check
+     * @return {@code true} if the id of {@code gene} or its symbol (if known) is part of this panel
+     */
+    public boolean contains(Gene gene) {
+        return genes.contains(gene) || (gene.getSymbol() != null && symbols.contains(gene.getSymbol()));
+    }
+
+    @Override
+    public String toString() {
+        return "GenePanel{" +
+                "genes=" + genes +
+                ", symbols=" + symbols +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        GenePanel genePanel = (GenePanel) o;
+        return genes.equals(genePanel.genes) &&
+                symbols.equals(genePanel.symbols);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(genes, symbols);
+    }
+}
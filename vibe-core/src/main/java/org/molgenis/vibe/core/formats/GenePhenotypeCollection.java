@@ -0,0 +1,119 @@
+package org.molgenis.vibe.core.formats;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The diseases linked to a set of genes (stored as {@link GeneDiseaseCombination}{@code s} within a
+ * {@link GeneDiseaseCollection}) together with the {@link Phenotype}{@code s} linked to these diseases. The reverse of
+ * retrieving the genes for phenotypes.
+ */
+public class GenePhenotypeCollection {
+    /**
+     * The gene-disease combinations (without sources & evidence).
+     */
+    private GeneDiseaseCollection geneDiseaseCollection = new GeneDiseaseCollection();
+
+    /**
+     * The {@link Phenotype}{@code s} per {@link Disease} (only for diseases linked to at least 1 phenotype).
+     */
+    private Map<Disease, Set<Phenotype>> phenotypesPerDisease = new HashMap<>();
+
+    public GeneDiseaseCollection getGeneDiseaseCollection() {
+        return geneDiseaseCollection;
+    }
+
+    /**
+     * @return the {@link Gene}{@code s} linked to at least 1 disease
+     */
+    public Set<Gene> getGenes() {
+        return geneDiseaseCollection.getGenes();
+    }
+
+    /**
+     * @param genes the {@link Gene}{@code s} to look up (only the id is used, so a symbol is not required)
+     * @return the stored {@link Gene}{@code s} (including their symbol) for the {@code genes} linked to at least 1
+     * disease, in the order of {@code genes}
+     */
+    public List<Gene> getGenes(Collection<Gene> genes) {
+        List<Gene> foundGenes = new ArrayList<>();
+        for(Gene gene : genes) {
+            Set<GeneDiseaseCombination> gdcs = geneDiseaseCollection.getByGene(gene);
+            if(gdcs != null && !gdcs.isEmpty()) {
+                foundGenes.add(gdcs.iterator().next().getGene());
+            }
+        }
+        return foundGenes;
+    }
+
+    /**
+     * @param disease the disease to retrieve the phenotypes for
+     * @return the {@link Phenotype}{@code s} linked to {@code disease} (ordered by id, empty if none)
+     */
+    public Set<Phenotype> getPhenotypes(Disease disease) {
+        Set<Phenotype> phenotypes = phenotypesPerDisease.get(disease);
+        return phenotypes == null ? Collections.emptySet() : Collections.unmodifiableSet(phenotypes);
+    }
+
+    /**
+     * @param gene the gene to retrieve the phenotypes for
+     * @return the {@link Phenotype}{@code s} linked to any of the diseases of {@code gene} (ordered by id, empty if none)
+     */
+    public Set<Phenotype> getPhenotypes(Gene gene) {
+        Set<Phenotype> phenotypes = new TreeSet<>();
+        Set<GeneDiseaseCombination> gdcs = geneDiseaseCollection.getByGene(gene);
+        if(gdcs != null) {
+            for(GeneDiseaseCombination gdc : gdcs) {
+                phenotypes.addAll(getPhenotypes(gdc.getDisease()));
+            }
+        }
+        return phenotypes;
+    }
+
+    /**
+     * @param gdc the gene-disease combination to be added (if not yet present)
+     */
+    public void add(GeneDiseaseCombination gdc) {
+        geneDiseaseCollection.add(gdc);
+    }
+
+    /**
+     * @param disease the disease {@code phenotype} is linked to
+     * @param phenotype the phenotype to be added
+     */
+    public void addPhenotype(Disease disease, Phenotype phenotype) {
+        phenotypesPerDisease.computeIfAbsent(requireNonNull(disease), k -> new TreeSet<>())
+                .add(requireNonNull(phenotype));
+    }
+
+    @Override
+    public String toString() {
+        return "GenePhenotypeCollection{" +
+                "geneDiseaseCollection=" + geneDiseaseCollection +
+                ", phenotypesPerDisease=" + phenotypesPerDisease +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        GenePhenotypeCollection that = (GenePhenotypeCollection) o;
+        return Objects.equals(geneDiseaseCollection, that.geneDiseaseCollection) &&
+                Objects.equals(phenotypesPerDisease, that.phenotypesPerDisease);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(geneDiseaseCollection, phenotypesPerDisease);
+    }
+}
@@ -0,0 +1,19 @@
+package org.molgenis.vibe.core.formats;
+
+import java.util.Collection;
+
+/**
+ * Loads the {@link PubmedEvidence} of {@link GeneDiseaseCombination}{@code s} on demand (see
+ * {@link GeneDiseaseCombination#setPubmedEvidenceLoader(PubmedEvidenceLoader)}). The {@link Source} counts are not
+ * loaded, as these should already be present.
+ */
+public interface PubmedEvidenceLoader {
+    /**
+     * Loads the {@link PubmedEvidence} of all given {@link GeneDiseaseCombination}{@code s} at once and adds it to these
+     * through {@link GeneDiseaseCombination#addPubmedEvidence(Source, java.util.Collection)}. Nothing should be added if
+     * loading fails, as the gene-disease combinations are then marked as not loaded again.
+     * @param geneDiseaseCombinations the gene-disease combinations to load the evidence for
+     * @throws java.io.UncheckedIOException if the evidence could not be loaded
+     */
+    void load(Collection<GeneDiseaseCombination> geneDiseaseCombinations);
+}
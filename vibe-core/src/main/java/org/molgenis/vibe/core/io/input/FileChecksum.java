@@ -0,0 +1,86 @@
+package org.molgenis.vibe.core.io.input;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Calculates checksums used to verify whether a cache file still belongs to the file it was created from. The checksum
+ * is either calculated over the full file (see {@link #calculate(Path)}) or, for files of several gigabytes, over the
+ * file size and the first & last {@code sampleSize} bytes (see {@link #calculate(Path, int)}).
+ */
+public final class FileChecksum {
+    /**
+     * Number of bytes read at once when calculating the checksum of a full file.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private FileChecksum() {
+    }
+
+    /**
+     * @param file the file to calculate the checksum for
+     * @return a SHA-256 checksum (hexadecimal) of the full content of {@code file}
+     * @throws IOException if {@code file} could not be read
+     */
+    public static String calculate(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MessageDigest digest = createDigest();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while(channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            return toHex(digest.digest());
+        }
+    }
+
+    /**
+     * @param file the file to calculate the checksum for
+     * @param sampleSize the number of bytes at the start & end of {@code file} to use
+     * @return a SHA-256 checksum (hexadecimal) of the size and the first & last {@code sampleSize} bytes of {@code file}
+     * @throws IOException if {@code file} could not be read
+     */
+    public static String calculate(Path file, int sampleSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MessageDigest digest = createDigest();
+            long size = channel.size();
+            digest.update(Long.toString(size).getBytes(StandardCharsets.UTF_8));
+            updateDigest(digest, channel, 0, Math.min(size, sampleSize));
+            updateDigest(digest, channel, Math.max(0, size - sampleSize), size);
+            return toHex(digest.digest());
+        }
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for(byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static void updateDigest(MessageDigest digest, FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while(buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) >= 0) {
+            // Reads until buffer is full.
+        }
+        buffer.flip();
+        digest.update(buffer);
+    }
+}
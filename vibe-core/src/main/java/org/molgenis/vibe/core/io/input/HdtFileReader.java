@@ -8,10 +8,18 @@ import org.rdfhdt.hdtjena.HDTGraph;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static java.util.Objects.requireNonNull;
 
 /**
  * Reader for a HDT file. Note that when the HDT file is stored in a read-only directory, a
- * {@link java.io.FileNotFoundException} will be thrown when no index file is present.
+ * {@link java.io.FileNotFoundException} will be thrown when no index file is present. Alternatively, an index file
+ * stored elsewhere can be given (see {@link HdtIndex}), in which case the index is never generated.
+ * <br /><br />
+ * The HDT can either be loaded into memory or be memory-mapped. When memory-mapped, the HDT (and its index) are not
+ * copied onto the Java heap but are accessed through the OS page cache instead, which allows multiple processes using
+ * the same HDT file to share these pages.
  */
 public class HdtFileReader implements ModelReader {
     /**
@@ -50,8 +58,57 @@ public class HdtFileReader implements ModelReader {
     }
 
     public HdtFileReader(String file) throws IOException {
-        hdt = HDTManager.loadIndexedHDT(file, null);
+        this(file, false);
+    }
+
+    public HdtFileReader(Path file, boolean mapped) throws IOException {
+        this(file.toString(), mapped);
+    }
+
+    /**
+     * @param file the HDT file to be read
+     * @param mapped {@code true} if the HDT should be memory-mapped, {@code false} if it should be loaded into memory
+     * @throws IOException if the HDT file could not be read
+     */
+    public HdtFileReader(String file, boolean mapped) throws IOException {
+        hdt = loadHdt(Paths.get(file), null, mapped);
         graph = new HDTGraph(hdt);
         model = ModelFactory.createModelForGraph(graph);
     }
+
+    /**
+     * @param file the HDT file to be read
+     * @param indexFile the index file belonging to {@code file} (see {@link HdtIndex})
+     * @param mapped {@code true} if the HDT should be memory-mapped, {@code false} if it should be loaded into memory
+     * @throws IOException if the HDT file could not be read or {@code indexFile} is not a valid index of it
+     */
+    public HdtFileReader(Path file, Path indexFile, boolean mapped) throws IOException {
+        hdt = loadHdt(file, requireNonNull(indexFile), mapped);
+        graph = new HDTGraph(hdt);
+        model = ModelFactory.createModelForGraph(graph);
+    }
+
+    /**
+     * @param file the HDT file to be read
+     * @param indexFile the index file belonging to {@code file}, or {@code null} to use (and if needed generate) the
+     *                  index next to {@code file}
+     * @param mapped {@code true} if the HDT should be memory-mapped, {@code false} if it should be loaded into memory
+     * @return the HDT including its index
+     * @throws IOException if the HDT file could not be read or {@code indexFile} is not a valid index of it
+     */
+    static HDT loadHdt(Path file, Path indexFile, boolean mapped) throws IOException {
+        if(indexFile == null) {
+            return mapped ? HDTManager.mapIndexedHDT(file.toString(), null) :
+                    HDTManager.loadIndexedHDT(file.toString(), null);
+        }
+
+        HDT hdt = mapped ? HDTManager.mapHDT(file.toString(), null) : HDTManager.loadHDT(file.toString(), null);
+        try {
+            new HdtIndex(file, indexFile).load(hdt, mapped);
+        } catch (IOException e) {
+            hdt.close();
+            throw e;
+        }
+        return hdt;
+    }
 }
@@ -0,0 +1,239 @@
+package org.molgenis.vibe.core.io.input;
+
+import org.rdfhdt.hdt.exceptions.NotFoundException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.hdt.HDTVocabulary;
+import org.rdfhdt.hdt.header.Header;
+import org.rdfhdt.hdt.header.HeaderUtil;
+import org.rdfhdt.hdt.listener.ProgressListener;
+import org.rdfhdt.hdt.options.ControlInfo;
+import org.rdfhdt.hdt.options.ControlInformation;
+import org.rdfhdt.hdt.triples.TriplesPrivate;
+import org.rdfhdt.hdt.util.io.CountInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The index file belonging to a HDT file. The HDT library stores this index next to the HDT file and generates it when
+ * it is not present (which can take a considerable amount of time for large HDT files). Through this class the index
+ * can be generated beforehand, be verified and be stored elsewhere (for example when the HDT file is located in a
+ * read-only directory).
+ */
+public class HdtIndex {
+    /**
+     * The suffix the HDT library uses for the index file of a HDT file.
+     */
+    public static final String INDEX_SUFFIX = ".index.v1-1";
+
+    /**
+     * Name used by the HDT library for the number of triples in the index control information.
+     */
+    private static final String NUM_TRIPLES = "numTriples";
+
+    /**
+     * The HDT file the index belongs to.
+     */
+    private Path hdtFile;
+
+    /**
+     * The index file.
+     */
+    private Path indexFile;
+
+    public Path getHdtFile() {
+        return hdtFile;
+    }
+
+    public Path getIndexFile() {
+        return indexFile;
+    }
+
+    /**
+     * The index as stored by the HDT library itself (next to the HDT file).
+     * @param hdtFile the HDT file the index belongs to
+     */
+    public HdtIndex(Path hdtFile) {
+        this(hdtFile, defaultIndexFile(hdtFile));
+    }
+
+    /**
+     * @param hdtFile the HDT file the index belongs to
+     * @param indexFile the index file
+     */
+    public HdtIndex(Path hdtFile, Path indexFile) {
+        this.hdtFile = requireNonNull(hdtFile);
+        this.indexFile = requireNonNull(indexFile);
+    }
+
+    /**
+     * @param hdtFile the HDT file the index belongs to
+     * @param directory the directory in which the index is stored
+     * @return the index of {@code hdtFile} with the file name used by the HDT library, but stored in {@code directory}
+     */
+    public static HdtIndex inDirectory(Path hdtFile, Path directory) {
+        return new HdtIndex(hdtFile, directory.resolve(hdtFile.getFileName() + INDEX_SUFFIX));
+    }
+
+    /**
+     * @param hdtFile a HDT file
+     * @return the index file the HDT library uses for {@code hdtFile}
+     */
+    public static Path defaultIndexFile(Path hdtFile) {
+        return Paths.get(hdtFile.toString() + INDEX_SUFFIX);
+    }
+
+    public boolean exists() {
+        return Files.isRegularFile(indexFile) && Files.isReadable(indexFile);
+    }
+
+    /**
+     * Generates the index and writes it to {@link #getIndexFile()} (replacing it if it already exists). The index is
+     * first written to a temporary file in the same directory, so that an (incomplete) index is never visible to other
+     * processes using the same HDT.
+     * @param listener receives progress updates (can be {@code null})
+     * @throws IOException if the HDT could not be read or the index could not be written
+     */
+    public void build(ProgressListener listener) throws IOException {
+        Path directory = indexFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tmpFile = Files.createTempFile(directory, indexFile.getFileName().toString(), ".tmp");
+
+        try (HDT hdt = HDTManager.mapHDT(hdtFile.toString(), listener)) {
+            TriplesPrivate triples = (TriplesPrivate) hdt.getTriples();
+            triples.generateIndex(listener);
+
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmpFile))) {
+                triples.saveIndex(out, new ControlInformation(), listener);
+            }
+            Files.move(tmpFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    /**
+     * Verifies whether the index belongs to the HDT file: the number of triples stored in the index must be equal to
+     * the number of triples in the HDT (and the number of triples described in the HDT header) and the index must be
+     * fully loadable.
+     * @param listener receives progress updates (can be {@code null})
+     * @throws IOException if the index does not exist, does not belong to the HDT file or is corrupt
+     */
+    public void verify(ProgressListener listener) throws IOException {
+        if(!exists()) {
+            throw new IOException(indexFile.getFileName() + " is not a readable file.");
+        }
+
+        try (HDT hdt = HDTManager.mapHDT(hdtFile.toString(), listener)) {
+            long headerTriples = retrieveHeaderTriples(hdt.getHeader());
+            long hdtTriples = hdt.getTriples().getNumberOfElements();
+            if(headerTriples >= 0 && headerTriples != hdtTriples) {
+                throw new IOException("HDT header of " + hdtFile.getFileName() + " describes " + headerTriples +
+                        " triples while it contains " + hdtTriples + " triples.");
+            }
+
+            try (CountInputStream in = openIndex()) {
+                ControlInfo ci = readControlInformation(in, hdtTriples);
+                ((TriplesPrivate) hdt.getTriples()).mapIndex(in, indexFile.toFile(), ci, listener);
+            } catch (RuntimeException e) {
+                // The HDT library does not validate the index contents beyond its control information.
+                throw new IOException(indexFile.getFileName() + " is corrupt.", e);
+            }
+        }
+    }
+
+    /**
+     * Loads the index into a HDT that was loaded/mapped without index. Never generates an index.
+     * @param hdt the HDT belonging to {@link #getHdtFile()}
+     * @param mapped {@code true} if the index should be memory-mapped, {@code false} if it should be loaded into memory
+     * @throws IOException if the index could not be read or does not belong to {@code hdt}
+     */
+    void load(HDT hdt, boolean mapped) throws IOException {
+        if(!exists()) {
+            throw new IOException(indexFile.getFileName() + " is not a readable file.");
+        }
+
+        TriplesPrivate triples = (TriplesPrivate) hdt.getTriples();
+        try (CountInputStream in = openIndex()) {
+            ControlInfo ci = readControlInformation(in, triples.getNumberOfElements());
+            if(mapped) {
+                triples.mapIndex(in, indexFile.toFile(), ci, null);
+            } else {
+                triples.loadIndex(in, ci, null);
+            }
+        } catch (RuntimeException e) {
+            throw new IOException(indexFile.getFileName() + " is not a valid index of " + hdtFile.getFileName() + ".", e);
+        }
+    }
+
+    private CountInputStream openIndex() throws IOException {
+        return new EofCheckingCountInputStream(new BufferedInputStream(Files.newInputStream(indexFile)));
+    }
+
+    /**
+     * Reads the control information at the start of the index file.
+     * @param in the opened index file
+     * @param hdtTriples the number of triples in the HDT the index should belong to
+     * @return the control information
+     * @throws IOException if the file is not a HDT index or if the index was created for a different HDT
+     */
+    private ControlInfo readControlInformation(CountInputStream in, long hdtTriples) throws IOException {
+        ControlInfo ci = new ControlInformation();
+        ci.load(in);
+        if(ci.getType() != ControlInfo.Type.INDEX || !HDTVocabulary.INDEX_TYPE_FOQ.equals(ci.getFormat())) {
+            throw new IOException(indexFile.getFileName() + " is not a HDT index file.");
+        }
+        long indexTriples = ci.getInt(NUM_TRIPLES);
+        if(indexTriples != hdtTriples) {
+            throw new IOException(indexFile.getFileName() + " contains " + indexTriples + " triples while " +
+                    hdtFile.getFileName() + " contains " + hdtTriples + " triples.");
+        }
+        return ci;
+    }
+
+    /**
+     * @param header a HDT header
+     * @return the number of triples described in the {@code header}, or {@code -1} if not present
+     */
+    private static long retrieveHeaderTriples(Header header) {
+        try {
+            return HeaderUtil.getPropertyLong(header, "<" + header.getBaseURI() + ">", HDTVocabulary.VOID_TRIPLES);
+        } catch (NotFoundException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * The HDT library keeps skipping until the requested number of bytes is skipped, which never finishes when a
+     * (truncated) index file ends before that. This stream fails instead.
+     */
+    private static class EofCheckingCountInputStream extends CountInputStream {
+        EofCheckingCountInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if(n <= 0 || skipped > 0) {
+                return skipped;
+            }
+            // Skipping 0 bytes does not necessarily mean the end of the stream is reached.
+            if(read() == -1) {
+                throw new EOFException("Unexpected end of index file.");
+            }
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.molgenis.vibe.core.io.input;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.molgenis.vibe.core.ontology_processing.HpoGraph;
+import org.molgenis.vibe.core.ontology_processing.HpoGraphBuilder;
+
+/**
+ * Alternative for {@link OntologyModelFilesReader} that only reads the HPO terms and the {@code rdfs:subClassOf}
+ * relations between them into a {@link HpoGraph}. The file is streamed through the RDF parser, so no
+ * {@link org.apache.jena.rdf.model.Model} is created and all other triples (labels, synonyms, cross-references, etc.)
+ * are discarded while parsing. Relations with classes that are not HPO terms (such as {@code UPHENO_} classes or
+ * anonymous superclasses) are discarded as well, as these are skipped during traversal anyway.
+ */
+public class HpoGraphFileReader {
+    /**
+     * The graph that is created from the RDF file.
+     */
+    private HpoGraph graph;
+
+    public HpoGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @param file a {@link String} defining the location of an RDF file containing the HPO ontology
+     */
+    public HpoGraphFileReader(String file) {
+        HpoGraphSink sink = new HpoGraphSink();
+        RDFDataMgr.parse(sink, file);
+        graph = sink.builder.build();
+    }
+
+    /**
+     * Passes the HPO terms & their relations to a {@link HpoGraphBuilder} while ignoring all other triples.
+     */
+    private static class HpoGraphSink extends StreamRDFBase {
+        private static final Node SUB_CLASS_OF = RDFS.subClassOf.asNode();
+        private static final Node TYPE = RDF.type.asNode();
+        private static final Node CLASS = OWL.Class.asNode();
+
+        private final HpoGraphBuilder builder = new HpoGraphBuilder();
+
+        @Override
+        public void triple(Triple triple) {
+            Node subject = triple.getSubject();
+            Node predicate = triple.getPredicate();
+            Node object = triple.getObject();
+            if(!subject.isURI()) {
+                return;
+            }
+
+            if(SUB_CLASS_OF.equals(predicate)) {
+                if(object.isURI()) {
+                    builder.addSubClassOf(subject.getURI(), object.getURI());
+                }
+            } else if(TYPE.equals(predicate) && CLASS.equals(object)) {
+                builder.addTerm(subject.getURI());
+            }
+        }
+    }
+}
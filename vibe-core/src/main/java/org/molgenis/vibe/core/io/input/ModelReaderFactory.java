@@ -9,7 +9,49 @@ public enum ModelReaderFactory {
         public ModelReader readDatabase(Path file) throws IOException {
             return new HdtFileReader(file);
         }
+
+        @Override
+        public ModelReader readDatabase(Path file, Path indexFile) throws IOException {
+            return new HdtFileReader(file, indexFile, false);
+        }
+
+        @Override
+        public SharedHdtReader readSharedDatabase(Path file, Path indexFile) throws IOException {
+            return new SharedHdtReader(file, indexFile, false);
+        }
+    }, HDT_MAPPED {
+        @Override
+        public ModelReader readDatabase(Path file) throws IOException {
+            return new HdtFileReader(file, true);
+        }
+
+        @Override
+        public ModelReader readDatabase(Path file, Path indexFile) throws IOException {
+            return new HdtFileReader(file, indexFile, true);
+        }
+
+        @Override
+        public SharedHdtReader readSharedDatabase(Path file, Path indexFile) throws IOException {
+            return new SharedHdtReader(file, indexFile, true);
+        }
     };
 
     public abstract ModelReader readDatabase(Path file) throws IOException;
+
+    /**
+     * @param file the database file
+     * @param indexFile a pre-made index file belonging to {@code file} that is stored separately from it
+     * @return a {@link ModelReader} for the database
+     * @throws IOException if the database or index could not be read
+     */
+    public abstract ModelReader readDatabase(Path file, Path indexFile) throws IOException;
+
+    /**
+     * @param file the database file
+     * @param indexFile a pre-made index file belonging to {@code file} that is stored separately from it ({@code null}
+     *                  to use the default index location)
+     * @return a {@link SharedHdtReader} for the database that can be used by multiple threads at the same time
+     * @throws IOException if the database or index could not be read
+     */
+    public abstract SharedHdtReader readSharedDatabase(Path file, Path indexFile) throws IOException;
 }
@@ -0,0 +1,163 @@
+package org.molgenis.vibe.core.io.input;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdtjena.HDTGraph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A HDT file that is loaded once and can be queried by multiple threads at the same time. Each thread retrieves its
+ * own {@link ModelReader} through {@link #acquire()}, which must be closed after use.
+ * <br /><br />
+ * The HDT itself is only read after loading and can therefore be shared. The {@link HDTGraph} on top of it however
+ * caches dictionary lookups without synchronization, so each acquired {@link ModelReader} gets its own
+ * {@link HDTGraph}. Closed {@link ModelReader}{@code s} return their {@link HDTGraph} to a pool, so that the caches are
+ * reused by the next retrieval.
+ * <br /><br />
+ * The HDT is reference-counted: {@link #close()} releases the reference held by the creator of this instance, but the
+ * HDT is only closed after all acquired {@link ModelReader}{@code s} are closed as well.
+ */
+public class SharedHdtReader implements Closeable {
+    /**
+     * The shared HDT.
+     */
+    private final HDT hdt;
+
+    /**
+     * {@link HDTGraph}{@code s} that are currently not used by any {@link ModelReader}.
+     */
+    private final Deque<HDTGraph> idleGraphs = new ArrayDeque<>();
+
+    /**
+     * Number of references to {@link #hdt}: 1 for the creator (until {@link #close()}) + 1 per open {@link ModelReader}.
+     */
+    private int references = 1;
+
+    /**
+     * Whether {@link #close()} was called.
+     */
+    private boolean closed = false;
+
+    /**
+     * @param file the HDT file to be read
+     * @param indexFile the index file belonging to {@code file} ({@code null} to use the default index location, see
+     *                  {@link HdtFileReader})
+     * @param mapped {@code true} if the HDT should be memory-mapped, {@code false} if it should be loaded into memory
+     * @throws IOException if the HDT file (or index) could not be read
+     */
+    public SharedHdtReader(Path file, Path indexFile, boolean mapped) throws IOException {
+        hdt = HdtFileReader.loadHdt(file, indexFile, mapped);
+    }
+
+    /**
+     * @return a {@link ModelReader} for use by a single thread
+     * @throws IllegalStateException if this instance is already closed
+     */
+    public ModelReader acquire() {
+        HDTGraph graph;
+        synchronized (this) {
+            if(closed) {
+                throw new IllegalStateException("Shared HDT reader is already closed.");
+            }
+            references++;
+            graph = idleGraphs.pollFirst();
+        }
+        // Creating a new graph is done outside of the lock (only needed when all existing graphs are in use).
+        if(graph == null) {
+            graph = new HDTGraph(hdt);
+        }
+        return new Lease(graph);
+    }
+
+    /**
+     * @return the number of {@link ModelReader}{@code s} that are acquired but not yet closed
+     */
+    public synchronized int getActiveReaders() {
+        return closed ? references : references - 1;
+    }
+
+    /**
+     * Releases the reference of the creator. The HDT is closed once all acquired {@link ModelReader}{@code s} are closed
+     * as well. No new {@link ModelReader}{@code s} can be acquired after calling this method.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if(closed) {
+                return;
+            }
+            closed = true;
+        }
+        release(null);
+    }
+
+    /**
+     * @param graph the {@link HDTGraph} that is not used anymore (or {@code null} if none)
+     */
+    private void release(HDTGraph graph) {
+        synchronized (this) {
+            references--;
+            if(references > 0) {
+                if(graph != null) {
+                    idleGraphs.push(graph);
+                }
+                return;
+            }
+        }
+
+        // Last reference released: no other thread can access the graphs/HDT anymore.
+        if(graph != null) {
+            graph.close();
+        }
+        for(HDTGraph idleGraph : idleGraphs) {
+            idleGraph.close();
+        }
+        idleGraphs.clear();
+        try {
+            hdt.close();
+        } catch (IOException e) {
+            System.err.println("An error occurred while trying to close the HDT.");
+        }
+    }
+
+    /**
+     * A {@link ModelReader} using one of the {@link HDTGraph}{@code s} of the shared HDT.
+     */
+    private class Lease implements ModelReader {
+        private HDTGraph graph;
+        private Model model;
+
+        Lease(HDTGraph graph) {
+            this.graph = graph;
+            this.model = ModelFactory.createModelForGraph(graph);
+        }
+
+        @Override
+        public Model getModel() {
+            return model;
+        }
+
+        /**
+         * Returns the {@link HDTGraph} to the pool (the graph itself is not closed, so {@link Model#close()} is not
+         * called either). Closing more than once has no effect.
+         */
+        @Override
+        public void close() {
+            HDTGraph released;
+            synchronized (this) {
+                released = graph;
+                graph = null;
+                model = null;
+            }
+            if(released != null) {
+                release(released);
+            }
+        }
+    }
+}
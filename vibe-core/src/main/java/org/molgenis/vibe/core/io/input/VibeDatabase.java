@@ -1,32 +1,186 @@
 package org.molgenis.vibe.core.io.input;
 
+import org.molgenis.vibe.core.database_processing.PhenotypeResultCache;
+import org.molgenis.vibe.core.database_processing.SourcesCache;
+
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * A vibe database that can be accessed through retrieving the {@link ModelReader}. Also validates the database &
  * accessibility on the file system before it is actually loaded through the {@link ModelReader}.
+ * <br /><br />
+ * By default, the index belonging to the database is expected next to it (and is generated if not present when the
+ * directory is writable). Alternatively, a pre-made index stored elsewhere can be given (see {@link HdtIndex}).
+ * <br /><br />
+ * By default, each {@link #getModelReader()} call loads the database separately. After {@link #open()} is called, the
+ * database is loaded only once and shared by all {@link ModelReader}{@code s} retrieved through
+ * {@link #getModelReader()} (which can then be used by different threads at the same time, see
+ * {@link SharedHdtReader}) until {@link #close()} is called.
+ * <br /><br />
+ * The DisGeNET sources of the database are cached for the life of an instance, and stored in a cache file next to the
+ * index (see {@link SourcesCache}). Gene-disease associations per phenotype can be cached in a
+ * {@link PhenotypeResultCache} (which can be shared between databases, as results are stored per database).
  */
-public class VibeDatabase {
+public class VibeDatabase implements Closeable {
     private Path dbPath;
     private ModelReaderFactory modelReaderFactory;
 
+    /**
+     * A pre-made index stored separately from the database ({@code null} if the default location should be used).
+     */
+    private Path indexPath;
+
+    /**
+     * The loaded database while opened ({@code null} if not opened).
+     */
+    private SharedHdtReader sharedReader;
+
+    private SourcesCache sourcesCache;
+
+    private PhenotypeResultCache phenotypeResultCache = new PhenotypeResultCache();
+
+    /**
+     * Identifies the database file (see {@link #getIdentifier()}).
+     */
+    private String identifier;
+
     public VibeDatabase(Path dbPath, ModelReaderFactory modelReaderFactory) throws IOException {
         this.dbPath = requireNonNull(dbPath);
         this.modelReaderFactory = requireNonNull(modelReaderFactory);
         validate();
+        sourcesCache = createSourcesCache();
+        identifier = createIdentifier();
+    }
+
+    /**
+     * @param dbPath the database file
+     * @param modelReaderFactory the {@link ModelReaderFactory} to use for reading the database
+     * @param indexPath a pre-made index belonging to the database (see {@link HdtIndex})
+     * @throws IOException if the database or index are not accessible
+     */
+    public VibeDatabase(Path dbPath, ModelReaderFactory modelReaderFactory, Path indexPath) throws IOException {
+        this.dbPath = requireNonNull(dbPath);
+        this.modelReaderFactory = requireNonNull(modelReaderFactory);
+        this.indexPath = requireNonNull(indexPath);
+        validate();
+        sourcesCache = createSourcesCache();
+        identifier = createIdentifier();
     }
 
+    public Path getDbPath() {
+        return dbPath;
+    }
+
+    public ModelReaderFactory getModelReaderFactory() {
+        return modelReaderFactory;
+    }
+
+    /**
+     * @return the index file that is used for the database
+     */
+    public Path getIndexPath() {
+        return indexPath == null ? HdtIndex.defaultIndexFile(dbPath) : indexPath;
+    }
+
+    /**
+     * @return the cache of the DisGeNET sources within the database
+     */
+    public SourcesCache getSourcesCache() {
+        return sourcesCache;
+    }
+
+    /**
+     * @return the cache of the gene-disease associations per phenotype used for this database
+     */
+    public PhenotypeResultCache getPhenotypeResultCache() {
+        return phenotypeResultCache;
+    }
+
+    /**
+     * @param phenotypeResultCache the cache of the gene-disease associations per phenotype to use for this database
+     *                             (for example to share a single cache between multiple databases)
+     */
+    public void setPhenotypeResultCache(PhenotypeResultCache phenotypeResultCache) {
+        this.phenotypeResultCache = requireNonNull(phenotypeResultCache);
+    }
+
+    /**
+     * @return identifies the database file (based on its location, size & last modification time) so that cached
+     * results of different databases (or of a replaced database file) are not mixed
+     */
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    /**
+     * Loads the database so that it can be shared by all {@link ModelReader}{@code s} retrieved through
+     * {@link #getModelReader()} until {@link #close()} is called. Has no effect if already opened.
+     * @throws IOException if the database could not be loaded
+     */
+    public synchronized void open() throws IOException {
+        if(sharedReader == null) {
+            sharedReader = modelReaderFactory.readSharedDatabase(dbPath, indexPath);
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return sharedReader != null;
+    }
+
+    /**
+     * Stops sharing the loaded database. {@link ModelReader}{@code s} that are still in use remain usable (the database
+     * is unloaded when the last of them is closed). Has no effect if not opened.
+     */
+    @Override
+    public void close() {
+        SharedHdtReader closing;
+        synchronized (this) {
+            closing = sharedReader;
+            sharedReader = null;
+        }
+        if(closing != null) {
+            closing.close();
+        }
+    }
+
+    /**
+     * @return a {@link ModelReader} for the database. If the database is opened (see {@link #open()}), it uses the
+     * shared database and may be used concurrently with other {@link ModelReader}{@code s} retrieved from this
+     * instance. Otherwise, the database is loaded separately for the returned {@link ModelReader}. In both cases the
+     * {@link ModelReader} should be closed after use.
+     * @throws IOException if the database could not be loaded
+     */
     public ModelReader getModelReader() throws IOException {
+        synchronized (this) {
+            // Acquired within the lock so that the shared reader cannot be closed in between.
+            if(sharedReader != null) {
+                return sharedReader.acquire();
+            }
+        }
+
+        if(indexPath != null) {
+            return modelReaderFactory.readDatabase(dbPath, indexPath);
+        }
         return modelReaderFactory.readDatabase(dbPath);
     }
 
+    private SourcesCache createSourcesCache() {
+        return new SourcesCache(dbPath,
+                getIndexPath().resolveSibling(dbPath.getFileName() + SourcesCache.FILE_SUFFIX));
+    }
+
+    private String createIdentifier() throws IOException {
+        return dbPath.toAbsolutePath().normalize() + "|" + Files.size(dbPath) + "|" +
+                Files.getLastModifiedTime(dbPath).toMillis();
+    }
+
     private void validate() throws IOException {
-        if(modelReaderFactory.equals(ModelReaderFactory.HDT)) {
+        if(modelReaderFactory.equals(ModelReaderFactory.HDT) || modelReaderFactory.equals(ModelReaderFactory.HDT_MAPPED)) {
             // Checks if it is a readable HDT file.
             if (!(Files.isRegularFile(dbPath) &&
                     Files.isReadable(dbPath) &&
@@ -35,11 +189,15 @@ public class VibeDatabase {
                         " is a readable .hdt file.");
             }
 
-            // If directory is not writable, pre-made index file is required.
-            if (!Files.isWritable(dbPath.getParent())) {
-                // Name is index file belonging to HDT database file.
-                Path indexFile = Paths.get(dbPath.toString() + ".index.v1-1");
-                if (!(Files.isRegularFile(indexFile) && Files.isReadable(indexFile))) {
+            if (indexPath != null) {
+                // A separately stored index is never generated, so it must be present.
+                if (!new HdtIndex(dbPath, indexPath).exists()) {
+                    throw new IOException("Invalid index. Please check if " + indexPath.getFileName() +
+                            " is a readable index file.");
+                }
+            } else if (!Files.isWritable(dbPath.getParent())) {
+                // If directory is not writable, pre-made index file is required.
+                if (!new HdtIndex(dbPath).exists()) {
                     throw new IOException("Read-only directories require pre-made index file.");
                 }
             }
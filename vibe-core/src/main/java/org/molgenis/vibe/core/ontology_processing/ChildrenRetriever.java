@@ -6,9 +6,13 @@ import org.apache.jena.util.iterator.ExtendedIterator;
 import org.molgenis.vibe.core.formats.Phenotype;
 import org.molgenis.vibe.core.formats.PhenotypeNetwork;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
-public class ChildrenRetriever extends PhenotypesRetriever {
+public class ChildrenRetriever extends OntModelPhenotypesRetriever {
     public ChildrenRetriever(OntModel model, Collection<Phenotype> inputPhenotypes, int maxDistance) {
         super(model, inputPhenotypes, maxDistance);
     }
@@ -17,20 +21,37 @@ public class ChildrenRetriever extends PhenotypesRetriever {
     public void run() {
         for(Phenotype phenotype:getInputPhenotypes()) {
             PhenotypeNetwork network = new PhenotypeNetwork(phenotype);
-            traverse(retrievePhenotypeFromModel(phenotype), network, 0);
+            traverse(retrievePhenotypeFromModel(phenotype), network);
             getPhenotypeNetworkCollection().add(network);
         }
     }
 
-    private void traverse(OntClass phenotypeOC, PhenotypeNetwork network, int distance) {
-        addPhenotypeToNetwork(phenotypeOC, network, distance);
+    /**
+     * Traverses the (grand)children breadth-first. As the HPO is a DAG in which terms can have multiple parents, each
+     * term is only expanded once (at its shortest distance) instead of once for every path leading to it.
+     * @param phenotypeOC the {@link OntClass} of the input {@link Phenotype}
+     * @param network where the retrieved {@link Phenotype}{@code s} need to be added to
+     */
+    private void traverse(OntClass phenotypeOC, PhenotypeNetwork network) {
+        addPhenotypeToNetwork(phenotypeOC, network, 0);
 
-        int nextDistance = distance + 1;
-        if(nextDistance <= getMaxDistance()) {
-            for (ExtendedIterator<OntClass> it = phenotypeOC.listSubClasses(); it.hasNext(); ) {
-                OntClass nextOC = it.next();
-                traverse(nextOC, network, nextDistance);
+        Set<OntClass> visited = new HashSet<>();
+        visited.add(phenotypeOC);
+        List<OntClass> currentLevel = new ArrayList<>();
+        currentLevel.add(phenotypeOC);
+
+        for(int distance = 1; distance <= getMaxDistance() && !currentLevel.isEmpty(); distance++) {
+            List<OntClass> nextLevel = new ArrayList<>();
+            for(OntClass currentOC : currentLevel) {
+                for (ExtendedIterator<OntClass> it = currentOC.listSubClasses(); it.hasNext(); ) {
+                    OntClass nextOC = it.next();
+                    if(visited.add(nextOC)) {
+                        addPhenotypeToNetwork(nextOC, network, distance);
+                        nextLevel.add(nextOC);
+                    }
+                }
             }
+            currentLevel = nextLevel;
         }
     }
 }
@@ -0,0 +1,203 @@
+package org.molgenis.vibe.core.ontology_processing;
+
+import org.molgenis.vibe.core.io.input.FileChecksum;
+import org.molgenis.vibe.core.io.input.HpoGraphFileReader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Stores a {@link HpoGraph} in a small binary file next to the HPO ontology file it was created from, so that later
+ * runs can load the graph directly instead of parsing the (much larger) ontology file again. The compiled file is only
+ * used if it was created from the same ontology file. For this a checksum of the full ontology file is stored in the
+ * compiled file (see {@link FileChecksum#calculate(Path)}). If the compiled file is missing or outdated, the ontology
+ * file is parsed and the compiled file is (re)written. Failing to write it (for example when stored in a read-only
+ * directory) is not an error, as the compiled file is only an optimization.
+ * <br /><br />
+ * File layout (all numbers are big-endian {@code int}s, {@code []} denotes a column):
+ * <ol>
+ *     <li>header: {@link #MAGIC}, {@link #VERSION}, checksum byte length, checksum (UTF-8, padded to a multiple of
+ *     4)</li>
+ *     <li>terms: count, HPO id[] (sorted)</li>
+ *     <li>parents: row start[count + 1], relation count, parent[]</li>
+ *     <li>children: row start[count + 1], relation count, child[]</li>
+ * </ol>
+ */
+public final class CompiledHpoGraph {
+    /**
+     * The suffix used for a compiled file belonging to an ontology file.
+     */
+    public static final String FILE_SUFFIX = ".graph";
+
+    static final int MAGIC = 0x5648504F; // "VHPO"
+    static final int VERSION = 1;
+
+    private CompiledHpoGraph() {
+    }
+
+    /**
+     * @param ontologyFile an HPO ontology file
+     * @return the compiled file belonging to {@code ontologyFile} (stored next to it)
+     */
+    public static Path defaultFile(Path ontologyFile) {
+        return ontologyFile.resolveSibling(ontologyFile.getFileName() + FILE_SUFFIX);
+    }
+
+    /**
+     * Loads the {@link HpoGraph} of an ontology file using the compiled file next to it (see
+     * {@link #load(Path, Path)}).
+     * @param ontologyFile the HPO ontology file
+     * @return the {@link HpoGraph} of {@code ontologyFile}
+     */
+    public static HpoGraph load(Path ontologyFile) {
+        return load(ontologyFile, defaultFile(ontologyFile));
+    }
+
+    /**
+     * Reads the {@link HpoGraph} from {@code compiledFile} if it belongs to {@code ontologyFile}. Otherwise the graph is
+     * compiled from {@code ontologyFile} and written to {@code compiledFile} (if possible).
+     * @param ontologyFile the HPO ontology file
+     * @param compiledFile the file storing the compiled graph
+     * @return the {@link HpoGraph} of {@code ontologyFile}
+     */
+    public static HpoGraph load(Path ontologyFile, Path compiledFile) {
+        requireNonNull(ontologyFile);
+        requireNonNull(compiledFile);
+
+        String checksum;
+        try {
+            checksum = FileChecksum.calculate(ontologyFile);
+        } catch (IOException e) {
+            // The ontology file itself is parsed by Jena, which reports the actual problem.
+            return compile(ontologyFile);
+        }
+
+        HpoGraph graph = read(compiledFile, checksum);
+        if(graph == null) {
+            graph = compile(ontologyFile);
+            write(graph, checksum, compiledFile);
+        }
+        return graph;
+    }
+
+    /**
+     * Parses an ontology file and converts it into a {@link HpoGraph} (without using or writing a compiled file).
+     * @param ontologyFile the HPO ontology file
+     * @return the {@link HpoGraph} of {@code ontologyFile}
+     * @see HpoGraphFileReader
+     */
+    public static HpoGraph compile(Path ontologyFile) {
+        return new HpoGraphFileReader(ontologyFile.toString()).getGraph();
+    }
+
+    /**
+     * @param file the compiled file
+     * @param checksum the checksum of the current ontology file
+     * @return the {@link HpoGraph} stored in {@code file}, or {@code null} if the file does not exist, belongs to a
+     * different ontology file or is invalid
+     */
+    static HpoGraph read(Path file, String checksum) {
+        if(!Files.isReadable(file)) {
+            return null;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if(buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            byte[] checksumBytes = new byte[buffer.getInt()];
+            buffer.get(checksumBytes);
+            buffer.position(buffer.position() + padding(checksumBytes.length));
+            if(!checksum.equals(new String(checksumBytes, StandardCharsets.UTF_8))) {
+                return null;
+            }
+
+            int termCount = buffer.getInt();
+            int[] termIds = readInts(buffer, termCount);
+            int[] parentStarts = readInts(buffer, termCount + 1);
+            int[] parents = readInts(buffer, buffer.getInt());
+            int[] childStarts = readInts(buffer, termCount + 1);
+            int[] children = readInts(buffer, buffer.getInt());
+            if(buffer.hasRemaining()) {
+                return null;
+            }
+            return new HpoGraph(termIds, parentStarts, parents, childStarts, children);
+        } catch (IOException | IllegalArgumentException | IndexOutOfBoundsException | BufferUnderflowException
+                | NegativeArraySizeException e) {
+            return null;
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int length) {
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return values;
+    }
+
+    /**
+     * Writes a {@link HpoGraph} to a compiled file. Failing to write it is not an error.
+     * @param graph the graph to write
+     * @param checksum the checksum of the ontology file {@code graph} was created from
+     * @param file the compiled file
+     */
+    static void write(HpoGraph graph, String checksum, Path file) {
+        Path tmpFile = null;
+        try {
+            tmpFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+
+                byte[] checksumBytes = checksum.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(checksumBytes.length);
+                out.write(checksumBytes);
+                out.write(new byte[padding(checksumBytes.length)]);
+
+                out.writeInt(graph.getTermCount());
+                writeInts(out, graph.getTermIds());
+                writeInts(out, graph.getParentStarts());
+                out.writeInt(graph.getParents().length);
+                writeInts(out, graph.getParents());
+                writeInts(out, graph.getChildStarts());
+                out.writeInt(graph.getChildren().length);
+                writeInts(out, graph.getChildren());
+            }
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Compiled file is optional.
+        } finally {
+            if(tmpFile != null) {
+                try {
+                    Files.deleteIfExists(tmpFile);
+                } catch (IOException e) {
+                    // Temporary file is only left behind.
+                }
+            }
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for(int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * @param length a number of bytes
+     * @return the number of bytes needed to pad {@code length} to a multiple of 4
+     */
+    private static int padding(int length) {
+        return (Integer.BYTES - length % Integer.BYTES) % Integer.BYTES;
+    }
+}
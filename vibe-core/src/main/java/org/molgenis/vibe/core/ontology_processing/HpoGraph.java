@@ -0,0 +1,166 @@
+package org.molgenis.vibe.core.ontology_processing;
+
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.HpoGraphFileReader;
+
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The HPO terms and their {@code rdfs:subClassOf} relations, stored as {@code int}-indexed adjacency arrays (compressed
+ * sparse rows). Terms are indexed in the order of their HPO id. The parents of a term are stored between
+ * {@link #getParentStart(int)} (inclusive) and {@link #getParentEnd(int)} (exclusive), and likewise for the children.
+ * <br /><br />
+ * Only relations between HPO terms are stored. Relations to classes of other ontologies (such as {@code UPHENO_}
+ * classes, see {@link OntModelPhenotypesRetriever#skippableUri(org.apache.jena.ontology.OntClass)}) are not traversed
+ * and are therefore left out. Instances can be created using {@link HpoGraphBuilder}, {@link HpoGraphFileReader} or
+ * {@link CompiledHpoGraph}, are immutable and can safely be shared between threads.
+ */
+public class HpoGraph {
+    /**
+     * The HPO id (as number) per term (sorted).
+     */
+    private final int[] termIds;
+
+    private final int[] parentStarts;
+    private final int[] parents;
+
+    private final int[] childStarts;
+    private final int[] children;
+
+    HpoGraph(int[] termIds, int[] parentStarts, int[] parents, int[] childStarts, int[] children) {
+        this.termIds = requireNonNull(termIds);
+        this.parentStarts = requireNonNull(parentStarts);
+        this.parents = requireNonNull(parents);
+        this.childStarts = requireNonNull(childStarts);
+        this.children = requireNonNull(children);
+        validateRows(parentStarts, parents);
+        validateRows(childStarts, children);
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code starts} & {@code values} do not describe valid adjacency rows
+     */
+    private void validateRows(int[] starts, int[] values) {
+        if(starts.length != termIds.length + 1 || starts[0] != 0 || starts[termIds.length] != values.length) {
+            throw new IllegalArgumentException("Row starts do not match the number of terms & relations.");
+        }
+        for(int i = 0; i < termIds.length; i++) {
+            if(starts[i] > starts[i + 1]) {
+                throw new IllegalArgumentException("Row starts must be in ascending order.");
+            }
+        }
+        for(int value : values) {
+            if(value < 0 || value >= termIds.length) {
+                throw new IllegalArgumentException("Relation refers to a non-existing term: " + value);
+            }
+        }
+    }
+
+    /**
+     * @return the number of HPO terms
+     */
+    public int getTermCount() {
+        return termIds.length;
+    }
+
+    /**
+     * @return the number of {@code rdfs:subClassOf} relations between HPO terms
+     */
+    public int getRelationCount() {
+        return parents.length;
+    }
+
+    /**
+     * @param phenotype the {@link Phenotype} to look for
+     * @return the index of the term belonging to {@code phenotype}, or {@code -1} if it is not present
+     */
+    public int findTerm(Phenotype phenotype) {
+        int term = Arrays.binarySearch(termIds, Integer.parseInt(phenotype.getId()));
+        return term < 0 ? -1 : term;
+    }
+
+    /**
+     * @param term the index of a term
+     * @return the {@link Phenotype} belonging to {@code term}
+     */
+    public Phenotype getPhenotype(int term) {
+        return new Phenotype(String.format("%s:%07d", Phenotype.ID_PREFIX, termIds[term]));
+    }
+
+    int getTermId(int term) {
+        return termIds[term];
+    }
+
+    int getParentStart(int term) {
+        return parentStarts[term];
+    }
+
+    int getParentEnd(int term) {
+        return parentStarts[term + 1];
+    }
+
+    int getParent(int position) {
+        return parents[position];
+    }
+
+    int getChildStart(int term) {
+        return childStarts[term];
+    }
+
+    int getChildEnd(int term) {
+        return childStarts[term + 1];
+    }
+
+    int getChild(int position) {
+        return children[position];
+    }
+
+    int[] getTermIds() {
+        return termIds;
+    }
+
+    int[] getParentStarts() {
+        return parentStarts;
+    }
+
+    int[] getParents() {
+        return parents;
+    }
+
+    int[] getChildStarts() {
+        return childStarts;
+    }
+
+    int[] getChildren() {
+        return children;
+    }
+
+    @Override
+    public String toString() {
+        return "HpoGraph{" +
+                "terms=" + termIds.length +
+                ", relations=" + parents.length +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        HpoGraph hpoGraph = (HpoGraph) o;
+        // Children are derived from the same relations as the parents.
+        return Arrays.equals(termIds, hpoGraph.termIds) &&
+                Arrays.equals(parentStarts, hpoGraph.parentStarts) &&
+                Arrays.equals(parents, hpoGraph.parents);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(termIds);
+        result = 31 * result + Arrays.hashCode(parentStarts);
+        result = 31 * result + Arrays.hashCode(parents);
+        return result;
+    }
+}
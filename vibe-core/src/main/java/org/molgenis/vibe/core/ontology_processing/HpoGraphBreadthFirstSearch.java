@@ -0,0 +1,129 @@
+package org.molgenis.vibe.core.ontology_processing;
+
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.formats.PhenotypeNetwork;
+
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Breadth-first search over a {@link HpoGraph} that stores the visited terms & the terms of the current/next level as
+ * bitsets (a bit per term). Each term is visited once (at its shortest distance) for each search. The bitsets are
+ * allocated once and reused for every search, and the {@link Phenotype} of a term is only created the first time it is
+ * found. Therefore a search allocates (nearly) nothing besides the additions to the {@link PhenotypeNetwork}.
+ * <br /><br />
+ * Not thread-safe: each thread needs its own instance.
+ */
+final class HpoGraphBreadthFirstSearch {
+    private final HpoGraph graph;
+
+    /**
+     * Whether parents are traversed as well (children are always traversed).
+     */
+    private final boolean traverseParents;
+
+    private final int[] parentStarts;
+    private final int[] parents;
+    private final int[] childStarts;
+    private final int[] children;
+
+    private final long[] visited;
+    private long[] currentLevel;
+    private long[] nextLevel;
+
+    /**
+     * The {@link Phenotype} per term, created when first needed.
+     */
+    private final Phenotype[] phenotypes;
+
+    /**
+     * @param graph the graph to search
+     * @param traverseParents {@code true} to traverse both parents & children, {@code false} to only traverse children
+     */
+    HpoGraphBreadthFirstSearch(HpoGraph graph, boolean traverseParents) {
+        this.graph = requireNonNull(graph);
+        this.traverseParents = traverseParents;
+        parentStarts = graph.getParentStarts();
+        parents = graph.getParents();
+        childStarts = graph.getChildStarts();
+        children = graph.getChildren();
+
+        int words = (graph.getTermCount() + Long.SIZE - 1) / Long.SIZE;
+        visited = new long[words];
+        currentLevel = new long[words];
+        nextLevel = new long[words];
+        phenotypes = new Phenotype[graph.getTermCount()];
+    }
+
+    /**
+     * Adds all terms that can be reached from {@code source} within {@code maxDistance} steps to {@code network}.
+     * @param source the index of the term belonging to the {@code network source} (see
+     *               {@link PhenotypeNetwork#getSource()})
+     * @param maxDistance the maximum distance from {@code source}
+     * @param network where the found terms are added to (with their shortest distance)
+     */
+    void search(int source, int maxDistance, PhenotypeNetwork network) {
+        // nextLevel is always empty after a level is processed, currentLevel can still contain the last level found.
+        Arrays.fill(visited, 0L);
+        Arrays.fill(currentLevel, 0L);
+        visited[source >>> 6] |= 1L << source;
+        currentLevel[source >>> 6] |= 1L << source;
+
+        for(int distance = 1; distance <= maxDistance; distance++) {
+            boolean found = false;
+            for(int word = 0; word < currentLevel.length; word++) {
+                long bits = currentLevel[word];
+                if(bits == 0L) {
+                    continue;
+                }
+                currentLevel[word] = 0L;
+                while(bits != 0L) {
+                    int term = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if(traverseParents) {
+                        found |= expand(parentStarts, parents, term, distance, network);
+                    }
+                    found |= expand(childStarts, children, term, distance, network);
+                }
+            }
+
+            long[] processedLevel = currentLevel;
+            currentLevel = nextLevel;
+            nextLevel = processedLevel;
+            if(!found) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Marks the not yet visited relations (parents or children) of {@code term} as visited, adds them to the next level
+     * and to the {@code network}.
+     * @return {@code true} if any relation was not visited yet, {@code false} if not
+     */
+    private boolean expand(int[] starts, int[] relations, int term, int distance, PhenotypeNetwork network) {
+        boolean found = false;
+        for(int i = starts[term]; i < starts[term + 1]; i++) {
+            int relation = relations[i];
+            int word = relation >>> 6;
+            long bit = 1L << relation;
+            if((visited[word] & bit) == 0L) {
+                visited[word] |= bit;
+                nextLevel[word] |= bit;
+                network.add(getPhenotype(relation), distance);
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    private Phenotype getPhenotype(int term) {
+        Phenotype phenotype = phenotypes[term];
+        if(phenotype == null) {
+            phenotype = graph.getPhenotype(term);
+            phenotypes[term] = phenotype;
+        }
+        return phenotype;
+    }
+}
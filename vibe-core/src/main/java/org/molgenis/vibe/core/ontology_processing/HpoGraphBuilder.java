@@ -0,0 +1,157 @@
+package org.molgenis.vibe.core.ontology_processing;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Collects HPO terms and the {@code rdfs:subClassOf} relations between them and converts these into a {@link HpoGraph}.
+ * Terms & relations of other ontologies are ignored. Adding the same term or relation multiple times has no effect.
+ */
+public class HpoGraphBuilder {
+    private static final String HPO_URI_PREFIX = "http://purl.obolibrary.org/obo/HP_";
+
+    private Set<Integer> termIds = new HashSet<>();
+
+    /**
+     * The relations, each stored as subclass HPO id (high 32 bits) & superclass HPO id (low 32 bits).
+     */
+    private long[] relations = new long[16];
+    private int relationCount = 0;
+
+    /**
+     * Converts the HPO terms (classes) & {@code rdfs:subClassOf} relations within an ontology {@link Model}.
+     * @param model the model containing the HPO ontology
+     * @return a {@link HpoGraph} of {@code model}
+     */
+    public static HpoGraph build(Model model) {
+        HpoGraphBuilder builder = new HpoGraphBuilder();
+        Graph graph = model.getGraph();
+
+        for(ExtendedIterator<Triple> it = graph.find(Node.ANY, RDF.type.asNode(), OWL.Class.asNode()); it.hasNext(); ) {
+            Node subject = it.next().getSubject();
+            if(subject.isURI()) {
+                builder.addTerm(subject.getURI());
+            }
+        }
+
+        for(ExtendedIterator<Triple> it = graph.find(Node.ANY, RDFS.subClassOf.asNode(), Node.ANY); it.hasNext(); ) {
+            Triple triple = it.next();
+            if(triple.getSubject().isURI() && triple.getObject().isURI()) {
+                builder.addSubClassOf(triple.getSubject().getURI(), triple.getObject().getURI());
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * @param uri the URI of a class
+     * @return {@code true} if {@code uri} is a HPO term (and is therefore added), {@code false} if not
+     */
+    public boolean addTerm(String uri) {
+        int id = parseHpoId(uri);
+        if(id < 0) {
+            return false;
+        }
+        termIds.add(id);
+        return true;
+    }
+
+    /**
+     * @param subClassUri the URI of the subclass
+     * @param superClassUri the URI of the superclass
+     * @return {@code true} if both URIs are HPO terms (and the relation is therefore added), {@code false} if not
+     */
+    public boolean addSubClassOf(String subClassUri, String superClassUri) {
+        int subClassId = parseHpoId(subClassUri);
+        int superClassId = parseHpoId(superClassUri);
+        if(subClassId < 0 || superClassId < 0) {
+            return false;
+        }
+
+        termIds.add(subClassId);
+        termIds.add(superClassId);
+        if(relationCount == relations.length) {
+            relations = Arrays.copyOf(relations, relationCount * 2);
+        }
+        relations[relationCount++] = ((long) subClassId << 32) | superClassId;
+        return true;
+    }
+
+    /**
+     * @return a {@link HpoGraph} of the terms & relations added so far
+     */
+    public HpoGraph build() {
+        int[] ids = new int[termIds.size()];
+        int i = 0;
+        for(int id : termIds) {
+            ids[i++] = id;
+        }
+        Arrays.sort(ids);
+
+        // Sorting (on subclass, then superclass) removes duplicates and results in a reproducible graph.
+        long[] sortedRelations = Arrays.copyOf(relations, relationCount);
+        Arrays.sort(sortedRelations);
+        int[] subClasses = new int[sortedRelations.length];
+        int[] superClasses = new int[sortedRelations.length];
+        int uniqueCount = 0;
+        for(int j = 0; j < sortedRelations.length; j++) {
+            if(j > 0 && sortedRelations[j] == sortedRelations[j - 1]) {
+                continue;
+            }
+            subClasses[uniqueCount] = Arrays.binarySearch(ids, (int) (sortedRelations[j] >>> 32));
+            superClasses[uniqueCount] = Arrays.binarySearch(ids, (int) sortedRelations[j]);
+            uniqueCount++;
+        }
+
+        int[] parentStarts = new int[ids.length + 1];
+        int[] childStarts = new int[ids.length + 1];
+        for(int j = 0; j < uniqueCount; j++) {
+            parentStarts[subClasses[j] + 1]++;
+            childStarts[superClasses[j] + 1]++;
+        }
+        for(int j = 0; j < ids.length; j++) {
+            parentStarts[j + 1] += parentStarts[j];
+            childStarts[j + 1] += childStarts[j];
+        }
+
+        // Relations are sorted on subclass, so both the parents & children of each term are stored in order.
+        int[] parents = Arrays.copyOf(superClasses, uniqueCount);
+        int[] children = new int[uniqueCount];
+        int[] childPositions = Arrays.copyOf(childStarts, ids.length);
+        for(int j = 0; j < uniqueCount; j++) {
+            children[childPositions[superClasses[j]]++] = subClasses[j];
+        }
+
+        return new HpoGraph(ids, parentStarts, parents, childStarts, children);
+    }
+
+    /**
+     * @param uri the URI of a class
+     * @return the HPO id (as number), or {@code -1} if {@code uri} is not a HPO term
+     */
+    private static int parseHpoId(String uri) {
+        if(!uri.startsWith(HPO_URI_PREFIX) || uri.length() == HPO_URI_PREFIX.length()) {
+            return -1;
+        }
+        int id = 0;
+        for(int i = HPO_URI_PREFIX.length(); i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if(c < '0' || c > '9' || id > (Integer.MAX_VALUE - 9) / 10) {
+                return -1;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+}
@@ -0,0 +1,21 @@
+package org.molgenis.vibe.core.ontology_processing;
+
+import org.molgenis.vibe.core.formats.Phenotype;
+
+import java.util.Collection;
+
+/**
+ * Equivalent of {@link ChildrenRetriever} using a {@link HpoGraph}: retrieves the (grand)children of the input
+ * {@link Phenotype}{@code s} up to {@link #getMaxDistance()} levels deep. Each {@link Phenotype} is stored with its
+ * shortest distance.
+ */
+public class HpoGraphChildrenRetriever extends HpoGraphPhenotypesRetriever {
+    public HpoGraphChildrenRetriever(HpoGraph graph, Collection<Phenotype> inputPhenotypes, int maxDistance) {
+        super(graph, inputPhenotypes, maxDistance);
+    }
+
+    @Override
+    protected boolean traverseParents() {
+        return false;
+    }
+}
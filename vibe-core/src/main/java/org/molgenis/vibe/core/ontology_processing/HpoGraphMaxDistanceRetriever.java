@@ -0,0 +1,21 @@
+package org.molgenis.vibe.core.ontology_processing;
+
+import org.molgenis.vibe.core.formats.Phenotype;
+
+import java.util.Collection;
+
+/**
+ * Equivalent of {@link MaxDistanceRetriever} using a {@link HpoGraph}: retrieves all {@link Phenotype}{@code s} that
+ * can be reached from the input {@link Phenotype}{@code s} through at most {@link #getMaxDistance()} parent/child
+ * relations. Each {@link Phenotype} is stored with its shortest distance.
+ */
+public class HpoGraphMaxDistanceRetriever extends HpoGraphPhenotypesRetriever {
+    public HpoGraphMaxDistanceRetriever(HpoGraph graph, Collection<Phenotype> inputPhenotypes, int maxDistance) {
+        super(graph, inputPhenotypes, maxDistance);
+    }
+
+    @Override
+    protected boolean traverseParents() {
+        return true;
+    }
+}
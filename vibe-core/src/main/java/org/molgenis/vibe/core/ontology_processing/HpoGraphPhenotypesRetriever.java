@@ -0,0 +1,64 @@
+package org.molgenis.vibe.core.ontology_processing;
+
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.formats.PhenotypeNetwork;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link PhenotypesRetriever} that traverses the HPO ontology as {@link HpoGraph}. All input
+ * {@link Phenotype}{@code s} must be present within the graph. Each input {@link Phenotype} is traversed separately
+ * through a {@link HpoGraphBreadthFirstSearch}.
+ */
+public abstract class HpoGraphPhenotypesRetriever extends PhenotypesRetriever {
+    /**
+     * The graph that stores the {@link Phenotype}{@code s}.
+     */
+    private HpoGraph graph;
+
+    protected HpoGraph getGraph() {
+        return graph;
+    }
+
+    public HpoGraphPhenotypesRetriever(HpoGraph graph, Collection<Phenotype> inputPhenotypes, int maxDistance) {
+        super(inputPhenotypes, maxDistance);
+        this.graph = requireNonNull(graph);
+    }
+
+    /**
+     * @throws IllegalArgumentException if an input {@link Phenotype} is not present within the HPO ontology
+     */
+    @Override
+    public void run() {
+        Set<Phenotype> inputPhenotypes = new LinkedHashSet<>(getInputPhenotypes());
+        int[] sources = new int[inputPhenotypes.size()];
+        int sourceCount = 0;
+
+        for(Phenotype phenotype : inputPhenotypes) {
+            int term = graph.findTerm(phenotype);
+            if(term < 0) {
+                throw new IllegalArgumentException("Phenotype " + phenotype.getFormattedId() +
+                        " is not present within the HPO ontology.");
+            }
+            sources[sourceCount++] = term;
+        }
+
+        HpoGraphBreadthFirstSearch search = new HpoGraphBreadthFirstSearch(graph, traverseParents());
+        sourceCount = 0;
+        for(Phenotype phenotype : inputPhenotypes) {
+            PhenotypeNetwork network = new PhenotypeNetwork(phenotype);
+            search.search(sources[sourceCount++], getMaxDistance(), network);
+            getPhenotypeNetworkCollection().add(network);
+        }
+    }
+
+    /**
+     * Defines which relations are traversed. Children are always traversed.
+     * @return {@code true} if parents are traversed as well, {@code false} if not
+     */
+    protected abstract boolean traverseParents();
+}
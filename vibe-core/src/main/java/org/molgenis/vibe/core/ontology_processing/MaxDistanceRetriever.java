@@ -10,7 +10,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
-public class MaxDistanceRetriever extends PhenotypesRetriever {
+public class MaxDistanceRetriever extends OntModelPhenotypesRetriever {
     public MaxDistanceRetriever(OntModel model, Collection<Phenotype> inputPhenotypes, int maxDistance) {
         super(model, inputPhenotypes, maxDistance);
     }
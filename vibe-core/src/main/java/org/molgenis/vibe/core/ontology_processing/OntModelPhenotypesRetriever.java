@@ -0,0 +1,55 @@
+package org.molgenis.vibe.core.ontology_processing;
+
+import org.apache.jena.ontology.OntClass;
+import org.apache.jena.ontology.OntModel;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.formats.PhenotypeNetwork;
+
+import java.net.URI;
+import java.util.Collection;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link PhenotypesRetriever} that traverses the HPO ontology as {@link OntModel}.
+ */
+public abstract class OntModelPhenotypesRetriever extends PhenotypesRetriever {
+    /**
+     * The model that stores the {@link Phenotype}{@code s}.
+     */
+    private OntModel model;
+
+    public OntModelPhenotypesRetriever(OntModel model, Collection<Phenotype> inputPhenotypes, int maxDistance) {
+        super(inputPhenotypes, maxDistance);
+        this.model = requireNonNull(model);
+    }
+
+    protected OntClass retrievePhenotypeFromModel(Phenotype phenotype) {
+        return model.getOntClass(phenotype.getUri().toString());
+    }
+
+    /**
+     * Checks whether an URI is skippable. This is based on the fact that while the URI is an expected result, it is not
+     * used within the application. Otherwise these URIs could cause an error because they would be treated as an unexpected
+     * result.
+     *
+     * @param phenotypeOC the {@link OntClass} representing a {@link Phenotype} that needs to be checked
+     * @return {@code true} if {@link OntClass} can be skipped (expected non-valid {@link Phenotype} {@link URI}), {@code false}
+     * if not (can either be a valid or an unexpected non-valid {@link Phenotype} {@link URI})
+     */
+    protected boolean skippableUri(OntClass phenotypeOC) {
+        return phenotypeOC.getURI().startsWith("http://purl.obolibrary.org/obo/UPHENO_");
+    }
+
+    /**
+     * Adds a {@link OntClass} representing a {@link Phenotype} to a {@link PhenotypeNetwork}.
+     * @param phenotypeOC what needs to be added to the {@code network}
+     * @param network where the {@code phenotypeOC} needs to be added to
+     * @param distance the number to be used as {@code distance} when adding the {@code phenotypeOC} to the {@code network}
+     */
+    protected void addPhenotypeToNetwork(OntClass phenotypeOC, PhenotypeNetwork network, int distance) {
+        // Converts URI to Phenotype and tries to add it to the network.
+        Phenotype currentPhenotype = new Phenotype(URI.create(phenotypeOC.getURI()));
+        network.add(currentPhenotype, distance);
+    }
+}
@@ -12,12 +12,22 @@ public enum PhenotypesRetrieverFactory implements EnumTypeDefiner {
         public PhenotypesRetriever create(OntModel model, Collection<Phenotype> inputPhenotypes, int distance) {
             return new ChildrenRetriever(model, inputPhenotypes, distance);
         }
+
+        @Override
+        public PhenotypesRetriever create(HpoGraph graph, Collection<Phenotype> inputPhenotypes, int distance) {
+            return new HpoGraphChildrenRetriever(graph, inputPhenotypes, distance);
+        }
     },
     DISTANCE("distance", "Retrieving connected HPOs.") {
         @Override
         public PhenotypesRetriever create(OntModel model, Collection<Phenotype> inputPhenotypes, int distance) {
             return new MaxDistanceRetriever(model, inputPhenotypes, distance);
         }
+
+        @Override
+        public PhenotypesRetriever create(HpoGraph graph, Collection<Phenotype> inputPhenotypes, int distance) {
+            return new HpoGraphMaxDistanceRetriever(graph, inputPhenotypes, distance);
+        }
     };
 
     private String id;
@@ -40,6 +50,8 @@ public enum PhenotypesRetrieverFactory implements EnumTypeDefiner {
 
     public abstract PhenotypesRetriever create(OntModel model, Collection<Phenotype> inputPhenotypes, int distance);
 
+    public abstract PhenotypesRetriever create(HpoGraph graph, Collection<Phenotype> inputPhenotypes, int distance);
+
     public static PhenotypesRetrieverFactory retrieve(String name) {
         return EnumTypeDefiner.retrieve(name, PhenotypesRetrieverFactory.class);
     }
@@ -0,0 +1,129 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.GeneDiseaseCombination;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.formats.Source;
+import org.molgenis.vibe.core.io.input.HdtFileReader;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.allPhenotypes;
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.phenotypes;
+
+/**
+ * Validates that {@link CachedGenesForPhenotypeRetriever} gives the same results as {@link GenesForPhenotypeRetriever},
+ * independent of which phenotypes were already cached.
+ */
+class CachedGenesForPhenotypeRetrieverIT {
+    private static final String DATABASE = "test";
+    private static ModelReader reader;
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        reader = new HdtFileReader(TestData.HDT.getFullPathString());
+    }
+
+    @AfterAll
+    static void afterAll() {
+        reader.close();
+    }
+
+    @Test
+    void compareWithoutCachedPhenotypes() {
+        PhenotypeResultCache cache = new PhenotypeResultCache();
+        Set<Phenotype> phenotypes = phenotypes("hp:0008438", "hp:0002664", "hp:0001377", "hp:0002996", "hp:0000118");
+        assertEqualToSparql(cache, phenotypes, GeneDiseaseCollectionContent.ALL);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(0, cache.getHits()),
+                () -> Assertions.assertEquals(5, cache.getMisses()),
+                () -> Assertions.assertEquals(5, cache.size())
+        );
+    }
+
+    @Test
+    void comparePartiallyCachedPhenotypes() {
+        PhenotypeResultCache cache = new PhenotypeResultCache();
+        assertEqualToSparql(cache, phenotypes("hp:0008100", "hp:0008200", "hp:0008438"),
+                GeneDiseaseCollectionContent.ALL);
+        GeneDiseaseCollection actual = assertEqualToSparql(cache,
+                phenotypes("hp:0008100", "hp:0008200", "hp:0008300", "hp:0008438"), GeneDiseaseCollectionContent.ALL);
+
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(actual.getGeneDiseaseCombinations().isEmpty()),
+                () -> Assertions.assertEquals(3, cache.getHits()),
+                () -> Assertions.assertEquals(4, cache.getMisses())
+        );
+    }
+
+    @Test
+    void compareAllPhenotypesTwice() {
+        PhenotypeResultCache cache = new PhenotypeResultCache();
+        Set<Phenotype> phenotypes = allPhenotypes();
+        assertEqualToSparql(cache, phenotypes, GeneDiseaseCollectionContent.ALL);
+        assertEqualToSparql(cache, phenotypes, GeneDiseaseCollectionContent.ALL);
+
+        Assertions.assertEquals(440, cache.getHits());
+    }
+
+    @Test
+    void compareWithoutSources() {
+        PhenotypeResultCache cache = new PhenotypeResultCache();
+        Set<Phenotype> phenotypes = phenotypes("hp:0008100", "hp:0008200", "hp:0008438");
+        assertEqualToSparql(cache, phenotypes, EnumSet.noneOf(GeneDiseaseCollectionContent.class));
+        assertEqualToSparql(cache, phenotypes, EnumSet.of(GeneDiseaseCollectionContent.SOURCES));
+
+        // Results retrieved with different content are cached separately.
+        Assertions.assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void comparePhenotypeNotInDatabase() {
+        PhenotypeResultCache cache = new PhenotypeResultCache();
+        assertEqualToSparql(cache, phenotypes("hp:9999999"), GeneDiseaseCollectionContent.ALL);
+        GeneDiseaseCollection actual = assertEqualToSparql(cache, phenotypes("hp:9999999"),
+                GeneDiseaseCollectionContent.ALL);
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(actual.getGeneDiseaseCombinations().isEmpty()),
+                () -> Assertions.assertEquals(1, cache.getHits())
+        );
+    }
+
+    @Test
+    void modifyingResultDoesNotModifyCache() {
+        PhenotypeResultCache cache = new PhenotypeResultCache();
+        Set<Phenotype> phenotypes = phenotypes("hp:0008438");
+        GeneDiseaseCollection first = retrieve(cache, phenotypes, GeneDiseaseCollectionContent.ALL);
+        for(GeneDiseaseCombination gdc : first) {
+            gdc.add(new Source(URI.create("http://rdf.disgenet.org/v6.0.0/void/ORPHANET"), "Orphanet",
+                    Source.Level.CURATED));
+        }
+
+        assertEqualToSparql(cache, phenotypes, GeneDiseaseCollectionContent.ALL);
+    }
+
+    private static GeneDiseaseCollection retrieve(PhenotypeResultCache cache, Set<Phenotype> phenotypes,
+                                                  Set<GeneDiseaseCollectionContent> contents) {
+        CachedGenesForPhenotypeRetriever retriever = new CachedGenesForPhenotypeRetriever(reader, phenotypes,
+                new SourcesCache(), contents, cache, DATABASE);
+        retriever.run();
+        return retriever.getGeneDiseaseCollection();
+    }
+
+    private static GeneDiseaseCollection assertEqualToSparql(PhenotypeResultCache cache, Set<Phenotype> phenotypes,
+                                                             Set<GeneDiseaseCollectionContent> contents) {
+        return RetrieverTestData.assertEqualToSparql(reader, phenotypes, contents,
+                retrieve(cache, phenotypes, contents));
+    }
+}
@@ -0,0 +1,124 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.RDFNode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.database_processing.query_string_creation.QueryStringGenerator;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.HdtFileReader;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.*;
+
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.allPhenotypes;
+
+/**
+ * Validates that executing a {@link CompiledQuery} gives the same results as executing the query from
+ * {@link QueryStringGenerator}.
+ */
+class CompiledQueryIT {
+    private static ModelReader reader;
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        reader = new HdtFileReader(TestData.HDT.getFullPathString());
+    }
+
+    @AfterAll
+    static void afterAll() {
+        reader.close();
+    }
+
+    @Test
+    void compareSources() {
+        List<String> expected = results(new QueryRunner(reader.getModel(), QueryStringGenerator.getSources()));
+        List<String> actual = results(new QueryRunner(reader.getModel(), CompiledQuery.getSources()));
+
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(actual.isEmpty()),
+                () -> Assertions.assertEquals(expected, actual)
+        );
+    }
+
+    @Test
+    void compareGenesForPhenotypes() {
+        Set<Phenotype> phenotypes = allPhenotypes();
+        List<String> expected = results(new QueryRunner(reader.getModel(),
+                QueryStringGenerator.getGenesForPhenotypes(phenotypes)));
+        List<String> actual = results(new QueryRunner(reader.getModel(), CompiledQuery.getGenesForPhenotypes(),
+                phenotypes));
+
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(actual.isEmpty()),
+                () -> Assertions.assertEquals(expected, actual)
+        );
+    }
+
+    @Test
+    void compareGeneDiseaseAssociationsForPhenotypes() {
+        Set<Phenotype> phenotypes = allPhenotypes();
+        List<String> expected = results(new QueryRunner(reader.getModel(),
+                QueryStringGenerator.getGeneDiseaseAssociationsForPhenotypes(phenotypes)));
+        List<String> actual = results(new QueryRunner(reader.getModel(),
+                CompiledQuery.getGeneDiseaseAssociationsForPhenotypes(), phenotypes));
+
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(actual.isEmpty()),
+                () -> Assertions.assertEquals(expected, actual)
+        );
+    }
+
+    @Test
+    void compareEvidenceForGeneDiseaseAssociations() {
+        List<URI> gdas = new ArrayList<>();
+        QueryRunner gdaRunner = new QueryRunner(reader.getModel(),
+                CompiledQuery.getGeneDiseaseAssociationsForPhenotypes(), allPhenotypes());
+        while(gdaRunner.hasNext()) {
+            gdas.add(URI.create(gdaRunner.next().get("gda").asResource().getURI()));
+        }
+        gdaRunner.close();
+
+        List<String> expected = results(new QueryRunner(reader.getModel(),
+                QueryStringGenerator.getEvidenceForGeneDiseaseAssociations(gdas)));
+        CompiledQuery compiledQuery = CompiledQuery.getEvidenceForGeneDiseaseAssociations();
+        List<Node> gdaNodes = new ArrayList<>();
+        for(URI gda : gdas) {
+            gdaNodes.add(NodeFactory.createURI(gda.toString()));
+        }
+        List<String> actual = results(new QueryRunner(reader.getModel(), compiledQuery,
+                compiledQuery.bindNodes(gdaNodes)));
+
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(actual.isEmpty()),
+                () -> Assertions.assertEquals(expected, actual)
+        );
+    }
+
+    /**
+     * @return all results of {@code runner} as sorted {@link String}{@code s} (so that they can be compared
+     * independent of their order)
+     */
+    private static List<String> results(QueryRunner runner) {
+        List<String> results = new ArrayList<>();
+        while(runner.hasNext()) {
+            QuerySolution solution = runner.next();
+            StringBuilder result = new StringBuilder();
+            for(String var : runner.getResultSet().getResultVars()) {
+                RDFNode node = solution.get(var);
+                result.append(var).append('=').append(node).append('\t');
+            }
+            results.add(result.toString());
+        }
+        runner.close();
+        Collections.sort(results);
+        return results;
+    }
+}
@@ -0,0 +1,170 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.sparql.algebra.Op;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.database_processing.query_string_creation.QueryString;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.Phenotype;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+class CompiledQueryTest {
+    @Test
+    void compiledOnce() {
+        Assertions.assertAll(
+                () -> Assertions.assertSame(CompiledQuery.getSources(), CompiledQuery.getSources()),
+                () -> Assertions.assertSame(CompiledQuery.getGenesForPhenotypes(),
+                        CompiledQuery.getGenesForPhenotypes()),
+                () -> Assertions.assertSame(CompiledQuery.getPhenotypesForGenes(),
+                        CompiledQuery.getPhenotypesForGenes())
+        );
+    }
+
+    @Test
+    void bindReplacesValues() {
+        Op op = CompiledQuery.getGenesForPhenotypes().bind(
+                Arrays.asList(new Phenotype("hp:0000002"), new Phenotype("hp:0000003")));
+        String algebra = op.toString();
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(algebra.contains("<http://purl.obolibrary.org/obo/HP_0000002>")),
+                () -> Assertions.assertTrue(algebra.contains("<http://purl.obolibrary.org/obo/HP_0000003>")),
+                () -> Assertions.assertFalse(algebra.contains("<http://purl.obolibrary.org/obo/HP_0000000>"))
+        );
+    }
+
+    @Test
+    void bindReplacesGeneValues() {
+        Op op = CompiledQuery.getPhenotypesForGenes().bind(
+                Arrays.asList(new Gene("ncbigene:785"), new Gene("ncbigene:107")));
+        String algebra = op.toString();
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(algebra.contains("<http://identifiers.org/ncbigene/785>")),
+                () -> Assertions.assertTrue(algebra.contains("<http://identifiers.org/ncbigene/107>")),
+                () -> Assertions.assertFalse(algebra.contains("<http://identifiers.org/ncbigene/0>"))
+        );
+    }
+
+    @Test
+    void bindDoesNotChangeCompiledQuery() {
+        String before = CompiledQuery.getGenesForPhenotypes().bind(
+                Collections.singleton(new Phenotype("hp:0000002"))).toString();
+        CompiledQuery.getGenesForPhenotypes().bind(Collections.singleton(new Phenotype("hp:0000003")));
+        String after = CompiledQuery.getGenesForPhenotypes().bind(
+                Collections.singleton(new Phenotype("hp:0000002"))).toString();
+
+        Assertions.assertEquals(before, after);
+    }
+
+    @Test
+    void bindWithoutValues() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> CompiledQuery.getGenesForPhenotypes().bind(Collections.emptySet()));
+    }
+
+    @Test
+    void getOpWhenValuesRequired() {
+        Assertions.assertThrows(IllegalStateException.class, () -> CompiledQuery.getGenesForPhenotypes().getOp());
+    }
+
+    @Test
+    void getOpWhenNoValuesRequired() {
+        Assertions.assertNotNull(CompiledQuery.getSources().getOp());
+    }
+
+    @Test
+    void allContentUsesFullQuery() {
+        Assertions.assertSame(CompiledQuery.getGenesForPhenotypes(),
+                CompiledQuery.getGenesForPhenotypes(GeneDiseaseCollectionContent.ALL));
+    }
+
+    @Test
+    void partialContentCompiledOnce() {
+        Assertions.assertSame(
+                CompiledQuery.getGenesForPhenotypes(EnumSet.of(GeneDiseaseCollectionContent.SOURCES)),
+                CompiledQuery.getGenesForPhenotypes(Collections.singleton(GeneDiseaseCollectionContent.SOURCES)));
+    }
+
+    @Test
+    void partialContentResultVars() {
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(Arrays.asList("hpo", "disease", "gene", "geneSymbol", "gdaScoreNumber"),
+                        CompiledQuery.getGenesForPhenotypes(Collections.emptySet()).getQuery().getResultVars()),
+                () -> Assertions.assertEquals(Arrays.asList("hpo", "disease", "gene", "geneSymbol", "gdaScoreNumber",
+                        "diseaseName"), CompiledQuery.getGenesForPhenotypes(
+                                EnumSet.of(GeneDiseaseCollectionContent.DISEASE_NAMES)).getQuery().getResultVars()),
+                () -> Assertions.assertEquals(Arrays.asList("hpo", "disease", "gene", "geneSymbol", "gdaScoreNumber",
+                        "gdaSource", "evidenceYear", "evidence"), CompiledQuery.getGenesForPhenotypes(
+                                EnumSet.of(GeneDiseaseCollectionContent.SOURCES)).getQuery().getResultVars())
+        );
+    }
+
+    @Test
+    void genePanelCompiledOnce() {
+        Assertions.assertAll(
+                () -> Assertions.assertSame(CompiledQuery.getGenesForPhenotypes(GeneDiseaseCollectionContent.ALL, true),
+                        CompiledQuery.getGenesForPhenotypes(GeneDiseaseCollectionContent.ALL, true)),
+                () -> Assertions.assertSame(CompiledQuery.getGenesForPhenotypes(),
+                        CompiledQuery.getGenesForPhenotypes(GeneDiseaseCollectionContent.ALL, false)),
+                () -> Assertions.assertSame(CompiledQuery.getGeneDiseaseAssociationsForPhenotypes(),
+                        CompiledQuery.getGeneDiseaseAssociationsForPhenotypes(false))
+        );
+    }
+
+    @Test
+    void bindReplacesFilterValues() {
+        Set<Node> genes = Collections.singleton(NodeFactory.createURI("http://identifiers.org/ncbigene/785"));
+        String algebra = CompiledQuery.getGenesForPhenotypes(GeneDiseaseCollectionContent.ALL, true)
+                .bind(Collections.singleton(new Phenotype("hp:0000002")), genes).toString();
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(algebra.contains("vibe:in")),
+                () -> Assertions.assertTrue(algebra.contains("<http://purl.obolibrary.org/obo/HP_0000002>")),
+                () -> Assertions.assertFalse(algebra.contains("<http://identifiers.org/ncbigene/0>")),
+                () -> Assertions.assertFalse(algebra.contains("<http://identifiers.org/ncbigene/1>"))
+        );
+    }
+
+    @Test
+    void bindWithoutRequiredFilterValues() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> CompiledQuery.getGeneDiseaseAssociationsForPhenotypes(true).bind(
+                        Collections.singleton(new Phenotype("hp:0000002"))));
+    }
+
+    @Test
+    void bindFilterValuesWithoutFilter() {
+        Set<Node> genes = Collections.singleton(NodeFactory.createURI("http://identifiers.org/ncbigene/785"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> CompiledQuery.getGenesForPhenotypes().bind(
+                        Collections.singleton(new Phenotype("hp:0000002")), genes));
+    }
+
+    @Test
+    void compileWithoutValues() {
+        QueryString queryString = new QueryString("SELECT ?hpo WHERE { ?hpo ?p ?o }");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new CompiledQuery("without values", queryString, "hpo"));
+    }
+
+    @Test
+    void compileWithMultipleValues() {
+        QueryString queryString = new QueryString("SELECT ?hpo ?o WHERE { { VALUES ?hpo { <http://a> } ?hpo ?p ?o } " +
+                "UNION { VALUES ?hpo { <http://b> } ?o ?p ?hpo } }");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new CompiledQuery("multiple values", queryString, "hpo"));
+    }
+
+    @Test
+    void bindWithoutValuesToReplace() {
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> CompiledQuery.getSources().bind(Collections.singleton(new Phenotype("hp:0000002"))));
+    }
+}
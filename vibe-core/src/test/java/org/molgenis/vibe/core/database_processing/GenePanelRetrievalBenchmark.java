@@ -0,0 +1,149 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResIterator;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.database_processing.compiled_index.CompiledIndex;
+import org.molgenis.vibe.core.database_processing.compiled_index.CompiledIndexBuilder;
+import org.molgenis.vibe.core.database_processing.compiled_index.CompiledIndexGenesForPhenotypeRetriever;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GenePanel;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.HdtFileReader;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Compares the time needed for retrieving the gene-disease associations of a set of phenotypes restricted to gene
+ * panels of different sizes: without a panel, when filtering the results afterwards
+ * ({@link org.molgenis.vibe.core.formats.GeneDiseaseCollection#retainGenes(GenePanel)}) and when restricting the
+ * retrieval itself ({@link GeneDiseaseCollectionRetriever#setGenePanel(GenePanel)}). This is done for
+ * {@link GenesForPhenotypeRetriever}, {@link HdtGenesForPhenotypeRetriever}, {@link CachedGenesForPhenotypeRetriever}
+ * (with all phenotypes already cached) and {@link CompiledIndexGenesForPhenotypeRetriever}. Not run as part of the
+ * tests.
+ * <br /><br />
+ * Both all phenotypes present in the database and a patient-sized random selection of them are benchmarked. The panels
+ * are randomly chosen (with a fixed seed) from the genes found for these phenotypes.
+ * <br /><br />
+ * Usage: {@code GenePanelRetrievalBenchmark [hdt-file [panel-size...]]} (defaults to the test database and panels of
+ * 5, 20 & 200 genes).
+ */
+class GenePanelRetrievalBenchmark {
+    private static final int WARMUP_RUNS = 20;
+    private static final int MEASURED_RUNS = 40;
+    private static final int PATIENT_PHENOTYPES = 20;
+    private static final int[] DEFAULT_PANEL_SIZES = {5, 20, 200};
+
+    public static void main(String[] args) throws IOException {
+        String hdt = args.length > 0 ? args[0] : TestData.HDT.getFullPathString();
+        int[] panelSizes = DEFAULT_PANEL_SIZES;
+        if(args.length > 1) {
+            panelSizes = new int[args.length - 1];
+            for(int i = 1; i < args.length; i++) {
+                panelSizes[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        Path indexFile = Files.createTempFile("vibe", ".idx");
+        try (ModelReader reader = new HdtFileReader(hdt)) {
+            CompiledIndexBuilder builder = new CompiledIndexBuilder(reader);
+            builder.run();
+            builder.write(indexFile);
+
+            try (CompiledIndex compiledIndex = new CompiledIndex(indexFile)) {
+                List<Phenotype> allPhenotypes = retrievePhenotypes(reader);
+                Collections.shuffle(allPhenotypes, new Random(PATIENT_PHENOTYPES));
+                for(Set<Phenotype> phenotypes : Arrays.asList(new HashSet<>(allPhenotypes),
+                        new HashSet<>(allPhenotypes.subList(0, PATIENT_PHENOTYPES)))) {
+                    benchmark(reader, compiledIndex, phenotypes, panelSizes);
+                }
+            }
+        } finally {
+            Files.delete(indexFile);
+        }
+    }
+
+    private static void benchmark(ModelReader reader, CompiledIndex compiledIndex, Set<Phenotype> phenotypes,
+                                  int[] panelSizes) throws IOException {
+        SourcesCache sourcesCache = new SourcesCache();
+        PhenotypeResultCache cache = new PhenotypeResultCache();
+        Map<String, Supplier<GeneDiseaseCollectionRetriever>> retrievers = new LinkedHashMap<>();
+        retrievers.put("sparql", () -> new GenesForPhenotypeRetriever(reader, phenotypes, sourcesCache));
+        retrievers.put("hdt", () -> new HdtGenesForPhenotypeRetriever(reader, phenotypes, sourcesCache));
+        retrievers.put("cached", () -> new CachedGenesForPhenotypeRetriever(reader, phenotypes, sourcesCache,
+                GeneDiseaseCollectionContent.ALL, cache, "benchmark"));
+        retrievers.put("index", () -> new CompiledIndexGenesForPhenotypeRetriever(compiledIndex, phenotypes));
+
+        GeneDiseaseCollectionRetriever unrestricted = retrievers.get("sparql").get();
+        unrestricted.run();
+        List<Gene> genes = new ArrayList<>(unrestricted.getGeneDiseaseCollection().getGenes());
+        Collections.sort(genes);
+        Collections.shuffle(genes, new Random(genes.size()));
+        System.out.println("phenotypes: " + phenotypes.size() + ", genes: " + genes.size());
+        System.out.println(String.format("%-8s %6s %12s %12s %12s", "", "panel", "none", "filtered", "restricted"));
+
+        for(int panelSize : panelSizes) {
+            GenePanel genePanel = new GenePanel(new HashSet<>(genes.subList(0, Math.min(panelSize, genes.size()))),
+                    Collections.emptySet());
+            for(Map.Entry<String, Supplier<GeneDiseaseCollectionRetriever>> entry : retrievers.entrySet()) {
+                Supplier<GeneDiseaseCollectionRetriever> supplier = entry.getValue();
+                double none = measure(() -> supplier.get().run());
+                double filtered = measure(() -> {
+                    GeneDiseaseCollectionRetriever retriever = supplier.get();
+                    retriever.run();
+                    retriever.getGeneDiseaseCollection().retainGenes(genePanel);
+                });
+                double restricted = measure(() -> {
+                    GeneDiseaseCollectionRetriever retriever = supplier.get();
+                    retriever.setGenePanel(genePanel);
+                    retriever.run();
+                });
+                System.out.println(String.format("%-8s %6d %9.2f ms %9.2f ms %9.2f ms", entry.getKey(), panelSize,
+                        none, filtered, restricted));
+            }
+        }
+    }
+
+    /**
+     * @return all HPO phenotypes that are a subject within the database
+     */
+    private static List<Phenotype> retrievePhenotypes(ModelReader reader) {
+        List<Phenotype> phenotypes = new ArrayList<>();
+        ResIterator subjects = reader.getModel().listSubjects();
+        while(subjects.hasNext()) {
+            Resource subject = subjects.next();
+            if(subject.isURIResource() && subject.getURI().startsWith("http://purl.obolibrary.org/obo/HP_")) {
+                phenotypes.add(new Phenotype(URI.create(subject.getURI())));
+            }
+        }
+        Collections.sort(phenotypes);
+        return phenotypes;
+    }
+
+    /**
+     * A retrieval to be measured.
+     */
+    private interface Retrieval {
+        void run() throws IOException;
+    }
+
+    /**
+     * @return the average time in milliseconds per run
+     */
+    private static double measure(Retrieval runnable) throws IOException {
+        for(int i = 0; i < WARMUP_RUNS; i++) {
+            runnable.run();
+        }
+        long start = System.nanoTime();
+        for(int i = 0; i < MEASURED_RUNS; i++) {
+            runnable.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / MEASURED_RUNS;
+    }
+}
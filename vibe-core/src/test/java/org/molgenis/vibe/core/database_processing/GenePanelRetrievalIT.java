@@ -0,0 +1,188 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.molgenis.vibe.core.GeneDiseaseCollectionRetrievalRunner;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.GenePanel;
+import org.molgenis.vibe.core.formats.GeneSymbol;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.HdtFileReader;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.assertAllFieldsEqual;
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.phenotypes;
+
+/**
+ * Validates that restricting a retrieval to a {@link GenePanel} gives the same results as filtering the unrestricted
+ * results afterwards.
+ */
+class GenePanelRetrievalIT {
+    private static final Set<Phenotype> PHENOTYPES = phenotypes("hp:0008438", "hp:0002664", "hp:0001377",
+            "hp:0002996", "hp:0000118");
+
+    private static ModelReader reader;
+
+    /**
+     * The unrestricted results for {@link #PHENOTYPES}.
+     */
+    private static GeneDiseaseCollection unrestricted;
+
+    /**
+     * Every third gene (ordered by id) of {@link #unrestricted}.
+     */
+    private static List<Gene> panelGenes;
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        reader = new HdtFileReader(TestData.HDT.getFullPathString());
+
+        GenesForPhenotypeRetriever retriever = new GenesForPhenotypeRetriever(reader, PHENOTYPES);
+        retriever.run();
+        unrestricted = retriever.getGeneDiseaseCollection();
+
+        List<Gene> genes = new ArrayList<>(unrestricted.getGenes());
+        Collections.sort(genes);
+        panelGenes = new ArrayList<>();
+        for(int i = 0; i < genes.size(); i += 3) {
+            panelGenes.add(genes.get(i));
+        }
+    }
+
+    @AfterAll
+    static void afterAll() {
+        reader.close();
+    }
+
+    @ParameterizedTest
+    @EnumSource(GenesForPhenotypeRetrieverFactory.class)
+    void compareGeneIdPanel(GenesForPhenotypeRetrieverFactory factory) throws IOException {
+        GeneDiseaseCollection actual = assertEqualToFiltered(factory,
+                new GenePanel(new HashSet<>(panelGenes), Collections.emptySet()));
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(actual.isEmpty()),
+                () -> Assertions.assertTrue(actual.getGenes().size() < unrestricted.getGenes().size())
+        );
+    }
+
+    @ParameterizedTest
+    @EnumSource(GenesForPhenotypeRetrieverFactory.class)
+    void compareGeneSymbolPanel(GenesForPhenotypeRetrieverFactory factory) throws IOException {
+        Set<GeneSymbol> symbols = new HashSet<>();
+        for(Gene gene : panelGenes) {
+            symbols.add(gene.getSymbol());
+        }
+        GeneDiseaseCollection actual = assertEqualToFiltered(factory, new GenePanel(Collections.emptySet(), symbols));
+        Assertions.assertEquals(new HashSet<>(panelGenes), actual.getGenes());
+    }
+
+    @ParameterizedTest
+    @EnumSource(GenesForPhenotypeRetrieverFactory.class)
+    void compareMixedPanel(GenesForPhenotypeRetrieverFactory factory) throws IOException {
+        assertEqualToFiltered(factory, new GenePanel(Collections.singleton(panelGenes.get(0)),
+                Collections.singleton(panelGenes.get(1).getSymbol())));
+    }
+
+    @ParameterizedTest
+    @EnumSource(GenesForPhenotypeRetrieverFactory.class)
+    void compareGenesNotInDatabase(GenesForPhenotypeRetrieverFactory factory) throws IOException {
+        GeneDiseaseCollection actual = assertEqualToFiltered(factory, new GenePanel(
+                Collections.singleton(new Gene("ncbigene:999999999")),
+                Collections.singleton(new GeneSymbol("hgnc:NOT_A_SYMBOL"))));
+        Assertions.assertTrue(actual.isEmpty());
+    }
+
+    @Test
+    void compareGeneIdPanelWithoutContent() {
+        GenePanel genePanel = new GenePanel(new HashSet<>(panelGenes), Collections.emptySet());
+
+        GenesForPhenotypeRetriever expectedRetriever = new GenesForPhenotypeRetriever(reader, PHENOTYPES,
+                new SourcesCache(), EnumSet.noneOf(GeneDiseaseCollectionContent.class));
+        expectedRetriever.run();
+        GeneDiseaseCollection expected = expectedRetriever.getGeneDiseaseCollection();
+        expected.retainGenes(genePanel);
+
+        GenesForPhenotypeRetriever retriever = new GenesForPhenotypeRetriever(reader, PHENOTYPES, new SourcesCache(),
+                EnumSet.noneOf(GeneDiseaseCollectionContent.class));
+        retriever.setGenePanel(genePanel);
+        retriever.run();
+        GeneDiseaseCollection actual = retriever.getGeneDiseaseCollection();
+
+        assertAllFieldsEqual(expected, actual);
+    }
+
+    @Test
+    void compareCachedRetriever() {
+        GenePanel genePanel = new GenePanel(new HashSet<>(panelGenes), Collections.emptySet());
+        GeneDiseaseCollection expected = filteredUnrestricted(genePanel);
+        PhenotypeResultCache cache = new PhenotypeResultCache();
+
+        // First retrieval queries the database, second one only uses the cache.
+        for(int i = 0; i < 2; i++) {
+            CachedGenesForPhenotypeRetriever retriever = new CachedGenesForPhenotypeRetriever(reader, PHENOTYPES,
+                    new SourcesCache(), GeneDiseaseCollectionContent.ALL, cache, "test");
+            retriever.setGenePanel(genePanel);
+            retriever.run();
+            assertAllFieldsEqual(expected, retriever.getGeneDiseaseCollection());
+        }
+
+        // The cached results are not restricted to the gene panel.
+        CachedGenesForPhenotypeRetriever retriever = new CachedGenesForPhenotypeRetriever(reader, PHENOTYPES,
+                new SourcesCache(), GeneDiseaseCollectionContent.ALL, cache, "test");
+        retriever.run();
+        assertAllFieldsEqual(unrestricted, retriever.getGeneDiseaseCollection());
+    }
+
+    @Test
+    void compareRunnerWithCachedRetriever() throws Exception {
+        GenePanel genePanel = new GenePanel(new HashSet<>(panelGenes), Collections.emptySet());
+        GeneDiseaseCollection expected = filteredUnrestricted(genePanel);
+
+        GeneDiseaseCollectionRetrievalRunner runner = new GeneDiseaseCollectionRetrievalRunner(reader, PHENOTYPES,
+                GenesForPhenotypeRetrieverFactory.SPARQL_CACHED);
+        runner.setGenePanel(genePanel);
+        GeneDiseaseCollection actual = runner.call();
+
+        assertAllFieldsEqual(expected, actual);
+    }
+
+    /**
+     * Retrieves the data restricted to {@code genePanel} without filtering the results afterwards.
+     */
+    private GeneDiseaseCollection assertEqualToFiltered(GenesForPhenotypeRetrieverFactory factory,
+                                                        GenePanel genePanel) throws IOException {
+        GeneDiseaseCollection expected = filteredUnrestricted(genePanel);
+
+        GeneDiseaseCollectionRetriever retriever = factory.create(reader, PHENOTYPES, new SourcesCache());
+        retriever.setGenePanel(genePanel);
+        retriever.run();
+        GeneDiseaseCollection actual = retriever.getGeneDiseaseCollection();
+
+        assertAllFieldsEqual(expected, actual);
+        return actual;
+    }
+
+    /**
+     * @return a copy of {@link #unrestricted} without the genes outside {@code genePanel}
+     */
+    private static GeneDiseaseCollection filteredUnrestricted(GenePanel genePanel) {
+        GeneDiseaseCollection filtered = new GeneDiseaseCollection(new LinkedHashSet<>(unrestricted));
+        filtered.retainGenes(genePanel);
+        return filtered;
+    }
+}
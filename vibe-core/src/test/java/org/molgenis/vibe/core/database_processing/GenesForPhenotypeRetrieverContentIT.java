@@ -0,0 +1,122 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.GeneDiseaseCombination;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.HdtFileReader;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.allPhenotypes;
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.assertAllFieldsEqual;
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.phenotypes;
+
+/**
+ * Validates that {@link GenesForPhenotypeRetriever} only retrieving part of the {@link GeneDiseaseCollectionContent}
+ * gives the same results as when retrieving all content (for the parts that are retrieved).
+ */
+class GenesForPhenotypeRetrieverContentIT {
+    private static ModelReader reader;
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        reader = new HdtFileReader(TestData.HDT.getFullPathString());
+    }
+
+    @AfterAll
+    static void afterAll() {
+        reader.close();
+    }
+
+    @Test
+    void allContent() {
+        Set<Phenotype> phenotypes = phenotypes("hp:0008438", "hp:0002664", "hp:0001377");
+        GeneDiseaseCollection expected = retrieve(phenotypes, null);
+        GeneDiseaseCollection actual = retrieve(phenotypes, GeneDiseaseCollectionContent.ALL);
+
+        assertAllFieldsEqual(expected, actual);
+    }
+
+    @Test
+    void withoutDiseaseNames() {
+        Set<Phenotype> phenotypes = allPhenotypes();
+        GeneDiseaseCollection expected = retrieve(phenotypes, null);
+        GeneDiseaseCollection actual = retrieve(phenotypes, EnumSet.of(GeneDiseaseCollectionContent.SOURCES));
+
+        Assertions.assertEquals(expected, actual);
+        for(GeneDiseaseCombination actualGdc : actual.getGeneDiseaseCombinations()) {
+            GeneDiseaseCombination expectedGdc = expected.get(actualGdc);
+            Assertions.assertAll(
+                    () -> Assertions.assertNull(actualGdc.getDisease().getName()),
+                    () -> Assertions.assertEquals(expectedGdc.getDisgenetScore(), actualGdc.getDisgenetScore()),
+                    () -> Assertions.assertEquals(expectedGdc.getSourcesCount(), actualGdc.getSourcesCount()),
+                    () -> Assertions.assertEquals(expectedGdc.getAllPubmedEvidence(), actualGdc.getAllPubmedEvidence())
+            );
+        }
+    }
+
+    @Test
+    void withoutSources() {
+        Set<Phenotype> phenotypes = allPhenotypes();
+        GeneDiseaseCollection expected = retrieve(phenotypes, null);
+        GeneDiseaseCollection actual = retrieve(phenotypes, EnumSet.of(GeneDiseaseCollectionContent.DISEASE_NAMES));
+
+        Assertions.assertEquals(expected, actual);
+        for(GeneDiseaseCombination actualGdc : actual.getGeneDiseaseCombinations()) {
+            GeneDiseaseCombination expectedGdc = expected.get(actualGdc);
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(expectedGdc.getDisease().getName(),
+                            actualGdc.getDisease().getName()),
+                    () -> Assertions.assertEquals(expectedGdc.getDisgenetScore(), actualGdc.getDisgenetScore()),
+                    () -> Assertions.assertTrue(actualGdc.getSourcesCount().isEmpty()),
+                    () -> Assertions.assertTrue(actualGdc.getAllPubmedEvidence().isEmpty())
+            );
+        }
+    }
+
+    @Test
+    void withoutOptionalContent() {
+        Set<Phenotype> phenotypes = allPhenotypes();
+        GeneDiseaseCollection expected = retrieve(phenotypes, null);
+        GeneDiseaseCollection actual = retrieve(phenotypes, Collections.emptySet());
+
+        Assertions.assertEquals(expected, actual);
+        for(GeneDiseaseCombination actualGdc : actual.getGeneDiseaseCombinations()) {
+            GeneDiseaseCombination expectedGdc = expected.get(actualGdc);
+            Assertions.assertAll(
+                    () -> Assertions.assertNull(actualGdc.getDisease().getName()),
+                    () -> Assertions.assertEquals(expectedGdc.getDisgenetScore(), actualGdc.getDisgenetScore()),
+                    () -> Assertions.assertTrue(actualGdc.getSourcesCount().isEmpty())
+            );
+        }
+    }
+
+    @Test
+    void withoutOptionalContentPhenotypeNotInDatabase() {
+        Assertions.assertTrue(retrieve(phenotypes("hp:9999999"), Collections.emptySet())
+                .getGeneDiseaseCombinations().isEmpty());
+    }
+
+    /**
+     * @param contents the content to retrieve ({@code null} to use the default constructor)
+     */
+    private GeneDiseaseCollection retrieve(Set<Phenotype> phenotypes, Set<GeneDiseaseCollectionContent> contents) {
+        GenesForPhenotypeRetriever retriever;
+        if(contents == null) {
+            retriever = new GenesForPhenotypeRetriever(reader, phenotypes);
+        } else {
+            retriever = new GenesForPhenotypeRetriever(reader, phenotypes, new SourcesCache(), contents);
+        }
+        retriever.run();
+        return retriever.getGeneDiseaseCollection();
+    }
+}
@@ -0,0 +1,126 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.GeneDiseaseCombination;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.HdtFileReader;
+import org.molgenis.vibe.core.io.input.ModelReader;
+import org.molgenis.vibe.core.io.input.ModelReaderFactory;
+import org.molgenis.vibe.core.io.input.VibeDatabase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.allPhenotypes;
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.phenotypes;
+
+/**
+ * Validates that {@link LazyEvidenceGenesForPhenotypeRetriever} gives the same results as
+ * {@link GenesForPhenotypeRetriever} once the evidence is loaded, and that it is only loaded when requested.
+ */
+class LazyEvidenceGenesForPhenotypeRetrieverIT {
+    private static ModelReader reader;
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        reader = new HdtFileReader(TestData.HDT.getFullPathString());
+    }
+
+    @AfterAll
+    static void afterAll() {
+        reader.close();
+    }
+
+    @Test
+    void compareSinglePhenotype() {
+        GeneDiseaseCollection actual = lazyRetrieve(phenotypes("hp:0008438"));
+        Assertions.assertFalse(actual.getGeneDiseaseCombinations().isEmpty());
+        // Triggers loading the evidence per gene-disease combination.
+        assertEqualToSparql(phenotypes("hp:0008438"), actual);
+    }
+
+    @Test
+    void compareAllPhenotypes() {
+        Set<Phenotype> phenotypes = allPhenotypes();
+        GeneDiseaseCollection actual = lazyRetrieve(phenotypes);
+        actual.loadPubmedEvidence(actual.getGenes());
+        assertEqualToSparql(phenotypes, actual);
+    }
+
+    @Test
+    void comparePhenotypeNotInDatabase() {
+        GeneDiseaseCollection actual = lazyRetrieve(phenotypes("hp:9999999"));
+        Assertions.assertTrue(actual.getGeneDiseaseCombinations().isEmpty());
+        assertEqualToSparql(phenotypes("hp:9999999"), actual);
+    }
+
+    @Test
+    void onlyLoadsRequestedGenes() {
+        Set<Phenotype> phenotypes = phenotypes("hp:0008100", "hp:0008200", "hp:0008300", "hp:0008438");
+        GeneDiseaseCollection actual = lazyRetrieve(phenotypes);
+        List<Gene> genes = new ArrayList<>(actual.getGenes());
+        Assertions.assertTrue(genes.size() > 1);
+        List<Gene> requested = genes.subList(0, 1);
+
+        Assertions.assertTrue(actual.getGeneDiseaseCombinations().stream()
+                .noneMatch(GeneDiseaseCombination::isPubmedEvidenceLoaded));
+        actual.loadPubmedEvidence(requested);
+        for(GeneDiseaseCombination gdc : actual.getGeneDiseaseCombinations()) {
+            Assertions.assertEquals(requested.contains(gdc.getGene()), gdc.isPubmedEvidenceLoaded());
+        }
+        assertEqualToSparql(phenotypes, actual);
+    }
+
+    @Test
+    void sourcesRetrievedWithoutEvidence() {
+        Set<Phenotype> phenotypes = allPhenotypes();
+        GeneDiseaseCollection actual = lazyRetrieve(phenotypes);
+        GenesForPhenotypeRetriever sparqlRetriever = new GenesForPhenotypeRetriever(reader, phenotypes);
+        sparqlRetriever.run();
+
+        for(GeneDiseaseCombination expectedGdc : sparqlRetriever.getGeneDiseaseCollection()) {
+            GeneDiseaseCombination actualGdc = actual.getByGene(expectedGdc.getGene()).stream()
+                    .filter(expectedGdc::equals).findFirst().orElseThrow(AssertionError::new);
+            Assertions.assertEquals(expectedGdc.getSourcesCount(), actualGdc.getSourcesCount());
+        }
+        Assertions.assertTrue(actual.getGeneDiseaseCombinations().stream()
+                .noneMatch(GeneDiseaseCombination::isPubmedEvidenceLoaded));
+    }
+
+    @Test
+    void loadsThroughVibeDatabase() throws IOException {
+        Set<Phenotype> phenotypes = phenotypes("hp:0008100", "hp:0008200", "hp:0008300");
+        GeneDiseaseCollection actual;
+        try (VibeDatabase vibeDatabase = new VibeDatabase(TestData.HDT.getFullPath(), ModelReaderFactory.HDT)) {
+            vibeDatabase.open();
+            try (ModelReader modelReader = vibeDatabase.getModelReader()) {
+                LazyEvidenceGenesForPhenotypeRetriever retriever = new LazyEvidenceGenesForPhenotypeRetriever(
+                        modelReader, phenotypes, vibeDatabase);
+                retriever.run();
+                actual = retriever.getGeneDiseaseCollection();
+            }
+            // Reader used for retrieval is closed, evidence is loaded through the (still open) database.
+            actual.loadPubmedEvidence(actual.getGenes());
+        }
+        assertEqualToSparql(phenotypes, actual);
+    }
+
+    private static GeneDiseaseCollection lazyRetrieve(Set<Phenotype> phenotypes) {
+        LazyEvidenceGenesForPhenotypeRetriever retriever = new LazyEvidenceGenesForPhenotypeRetriever(reader,
+                phenotypes, new SourcesCache());
+        retriever.run();
+        return retriever.getGeneDiseaseCollection();
+    }
+
+    private static void assertEqualToSparql(Set<Phenotype> phenotypes, GeneDiseaseCollection actual) {
+        RetrieverTestData.assertEqualToSparql(reader, phenotypes, actual);
+    }
+}
@@ -0,0 +1,161 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.formats.Disease;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.GeneDiseaseCombination;
+import org.molgenis.vibe.core.formats.GeneSymbol;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.formats.PubmedEvidence;
+import org.molgenis.vibe.core.formats.Source;
+
+import java.net.URI;
+import java.util.EnumSet;
+import java.util.Set;
+
+class PhenotypeResultCacheTest {
+    private static final String DATABASE = "database";
+    private static final Set<GeneDiseaseCollectionContent> ALL = GeneDiseaseCollectionContent.ALL;
+    private static final Phenotype PHENOTYPE_1 = new Phenotype("hp:0000001");
+    private static final Phenotype PHENOTYPE_2 = new Phenotype("hp:0000002");
+    private static final Phenotype PHENOTYPE_3 = new Phenotype("hp:0000003");
+
+    private static final long SINGLE_GDC_WEIGHT = PhenotypeResultCache.ENTRY_WEIGHT +
+            PhenotypeResultCache.GENE_DISEASE_COMBINATION_WEIGHT;
+
+    @Test
+    void missThenHit() {
+        PhenotypeResultCache cache = new PhenotypeResultCache();
+        GeneDiseaseCollection collection = collection(1);
+
+        Assertions.assertNull(cache.get(DATABASE, ALL, PHENOTYPE_1));
+        cache.put(DATABASE, ALL, PHENOTYPE_1, collection);
+        Assertions.assertAll(
+                () -> Assertions.assertSame(collection, cache.get(DATABASE, ALL, PHENOTYPE_1)),
+                () -> Assertions.assertEquals(1, cache.getHits()),
+                () -> Assertions.assertEquals(1, cache.getMisses()),
+                () -> Assertions.assertEquals(1, cache.size()),
+                () -> Assertions.assertEquals(SINGLE_GDC_WEIGHT, cache.getWeight())
+        );
+    }
+
+    @Test
+    void keyIncludesDatabaseAndContents() {
+        PhenotypeResultCache cache = new PhenotypeResultCache();
+        cache.put(DATABASE, ALL, PHENOTYPE_1, collection(1));
+
+        Assertions.assertAll(
+                () -> Assertions.assertNull(cache.get("other", ALL, PHENOTYPE_1)),
+                () -> Assertions.assertNull(cache.get(DATABASE, EnumSet.of(GeneDiseaseCollectionContent.SOURCES),
+                        PHENOTYPE_1)),
+                () -> Assertions.assertNull(cache.get(DATABASE, EnumSet.noneOf(GeneDiseaseCollectionContent.class),
+                        PHENOTYPE_1)),
+                () -> Assertions.assertNotNull(cache.get(DATABASE,
+                        EnumSet.allOf(GeneDiseaseCollectionContent.class), PHENOTYPE_1))
+        );
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        PhenotypeResultCache cache = new PhenotypeResultCache(2 * SINGLE_GDC_WEIGHT);
+        cache.put(DATABASE, ALL, PHENOTYPE_1, collection(1));
+        cache.put(DATABASE, ALL, PHENOTYPE_2, collection(1));
+        // Makes phenotype 2 the least recently used one.
+        cache.get(DATABASE, ALL, PHENOTYPE_1);
+        cache.put(DATABASE, ALL, PHENOTYPE_3, collection(1));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, cache.getEvictions()),
+                () -> Assertions.assertEquals(2, cache.size()),
+                () -> Assertions.assertEquals(2 * SINGLE_GDC_WEIGHT, cache.getWeight()),
+                () -> Assertions.assertNull(cache.get(DATABASE, ALL, PHENOTYPE_2)),
+                () -> Assertions.assertNotNull(cache.get(DATABASE, ALL, PHENOTYPE_1)),
+                () -> Assertions.assertNotNull(cache.get(DATABASE, ALL, PHENOTYPE_3))
+        );
+    }
+
+    @Test
+    void evictsUntilHeavyResultFits() {
+        PhenotypeResultCache cache = new PhenotypeResultCache(3 * SINGLE_GDC_WEIGHT);
+        cache.put(DATABASE, ALL, PHENOTYPE_1, collection(1));
+        cache.put(DATABASE, ALL, PHENOTYPE_2, collection(1));
+        cache.put(DATABASE, ALL, PHENOTYPE_3, collection(3));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(2, cache.getEvictions()),
+                () -> Assertions.assertEquals(1, cache.size()),
+                () -> Assertions.assertNotNull(cache.get(DATABASE, ALL, PHENOTYPE_3))
+        );
+    }
+
+    @Test
+    void doesNotStoreResultHeavierThanMaximum() {
+        PhenotypeResultCache cache = new PhenotypeResultCache(SINGLE_GDC_WEIGHT);
+        cache.put(DATABASE, ALL, PHENOTYPE_1, collection(1));
+        cache.put(DATABASE, ALL, PHENOTYPE_2, collection(2));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(0, cache.getEvictions()),
+                () -> Assertions.assertNotNull(cache.get(DATABASE, ALL, PHENOTYPE_1)),
+                () -> Assertions.assertNull(cache.get(DATABASE, ALL, PHENOTYPE_2))
+        );
+    }
+
+    @Test
+    void replacingResultUpdatesWeight() {
+        PhenotypeResultCache cache = new PhenotypeResultCache();
+        cache.put(DATABASE, ALL, PHENOTYPE_1, collection(2));
+        cache.put(DATABASE, ALL, PHENOTYPE_1, collection(1));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, cache.size()),
+                () -> Assertions.assertEquals(SINGLE_GDC_WEIGHT, cache.getWeight())
+        );
+    }
+
+    @Test
+    void clearKeepsCounters() {
+        PhenotypeResultCache cache = new PhenotypeResultCache();
+        cache.put(DATABASE, ALL, PHENOTYPE_1, collection(1));
+        cache.get(DATABASE, ALL, PHENOTYPE_1);
+        cache.clear();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(0, cache.size()),
+                () -> Assertions.assertEquals(0, cache.getWeight()),
+                () -> Assertions.assertEquals(1, cache.getHits())
+        );
+    }
+
+    @Test
+    void estimateWeightIncludesSourcesAndEvidence() {
+        Source source1 = new Source(URI.create("http://rdf.disgenet.org/v6.0.0/void/ORPHANET"), "Orphanet",
+                Source.Level.CURATED);
+        Source source2 = new Source(URI.create("http://rdf.disgenet.org/v6.0.0/void/BEFREE"), "Befree",
+                Source.Level.LITERATURE);
+        GeneDiseaseCollection collection = collection(1);
+        GeneDiseaseCombination gdc = collection.iterator().next();
+        gdc.add(source1, new PubmedEvidence(URI.create("http://identifiers.org/pubmed/1"), 2000));
+        gdc.add(source1, new PubmedEvidence(URI.create("http://identifiers.org/pubmed/2"), 2001));
+        gdc.add(source2);
+
+        Assertions.assertEquals(SINGLE_GDC_WEIGHT + 2 * PhenotypeResultCache.SOURCE_WEIGHT +
+                2 * PhenotypeResultCache.PUBMED_EVIDENCE_WEIGHT, PhenotypeResultCache.estimateWeight(collection));
+    }
+
+    @Test
+    void invalidMaxWeight() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PhenotypeResultCache(-1));
+    }
+
+    private static GeneDiseaseCollection collection(int size) {
+        GeneDiseaseCollection collection = new GeneDiseaseCollection();
+        for(int i = 1; i <= size; i++) {
+            Gene gene = new Gene("ncbigene:" + i, new GeneSymbol("hgnc:G" + i));
+            collection.add(new GeneDiseaseCombination(gene, new Disease("umls:C000000" + i), 0.5));
+        }
+        return collection;
+    }
+}
@@ -0,0 +1,124 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResIterator;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.HdtFileReader;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Compares the time needed for retrieving the diseases & phenotypes of gene panels of different sizes through
+ * {@link PhenotypesForGenesRetriever} to that of retrieving the gene-disease associations of all phenotypes present in
+ * the database ({@link GenesForPhenotypeRetriever} with {@link GenesForPhenotypeRetriever#splitPerPhenotype()}) and
+ * only keeping those of the panel. Not run as part of the tests.
+ * <br /><br />
+ * If a panel is larger than the number of genes in the database, it is supplemented with genes that are not present
+ * in the database.
+ * <br /><br />
+ * Usage: {@code PhenotypesForGenesBenchmark [hdt-file [panel-size...]]} (defaults to the test database and panels of
+ * 50 to 5000 genes).
+ */
+class PhenotypesForGenesBenchmark {
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 10;
+    private static final int[] DEFAULT_PANEL_SIZES = {50, 100, 500, 1000, 2000, 5000};
+
+    private static final String GENE_URI_PREFIX = "http://identifiers.org/ncbigene/";
+
+    /**
+     * Gene ids starting from this number are assumed not to be present in the database.
+     */
+    private static final int ABSENT_GENE_ID_START = 900000000;
+
+    public static void main(String[] args) throws IOException {
+        String hdt = args.length > 0 ? args[0] : TestData.HDT.getFullPathString();
+        int[] panelSizes = DEFAULT_PANEL_SIZES;
+        if(args.length > 1) {
+            panelSizes = new int[args.length - 1];
+            for(int i = 1; i < args.length; i++) {
+                panelSizes[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        try (ModelReader reader = new HdtFileReader(hdt)) {
+            List<Gene> genes = new ArrayList<>();
+            Set<Phenotype> phenotypes = new HashSet<>();
+            retrieveSubjects(reader, genes, phenotypes);
+            System.out.println("genes: " + genes.size() + ", phenotypes: " + phenotypes.size());
+            System.out.println(String.format("%-12s %8s %12s %12s", "panel", "found", "reverse", "forward"));
+
+            for(int panelSize : panelSizes) {
+                Set<Gene> panel = createPanel(genes, panelSize);
+                int[] found = new int[1];
+                double reverse = measure(() -> {
+                    PhenotypesForGenesRetriever retriever = new PhenotypesForGenesRetriever(reader, panel);
+                    retriever.run();
+                    found[0] = retriever.getGenePhenotypeCollection().getGenes().size();
+                });
+                double forward = measure(() -> {
+                    GenesForPhenotypeRetriever retriever = new GenesForPhenotypeRetriever(reader, phenotypes);
+                    retriever.splitPerPhenotype();
+                    retriever.run();
+                    for(GeneDiseaseCollection collection : retriever.getGeneDiseaseCollectionPerPhenotype().values()) {
+                        new HashSet<>(collection.getGenes()).retainAll(panel);
+                    }
+                });
+                System.out.println(String.format("%-12d %8d %9.2f ms %9.2f ms", panelSize, found[0], reverse,
+                        forward));
+            }
+        }
+    }
+
+    /**
+     * Adds all genes & HPO phenotypes that are a subject within the database.
+     */
+    private static void retrieveSubjects(ModelReader reader, List<Gene> genes, Set<Phenotype> phenotypes) {
+        ResIterator subjects = reader.getModel().listSubjects();
+        while(subjects.hasNext()) {
+            Resource subject = subjects.next();
+            if(!subject.isURIResource()) {
+                continue;
+            }
+            if(subject.getURI().startsWith(GENE_URI_PREFIX)) {
+                genes.add(new Gene(Gene.ID_PREFIX + ":" + subject.getURI().substring(GENE_URI_PREFIX.length())));
+            } else if(subject.getURI().startsWith("http://purl.obolibrary.org/obo/HP_")) {
+                phenotypes.add(new Phenotype(URI.create(subject.getURI())));
+            }
+        }
+    }
+
+    /**
+     * @return a panel of {@code size} genes: randomly chosen (with a fixed seed) from {@code genes}, supplemented with
+     * genes not present in the database if needed
+     */
+    private static Set<Gene> createPanel(List<Gene> genes, int size) {
+        List<Gene> shuffled = new ArrayList<>(genes);
+        Collections.shuffle(shuffled, new Random(size));
+        Set<Gene> panel = new LinkedHashSet<>(shuffled.subList(0, Math.min(size, shuffled.size())));
+        for(int i = ABSENT_GENE_ID_START; panel.size() < size; i++) {
+            panel.add(new Gene(Gene.ID_PREFIX + ":" + i));
+        }
+        return panel;
+    }
+
+    /**
+     * @return the average time in milliseconds per run
+     */
+    private static double measure(Runnable runnable) {
+        for(int i = 0; i < WARMUP_RUNS; i++) {
+            runnable.run();
+        }
+        long start = System.nanoTime();
+        for(int i = 0; i < MEASURED_RUNS; i++) {
+            runnable.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / MEASURED_RUNS;
+    }
+}
@@ -0,0 +1,178 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.formats.*;
+import org.molgenis.vibe.core.io.input.HdtFileReader;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.allPhenotypes;
+
+/**
+ * Validates that {@link PhenotypesForGenesRetriever} gives the reverse of {@link GenesForPhenotypeRetriever}: a
+ * phenotype is linked to a gene-disease combination in one direction if and only if it is in the other direction.
+ */
+class PhenotypesForGenesRetrieverIT {
+    private static ModelReader reader;
+
+    /**
+     * The gene-disease combinations per phenotype (for all phenotypes in the test database).
+     */
+    private static Map<Phenotype, GeneDiseaseCollection> forward;
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        reader = new HdtFileReader(TestData.HDT.getFullPathString());
+
+        Set<Phenotype> phenotypes = allPhenotypes();
+        GenesForPhenotypeRetriever retriever = new GenesForPhenotypeRetriever(reader, phenotypes);
+        retriever.splitPerPhenotype();
+        retriever.run();
+        forward = retriever.getGeneDiseaseCollectionPerPhenotype();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        reader.close();
+    }
+
+    @Test
+    void compareSingleGene() {
+        GenePhenotypeCollection actual = assertReverseOfForward(genes("ncbigene:785"));
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, actual.getGenes().size()),
+                () -> Assertions.assertEquals("G785", actual.getGenes().iterator().next().getSymbol().getId()),
+                () -> Assertions.assertEquals(new TreeSet<>(Arrays.asList(new Phenotype("hp:0008170"),
+                        new Phenotype("hp:0008178"), new Phenotype("hp:0008236"), new Phenotype("hp:0008237"),
+                        new Phenotype("hp:0008304"), new Phenotype("hp:0008329"))),
+                        actual.getPhenotypes(new Gene("ncbigene:785")))
+        );
+    }
+
+    @Test
+    void compareAllGenes() {
+        Set<Gene> genes = new LinkedHashSet<>();
+        for(GeneDiseaseCollection collection : forward.values()) {
+            genes.addAll(collection.getGenes());
+        }
+        GenePhenotypeCollection actual = assertReverseOfForward(genes);
+        Assertions.assertEquals(genes, actual.getGenes());
+    }
+
+    @Test
+    void geneNotInDatabase() {
+        PhenotypesForGenesRetriever retriever = new PhenotypesForGenesRetriever(reader, genes("ncbigene:999999"));
+        QueryControl queryControl = new QueryControl();
+        List<QueryStatistics> statistics = new ArrayList<>();
+        queryControl.addListener(statistics::add);
+        retriever.setQueryControl(queryControl);
+        retriever.run();
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(retriever.getGenePhenotypeCollection().getGenes().isEmpty()),
+                // No query is needed if none of the genes are present.
+                () -> Assertions.assertTrue(statistics.isEmpty())
+        );
+    }
+
+    @Test
+    void genesInInputOrder() {
+        Set<Gene> genes = genes("ncbigene:999999", "ncbigene:785", "ncbigene:107");
+        PhenotypesForGenesRetriever retriever = new PhenotypesForGenesRetriever(reader, genes);
+        retriever.run();
+
+        List<Gene> actual = retriever.getGenePhenotypeCollection().getGenes(genes);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(Arrays.asList(new Gene("ncbigene:785"), new Gene("ncbigene:107")),
+                        actual),
+                () -> Assertions.assertEquals("G785", actual.get(0).getSymbol().getId()),
+                () -> Assertions.assertEquals("G107", actual.get(1).getSymbol().getId())
+        );
+    }
+
+    @Test
+    void statisticsReported() {
+        PhenotypesForGenesRetriever retriever = new PhenotypesForGenesRetriever(reader, genes("ncbigene:107"));
+        QueryControl queryControl = new QueryControl();
+        List<QueryStatistics> statistics = new ArrayList<>();
+        queryControl.addListener(statistics::add);
+        retriever.setQueryControl(queryControl);
+        retriever.run();
+
+        Assertions.assertEquals(1, statistics.size());
+        QueryStatistics actual = statistics.get(0);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("phenotypes for genes", actual.getName()),
+                () -> Assertions.assertTrue(actual.getRows() > 0),
+                // Each result contains a gene, disease & phenotype node.
+                () -> Assertions.assertEquals(actual.getRows() * 3,
+                        actual.getEntitiesCreated() + actual.getEntitiesReused()),
+                () -> Assertions.assertFalse(actual.isPartial())
+        );
+    }
+
+    /**
+     * Asserts that for the given genes, each phenotype from the test range is linked to a disease of a gene in the
+     * reverse direction if and only if the forward retrieval for that phenotype contains the gene-disease combination
+     * (with the same score).
+     */
+    private GenePhenotypeCollection assertReverseOfForward(Set<Gene> genes) {
+        PhenotypesForGenesRetriever retriever = new PhenotypesForGenesRetriever(reader, genes);
+        retriever.run();
+        GenePhenotypeCollection actual = retriever.getGenePhenotypeCollection();
+
+        // Forward to reverse.
+        for(Map.Entry<Phenotype, GeneDiseaseCollection> entry : forward.entrySet()) {
+            for(GeneDiseaseCombination expected : entry.getValue().getGeneDiseaseCombinations()) {
+                if(!genes.contains(expected.getGene())) {
+                    continue;
+                }
+                GeneDiseaseCombination gdc = findCombination(actual, expected);
+                Assertions.assertNotNull(gdc, "missing " + expected);
+                Assertions.assertEquals(expected.getDisgenetScore(), gdc.getDisgenetScore(), 0);
+                Assertions.assertTrue(actual.getPhenotypes(gdc.getDisease()).contains(entry.getKey()),
+                        "missing " + entry.getKey() + " for " + gdc);
+            }
+        }
+
+        // Reverse to forward.
+        for(GeneDiseaseCombination gdc : actual.getGeneDiseaseCollection().getGeneDiseaseCombinations()) {
+            for(Phenotype phenotype : actual.getPhenotypes(gdc.getDisease())) {
+                GeneDiseaseCollection expected = forward.get(phenotype);
+                if(expected != null) {
+                    Assertions.assertTrue(expected.getGeneDiseaseCombinations().contains(gdc),
+                            "unexpected " + phenotype + " for " + gdc);
+                }
+            }
+        }
+
+        return actual;
+    }
+
+    private static GeneDiseaseCombination findCombination(GenePhenotypeCollection collection,
+                                                          GeneDiseaseCombination gdc) {
+        Set<GeneDiseaseCombination> gdcs = collection.getGeneDiseaseCollection().getByGene(gdc.getGene());
+        if(gdcs != null) {
+            for(GeneDiseaseCombination candidate : gdcs) {
+                if(candidate.equals(gdc)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Set<Gene> genes(String... ids) {
+        Set<Gene> genes = new LinkedHashSet<>();
+        for(String id : ids) {
+            genes.add(new Gene(id));
+        }
+        return genes;
+    }
+}
@@ -0,0 +1,183 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.HdtFileReader;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.allPhenotypes;
+
+/**
+ * Validates that retrievals using a {@link QueryControl} can be stopped and report partial results, and that the
+ * {@link QueryStatistics} of their queries are reported.
+ */
+class QueryControlIT {
+    private static ModelReader reader;
+    private static Set<Phenotype> phenotypes;
+    private static GeneDiseaseCollection complete;
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        reader = new HdtFileReader(TestData.HDT.getFullPathString());
+        phenotypes = allPhenotypes();
+        GenesForPhenotypeRetriever retriever = new GenesForPhenotypeRetriever(reader, phenotypes, new SourcesCache());
+        retriever.run();
+        complete = retriever.getGeneDiseaseCollection();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        reader.close();
+    }
+
+    @Test
+    void completeWithTimeout() {
+        QueryControl queryControl = new QueryControl(1, TimeUnit.MINUTES);
+        GeneDiseaseCollection actual = retrieve(GenesForPhenotypeRetrieverFactory.SPARQL, queryControl);
+
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(queryControl.isPartial()),
+                () -> Assertions.assertTrue(complete.allFieldsEquals(actual))
+        );
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = GenesForPhenotypeRetrieverFactory.class,
+            names = {"SPARQL", "SPARQL_TWO_PHASE", "SPARQL_LAZY_EVIDENCE", "HDT"})
+    void cancelledBeforeRunning(GenesForPhenotypeRetrieverFactory factory) {
+        QueryControl queryControl = new QueryControl();
+        queryControl.cancel();
+        GeneDiseaseCollection actual = retrieve(factory, queryControl);
+
+        // Stopping the sources query should abort the retrieval instead of adding gene-disease associations without
+        // sources.
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(queryControl.isPartial()),
+                () -> Assertions.assertTrue(actual.isEmpty())
+        );
+    }
+
+    @Test
+    void timedOut() {
+        QueryControl queryControl = new QueryControl(1, TimeUnit.NANOSECONDS);
+        GeneDiseaseCollection actual = retrieve(GenesForPhenotypeRetrieverFactory.SPARQL, queryControl);
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(queryControl.isPartial()),
+                () -> Assertions.assertTrue(queryControl.isTimedOut()),
+                () -> Assertions.assertTrue(actual.size() < complete.size())
+        );
+    }
+
+    @Test
+    void interrupted() {
+        QueryControl queryControl = new QueryControl();
+        Thread.currentThread().interrupt();
+        try {
+            retrieve(GenesForPhenotypeRetrieverFactory.SPARQL, queryControl);
+        } finally {
+            Thread.interrupted();
+        }
+
+        Assertions.assertTrue(queryControl.isPartial());
+    }
+
+    @Test
+    void partialResultsNotCached() {
+        PhenotypeResultCache cache = new PhenotypeResultCache();
+        QueryControl queryControl = new QueryControl();
+        queryControl.cancel();
+        CachedGenesForPhenotypeRetriever retriever = new CachedGenesForPhenotypeRetriever(reader, phenotypes,
+                new SourcesCache(), GeneDiseaseCollectionContent.ALL, cache, "test");
+        retriever.setQueryControl(queryControl);
+        retriever.run();
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(queryControl.isPartial()),
+                () -> Assertions.assertEquals(0, cache.size())
+        );
+    }
+
+    @Test
+    void statisticsReported() {
+        QueryControl queryControl = new QueryControl();
+        List<QueryStatistics> statistics = Collections.synchronizedList(new ArrayList<>());
+        queryControl.addListener(statistics::add);
+        retrieve(GenesForPhenotypeRetrieverFactory.SPARQL, queryControl);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(2, statistics.size()),
+                () -> Assertions.assertEquals("sources", statistics.get(0).getName())
+        );
+        QueryStatistics queryStatistics = statistics.get(1);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("genes for phenotypes", queryStatistics.getName()),
+                () -> Assertions.assertTrue(queryStatistics.getRows() > 0),
+                () -> Assertions.assertTrue(queryStatistics.getFirstRowNanos() >= 0),
+                () -> Assertions.assertTrue(queryStatistics.getIterationNanos() >= queryStatistics.getFirstRowNanos()),
+                () -> Assertions.assertTrue(queryStatistics.getEntitiesCreated() > 0),
+                // Each result contains at least a disease, gene & source.
+                () -> Assertions.assertTrue(queryStatistics.getEntitiesCreated() + queryStatistics.getEntitiesReused()
+                        >= 3 * queryStatistics.getRows()),
+                () -> Assertions.assertFalse(queryStatistics.isPartial())
+        );
+    }
+
+    @Test
+    void statisticsReportedTwoPhase() {
+        QueryControl queryControl = new QueryControl();
+        List<QueryStatistics> statistics = Collections.synchronizedList(new ArrayList<>());
+        queryControl.addListener(statistics::add);
+        retrieve(GenesForPhenotypeRetrieverFactory.SPARQL_TWO_PHASE, queryControl);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("sources", statistics.get(0).getName()),
+                () -> Assertions.assertEquals("gene-disease associations for phenotypes", statistics.get(1).getName()),
+                () -> Assertions.assertEquals("evidence for gene-disease associations",
+                        statistics.get(statistics.size() - 1).getName())
+        );
+    }
+
+    @Test
+    void partialStatisticsReported() {
+        QueryControl queryControl = new QueryControl();
+        queryControl.cancel();
+        List<QueryStatistics> statistics = Collections.synchronizedList(new ArrayList<>());
+        queryControl.addListener(statistics::add);
+        retrieve(GenesForPhenotypeRetrieverFactory.SPARQL, queryControl);
+
+        // The retrieval is aborted after the (stopped) sources query.
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, statistics.size()),
+                () -> Assertions.assertEquals("sources", statistics.get(0).getName()),
+                () -> Assertions.assertTrue(statistics.get(0).isPartial()),
+                () -> Assertions.assertEquals(0, statistics.get(0).getRows())
+        );
+    }
+
+    private static GeneDiseaseCollection retrieve(GenesForPhenotypeRetrieverFactory factory,
+                                                  QueryControl queryControl) {
+        GeneDiseaseCollectionRetriever retriever = factory.create(reader, phenotypes, new SourcesCache());
+        retriever.setQueryControl(queryControl);
+        try {
+            retriever.run();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return retriever.getGeneDiseaseCollection();
+    }
+}
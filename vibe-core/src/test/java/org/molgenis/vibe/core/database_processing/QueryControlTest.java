@@ -0,0 +1,109 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.database_processing.query_string_creation.QueryString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+class QueryControlTest {
+    private static final QueryString QUERY = new QueryString("SELECT ?s WHERE { VALUES ?s { <http://example.org/s1> " +
+            "<http://example.org/s2> } }");
+
+    private final Model model = ModelFactory.createDefaultModel();
+
+    @Test
+    void completeQuery() {
+        QueryControl queryControl = new QueryControl();
+        QueryRunner query = queryControl.start(new QueryRunner(model, QUERY));
+        while(query.hasNext()) {
+            query.next();
+        }
+        queryControl.finish(query);
+
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(queryControl.isPartial()),
+                () -> Assertions.assertFalse(queryControl.isTimedOut())
+        );
+    }
+
+    @Test
+    void cancelRunningQuery() {
+        QueryControl queryControl = new QueryControl();
+        QueryRunner query = queryControl.start(new QueryRunner(model, QUERY));
+        queryControl.cancel();
+
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(query.hasNext()),
+                () -> Assertions.assertTrue(queryControl.isCancelled())
+        );
+        queryControl.finish(query);
+        Assertions.assertTrue(queryControl.isPartial());
+    }
+
+    @Test
+    void cancelBeforeStart() {
+        QueryControl queryControl = new QueryControl();
+        queryControl.cancel();
+        QueryRunner query = queryControl.start(new QueryRunner(model, QUERY));
+
+        Assertions.assertFalse(query.hasNext());
+        queryControl.finish(query);
+        Assertions.assertTrue(queryControl.isPartial());
+    }
+
+    @Test
+    void timeoutAppliedToQueries() throws InterruptedException {
+        QueryControl queryControl = new QueryControl(1, TimeUnit.NANOSECONDS);
+        QueryRunner query = queryControl.start(new QueryRunner(model, QUERY));
+        Thread.sleep(200);
+
+        Assertions.assertFalse(query.hasNext());
+        queryControl.finish(query);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, queryControl.getTimeoutMillis()),
+                () -> Assertions.assertTrue(queryControl.isPartial()),
+                () -> Assertions.assertTrue(queryControl.isTimedOut()),
+                () -> Assertions.assertFalse(queryControl.isCancelled())
+        );
+    }
+
+    @Test
+    void listenerNotified() {
+        QueryControl queryControl = new QueryControl();
+        List<QueryStatistics> statistics = new ArrayList<>();
+        queryControl.addListener(statistics::add);
+        QueryRunner query = queryControl.start(new QueryRunner(model, QUERY));
+        while(query.hasNext()) {
+            query.next();
+        }
+        queryControl.finish(query);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, statistics.size()),
+                () -> Assertions.assertSame(query.getStatistics(), statistics.get(0)),
+                () -> Assertions.assertEquals(2, statistics.get(0).getRows())
+        );
+    }
+
+    @Test
+    void removedListenerNotNotified() {
+        QueryControl queryControl = new QueryControl();
+        List<QueryStatistics> statistics = new ArrayList<>();
+        QueryListener listener = statistics::add;
+        queryControl.addListener(listener);
+        queryControl.removeListener(listener);
+        queryControl.finish(queryControl.start(new QueryRunner(model, QUERY)));
+
+        Assertions.assertTrue(statistics.isEmpty());
+    }
+
+    @Test
+    void invalidTimeout() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new QueryControl(0, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,171 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.database_processing.query_string_creation.QueryString;
+
+import java.util.concurrent.TimeUnit;
+
+class QueryRunnerTest {
+    private static final int TRIPLES = 100;
+    private static final QueryString QUERY = new QueryString("SELECT ?s ?o WHERE { ?s <http://example.org/p> ?o }");
+
+    private static Model model;
+
+    @BeforeAll
+    static void beforeAll() {
+        model = ModelFactory.createDefaultModel();
+        Property property = model.createProperty("http://example.org/p");
+        for(int i = 0; i < TRIPLES; i++) {
+            model.createResource("http://example.org/s" + i).addProperty(property, "o" + i);
+        }
+    }
+
+    @AfterEach
+    void afterEach() {
+        // Clears interrupt status in case a test failed before clearing it.
+        Thread.interrupted();
+    }
+
+    @Test
+    void completeResults() {
+        QueryRunner query = new QueryRunner(model, QUERY);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(TRIPLES, count(query)),
+                () -> Assertions.assertFalse(query.isPartial())
+        );
+        query.close();
+    }
+
+    @Test
+    void cancelWhileIterating() {
+        QueryRunner query = new QueryRunner(model, QUERY);
+        query.next();
+        query.cancel();
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(query.hasNext()),
+                () -> Assertions.assertTrue(query.isCancelled()),
+                () -> Assertions.assertTrue(query.isPartial()),
+                () -> Assertions.assertFalse(query.isTimedOut())
+        );
+        query.close();
+    }
+
+    @Test
+    void cancelAfterAllResults() {
+        QueryRunner query = new QueryRunner(model, QUERY);
+        count(query);
+        query.cancel();
+        Assertions.assertFalse(query.isPartial());
+        query.close();
+    }
+
+    @Test
+    void timeout() throws InterruptedException {
+        QueryRunner query = new QueryRunner(model, QUERY);
+        query.setTimeout(1, TimeUnit.MILLISECONDS);
+        Thread.sleep(200);
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(query.hasNext()),
+                () -> Assertions.assertTrue(query.isTimedOut()),
+                () -> Assertions.assertTrue(query.isPartial())
+        );
+        query.close();
+    }
+
+    @Test
+    void noTimeoutAfterClose() throws InterruptedException {
+        QueryRunner query = new QueryRunner(model, QUERY);
+        query.setTimeout(50, TimeUnit.MILLISECONDS);
+        count(query);
+        query.close();
+        Thread.sleep(200);
+        Assertions.assertFalse(query.isTimedOut());
+    }
+
+    @Test
+    void invalidTimeout() {
+        QueryRunner query = new QueryRunner(model, QUERY);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> query.setTimeout(0, TimeUnit.SECONDS));
+        query.close();
+    }
+
+    @Test
+    void interruptStopsQuery() {
+        QueryRunner query = new QueryRunner(model, QUERY);
+        query.next();
+        Thread.currentThread().interrupt();
+        boolean hasNext = query.hasNext();
+        // Interrupt status is kept for the caller.
+        boolean interrupted = Thread.interrupted();
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(hasNext),
+                () -> Assertions.assertTrue(interrupted),
+                () -> Assertions.assertTrue(query.isPartial())
+        );
+        query.close();
+    }
+
+    @Test
+    void statistics() {
+        QueryRunner query = new QueryRunner(model, QUERY);
+        count(query);
+        query.close();
+        QueryStatistics statistics = query.getStatistics();
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("query", statistics.getName()),
+                () -> Assertions.assertEquals(TRIPLES, statistics.getRows()),
+                () -> Assertions.assertTrue(statistics.getPrepareNanos() > 0),
+                () -> Assertions.assertTrue(statistics.getFirstRowNanos() >= 0),
+                () -> Assertions.assertTrue(statistics.getIterationNanos() >= statistics.getFirstRowNanos()),
+                () -> Assertions.assertFalse(statistics.isPartial())
+        );
+    }
+
+    @Test
+    void statisticsWithoutResults() {
+        QueryRunner query = new QueryRunner(model,
+                new QueryString("SELECT ?s WHERE { ?s <http://example.org/unknown> ?o }"));
+        count(query);
+        query.close();
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(0, query.getStatistics().getRows()),
+                () -> Assertions.assertEquals(-1, query.getStatistics().getFirstRowNanos())
+        );
+    }
+
+    @Test
+    void statisticsOfCancelledQuery() {
+        QueryRunner query = new QueryRunner(model, QUERY);
+        query.next();
+        query.cancel();
+        count(query);
+        query.close();
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, query.getStatistics().getRows()),
+                () -> Assertions.assertTrue(query.getStatistics().isPartial())
+        );
+    }
+
+    @Test
+    void statisticsOfCompiledQuery() {
+        QueryRunner query = new QueryRunner(model, CompiledQuery.getSources());
+        count(query);
+        query.close();
+        Assertions.assertEquals("sources", query.getStatistics().getName());
+    }
+
+    private static int count(QueryRunner query) {
+        int count = 0;
+        while(query.hasNext()) {
+            query.next();
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,72 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.junit.jupiter.api.Assertions;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Input & assertions shared by the integration tests comparing the {@link GeneDiseaseCollectionRetriever}{@code s}.
+ */
+public final class RetrieverTestData {
+    private RetrieverTestData() {
+    }
+
+    public static Set<Phenotype> phenotypes(String... ids) {
+        Set<Phenotype> phenotypes = new HashSet<>();
+        for(String id : ids) {
+            phenotypes.add(new Phenotype(id));
+        }
+        return phenotypes;
+    }
+
+    /**
+     * @return the phenotypes {@code hp:0008000} to {@code hp:0008439} (most of which are present within
+     * {@link TestData#HDT})
+     */
+    public static Set<Phenotype> allPhenotypes() {
+        Set<Phenotype> phenotypes = new HashSet<>();
+        for(int i = 8000; i < 8440; i++) {
+            phenotypes.add(new Phenotype("hp:000" + i));
+        }
+        return phenotypes;
+    }
+
+    public static void assertAllFieldsEqual(GeneDiseaseCollection expected, GeneDiseaseCollection actual) {
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(expected, actual),
+                () -> Assertions.assertTrue(expected.allFieldsEquals(actual))
+        );
+    }
+
+    /**
+     * Asserts that {@code actual} equals the results of {@link GenesForPhenotypeRetriever} for {@code phenotypes}.
+     * @return {@code actual}
+     */
+    public static GeneDiseaseCollection assertEqualToSparql(ModelReader reader, Set<Phenotype> phenotypes,
+                                                            GeneDiseaseCollection actual) {
+        GenesForPhenotypeRetriever sparqlRetriever = new GenesForPhenotypeRetriever(reader, phenotypes);
+        sparqlRetriever.run();
+        assertAllFieldsEqual(sparqlRetriever.getGeneDiseaseCollection(), actual);
+        return actual;
+    }
+
+    /**
+     * Asserts that {@code actual} equals the results of {@link GenesForPhenotypeRetriever} for {@code phenotypes} when
+     * only retrieving {@code contents}.
+     * @return {@code actual}
+     */
+    public static GeneDiseaseCollection assertEqualToSparql(ModelReader reader, Set<Phenotype> phenotypes,
+                                                            Set<GeneDiseaseCollectionContent> contents,
+                                                            GeneDiseaseCollection actual) {
+        GenesForPhenotypeRetriever sparqlRetriever = new GenesForPhenotypeRetriever(reader, phenotypes,
+                new SourcesCache(), contents);
+        sparqlRetriever.run();
+        assertAllFieldsEqual(sparqlRetriever.getGeneDiseaseCollection(), actual);
+        return actual;
+    }
+}
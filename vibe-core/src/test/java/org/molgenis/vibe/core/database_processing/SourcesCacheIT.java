@@ -0,0 +1,132 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.apache.jena.rdf.model.Model;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.formats.Source;
+import org.molgenis.vibe.core.io.input.HdtFileReader;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+class SourcesCacheIT {
+    /**
+     * Fails if the database is queried, to ensure the {@link Source}{@code s} are retrieved from the cache.
+     */
+    private static final ModelReader UNUSABLE_READER = new ModelReader() {
+        @Override
+        public Model getModel() {
+            throw new AssertionError("Database should not be queried.");
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @TempDir
+    Path tempDir;
+
+    private static HdtFileReader reader;
+    private static Map<URI, Source> expectedSources;
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        reader = new HdtFileReader(TestData.HDT.getFullPathString());
+        expectedSources = DisgenetRdfDataRetriever.querySources(reader);
+        Assertions.assertFalse(expectedSources.isEmpty());
+    }
+
+    @AfterAll
+    static void afterAll() {
+        reader.close();
+    }
+
+    @Test
+    void cachedInMemory() {
+        SourcesCache sourcesCache = new SourcesCache();
+        Map<URI, Source> sources = sourcesCache.getSources(reader);
+
+        Assertions.assertAll(
+                () -> assertSourcesEquals(sources),
+                () -> Assertions.assertSame(sources, sourcesCache.getSources(UNUSABLE_READER))
+        );
+    }
+
+    @Test
+    void cacheFileWrittenAndRead() {
+        Path cacheFile = tempDir.resolve("vibe.hdt" + SourcesCache.FILE_SUFFIX);
+        new SourcesCache(TestData.HDT.getFullPath(), cacheFile).getSources(reader);
+        Assertions.assertTrue(Files.isRegularFile(cacheFile));
+
+        // A new instance (such as a new run) should not need to query the database.
+        Map<URI, Source> sources = new SourcesCache(TestData.HDT.getFullPath(), cacheFile).getSources(UNUSABLE_READER);
+        assertSourcesEquals(sources);
+    }
+
+    @Test
+    void cacheFileOfOtherDatabaseIgnored() throws IOException {
+        Path cacheFile = tempDir.resolve("vibe.hdt" + SourcesCache.FILE_SUFFIX);
+        new SourcesCache(TestData.HDT.getFullPath(), cacheFile).getSources(reader);
+
+        // Replaces checksum line so that cache file belongs to a different database.
+        List<String> lines = Files.readAllLines(cacheFile, StandardCharsets.UTF_8);
+        lines.set(1, "checksum\t0");
+        Files.write(cacheFile, lines, StandardCharsets.UTF_8);
+
+        Map<URI, Source> sources = new SourcesCache(TestData.HDT.getFullPath(), cacheFile).getSources(reader);
+        Assertions.assertAll(
+                () -> assertSourcesEquals(sources),
+                // Cache file should be updated with the retrieved sources.
+                () -> Assertions.assertNotEquals("checksum\t0", Files.readAllLines(cacheFile, StandardCharsets.UTF_8).get(1))
+        );
+    }
+
+    @Test
+    void cacheFileNotWritable() {
+        Path cacheFile = tempDir.resolve("non_existing_dir").resolve("vibe.hdt" + SourcesCache.FILE_SUFFIX);
+        Map<URI, Source> sources = new SourcesCache(TestData.HDT.getFullPath(), cacheFile).getSources(reader);
+
+        Assertions.assertAll(
+                () -> assertSourcesEquals(sources),
+                () -> Assertions.assertFalse(Files.exists(cacheFile))
+        );
+    }
+
+    @Test
+    void stoppedQueryNotCached() {
+        Path cacheFile = tempDir.resolve("vibe.hdt" + SourcesCache.FILE_SUFFIX);
+        SourcesCache sourcesCache = new SourcesCache(TestData.HDT.getFullPath(), cacheFile);
+        QueryControl queryControl = new QueryControl();
+        queryControl.cancel();
+
+        Assertions.assertAll(
+                () -> Assertions.assertNull(sourcesCache.getSources(reader, queryControl)),
+                () -> Assertions.assertTrue(queryControl.isPartial()),
+                () -> Assertions.assertFalse(Files.exists(cacheFile)),
+                // Should be queried again instead of using the incomplete sources.
+                () -> assertSourcesEquals(sourcesCache.getSources(reader))
+        );
+    }
+
+    private static void assertSourcesEquals(Map<URI, Source> actualSources) {
+        Assertions.assertEquals(expectedSources, actualSources);
+        for(Source expectedSource : expectedSources.values()) {
+            Source actualSource = actualSources.get(expectedSource.getUri());
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(expectedSource.getFullName(), actualSource.getFullName()),
+                    () -> Assertions.assertEquals(expectedSource.getLevel(), actualSource.getLevel())
+            );
+        }
+    }
+}
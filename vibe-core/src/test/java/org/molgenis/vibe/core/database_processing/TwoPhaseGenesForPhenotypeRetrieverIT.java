@@ -0,0 +1,73 @@
+package org.molgenis.vibe.core.database_processing;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.HdtFileReader;
+import org.molgenis.vibe.core.io.input.ModelReader;
+import org.molgenis.vibe.core.io.input.SharedHdtReader;
+
+import java.io.IOException;
+import java.util.Set;
+
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.allPhenotypes;
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.phenotypes;
+
+/**
+ * Validates that {@link TwoPhaseGenesForPhenotypeRetriever} gives the same results as {@link GenesForPhenotypeRetriever}.
+ */
+class TwoPhaseGenesForPhenotypeRetrieverIT {
+    private static ModelReader reader;
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        reader = new HdtFileReader(TestData.HDT.getFullPathString());
+    }
+
+    @AfterAll
+    static void afterAll() {
+        reader.close();
+    }
+
+    @Test
+    void compareSinglePhenotype() {
+        GeneDiseaseCollection actual = assertEqualToSparql(reader, phenotypes("hp:0008438"));
+        Assertions.assertFalse(actual.getGeneDiseaseCombinations().isEmpty());
+    }
+
+    @Test
+    void compareMultiplePhenotypes() {
+        assertEqualToSparql(reader, phenotypes("hp:0008438", "hp:0002664", "hp:0001377", "hp:0002996", "hp:0000118"));
+    }
+
+    @Test
+    void compareAllPhenotypes() {
+        assertEqualToSparql(reader, allPhenotypes());
+    }
+
+    @Test
+    void comparePhenotypeNotInDatabase() {
+        GeneDiseaseCollection actual = assertEqualToSparql(reader, phenotypes("hp:9999999"));
+        Assertions.assertTrue(actual.getGeneDiseaseCombinations().isEmpty());
+    }
+
+    @Test
+    void compareMappedSharedReader() throws IOException {
+        try (SharedHdtReader sharedReader = new SharedHdtReader(TestData.HDT.getFullPath(), null, true);
+             ModelReader mappedReader = sharedReader.acquire()) {
+            assertEqualToSparql(mappedReader, phenotypes("hp:0008100", "hp:0008200", "hp:0008300"));
+        }
+    }
+
+    private GeneDiseaseCollection assertEqualToSparql(ModelReader modelReader, Set<Phenotype> phenotypes) {
+        TwoPhaseGenesForPhenotypeRetriever twoPhaseRetriever = new TwoPhaseGenesForPhenotypeRetriever(modelReader,
+                phenotypes, new SourcesCache());
+        twoPhaseRetriever.run();
+        return RetrieverTestData.assertEqualToSparql(modelReader, phenotypes,
+                twoPhaseRetriever.getGeneDiseaseCollection());
+    }
+}
@@ -0,0 +1,127 @@
+package org.molgenis.vibe.core.database_processing.compiled_index;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.database_processing.GenesForPhenotypeRetriever;
+import org.molgenis.vibe.core.formats.Gene;
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.GenePanel;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.HdtFileReader;
+import org.molgenis.vibe.core.io.input.ModelReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.assertAllFieldsEqual;
+
+/**
+ * Validates that retrieving data from a {@link CompiledIndex} gives the same results as querying the database directly.
+ */
+@Execution(ExecutionMode.SAME_THREAD)
+class CompiledIndexIT {
+    @TempDir
+    static Path tempDir;
+
+    private static ModelReader reader;
+    private static CompiledIndex compiledIndex;
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        reader = new HdtFileReader(TestData.HDT.getFullPathString());
+
+        CompiledIndexBuilder builder = new CompiledIndexBuilder(reader);
+        builder.run();
+        Path indexFile = tempDir.resolve("vibe.idx");
+        builder.write(indexFile);
+
+        compiledIndex = new CompiledIndex(indexFile);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        if(compiledIndex != null) {
+            compiledIndex.close();
+        }
+        if(reader != null) {
+            reader.close();
+        }
+    }
+
+    @Test
+    void compareSinglePhenotype() {
+        assertEqualToDatabase(new Phenotype("hp:0008438"));
+    }
+
+    @Test
+    void compareMultiplePhenotypes() {
+        assertEqualToDatabase(new Phenotype("hp:0008438"), new Phenotype("hp:0002664"), new Phenotype("hp:0001377"),
+                new Phenotype("hp:0002996"), new Phenotype("hp:0000118"));
+    }
+
+    @Test
+    void comparePhenotypeWithoutGenes() {
+        assertEqualToDatabase(new Phenotype("hp:0000001"));
+    }
+
+    @Test
+    void compareGenePanel() {
+        Set<Phenotype> phenotypes = new HashSet<>(Arrays.asList(new Phenotype("hp:0008438"),
+                new Phenotype("hp:0002664"), new Phenotype("hp:0001377")));
+
+        GenesForPhenotypeRetriever databaseRetriever = new GenesForPhenotypeRetriever(reader, phenotypes);
+        databaseRetriever.run();
+        GeneDiseaseCollection expected = databaseRetriever.getGeneDiseaseCollection();
+        List<Gene> genes = new ArrayList<>(expected.getGenes());
+        Collections.sort(genes);
+        GenePanel genePanel = new GenePanel(new HashSet<>(genes.subList(0, genes.size() / 2)),
+                Collections.singleton(genes.get(genes.size() - 1).getSymbol()));
+        expected.retainGenes(genePanel);
+
+        CompiledIndexGenesForPhenotypeRetriever indexRetriever = new CompiledIndexGenesForPhenotypeRetriever(
+                compiledIndex, phenotypes);
+        indexRetriever.setGenePanel(genePanel);
+        indexRetriever.run();
+        GeneDiseaseCollection actual = indexRetriever.getGeneDiseaseCollection();
+
+        Assertions.assertFalse(actual.isEmpty());
+        assertAllFieldsEqual(expected, actual);
+    }
+
+    @Test
+    void indexContainsPhenotypes() {
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(compiledIndex.getPhenotypeCount() > 0),
+                () -> Assertions.assertTrue(compiledIndex.getRowCount() > 0)
+        );
+    }
+
+    @Test
+    void openInvalidIndex() {
+        Assertions.assertThrows(IOException.class, () -> new CompiledIndex(TestData.HPO_OWL.getFullPath()));
+    }
+
+    private void assertEqualToDatabase(Phenotype... phenotypes) {
+        Set<Phenotype> phenotypeSet = new HashSet<>(Arrays.asList(phenotypes));
+
+        GenesForPhenotypeRetriever databaseRetriever = new GenesForPhenotypeRetriever(reader, phenotypeSet);
+        databaseRetriever.run();
+        GeneDiseaseCollection expected = databaseRetriever.getGeneDiseaseCollection();
+
+        CompiledIndexGenesForPhenotypeRetriever indexRetriever = new CompiledIndexGenesForPhenotypeRetriever(
+                compiledIndex, phenotypeSet);
+        indexRetriever.run();
+        GeneDiseaseCollection actual = indexRetriever.getGeneDiseaseCollection();
+
+        assertAllFieldsEqual(expected, actual);
+    }
+}
@@ -94,6 +94,27 @@ class GeneDiseaseCollectionTest {
         Assertions.assertNotEquals(collection1, collection2);
     }
 
+    @Test
+    void testLoadPubmedEvidence() {
+        List<GeneDiseaseCombination> loaded = new ArrayList<>();
+        PubmedEvidenceLoader loader = loaded::addAll;
+        GeneDiseaseCollection collection = new GeneDiseaseCollection();
+        GeneDiseaseCombination gene0Gdc = new GeneDiseaseCombination(genes[0], diseases[0], 0.5);
+        GeneDiseaseCombination gene1Gdc = new GeneDiseaseCombination(genes[1], diseases[1], 0.6);
+        gene0Gdc.setPubmedEvidenceLoader(loader);
+        gene1Gdc.setPubmedEvidenceLoader(loader);
+        collection.add(gene0Gdc);
+        collection.add(gene1Gdc);
+
+        collection.loadPubmedEvidence(Collections.singletonList(genes[1]));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(Collections.singletonList(gene1Gdc), loaded),
+                () -> Assertions.assertFalse(gene0Gdc.isPubmedEvidenceLoaded()),
+                () -> Assertions.assertTrue(gene1Gdc.isPubmedEvidenceLoaded())
+        );
+    }
+
     /**
      * While {@link GeneDiseaseCollection#allFieldsEquals(Object)} should not return {@code false} if
      * {@link GeneDiseaseCollection#equals(Object)}, this test ensures the custom deep equals works correctly for usage
@@ -142,4 +163,46 @@ class GeneDiseaseCollectionTest {
                 () -> Assertions.assertFalse(evidenceFromGdc1.allFieldsEquals(evidenceFromGdc2))
         );
     }
+
+    @Test
+    void testRetainGenesById() {
+        GeneDiseaseCollection collection = new GeneDiseaseCollection();
+        collection.addAll(Arrays.asList(gdcs));
+
+        boolean changed = collection.retainGenes(new GenePanel(Collections.singleton(new Gene("ncbigene:1111111")),
+                Collections.emptySet()));
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(changed),
+                () -> Assertions.assertEquals(new HashSet<>(Arrays.asList(gdcs[0], gdcs[1])), collection.getT3()),
+                () -> Assertions.assertEquals(Collections.singleton(genes[0]), collection.getGenes()),
+                () -> Assertions.assertEquals(new HashSet<>(Arrays.asList(diseases[0], diseases[1])),
+                        collection.getDiseases()),
+                () -> Assertions.assertEquals(Collections.singleton(gdcs[1]), collection.getByDisease(diseases[1]))
+        );
+    }
+
+    @Test
+    void testRetainGenesBySymbol() {
+        GeneDiseaseCollection collection = new GeneDiseaseCollection();
+        collection.addAll(Arrays.asList(gdcs));
+
+        collection.retainGenes(new GenePanel(Collections.emptySet(), Collections.singleton(new GeneSymbol("hgnc:BBB"))));
+
+        Assertions.assertEquals(Collections.singleton(genes[1]), collection.getGenes());
+    }
+
+    @Test
+    void testRetainGenesAllInPanel() {
+        GeneDiseaseCollection collection = new GeneDiseaseCollection();
+        collection.addAll(Arrays.asList(gdcs));
+
+        boolean changed = collection.retainGenes(new GenePanel(new HashSet<>(Arrays.asList(genes)),
+                Collections.emptySet()));
+
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(changed),
+                () -> Assertions.assertEquals(gdcs.length, collection.size())
+        );
+    }
 }
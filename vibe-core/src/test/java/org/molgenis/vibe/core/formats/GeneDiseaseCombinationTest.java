@@ -267,4 +267,140 @@ class GeneDiseaseCombinationTest {
         Assertions.assertEquals(geneDiseaseCombo.getAllPubMedEvidenceSortedByYear(),
                 expectedList);
     }
+
+    @Test
+    void addAllFromSameCombination() {
+        PubmedEvidence evidence1 = new PubmedEvidence(URI.create("http://identifiers.org/pubmed/1"), year1);
+        PubmedEvidence evidence2 = new PubmedEvidence(URI.create("http://identifiers.org/pubmed/2"), year2);
+
+        GeneDiseaseCombination geneDiseaseCombo = new GeneDiseaseCombination(gene, disease, score1);
+        geneDiseaseCombo.add(source1, evidence1);
+        geneDiseaseCombo.add(source2);
+
+        GeneDiseaseCombination otherGeneDiseaseCombo = new GeneDiseaseCombination(gene, disease, score2);
+        otherGeneDiseaseCombo.add(source1, evidence2);
+        otherGeneDiseaseCombo.add(source1);
+
+        geneDiseaseCombo.addAll(otherGeneDiseaseCombo);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(Integer.valueOf(3), geneDiseaseCombo.getSourcesCount().get(source1)),
+                () -> Assertions.assertEquals(Integer.valueOf(1), geneDiseaseCombo.getSourcesCount().get(source2)),
+                () -> Assertions.assertEquals(new HashSet<>(Arrays.asList(evidence1, evidence2)),
+                        geneDiseaseCombo.getPubmedEvidenceForSource(source1)),
+                () -> Assertions.assertEquals(score1, geneDiseaseCombo.getDisgenetScore()),
+                // Instance that was added should not be changed.
+                () -> Assertions.assertEquals(Integer.valueOf(2), otherGeneDiseaseCombo.getSourcesCount().get(source1))
+        );
+    }
+
+    @Test
+    void addAllFromDifferentCombination() {
+        GeneDiseaseCombination geneDiseaseCombo = new GeneDiseaseCombination(gene, disease, score1);
+        GeneDiseaseCombination otherGeneDiseaseCombo = new GeneDiseaseCombination(gene2, disease, score1);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> geneDiseaseCombo.addAll(otherGeneDiseaseCombo));
+    }
+
+    @Test
+    void lazyPubmedEvidenceLoadedWhenNeeded() {
+        PubmedEvidence evidence = new PubmedEvidence(URI.create("http://identifiers.org/pubmed/1"), year1);
+        List<Collection<GeneDiseaseCombination>> loaded = new ArrayList<>();
+        GeneDiseaseCombination geneDiseaseCombo = new GeneDiseaseCombination(gene, disease, score1);
+        geneDiseaseCombo.set(source1, 1);
+        geneDiseaseCombo.setPubmedEvidenceLoader(gdcs -> {
+            loaded.add(new ArrayList<>(gdcs));
+            gdcs.forEach(gdc -> gdc.addPubmedEvidence(source1, Collections.singleton(evidence)));
+        });
+
+        // Sources counts (and modifying them) do not require the evidence.
+        geneDiseaseCombo.add(source2);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(Double.valueOf(score1), geneDiseaseCombo.getDisgenetScore()),
+                () -> Assertions.assertEquals(1, geneDiseaseCombo.getCountForSource(source1)),
+                () -> Assertions.assertEquals(2, geneDiseaseCombo.getSourcesCount().size()),
+                () -> Assertions.assertFalse(geneDiseaseCombo.isPubmedEvidenceLoaded()),
+                () -> Assertions.assertTrue(loaded.isEmpty())
+        );
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(Collections.singleton(evidence), geneDiseaseCombo.getAllPubmedEvidence()),
+                () -> Assertions.assertTrue(geneDiseaseCombo.isPubmedEvidenceLoaded()),
+                () -> Assertions.assertEquals(1, geneDiseaseCombo.getCountForSource(source1)),
+                () -> Assertions.assertEquals(Collections.singletonList(Collections.singletonList(geneDiseaseCombo)), loaded)
+        );
+    }
+
+    @Test
+    void lazyPubmedEvidenceLoadedAtOnce() {
+        PubmedEvidence evidence = new PubmedEvidence(URI.create("http://identifiers.org/pubmed/1"), year1);
+        List<Collection<GeneDiseaseCombination>> loaded = new ArrayList<>();
+        PubmedEvidenceLoader loader = gdcs -> {
+            loaded.add(new ArrayList<>(gdcs));
+            gdcs.forEach(gdc -> gdc.addPubmedEvidence(source1, Collections.singleton(evidence)));
+        };
+        GeneDiseaseCombination geneDiseaseCombo1 = new GeneDiseaseCombination(gene, disease, score1);
+        GeneDiseaseCombination geneDiseaseCombo2 = new GeneDiseaseCombination(gene2, disease2, score2);
+        geneDiseaseCombo1.set(source1, 1);
+        geneDiseaseCombo2.set(source1, 1);
+        geneDiseaseCombo1.setPubmedEvidenceLoader(loader);
+        geneDiseaseCombo2.setPubmedEvidenceLoader(loader);
+
+        GeneDiseaseCombination.loadPubmedEvidence(Arrays.asList(geneDiseaseCombo1, geneDiseaseCombo2));
+        GeneDiseaseCombination.loadPubmedEvidence(Arrays.asList(geneDiseaseCombo1, geneDiseaseCombo2));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, loaded.size()),
+                () -> Assertions.assertEquals(2, loaded.get(0).size()),
+                () -> Assertions.assertEquals(Collections.singleton(evidence), geneDiseaseCombo1.getAllPubmedEvidence()),
+                () -> Assertions.assertEquals(Collections.singleton(evidence), geneDiseaseCombo2.getAllPubmedEvidence())
+        );
+    }
+
+    @Test
+    void lazyPubmedEvidenceRetriedAfterFailure() {
+        PubmedEvidence evidence = new PubmedEvidence(URI.create("http://identifiers.org/pubmed/1"), year1);
+        int[] attempts = {0};
+        GeneDiseaseCombination geneDiseaseCombo = new GeneDiseaseCombination(gene, disease, score1);
+        geneDiseaseCombo.set(source1, 1);
+        geneDiseaseCombo.setPubmedEvidenceLoader(gdcs -> {
+            if(attempts[0]++ == 0) {
+                throw new IllegalStateException("failed");
+            }
+            gdcs.forEach(gdc -> gdc.addPubmedEvidence(source1, Collections.singleton(evidence)));
+        });
+
+        Assertions.assertThrows(IllegalStateException.class, geneDiseaseCombo::getAllPubmedEvidence);
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(geneDiseaseCombo.isPubmedEvidenceLoaded()),
+                () -> Assertions.assertEquals(Collections.singleton(evidence),
+                        geneDiseaseCombo.getPubmedEvidenceForSource(source1)),
+                () -> Assertions.assertEquals(2, attempts[0])
+        );
+    }
+
+    @Test
+    void addAllOfNotLoadedPubmedEvidence() {
+        GeneDiseaseCombination geneDiseaseCombo = new GeneDiseaseCombination(gene, disease, score1);
+        GeneDiseaseCombination otherGeneDiseaseCombo = new GeneDiseaseCombination(gene, disease, score1);
+        otherGeneDiseaseCombo.set(source1, 1);
+        otherGeneDiseaseCombo.setPubmedEvidenceLoader(gdcs -> Assertions.fail("Evidence should not be loaded."));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> geneDiseaseCombo.addAll(otherGeneDiseaseCombo));
+    }
+
+    @Test
+    void addPubmedEvidenceExceedingCount() {
+        GeneDiseaseCombination geneDiseaseCombo = new GeneDiseaseCombination(gene, disease, score1);
+        geneDiseaseCombo.set(source1, 1);
+        Set<PubmedEvidence> evidence = new HashSet<>(Arrays.asList(
+                new PubmedEvidence(URI.create("http://identifiers.org/pubmed/1"), year1),
+                new PubmedEvidence(URI.create("http://identifiers.org/pubmed/2"), year2)));
+
+        Assertions.assertAll(
+                () -> Assertions.assertThrows(IllegalArgumentException.class,
+                        () -> geneDiseaseCombo.addPubmedEvidence(source1, evidence)),
+                () -> Assertions.assertNull(geneDiseaseCombo.getPubmedEvidenceForSource(source1))
+        );
+    }
 }
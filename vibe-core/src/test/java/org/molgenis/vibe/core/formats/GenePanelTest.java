@@ -0,0 +1,54 @@
+package org.molgenis.vibe.core.formats;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+class GenePanelTest {
+    @Test
+    void containsById() {
+        GenePanel genePanel = new GenePanel(Collections.singleton(new Gene("ncbigene:1111111")),
+                Collections.emptySet());
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(genePanel.contains(new Gene("ncbigene:1111111", new GeneSymbol("hgnc:AAA")))),
+                () -> Assertions.assertFalse(genePanel.contains(new Gene("ncbigene:2222222", new GeneSymbol("hgnc:BBB"))))
+        );
+    }
+
+    @Test
+    void containsBySymbol() {
+        GenePanel genePanel = new GenePanel(Collections.emptySet(), Collections.singleton(new GeneSymbol("hgnc:AAA")));
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(genePanel.contains(new Gene("ncbigene:1111111", new GeneSymbol("hgnc:AAA")))),
+                () -> Assertions.assertFalse(genePanel.contains(new Gene("ncbigene:2222222", new GeneSymbol("hgnc:BBB")))),
+                () -> Assertions.assertFalse(genePanel.contains(new Gene("ncbigene:1111111")))
+        );
+    }
+
+    @Test
+    void unmodifiable() {
+        Set<Gene> genes = new HashSet<>(Collections.singleton(new Gene("ncbigene:1111111")));
+        GenePanel genePanel = new GenePanel(genes, Collections.emptySet());
+        genes.add(new Gene("ncbigene:2222222"));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, genePanel.size()),
+                () -> Assertions.assertThrows(UnsupportedOperationException.class,
+                        () -> genePanel.getGenes().add(new Gene("ncbigene:3333333")))
+        );
+    }
+
+    @Test
+    void isEmpty() {
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(new GenePanel(Collections.emptySet(), Collections.emptySet()).isEmpty()),
+                () -> Assertions.assertFalse(new GenePanel(Collections.emptySet(),
+                        Collections.singleton(new GeneSymbol("hgnc:AAA"))).isEmpty())
+        );
+    }
+}
@@ -0,0 +1,52 @@
+package org.molgenis.vibe.core.io.input;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class FileChecksumTest {
+    private static final int SAMPLE_SIZE = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void fullChecksumDetectsChangeInMiddle() throws IOException {
+        byte[] bytes = new byte[SAMPLE_SIZE * 4];
+        Path file = Files.write(tempDir.resolve("file"), bytes);
+        String fullChecksum = FileChecksum.calculate(file);
+        String sampleChecksum = FileChecksum.calculate(file, SAMPLE_SIZE);
+
+        bytes[bytes.length / 2] = 1;
+        Files.write(file, bytes);
+
+        Assertions.assertAll(
+                () -> Assertions.assertNotEquals(fullChecksum, FileChecksum.calculate(file)),
+                // Only the start & end of the file are part of the sampled checksum.
+                () -> Assertions.assertEquals(sampleChecksum, FileChecksum.calculate(file, SAMPLE_SIZE))
+        );
+    }
+
+    @Test
+    void fullChecksumOfEqualFiles() throws IOException {
+        byte[] bytes = new byte[SAMPLE_SIZE * 100 + 1];
+        bytes[SAMPLE_SIZE] = 1;
+        Path file1 = Files.write(tempDir.resolve("file1"), bytes);
+        Path file2 = Files.write(tempDir.resolve("file2"), bytes);
+
+        Assertions.assertEquals(FileChecksum.calculate(file1), FileChecksum.calculate(file2));
+    }
+
+    @Test
+    void fullChecksumOfEmptyFile() throws IOException {
+        Path file = Files.createFile(tempDir.resolve("file"));
+
+        // SHA-256 of no data.
+        Assertions.assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                FileChecksum.calculate(file));
+    }
+}
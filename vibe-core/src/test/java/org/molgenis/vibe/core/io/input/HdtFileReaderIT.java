@@ -25,4 +25,11 @@ class HdtFileReaderIT {
     void checkIfModelIsNotEmpty() {
         Assertions.assertFalse(reader.getModel().isEmpty());
     }
+
+    @Test
+    void checkIfMappedModelEqualsLoadedModel() throws IOException {
+        try (HdtFileReader mappedReader = new HdtFileReader(TestData.HDT.getFullPath(), true)) {
+            Assertions.assertEquals(reader.getModel().size(), mappedReader.getModel().size());
+        }
+    }
 }
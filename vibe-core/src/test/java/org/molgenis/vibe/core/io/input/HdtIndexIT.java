@@ -0,0 +1,117 @@
+package org.molgenis.vibe.core.io.input;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.molgenis.vibe.core.TestData;
+import org.rdfhdt.hdt.hdt.HDTVocabulary;
+import org.rdfhdt.hdt.options.ControlInfo;
+import org.rdfhdt.hdt.options.ControlInformation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class HdtIndexIT {
+    @TempDir
+    static Path tempDir;
+
+    private static HdtIndex builtIndex;
+    private static AtomicInteger progressNotifications = new AtomicInteger();
+    private static HdtFileReader reader;
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        builtIndex = HdtIndex.inDirectory(TestData.HDT.getFullPath(), tempDir.resolve("cache"));
+        builtIndex.build((level, message) -> progressNotifications.incrementAndGet());
+        reader = new HdtFileReader(TestData.HDT.getFullPathString());
+    }
+
+    @AfterAll
+    static void afterAll() {
+        reader.close();
+    }
+
+    @Test
+    void buildInOtherDirectory() {
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(tempDir.resolve("cache").resolve("vibe.hdt.index.v1-1"), builtIndex.getIndexFile()),
+                () -> Assertions.assertTrue(builtIndex.exists()),
+                () -> Assertions.assertTrue(progressNotifications.get() > 0),
+                () -> Assertions.assertDoesNotThrow(() -> builtIndex.verify(null))
+        );
+    }
+
+    @Test
+    void verifyDefaultIndex() {
+        HdtIndex hdtIndex = new HdtIndex(TestData.HDT.getFullPath());
+        Assertions.assertDoesNotThrow(() -> hdtIndex.verify(null));
+    }
+
+    @Test
+    void readUsingBuiltIndex() throws IOException {
+        try (HdtFileReader indexReader = new HdtFileReader(TestData.HDT.getFullPath(), builtIndex.getIndexFile(), false)) {
+            Assertions.assertEquals(reader.getModel().size(), indexReader.getModel().size());
+        }
+    }
+
+    @Test
+    void readMappedUsingBuiltIndex() throws IOException {
+        try (HdtFileReader indexReader = new HdtFileReader(TestData.HDT.getFullPath(), builtIndex.getIndexFile(), true)) {
+            Assertions.assertEquals(reader.getModel().size(), indexReader.getModel().size());
+        }
+    }
+
+    @Test
+    void readUsingNonExistingIndex() {
+        Path indexFile = tempDir.resolve("non-existing.index.v1-1");
+        Exception exception = Assertions.assertThrows(IOException.class,
+                () -> new HdtFileReader(TestData.HDT.getFullPath(), indexFile, false));
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("non-existing.index.v1-1 is not a readable file.", exception.getMessage()),
+                // Index should never be generated when it is stored separately.
+                () -> Assertions.assertFalse(Files.exists(indexFile))
+        );
+    }
+
+    @Test
+    void verifyNonIndexFile() throws IOException {
+        Path indexFile = tempDir.resolve("hdt-copy.index.v1-1");
+        Files.copy(TestData.HDT.getFullPath(), indexFile);
+
+        Exception exception = Assertions.assertThrows(IOException.class,
+                () -> new HdtIndex(TestData.HDT.getFullPath(), indexFile).verify(null));
+        Assertions.assertEquals("hdt-copy.index.v1-1 is not a HDT index file.", exception.getMessage());
+    }
+
+    @Test
+    void verifyIndexOfOtherHdt() throws IOException {
+        Path indexFile = tempDir.resolve("other.index.v1-1");
+        ControlInfo ci = new ControlInformation();
+        ci.setType(ControlInfo.Type.INDEX);
+        ci.setFormat(HDTVocabulary.INDEX_TYPE_FOQ);
+        ci.setInt("numTriples", 1);
+        try (OutputStream out = Files.newOutputStream(indexFile)) {
+            ci.save(out);
+        }
+
+        HdtIndex hdtIndex = new HdtIndex(TestData.HDT.getFullPath(), indexFile);
+        Exception exception = Assertions.assertThrows(IOException.class, () -> hdtIndex.verify(null));
+        Assertions.assertTrue(exception.getMessage().startsWith("other.index.v1-1 contains 1 triples while vibe.hdt contains "));
+    }
+
+    @Test
+    void verifyTruncatedIndex() throws IOException {
+        Path indexFile = tempDir.resolve("truncated.index.v1-1");
+        byte[] bytes = Files.readAllBytes(builtIndex.getIndexFile());
+        Files.write(indexFile, Arrays.copyOf(bytes, bytes.length / 2));
+
+        HdtIndex hdtIndex = new HdtIndex(TestData.HDT.getFullPath(), indexFile);
+        Assertions.assertThrows(IOException.class, () -> hdtIndex.verify(null));
+    }
+}
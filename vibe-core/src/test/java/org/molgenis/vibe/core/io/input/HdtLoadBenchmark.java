@@ -0,0 +1,124 @@
+package org.molgenis.vibe.core.io.input;
+
+import org.apache.jena.rdf.model.StmtIterator;
+import org.molgenis.vibe.core.TestData;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares loading a HDT file into memory ({@link ModelReaderFactory#HDT}) with memory-mapping it
+ * ({@link ModelReaderFactory#HDT_MAPPED}). For each mode the time needed for opening the HDT and the resident set size
+ * (RSS) & used Java heap of the process are reported, both directly after opening the HDT and after iterating over all
+ * its statements. Each mode is run in a separate JVM so that they do not influence each other's memory usage. The
+ * index of the HDT file should already exist. Not run as part of the tests.
+ * <br /><br />
+ * The RSS is read from {@code /proc/self/status} and is therefore only available on Linux. Note that the RSS of a
+ * memory-mapped HDT includes the (shareable) pages of the HDT file that were accessed.
+ * <br /><br />
+ * Usage: {@code HdtLoadBenchmark [hdt-file [runs]]} (defaults to the test database and 5 runs per mode).
+ */
+class HdtLoadBenchmark {
+    private static final int DEFAULT_RUNS = 5;
+    private static final String FORMAT = "%-12s %10s %12s %12s %12s %12s";
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String hdt = args.length > 0 ? args[0] : TestData.HDT.getFullPathString();
+        if(args.length > 2) {
+            measure(Paths.get(hdt), ModelReaderFactory.valueOf(args[2]));
+            return;
+        }
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_RUNS;
+
+        System.out.println("hdt: " + hdt + " (" + Files.size(Paths.get(hdt)) / 1024 + " KiB)");
+        System.out.println(String.format(FORMAT, "", "load", "rss (load)", "heap (load)", "rss (scan)", "heap (scan)"));
+        for(ModelReaderFactory modelReaderFactory : Arrays.asList(ModelReaderFactory.HDT,
+                ModelReaderFactory.HDT_MAPPED)) {
+            for(int i = 0; i < runs; i++) {
+                runSeparateJvm(hdt, modelReaderFactory);
+            }
+        }
+    }
+
+    /**
+     * Runs {@link #measure(Path, ModelReaderFactory)} in a new JVM using the same classpath.
+     */
+    private static void runSeparateJvm(String hdt, ModelReaderFactory modelReaderFactory)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(HdtLoadBenchmark.class.getName());
+        command.add(hdt);
+        command.add("1");
+        command.add(modelReaderFactory.name());
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                System.out.println(line);
+            }
+        }
+        if(process.waitFor() != 0) {
+            throw new IOException("Benchmark of " + modelReaderFactory + " failed.");
+        }
+    }
+
+    private static void measure(Path hdt, ModelReaderFactory modelReaderFactory) throws IOException {
+        long start = System.nanoTime();
+        try (ModelReader reader = modelReaderFactory.readDatabase(hdt)) {
+            double load = (System.nanoTime() - start) / 1e6;
+            String rssLoad = readRss();
+            String heapLoad = usedHeap();
+
+            long statements = 0;
+            StmtIterator iterator = reader.getModel().listStatements();
+            while(iterator.hasNext()) {
+                iterator.next();
+                statements++;
+            }
+            if(statements == 0) {
+                throw new IOException("HDT does not contain any statements.");
+            }
+
+            System.out.println(String.format(FORMAT, modelReaderFactory, String.format("%.1f ms", load), rssLoad,
+                    heapLoad, readRss(), usedHeap()));
+        }
+    }
+
+    /**
+     * @return the used Java heap (after a garbage collection)
+     */
+    private static String usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / 1024 + " KiB";
+    }
+
+    /**
+     * @return the resident set size of this process, or {@code n/a} if not available
+     */
+    private static String readRss() throws IOException {
+        Path status = Paths.get("/proc/self/status");
+        if(!Files.exists(status)) {
+            return "n/a";
+        }
+        for(String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+            if(line.startsWith("VmRSS:")) {
+                return line.substring("VmRSS:".length()).trim().replace("kB", "KiB");
+            }
+        }
+        return "n/a";
+    }
+}
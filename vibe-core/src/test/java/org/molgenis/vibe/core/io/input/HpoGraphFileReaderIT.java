@@ -0,0 +1,37 @@
+package org.molgenis.vibe.core.io.input;
+
+import org.apache.jena.riot.RiotException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.ontology_processing.HpoGraph;
+import org.molgenis.vibe.core.ontology_processing.HpoGraphBuilder;
+
+class HpoGraphFileReaderIT {
+    @Test
+    void testValidGraph() {
+        HpoGraph graph = new HpoGraphFileReader(TestData.HPO_OWL.getFullPathString()).getGraph();
+        Assertions.assertTrue(graph.getTermCount() > 0);
+    }
+
+    @Test
+    void testEqualToModel() {
+        HpoGraph expected;
+        try (OntologyModelFilesReader reader = new OntologyModelFilesReader(TestData.HPO_OWL.getFullPathString())) {
+            expected = HpoGraphBuilder.build(reader.getModel());
+        }
+        Assertions.assertEquals(expected, new HpoGraphFileReader(TestData.HPO_OWL.getFullPathString()).getGraph());
+    }
+
+    @Test
+    void testInvalidFileFormat() {
+        String inputFileString = TestData.EXISTING_TSV.getFullPathString();
+        Assertions.assertThrows(RiotException.class, () -> new HpoGraphFileReader(inputFileString));
+    }
+
+    @Test
+    void testInvalidFileUsingCorrectFormat() {
+        String inputFileString = TestData.FAKE_HPO_OWL.getFullPathString();
+        Assertions.assertThrows(RiotException.class, () -> new HpoGraphFileReader(inputFileString));
+    }
+}
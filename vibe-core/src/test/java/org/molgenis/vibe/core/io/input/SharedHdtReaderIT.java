@@ -0,0 +1,57 @@
+package org.molgenis.vibe.core.io.input;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.TestData;
+
+import java.io.IOException;
+
+class SharedHdtReaderIT {
+    @Test
+    void readersShareHdt() throws IOException {
+        try (SharedHdtReader sharedReader = new SharedHdtReader(TestData.HDT.getFullPath(), null, false);
+             ModelReader reader1 = sharedReader.acquire();
+             ModelReader reader2 = sharedReader.acquire()) {
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(2, sharedReader.getActiveReaders()),
+                    // Each concurrent reader has its own graph.
+                    () -> Assertions.assertNotSame(reader1.getModel().getGraph(), reader2.getModel().getGraph()),
+                    () -> Assertions.assertEquals(reader1.getModel().size(), reader2.getModel().size())
+            );
+        }
+    }
+
+    @Test
+    void closedReaderGraphIsReused() throws IOException {
+        try (SharedHdtReader sharedReader = new SharedHdtReader(TestData.HDT.getFullPath(), null, true)) {
+            ModelReader reader1 = sharedReader.acquire();
+            Object graph = reader1.getModel().getGraph();
+            reader1.close();
+            // Closing twice should not release the graph again.
+            reader1.close();
+
+            try (ModelReader reader2 = sharedReader.acquire()) {
+                Assertions.assertAll(
+                        () -> Assertions.assertEquals(1, sharedReader.getActiveReaders()),
+                        () -> Assertions.assertSame(graph, reader2.getModel().getGraph())
+                );
+            }
+        }
+    }
+
+    @Test
+    void readersUsableAfterClose() throws IOException {
+        SharedHdtReader sharedReader = new SharedHdtReader(TestData.HDT.getFullPath(), null, false);
+        ModelReader reader = sharedReader.acquire();
+        sharedReader.close();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, sharedReader.getActiveReaders()),
+                () -> Assertions.assertFalse(reader.getModel().isEmpty()),
+                () -> Assertions.assertThrows(IllegalStateException.class, sharedReader::acquire)
+        );
+
+        reader.close();
+        Assertions.assertEquals(0, sharedReader.getActiveReaders());
+    }
+}
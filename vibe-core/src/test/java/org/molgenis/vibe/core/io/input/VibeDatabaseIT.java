@@ -0,0 +1,108 @@
+package org.molgenis.vibe.core.io.input;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.GeneDiseaseCollectionRetrievalRunner;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.formats.GeneDiseaseCollection;
+import org.molgenis.vibe.core.formats.Phenotype;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.molgenis.vibe.core.database_processing.RetrieverTestData.phenotypes;
+
+/**
+ * Stress test for concurrent retrievals from a single opened {@link VibeDatabase}.
+ */
+class VibeDatabaseIT {
+    private static final int THREADS = 8;
+    private static final int RETRIEVALS = 64;
+
+    private static final List<Set<Phenotype>> PHENOTYPE_SETS = Arrays.asList(
+            phenotypes("hp:0008438"),
+            phenotypes("hp:0008000"),
+            phenotypes("hp:0008100", "hp:0008200"),
+            phenotypes("hp:0008300", "hp:0008400", "hp:0008438"),
+            phenotypes("hp:0008050", "hp:0008150", "hp:0008250", "hp:0008350"),
+            phenotypes("hp:0000001")
+    );
+
+    /**
+     * Results when retrieving each phenotype set separately from its own {@link ModelReader}.
+     */
+    private static List<GeneDiseaseCollection> expected = new ArrayList<>();
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        VibeDatabase vibeDatabase = new VibeDatabase(TestData.HDT.getFullPath(), ModelReaderFactory.HDT);
+        for(Set<Phenotype> phenotypes : PHENOTYPE_SETS) {
+            expected.add(new GeneDiseaseCollectionRetrievalRunner(vibeDatabase, phenotypes).call());
+        }
+        // Ensures the stress test actually compares retrieved data.
+        Assertions.assertFalse(expected.get(0).getGeneDiseaseCombinations().isEmpty());
+    }
+
+    @Test
+    void concurrentRetrievalsLoaded() throws Exception {
+        assertConcurrentRetrievals(ModelReaderFactory.HDT);
+    }
+
+    @Test
+    void concurrentRetrievalsMapped() throws Exception {
+        assertConcurrentRetrievals(ModelReaderFactory.HDT_MAPPED);
+    }
+
+    @Test
+    void openAndClose() throws IOException {
+        VibeDatabase vibeDatabase = new VibeDatabase(TestData.HDT.getFullPath(), ModelReaderFactory.HDT);
+        Assertions.assertFalse(vibeDatabase.isOpen());
+
+        vibeDatabase.open();
+        Assertions.assertTrue(vibeDatabase.isOpen());
+        ModelReader reader = vibeDatabase.getModelReader();
+
+        // Readers retrieved while opened stay usable after closing the database.
+        vibeDatabase.close();
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(vibeDatabase.isOpen()),
+                () -> Assertions.assertFalse(reader.getModel().isEmpty())
+        );
+        reader.close();
+
+        // A closed database can still be used (loading the database per reader).
+        try (ModelReader separateReader = vibeDatabase.getModelReader()) {
+            Assertions.assertFalse(separateReader.getModel().isEmpty());
+        }
+    }
+
+    private void assertConcurrentRetrievals(ModelReaderFactory modelReaderFactory) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try (VibeDatabase vibeDatabase = new VibeDatabase(TestData.HDT.getFullPath(), modelReaderFactory)) {
+            vibeDatabase.open();
+
+            // All threads start at the same time to maximize concurrent access.
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<GeneDiseaseCollection>> futures = new ArrayList<>();
+            for(int i = 0; i < RETRIEVALS; i++) {
+                Set<Phenotype> phenotypes = PHENOTYPE_SETS.get(i % PHENOTYPE_SETS.size());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return new GeneDiseaseCollectionRetrievalRunner(vibeDatabase, phenotypes).call();
+                }));
+            }
+            start.countDown();
+
+            for(int i = 0; i < RETRIEVALS; i++) {
+                GeneDiseaseCollection expectedCollection = expected.get(i % PHENOTYPE_SETS.size());
+                GeneDiseaseCollection actualCollection = futures.get(i).get(60, TimeUnit.SECONDS);
+                Assertions.assertEquals(expectedCollection, actualCollection);
+                Assertions.assertTrue(expectedCollection.allFieldsEquals(actualCollection));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -25,6 +25,18 @@ class VibeDatabaseTest {
         Assertions.assertDoesNotThrow(() -> new VibeDatabase(hdtFile, ModelReaderFactory.HDT));
     }
 
+    @Test
+    void testWritableDirWithIndexMapped() {
+        Path hdtFile = TestData.FAKE_HDT_WITH_INDEX.getFullPath();
+        Assertions.assertDoesNotThrow(() -> new VibeDatabase(hdtFile, ModelReaderFactory.HDT_MAPPED));
+    }
+
+    @Test
+    void testWritableDirWithoutIndexMapped() {
+        Path hdtFile = TestData.FAKE_HDT_WITHOUT_INDEX.getFullPath();
+        Assertions.assertDoesNotThrow(() -> new VibeDatabase(hdtFile, ModelReaderFactory.HDT_MAPPED));
+    }
+
     @Test
     @Tag("skipOnJenkins")
     void testUnreadableHdtInWritableDir() {
@@ -101,4 +113,43 @@ class VibeDatabaseTest {
         Exception exception = Assertions.assertThrows(IOException.class, () -> new VibeDatabase(hdtFile, ModelReaderFactory.HDT) );
         Assertions.assertEquals("Invalid database. Please check if " + hdtFile.getFileName() + " is a readable .hdt file.", exception.getMessage());
     }
+
+    @Test
+    void testOnlyIndexFileGivenAsInputMapped() {
+        Path hdtFile = TestData.FAKE_HDT_INDEX_ONLY_INDEX.getFullPath();
+
+        Exception exception = Assertions.assertThrows(IOException.class, () -> new VibeDatabase(hdtFile, ModelReaderFactory.HDT_MAPPED) );
+        Assertions.assertEquals("Invalid database. Please check if " + hdtFile.getFileName() + " is a readable .hdt file.", exception.getMessage());
+    }
+
+    @Test
+    void testSeparateIndex() {
+        Path hdtFile = TestData.FAKE_HDT_WITHOUT_INDEX.getFullPath();
+        Path indexFile = TestData.FAKE_HDT_INDEX_ONLY_INDEX.getFullPath();
+        Assertions.assertDoesNotThrow(() -> new VibeDatabase(hdtFile, ModelReaderFactory.HDT, indexFile));
+    }
+
+    @Test
+    void testNonExistingSeparateIndex() {
+        Path hdtFile = TestData.FAKE_HDT_WITH_INDEX.getFullPath();
+        Path indexFile = Paths.get(TestData.FAKE_HDT_INDEX_ONLY_INDEX.getFullPath().getParent().toString() + "/other.hdt.index.v1-1");
+
+        Exception exception = Assertions.assertThrows(IOException.class, () -> new VibeDatabase(hdtFile, ModelReaderFactory.HDT, indexFile));
+        Assertions.assertEquals("Invalid index. Please check if " + indexFile.getFileName() + " is a readable index file.", exception.getMessage());
+    }
+
+    @Test
+    @Tag("skipOnJenkins")
+    void testReadonlyDirWithSeparateIndex() {
+        Path hdtFile = TestData.FAKE_HDT_WITHOUT_INDEX.getFullPath();
+        Path indexFile = TestData.FAKE_HDT_INDEX_ONLY_INDEX.getFullPath();
+
+        try {
+            hdtFile.getParent().toFile().setWritable(false);
+
+            Assertions.assertDoesNotThrow(() -> new VibeDatabase(hdtFile, ModelReaderFactory.HDT_MAPPED, indexFile));
+        } finally { // Reset any permission changes made.
+            hdtFile.getParent().toFile().setWritable(true);
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package org.molgenis.vibe.core.ontology_processing;
+
+import org.apache.jena.ontology.OntClass;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.formats.PhenotypeNetwork;
+import org.molgenis.vibe.core.io.input.OntologyModelFilesReader;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares the time needed for retrieving the (grand)children of high-level phenotypes through the former recursive
+ * traversal (which expands a term once for every path leading to it), the breadth-first {@link ChildrenRetriever} and
+ * the {@link HpoGraphChildrenRetriever}. Not run as part of the tests.
+ * <br /><br />
+ * Usage: {@code ChildrenRetrieverBenchmark [hpo-owl-file [phenotype...]]} (defaults to the test ontology and
+ * {@code HP:0000118}). Each phenotype is measured at distances 1 to 10.
+ */
+class ChildrenRetrieverBenchmark {
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+    private static final int MAX_DISTANCE = 10;
+
+    public static void main(String[] args) {
+        String hpo = args.length > 0 ? args[0] : TestData.HPO_OWL.getFullPathString();
+        String[] phenotypeIds = args.length > 1 ? Arrays.copyOfRange(args, 1, args.length)
+                : new String[]{"HP:0000118"};
+
+        OntologyModelFilesReader reader = new OntologyModelFilesReader(hpo);
+        try {
+            OntModel model = reader.getModel();
+            HpoGraph graph = HpoGraphBuilder.build(model);
+            System.out.println(String.format("%-12s %8s %8s %12s %12s %12s", "phenotype", "distance", "found",
+                    "recursive", "iterative", "graph"));
+
+            for(String phenotypeId : phenotypeIds) {
+                Phenotype phenotype = new Phenotype(phenotypeId);
+                List<Phenotype> input = Collections.singletonList(phenotype);
+                for(int distance = 1; distance <= MAX_DISTANCE; distance++) {
+                    int maxDistance = distance;
+                    int[] found = new int[1];
+                    double recursive = measure(() -> {
+                        PhenotypeNetwork network = new PhenotypeNetwork(phenotype);
+                        recursiveTraverse(model.getOntClass(phenotype.getUri().toString()), network, 0,
+                                maxDistance);
+                    });
+                    double iterative = measure(() -> {
+                        ChildrenRetriever retriever = new ChildrenRetriever(model, input, maxDistance);
+                        retriever.run();
+                        found[0] = retriever.getPhenotypeNetworkCollection().getPhenotypeNetworkBySource(phenotype)
+                                .getPhenotypes().size();
+                    });
+                    double graphBased = measure(() ->
+                            new HpoGraphChildrenRetriever(graph, input, maxDistance).run());
+                    System.out.println(String.format("%-12s %8d %8d %9.2f ms %9.2f ms %9.2f ms", phenotypeId,
+                            distance, found[0], recursive, iterative, graphBased));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * The traversal as used by {@link ChildrenRetriever} before it became breadth-first.
+     */
+    private static void recursiveTraverse(OntClass phenotypeOC, PhenotypeNetwork network, int distance,
+                                          int maxDistance) {
+        network.add(new Phenotype(URI.create(phenotypeOC.getURI())), distance);
+
+        int nextDistance = distance + 1;
+        if(nextDistance <= maxDistance) {
+            for (ExtendedIterator<OntClass> it = phenotypeOC.listSubClasses(); it.hasNext(); ) {
+                recursiveTraverse(it.next(), network, nextDistance, maxDistance);
+            }
+        }
+    }
+
+    /**
+     * @return the average time in milliseconds per run
+     */
+    private static double measure(Runnable runnable) {
+        for(int i = 0; i < WARMUP_RUNS; i++) {
+            runnable.run();
+        }
+        long start = System.nanoTime();
+        for(int i = 0; i < MEASURED_RUNS; i++) {
+            runnable.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / MEASURED_RUNS;
+    }
+}
@@ -0,0 +1,106 @@
+package org.molgenis.vibe.core.ontology_processing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.io.input.FileChecksum;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+class CompiledHpoGraphIT {
+    @TempDir
+    Path tempDir;
+
+    private static HpoGraph expectedGraph;
+
+    @BeforeAll
+    static void beforeAll() {
+        expectedGraph = CompiledHpoGraph.compile(TestData.HPO_OWL.getFullPath());
+        Assertions.assertTrue(expectedGraph.getTermCount() > 0);
+    }
+
+    @Test
+    void compiledFileWrittenAndRead() throws IOException {
+        Path ontologyFile = copyOntology();
+        Path compiledFile = CompiledHpoGraph.defaultFile(ontologyFile);
+
+        Assertions.assertEquals(expectedGraph, CompiledHpoGraph.load(ontologyFile));
+        Assertions.assertTrue(Files.isRegularFile(compiledFile));
+
+        // Read directly from the compiled file (without parsing the ontology).
+        String checksum = FileChecksum.calculate(ontologyFile);
+        HpoGraph graph = CompiledHpoGraph.read(compiledFile, checksum);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(expectedGraph, graph),
+                () -> Assertions.assertArrayEquals(expectedGraph.getChildStarts(), graph.getChildStarts()),
+                () -> Assertions.assertArrayEquals(expectedGraph.getChildren(), graph.getChildren()),
+                () -> Assertions.assertEquals(expectedGraph, CompiledHpoGraph.load(ontologyFile))
+        );
+    }
+
+    @Test
+    void compiledFileOfOtherOntologyIgnored() throws IOException {
+        Path ontologyFile = copyOntology();
+        Path compiledFile = CompiledHpoGraph.defaultFile(ontologyFile);
+        CompiledHpoGraph.load(ontologyFile);
+        byte[] oldCompiledFile = Files.readAllBytes(compiledFile);
+
+        // Changes the ontology file so that the compiled file belongs to a different ontology file.
+        Files.write(ontologyFile, "\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        String checksum = FileChecksum.calculate(ontologyFile);
+        Assertions.assertNull(CompiledHpoGraph.read(compiledFile, checksum));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(expectedGraph, CompiledHpoGraph.load(ontologyFile)),
+                () -> Assertions.assertFalse(Arrays.equals(oldCompiledFile, Files.readAllBytes(compiledFile))),
+                () -> Assertions.assertNotNull(CompiledHpoGraph.read(compiledFile, checksum))
+        );
+    }
+
+    @Test
+    void invalidCompiledFileReplaced() throws IOException {
+        Path ontologyFile = copyOntology();
+        Path compiledFile = CompiledHpoGraph.defaultFile(ontologyFile);
+        Files.write(compiledFile, "invalid".getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(expectedGraph, CompiledHpoGraph.load(ontologyFile)),
+                () -> Assertions.assertEquals(expectedGraph, CompiledHpoGraph.read(compiledFile,
+                        FileChecksum.calculate(ontologyFile)))
+        );
+    }
+
+    @Test
+    void truncatedCompiledFileIgnored() throws IOException {
+        Path ontologyFile = copyOntology();
+        Path compiledFile = CompiledHpoGraph.defaultFile(ontologyFile);
+        CompiledHpoGraph.load(ontologyFile);
+        byte[] bytes = Files.readAllBytes(compiledFile);
+        Files.write(compiledFile, Arrays.copyOf(bytes, bytes.length - Integer.BYTES));
+
+        String checksum = FileChecksum.calculate(ontologyFile);
+        Assertions.assertNull(CompiledHpoGraph.read(compiledFile, checksum));
+    }
+
+    @Test
+    void compiledFileNotWritable() throws IOException {
+        Path ontologyFile = copyOntology();
+        Path compiledFile = tempDir.resolve("nonExistingDir").resolve("hp.owl" + CompiledHpoGraph.FILE_SUFFIX);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(expectedGraph, CompiledHpoGraph.load(ontologyFile, compiledFile)),
+                () -> Assertions.assertFalse(Files.exists(compiledFile))
+        );
+    }
+
+    private Path copyOntology() throws IOException {
+        return Files.copy(TestData.HPO_OWL.getFullPath(), tempDir.resolve("hp.owl"));
+    }
+}
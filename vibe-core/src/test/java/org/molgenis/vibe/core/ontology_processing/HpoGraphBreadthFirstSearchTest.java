@@ -0,0 +1,115 @@
+package org.molgenis.vibe.core.ontology_processing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.formats.PhenotypeNetwork;
+
+class HpoGraphBreadthFirstSearchTest {
+    private static final String HPO = "http://purl.obolibrary.org/obo/HP_";
+
+    /**
+     * <pre>
+     *        1
+     *      /   \
+     *     2     3
+     *      \   / \
+     *        4    5
+     *        |
+     *        6
+     * </pre>
+     * Together with 100 unrelated terms (1000 to 1099), so that the terms are spread over multiple bitset words.
+     */
+    private static HpoGraph createGraph() {
+        HpoGraphBuilder builder = new HpoGraphBuilder();
+        builder.addSubClassOf(HPO + "0000002", HPO + "0000001");
+        builder.addSubClassOf(HPO + "0000003", HPO + "0000001");
+        builder.addSubClassOf(HPO + "0000004", HPO + "0000002");
+        builder.addSubClassOf(HPO + "0000004", HPO + "0000003");
+        builder.addSubClassOf(HPO + "0000005", HPO + "0000003");
+        builder.addSubClassOf(HPO + "0000006", HPO + "0000004");
+        for(int i = 1000; i < 1100; i++) {
+            builder.addTerm(HPO + String.format("%07d", i));
+        }
+        builder.addSubClassOf(HPO + "0001099", HPO + "0000006");
+        return builder.build();
+    }
+
+    private static PhenotypeNetwork search(HpoGraphBreadthFirstSearch search, HpoGraph graph, String source,
+                                           int maxDistance) {
+        Phenotype phenotype = new Phenotype(source);
+        PhenotypeNetwork network = new PhenotypeNetwork(phenotype);
+        search.search(graph.findTerm(phenotype), maxDistance, network);
+        return network;
+    }
+
+    private static PhenotypeNetwork createNetwork(String source, String[]... phenotypesPerDistance) {
+        PhenotypeNetwork network = new PhenotypeNetwork(new Phenotype(source));
+        for(int distance = 1; distance <= phenotypesPerDistance.length; distance++) {
+            for(String phenotype : phenotypesPerDistance[distance - 1]) {
+                network.add(new Phenotype(phenotype), distance);
+            }
+        }
+        return network;
+    }
+
+    @Test
+    void childrenOnly() {
+        HpoGraph graph = createGraph();
+        HpoGraphBreadthFirstSearch search = new HpoGraphBreadthFirstSearch(graph, false);
+        PhenotypeNetwork expected = createNetwork("hp:0000001",
+                new String[]{"hp:0000002", "hp:0000003"},
+                new String[]{"hp:0000004", "hp:0000005"},
+                new String[]{"hp:0000006"});
+
+        Assertions.assertEquals(expected, search(search, graph, "hp:0000001", 3));
+    }
+
+    @Test
+    void parentsAndChildren() {
+        HpoGraph graph = createGraph();
+        HpoGraphBreadthFirstSearch search = new HpoGraphBreadthFirstSearch(graph, true);
+        PhenotypeNetwork expected = createNetwork("hp:0000004",
+                new String[]{"hp:0000002", "hp:0000003", "hp:0000006"},
+                new String[]{"hp:0000001", "hp:0000005", "hp:0001099"});
+
+        Assertions.assertEquals(expected, search(search, graph, "hp:0000004", 2));
+    }
+
+    @Test
+    void distanceZero() {
+        HpoGraph graph = createGraph();
+        HpoGraphBreadthFirstSearch search = new HpoGraphBreadthFirstSearch(graph, true);
+
+        Assertions.assertEquals(createNetwork("hp:0000004"), search(search, graph, "hp:0000004", 0));
+    }
+
+    @Test
+    void distanceBeyondGraph() {
+        HpoGraph graph = createGraph();
+        HpoGraphBreadthFirstSearch search = new HpoGraphBreadthFirstSearch(graph, false);
+        PhenotypeNetwork expected = createNetwork("hp:0000003",
+                new String[]{"hp:0000004", "hp:0000005"},
+                new String[]{"hp:0000006"},
+                new String[]{"hp:0001099"});
+
+        Assertions.assertEquals(expected, search(search, graph, "hp:0000003", 10));
+    }
+
+    /**
+     * A search that stops at the maximum distance (with terms left in the next level) should not influence the next
+     * search.
+     */
+    @Test
+    void reusedBetweenSearches() {
+        HpoGraph graph = createGraph();
+        HpoGraphBreadthFirstSearch search = new HpoGraphBreadthFirstSearch(graph, true);
+        search(search, graph, "hp:0000001", 1);
+        search(search, graph, "hp:0001099", 2);
+        PhenotypeNetwork expected = createNetwork("hp:0000005",
+                new String[]{"hp:0000003"},
+                new String[]{"hp:0000001", "hp:0000004"});
+
+        Assertions.assertEquals(expected, search(search, graph, "hp:0000005", 2));
+    }
+}
@@ -0,0 +1,98 @@
+package org.molgenis.vibe.core.ontology_processing;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.molgenis.vibe.core.formats.Phenotype;
+
+class HpoGraphBuilderTest {
+    private static final String HPO = "http://purl.obolibrary.org/obo/HP_";
+
+    /**
+     * <pre>
+     *        1
+     *      /   \
+     *    118   2000    (UPHENO_0000001 as additional parent of 118)
+     *      \   /  \
+     *      3000   4000
+     * </pre>
+     * And 5000 without any relations.
+     */
+    private static HpoGraph createGraph() {
+        HpoGraphBuilder builder = new HpoGraphBuilder();
+        builder.addSubClassOf(HPO + "0003000", HPO + "0000118");
+        builder.addSubClassOf(HPO + "0003000", HPO + "0002000");
+        builder.addSubClassOf(HPO + "0004000", HPO + "0002000");
+        builder.addSubClassOf(HPO + "0000118", HPO + "0000001");
+        builder.addSubClassOf(HPO + "0002000", HPO + "0000001");
+        builder.addSubClassOf(HPO + "0000118", "http://purl.obolibrary.org/obo/UPHENO_0000001");
+        // Duplicate relation.
+        builder.addSubClassOf(HPO + "0003000", HPO + "0000118");
+        builder.addTerm(HPO + "0005000");
+        return builder.build();
+    }
+
+    @Test
+    void termsSortedById() {
+        HpoGraph graph = createGraph();
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(6, graph.getTermCount()),
+                () -> Assertions.assertEquals(5, graph.getRelationCount()),
+                () -> Assertions.assertArrayEquals(new int[]{1, 118, 2000, 3000, 4000, 5000}, graph.getTermIds()),
+                () -> Assertions.assertEquals(1, graph.findTerm(new Phenotype("hp:0000118"))),
+                () -> Assertions.assertEquals(-1, graph.findTerm(new Phenotype("hp:0000002"))),
+                () -> Assertions.assertEquals(new Phenotype("hp:0002000"), graph.getPhenotype(2))
+        );
+    }
+
+    @Test
+    void parentsAndChildren() {
+        HpoGraph graph = createGraph();
+        Assertions.assertAll(
+                () -> Assertions.assertArrayEquals(new int[]{0, 0, 1, 2, 4, 5, 5}, graph.getParentStarts()),
+                () -> Assertions.assertArrayEquals(new int[]{0, 0, 1, 2, 2}, graph.getParents()),
+                () -> Assertions.assertArrayEquals(new int[]{0, 2, 3, 5, 5, 5, 5}, graph.getChildStarts()),
+                () -> Assertions.assertArrayEquals(new int[]{1, 2, 3, 3, 4}, graph.getChildren())
+        );
+    }
+
+    @Test
+    void nonHpoTermsIgnored() {
+        HpoGraphBuilder builder = new HpoGraphBuilder();
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(builder.addTerm("http://purl.obolibrary.org/obo/UPHENO_0000001")),
+                () -> Assertions.assertFalse(builder.addTerm(HPO)),
+                () -> Assertions.assertFalse(builder.addTerm(HPO + "000000a")),
+                () -> Assertions.assertFalse(builder.addSubClassOf(HPO + "0000118",
+                        "http://purl.obolibrary.org/obo/UPHENO_0000001")),
+                () -> Assertions.assertEquals(0, builder.build().getTermCount())
+        );
+    }
+
+    @Test
+    void buildFromModel() {
+        Model model = ModelFactory.createDefaultModel();
+        Resource root = model.createResource(HPO + "0000001").addProperty(RDF.type, OWL.Class);
+        model.createResource(HPO + "0000118").addProperty(RDF.type, OWL.Class).addProperty(RDFS.subClassOf, root)
+                .addProperty(RDFS.subClassOf, model.createResource()); // anonymous superclass (such as a restriction)
+        model.createResource(HPO + "0005000").addProperty(RDF.type, OWL.Class);
+
+        HpoGraphBuilder builder = new HpoGraphBuilder();
+        builder.addSubClassOf(HPO + "0000118", HPO + "0000001");
+        builder.addTerm(HPO + "0005000");
+
+        Assertions.assertEquals(builder.build(), HpoGraphBuilder.build(model));
+    }
+
+    @Test
+    void invalidGraph() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new HpoGraph(new int[]{1, 2}, new int[]{0, 1, 1}, new int[]{2}, new int[]{0, 0, 1},
+                        new int[]{0}));
+    }
+}
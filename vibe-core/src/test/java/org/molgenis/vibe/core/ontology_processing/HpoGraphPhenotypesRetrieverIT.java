@@ -0,0 +1,91 @@
+package org.molgenis.vibe.core.ontology_processing;
+
+import org.apache.jena.ontology.OntModel;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.io.input.OntologyModelFilesReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Validates that the {@link HpoGraphPhenotypesRetriever}{@code s} give the same results as the
+ * {@link OntModelPhenotypesRetriever}{@code s}.
+ */
+class HpoGraphPhenotypesRetrieverIT {
+    /**
+     * Maximum number of phenotypes (spread over the ontology) to compare.
+     */
+    private static final int PHENOTYPES_TO_COMPARE = 40;
+
+    private static final int MAX_DISTANCE = 3;
+
+    private static OntologyModelFilesReader reader;
+    private static HpoGraph graph;
+    private static List<Phenotype> phenotypes;
+
+    @BeforeAll
+    static void beforeAll() {
+        reader = new OntologyModelFilesReader(TestData.HPO_OWL.getFullPathString());
+        graph = HpoGraphBuilder.build(reader.getModel());
+
+        phenotypes = new ArrayList<>();
+        int step = Math.max(1, graph.getTermCount() / PHENOTYPES_TO_COMPARE);
+        for(int term = 0; term < graph.getTermCount(); term += step) {
+            phenotypes.add(graph.getPhenotype(term));
+        }
+    }
+
+    @AfterAll
+    static void afterAll() {
+        reader.close();
+    }
+
+    /**
+     * Phenotypes for which the {@link OntModelPhenotypesRetriever} fails (for example due to an anonymous superclass
+     * or a child from another ontology) are skipped, as the {@link HpoGraph} does not contain these classes.
+     */
+    @ParameterizedTest
+    @EnumSource(PhenotypesRetrieverFactory.class)
+    void compareWithOntModel(PhenotypesRetrieverFactory factory) {
+        OntModel model = reader.getModel();
+        int compared = 0;
+        for(Phenotype phenotype : phenotypes) {
+            for(int distance = 0; distance <= MAX_DISTANCE; distance++) {
+                List<Phenotype> input = Collections.singletonList(phenotype);
+                PhenotypesRetriever expectedRetriever = factory.create(model, input, distance);
+                try {
+                    expectedRetriever.run();
+                } catch (RuntimeException e) {
+                    break;
+                }
+                PhenotypesRetriever actualRetriever = factory.create(graph, input, distance);
+                actualRetriever.run();
+
+                Assertions.assertEquals(expectedRetriever.getPhenotypeNetworkCollection(),
+                        actualRetriever.getPhenotypeNetworkCollection(), phenotype.getId() + " distance " + distance);
+                compared++;
+            }
+        }
+        Assertions.assertTrue(compared > phenotypes.size(), "too few phenotypes compared: " + compared);
+    }
+
+    @ParameterizedTest
+    @EnumSource(PhenotypesRetrieverFactory.class)
+    void phenotypeNotInOntology(PhenotypesRetrieverFactory factory) {
+        List<Phenotype> input = new ArrayList<>();
+        input.add(graph.getPhenotype(0));
+        input.add(new Phenotype("hp:9999999"));
+        PhenotypesRetriever retriever = factory.create(graph, input, MAX_DISTANCE);
+
+        Exception exception = Assertions.assertThrows(IllegalArgumentException.class, retriever::run);
+        Assertions.assertEquals("Phenotype hp:9999999 is not present within the HPO ontology.",
+                exception.getMessage());
+    }
+}
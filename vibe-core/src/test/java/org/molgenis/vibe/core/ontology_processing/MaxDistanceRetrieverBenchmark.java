@@ -0,0 +1,127 @@
+package org.molgenis.vibe.core.ontology_processing;
+
+import org.molgenis.vibe.core.TestData;
+import org.molgenis.vibe.core.formats.Phenotype;
+import org.molgenis.vibe.core.formats.PhenotypeNetwork;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the time needed for retrieving the phenotype networks of a cohort of patients through the former
+ * {@link HpoGraphMaxDistanceRetriever} traversal (allocating a visited array & queue per input phenotype) to the
+ * {@link HpoGraphBreadthFirstSearch} now used by it. Not run as part of the tests.
+ * <br /><br />
+ * Usage: {@code MaxDistanceRetrieverBenchmark [hpo-owl-file [patients [phenotypes-per-patient]]]} (defaults to the
+ * test ontology and 100 patients with 20 random phenotypes each). The cohort is measured at distances 1 to 5.
+ */
+class MaxDistanceRetrieverBenchmark {
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 10;
+    private static final int MAX_DISTANCE = 5;
+
+    public static void main(String[] args) {
+        String hpo = args.length > 0 ? args[0] : TestData.HPO_OWL.getFullPathString();
+        int patients = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int phenotypesPerPatient = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        HpoGraph graph = CompiledHpoGraph.compile(Paths.get(hpo));
+        List<List<Phenotype>> cohort = createCohort(graph, patients, phenotypesPerPatient);
+        System.out.println(graph + ", patients: " + patients + ", phenotypes per patient: " + phenotypesPerPatient);
+        System.out.println(String.format("%-8s %10s %12s %12s", "distance", "found", "queue", "bitset"));
+
+        for(int distance = 1; distance <= MAX_DISTANCE; distance++) {
+            int maxDistance = distance;
+            long[] found = new long[1];
+            double queue = measure(() -> {
+                for(List<Phenotype> patient : cohort) {
+                    for(Phenotype phenotype : patient) {
+                        PhenotypeNetwork network = new PhenotypeNetwork(phenotype);
+                        queueTraverse(graph, graph.findTerm(phenotype), maxDistance, network);
+                    }
+                }
+            });
+            double bitset = measure(() -> {
+                found[0] = 0;
+                for(List<Phenotype> patient : cohort) {
+                    HpoGraphMaxDistanceRetriever retriever = new HpoGraphMaxDistanceRetriever(graph, patient,
+                            maxDistance);
+                    retriever.run();
+                    for(Phenotype phenotype : patient) {
+                        found[0] += retriever.getPhenotypeNetworkCollection().getPhenotypeNetworkBySource(phenotype)
+                                .getPhenotypes().size();
+                    }
+                }
+            });
+            System.out.println(String.format("%-8d %10d %9.2f ms %9.2f ms", distance, found[0], queue, bitset));
+        }
+    }
+
+    /**
+     * @return {@code patients} lists of {@code phenotypesPerPatient} randomly chosen (with a fixed seed) phenotypes
+     */
+    private static List<List<Phenotype>> createCohort(HpoGraph graph, int patients, int phenotypesPerPatient) {
+        Random random = new Random(patients);
+        List<List<Phenotype>> cohort = new ArrayList<>();
+        for(int i = 0; i < patients; i++) {
+            List<Phenotype> patient = new ArrayList<>();
+            for(int j = 0; j < phenotypesPerPatient; j++) {
+                patient.add(graph.getPhenotype(random.nextInt(graph.getTermCount())));
+            }
+            cohort.add(patient);
+        }
+        return cohort;
+    }
+
+    /**
+     * The traversal as used by {@link HpoGraphMaxDistanceRetriever} before {@link HpoGraphBreadthFirstSearch}.
+     */
+    private static void queueTraverse(HpoGraph graph, int source, int maxDistance, PhenotypeNetwork network) {
+        boolean[] visited = new boolean[graph.getTermCount()];
+        int[] queue = new int[graph.getTermCount()];
+        int head = 0;
+        int tail = 0;
+
+        visited[source] = true;
+        queue[tail++] = source;
+        for(int distance = 1; distance <= maxDistance && head < tail; distance++) {
+            int levelEnd = tail;
+            while(head < levelEnd) {
+                int term = queue[head++];
+                for(int i = graph.getParentStart(term); i < graph.getParentEnd(term); i++) {
+                    tail = visit(graph, graph.getParent(i), network, distance, visited, queue, tail);
+                }
+                for(int i = graph.getChildStart(term); i < graph.getChildEnd(term); i++) {
+                    tail = visit(graph, graph.getChild(i), network, distance, visited, queue, tail);
+                }
+            }
+        }
+    }
+
+    private static int visit(HpoGraph graph, int term, PhenotypeNetwork network, int distance, boolean[] visited,
+                             int[] queue, int tail) {
+        if(visited[term]) {
+            return tail;
+        }
+        visited[term] = true;
+        queue[tail] = term;
+        network.add(graph.getPhenotype(term), distance);
+        return tail + 1;
+    }
+
+    /**
+     * @return the average time in milliseconds per run
+     */
+    private static double measure(Runnable runnable) {
+        for(int i = 0; i < WARMUP_RUNS; i++) {
+            runnable.run();
+        }
+        long start = System.nanoTime();
+        for(int i = 0; i < MEASURED_RUNS; i++) {
+            runnable.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / MEASURED_RUNS;
+    }
+}